@@ -27,6 +27,8 @@ public abstract class AbstractCloudSpannerConnection extends AbstractCloudSpanne
     implements ICloudSpannerConnection {
   static final String CONNECTION_CLOSED = "Connection closed";
 
+  private SQLWarning warnings;
+
   protected void checkClosed() throws SQLException {
     if (isClosed()) {
       throw new CloudSpannerSQLException(CONNECTION_CLOSED, Code.FAILED_PRECONDITION);
@@ -62,12 +64,21 @@ public abstract class AbstractCloudSpannerConnection extends AbstractCloudSpanne
 
   @Override
   public SQLWarning getWarnings() throws SQLException {
-    return checkClosedAndReturnNull();
+    checkClosed();
+    return warnings;
   }
 
   @Override
   public void clearWarnings() throws SQLException {
     checkClosed();
+    warnings = null;
+  }
+
+  protected void addWarning(SQLWarning warning) {
+    if (warnings == null)
+      warnings = warning;
+    else
+      warnings.setNextWarning(warning);
   }
 
   @Override
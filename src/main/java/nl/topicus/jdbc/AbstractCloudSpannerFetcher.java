@@ -36,6 +36,9 @@ public abstract class AbstractCloudSpannerFetcher extends AbstractCloudSpannerWr
   }
 
   /**
+   * A fetch size larger than zero on a statement causes the result sets of the statement to read
+   * ahead at most the given number of rows on a background thread. Changing the fetch size of a
+   * result set that has already been created has no effect.
    * 
    * @param rows The number of rows to fetch
    * @throws SQLException Cannot be thrown by this method, but is added to the method signature in
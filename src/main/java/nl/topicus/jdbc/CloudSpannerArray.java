@@ -8,11 +8,17 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import com.google.common.base.Preconditions;
 import com.google.rpc.Code;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 
 /**
- * Implementation of java.sql.Array for Google Cloud Spanner
+ * Implementation of java.sql.Array for Google Cloud Spanner. Arrays of BOOL, INT64 and FLOAT64
+ * that have been read from a result set and that do not contain any NULL elements are stored as
+ * primitive arrays, which means that {@link #getArray()} returns a <code>boolean[]</code>,
+ * <code>long[]</code> or <code>double[]</code> for these arrays. All other arrays are stored as
+ * arrays of the Java class of the element type, for example <code>Long[]</code> for INT64 arrays
+ * that contain NULL elements.
  * 
  * @author loite
  *
@@ -40,6 +46,25 @@ public class CloudSpannerArray implements Array {
     return new CloudSpannerArray(type, elements);
   }
 
+  /**
+   * Creates an array that is backed by the given Java array. The array is not copied.
+   * 
+   * @param type The type of the elements of the array
+   * @param data A primitive array or an array of the Java class of the type
+   * @return An array that is backed by the given data
+   */
+  public static CloudSpannerArray createArray(CloudSpannerDataType type, Object data) {
+    Preconditions.checkNotNull(type);
+    Preconditions.checkArgument(data != null && data.getClass().isArray(),
+        "data must be an array");
+    return new CloudSpannerArray(type, data);
+  }
+
+  private CloudSpannerArray(CloudSpannerDataType type, Object data) {
+    this.type = type;
+    this.data = data;
+  }
+
   private CloudSpannerArray(CloudSpannerDataType type, Object[] elements) throws SQLException {
     this.type = type;
     this.data = java.lang.reflect.Array.newInstance(type.getJavaClass(), elements.length);
@@ -77,6 +102,16 @@ public class CloudSpannerArray implements Array {
     return type.getSqlType();
   }
 
+  /**
+   * Returns the elements of this array. The returned array is a primitive array (for example
+   * <code>long[]</code>) for BOOL, INT64 and FLOAT64 arrays that have been read from a result set
+   * and that do not contain any NULL elements. It is an array of the boxed type (for example
+   * <code>Long[]</code>) if the array contains one or more NULL elements. Callers that read these
+   * arrays should therefore handle both cases.
+   * 
+   * @return The elements of this array as a Java array
+   * @throws SQLException if {@link #free()} has been called
+   */
   @Override
   public Object getArray() throws SQLException {
     checkFree();
@@ -98,7 +133,7 @@ public class CloudSpannerArray implements Array {
   @Override
   public Object getArray(long index, int count, Map<String, Class<?>> map) throws SQLException {
     checkFree();
-    Object res = java.lang.reflect.Array.newInstance(type.getJavaClass(), count);
+    Object res = java.lang.reflect.Array.newInstance(data.getClass().getComponentType(), count);
     System.arraycopy(data, (int) index - 1, res, 0, count);
 
     return res;
@@ -133,11 +168,23 @@ public class CloudSpannerArray implements Array {
     this.data = null;
   }
 
+  /**
+   * @return The elements of this array as an Object[]. Primitive arrays are boxed.
+   */
+  private static Object[] toObjectArray(Object data) {
+    if (data == null || data instanceof Object[])
+      return (Object[]) data;
+    Object[] res = new Object[java.lang.reflect.Array.getLength(data)];
+    for (int index = 0; index < res.length; index++)
+      res[index] = java.lang.reflect.Array.get(data, index);
+    return res;
+  }
+
   @Override
   public String toString() {
     StringJoiner joiner = new StringJoiner(",", "{", "}");
     if (data != null) {
-      for (Object o : (Object[]) data) {
+      for (Object o : toObjectArray(data)) {
         if (o == null) {
           joiner.add("null");
         } else {
@@ -154,12 +201,12 @@ public class CloudSpannerArray implements Array {
       return false;
     CloudSpannerArray array = (CloudSpannerArray) other;
     return this.type == array.type
-        && Arrays.deepEquals((Object[]) this.data, (Object[]) array.data);
+        && Arrays.deepEquals(toObjectArray(this.data), toObjectArray(array.data));
   }
 
   @Override
   public int hashCode() {
-    return this.type.hashCode() ^ Arrays.deepHashCode((Object[]) data);
+    return this.type.hashCode() ^ Arrays.deepHashCode(toObjectArray(data));
   }
 
 }
@@ -12,6 +12,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
 import java.sql.Savepoint;
 import java.sql.Statement;
 import java.util.ArrayList;
@@ -23,7 +24,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONTokener;
@@ -39,11 +46,14 @@ import com.google.cloud.spanner.BatchClient;
 import com.google.cloud.spanner.DatabaseAdminClient;
 import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.DatabaseId;
+import com.google.cloud.spanner.ErrorCode;
 import com.google.cloud.spanner.Instance;
 import com.google.cloud.spanner.Operation;
 import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.SessionPoolOptions;
 import com.google.cloud.spanner.Spanner;
 import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerOptions;
 import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.StructField;
@@ -55,12 +65,14 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.rpc.Code;
 import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
+import io.grpc.Context.CancellableContext;
 import nl.topicus.jdbc.MetaDataStore.TableKeyMetaData;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
 import nl.topicus.jdbc.statement.CloudSpannerPreparedStatement;
 import nl.topicus.jdbc.statement.CloudSpannerStatement;
 import nl.topicus.jdbc.transaction.CloudSpannerTransaction;
+import nl.topicus.jdbc.util.CloudSpannerSerializationUtil;
 
 /**
  * JDBC Driver for Google Cloud Spanner.
@@ -106,6 +118,14 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
 
   private static final String GOOGLE_CLOUD_STORAGE_PREFIX = "gs://";
 
+  /**
+   * The default number of bytes of row data that a scrollable result set keeps in memory
+   */
+  public static final long DEFAULT_SCROLLABLE_RESULT_SET_MEMORY_THRESHOLD = 16L * 1024L * 1024L;
+
+  private static final com.google.cloud.spanner.Statement VALIDATION_QUERY =
+      com.google.cloud.spanner.Statement.of("SELECT 1");
+
   private final CloudSpannerDriver driver;
 
   private final CloudSpannerDatabaseSpecification database;
@@ -118,6 +138,20 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
 
   private DatabaseAdminClient adminClient;
 
+  /**
+   * The key of the database that is used for the schema meta data and DDL-batches that are shared
+   * with other connections to the same database
+   */
+  private String databaseKey;
+
+  private DatabaseId databaseId;
+
+  /**
+   * The warm-up of the session pool that was started or joined by this connection, or
+   * <code>null</code> if this connection did not request a warm-up
+   */
+  private CompletableFuture<Void> warmUpCompletion;
+
   private boolean autoCommit = true;
 
   private boolean closed;
@@ -151,6 +185,24 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
   private boolean reportDefaultSchemaAsNull = true;
   private boolean useCustomHost = false;
 
+  private boolean originalUseSchemaSnapshot;
+  private boolean useSchemaSnapshot;
+  private long scrollableResultSetMemoryThreshold =
+      DEFAULT_SCROLLABLE_RESULT_SET_MEMORY_THRESHOLD;
+
+  /**
+   * The number of milliseconds after a successful call during which {@link #isValid(int)} does not
+   * need to execute a query
+   */
+  private long originalValidationWindow = 0L;
+  private long validationWindow = 0L;
+
+  /**
+   * The time of the last successful call on the {@link Spanner} instance of this connection. This
+   * value is shared with all other connections that use the same {@link Spanner} instance.
+   */
+  private AtomicLong lastSuccessfulCall;
+
   private String simulateProductName;
   private Integer simulateMajorVersion;
   private Integer simulateMinorVersion;
@@ -206,6 +258,14 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
   CloudSpannerConnection(CloudSpannerDriver driver, String url,
       CloudSpannerDatabaseSpecification database, String credentialsPath, String oauthToken,
       Properties suppliedProperties, boolean useCustomHost) throws SQLException {
+    this(driver, url, database, credentialsPath, oauthToken, suppliedProperties, useCustomHost,
+        SessionPoolSettings.DEFAULT);
+  }
+
+  CloudSpannerConnection(CloudSpannerDriver driver, String url,
+      CloudSpannerDatabaseSpecification database, String credentialsPath, String oauthToken,
+      Properties suppliedProperties, boolean useCustomHost,
+      SessionPoolSettings sessionPoolSettings) throws SQLException {
     this.driver = driver;
     this.database = database;
     this.url = url;
@@ -217,6 +277,7 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
       logger.setLogLevel(logLevel);
     }
 
+    boolean opened = false;
     try {
       Credentials credentials = null;
       if (credentialsPath != null) {
@@ -247,20 +308,29 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
         }
         host = url.substring("jdbc:cloudspanner:".length(), endIndex);
       }
-      spanner = driver.getSpanner(database.project, credentials, host);
-      dbClient = spanner.getDatabaseClient(
-          DatabaseId.of(spanner.getOptions().getProjectId(), database.instance, database.database));
-      BatchClient batchClient = spanner.getBatchClient(
-          DatabaseId.of(spanner.getOptions().getProjectId(), database.instance, database.database));
+      spanner = driver.getSpanner(database.project, credentials, host, sessionPoolSettings);
+      lastSuccessfulCall = driver.getLastSuccessfulCall(spanner);
+      databaseId =
+          DatabaseId.of(spanner.getOptions().getProjectId(), database.instance, database.database);
+      dbClient = spanner.getDatabaseClient(databaseId);
+      BatchClient batchClient = spanner.getBatchClient(databaseId);
       adminClient = spanner.getDatabaseAdminClient();
       transaction = new CloudSpannerTransaction(dbClient, batchClient, this);
-      metaDataStore = new MetaDataStore(this);
+      databaseKey = spanner.getOptions().getHost() + "/" + databaseId.getName();
+      metaDataStore =
+          new MetaDataStore(this, CloudSpannerDriver.getSchemaMetaDataCache(), databaseKey);
+      opened = true;
     } catch (SpannerException e) {
       throw new CloudSpannerSQLException(
           "Error when opening Google Cloud Spanner connection: " + e.getMessage(), e);
     } catch (IOException e) {
       throw new CloudSpannerSQLException(
           "Error when opening Google Cloud Spanner connection: " + e.getMessage(), Code.UNKNOWN, e);
+    } finally {
+      // Release the reference to the Spanner instance on any failure, as the connection will never
+      // be closed
+      if (!opened && spanner != null)
+        driver.releaseSpanner(spanner);
     }
   }
 
@@ -338,6 +408,10 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
     return spanner;
   }
 
+  DatabaseClient getDbClient() {
+    return dbClient;
+  }
+
   public String getSimulateProductName() {
     return simulateProductName;
   }
@@ -380,17 +454,28 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
     if (!getAutoCommit())
       commit();
     // Check for IF [NOT] EXISTS statements
-    List<String> sql = getActualSql(inputSql);
-    if (!sql.isEmpty()) {
+    List<DDLStatement> statements = getActualStatements(inputSql);
+    if (!statements.isEmpty()) {
+      List<String> sql =
+          statements.stream().map(DDLStatement::getSql).collect(Collectors.toList());
+      // The schema of the database changes, so any meta data derived from it must be reloaded
+      metaDataStore.clear();
+      DdlBatcher batcher = CloudSpannerDriver.getDdlBatcher();
+      if (!asyncDdlOperations && databaseKey != null && batcher.isEnabled())
+        return executeBatchedDDL(batcher, statements, sql);
       try {
         Operation<Void, UpdateDatabaseDdlMetadata> operation =
             adminClient.updateDatabaseDdl(database.instance, database.database, sql, null);
         if (asyncDdlOperations) {
-          operations.addOperation(sql, operation);
+          // Other connections may load meta data while the statements are running
+          operations.addOperation(sql, operation)
+              .whenComplete((result, error) -> metaDataStore.clear());
         } else {
           do {
             operation = operation.waitFor();
           } while (!operation.isDone());
+          // Other connections may have loaded meta data while the statements were running
+          metaDataStore.clear();
         }
         return operation.getResult();
       } catch (SpannerException e) {
@@ -401,15 +486,41 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
     return null;
   }
 
-  private List<String> getActualSql(List<String> sql) throws SQLException {
-    List<DDLStatement> statements = DDLStatement.parseDdlStatements(sql);
-    List<String> actualSql = new ArrayList<>(sql.size());
-    for (DDLStatement statement : statements) {
-      if (statement.shouldExecute(this)) {
-        actualSql.add(statement.getSql());
-      }
+  /**
+   * Executes DDL-statements as part of a batch of the driver-wide {@link DdlBatcher} and waits for
+   * the batch to finish.
+   */
+  private Void executeBatchedDDL(DdlBatcher batcher, List<DDLStatement> statements,
+      List<String> sql) throws SQLException {
+    try {
+      // Only connections that use the same client, and therefore the same credentials, may share a
+      // batch
+      batcher.submit(Arrays.asList(spanner, databaseKey), statements,
+          batch -> adminClient.updateDatabaseDdl(database.instance, database.database, batch,
+              null))
+          .get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CloudSpannerSQLException(
+          "Interrupted while waiting for DDL statement(s) " + String.join("\n;\n", sql),
+          Code.CANCELLED, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof SpannerException)
+        throw new CloudSpannerSQLException("Could not execute DDL statement(s) "
+            + String.join("\n;\n", sql) + ": " + e.getCause().getMessage(),
+            (SpannerException) e.getCause());
+      throw new CloudSpannerSQLException("Could not execute DDL statement(s) "
+          + String.join("\n;\n", sql) + ": " + e.getCause().getMessage(), Code.UNKNOWN,
+          e.getCause());
     }
-    return actualSql;
+    // Other connections may have loaded meta data while the statements were running
+    metaDataStore.clear();
+    return null;
+  }
+
+  private List<DDLStatement> getActualStatements(List<String> sql) throws SQLException {
+    List<DDLStatement> statements = DDLStatement.parseDdlStatements(sql);
+    return DDLStatement.selectStatementsToExecute(this, statements);
   }
 
   /**
@@ -429,6 +540,63 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
    */
   public void waitForDdlOperations() throws SQLException {
     operations.waitForOperations();
+    // Meta data may have been loaded while the operations were still running
+    metaDataStore.clear();
+  }
+
+  /**
+   * Returns a future that is completed when all asynchronous DDL-operations that have been issued
+   * by this connection and that have not yet been cleared have finished. This can be used to
+   * register a callback instead of blocking on {@link #waitForDdlOperations()}. The future is also
+   * completed normally if one or more of the operations failed. The errors of the operations are
+   * returned by {@link #getRunningDDLOperations(CloudSpannerStatement)}.
+   * 
+   * @return A future that is completed when all DDL-operations have finished
+   */
+  public CompletableFuture<Void> getDdlOperationsCompletion() {
+    return operations.getCompletion().thenRun(metaDataStore::clear);
+  }
+
+  /**
+   * Warms up the session pool of the database of this connection, unless the database has already
+   * been warmed up for the {@link Spanner} instance of this connection, and optionally waits for
+   * the warm-up to finish. If the warm-up does not finish within the timeout, it continues in the
+   * background.
+   * 
+   * @param sessions The number of sessions to create
+   * @param timeout The maximum number of milliseconds to wait for the warm-up. Zero means that this
+   *        method does not wait.
+   * @throws SQLException If the thread was interrupted while waiting for the warm-up
+   */
+  void warmUp(int sessions, long timeout) throws SQLException {
+    warmUpCompletion =
+        CloudSpannerDriver.getSessionPoolWarmer().warmUp(spanner, databaseId, sessions);
+    if (timeout > 0L) {
+      try {
+        warmUpCompletion.get(timeout, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CloudSpannerSQLException("Interrupted while waiting for the session pool warm-up",
+            Code.CANCELLED, e);
+      } catch (TimeoutException e) {
+        logger.info("Session pool warm-up did not finish within " + timeout + "ms");
+      } catch (ExecutionException e) {
+        logger.info("Session pool warm-up failed: " + e.getCause().getMessage(), e.getCause());
+      }
+    }
+  }
+
+  /**
+   * Returns a future that is completed when the warm-up of the session pool that was requested by
+   * the WarmUpSessions property of this connection has finished. The future is completed
+   * exceptionally if the warm-up failed. This can for example be used by a readiness probe to wait
+   * for a warm driver.
+   * 
+   * @return A future that is completed when the warm-up has finished. The future is already
+   *         completed if this connection did not request a warm-up.
+   */
+  public CompletableFuture<Void> getWarmUpCompletion() {
+    return warmUpCompletion == null ? CompletableFuture.completedFuture(null) : warmUpCompletion;
   }
 
   /**
@@ -495,6 +663,7 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
   public void commit() throws SQLException {
     checkClosed();
     lastCommitTimestamp = getTransaction().commit();
+    recordSuccessfulCall();
   }
 
   @Override
@@ -577,28 +746,46 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
   public Statement createStatement(int resultSetType, int resultSetConcurrency)
       throws SQLException {
     checkClosed();
-    return new CloudSpannerStatement(this, dbClient);
+    CloudSpannerStatement statement = new CloudSpannerStatement(this, dbClient);
+    statement.setResultSetType(resultSetType);
+    addStatementWarnings(statement);
+    return statement;
   }
 
   @Override
   public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
       throws SQLException {
     checkClosed();
-    return new CloudSpannerPreparedStatement(sql, this, dbClient);
+    CloudSpannerPreparedStatement statement = new CloudSpannerPreparedStatement(sql, this, dbClient);
+    statement.setResultSetType(resultSetType);
+    addStatementWarnings(statement);
+    return statement;
+  }
+
+  /**
+   * JDBC requires a warning on the connection when a statement is created with a result set type
+   * that is not supported. The warnings of the new statement are therefore copied to the
+   * connection.
+   */
+  private void addStatementWarnings(Statement statement) throws SQLException {
+    SQLWarning warning = statement.getWarnings();
+    while (warning != null) {
+      addWarning(
+          new SQLWarning(warning.getMessage(), warning.getSQLState(), warning.getErrorCode()));
+      warning = warning.getNextWarning();
+    }
   }
 
   @Override
   public Statement createStatement(int resultSetType, int resultSetConcurrency,
       int resultSetHoldability) throws SQLException {
-    checkClosed();
-    return new CloudSpannerStatement(this, dbClient);
+    return createStatement(resultSetType, resultSetConcurrency);
   }
 
   @Override
   public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
       int resultSetHoldability) throws SQLException {
-    checkClosed();
-    return new CloudSpannerPreparedStatement(sql, this, dbClient);
+    return prepareStatement(sql, resultSetType, resultSetConcurrency);
   }
 
   @Override
@@ -631,15 +818,55 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
 
   @Override
   public boolean isValid(int timeout) throws SQLException {
+    if (timeout < 0)
+      throw new CloudSpannerSQLException("Timeout must be greater than or equal to 0",
+          Code.INVALID_ARGUMENT);
     if (isClosed())
       return false;
-    Statement statement = createStatement();
-    statement.setQueryTimeout(timeout);
-    try (ResultSet rs = statement.executeQuery("SELECT 1")) {
-      if (rs.next())
+    if (validationWindow > 0L && lastSuccessfulCall != null) {
+      long last = lastSuccessfulCall.get();
+      if (last != 0L
+          && System.nanoTime() - last < TimeUnit.MILLISECONDS.toNanos(validationWindow))
         return true;
     }
-    return false;
+    // Execute the query directly on a single use read context, so that it is not parsed and does
+    // not use or start a transaction on this connection
+    try (CloudSpannerStatement statement = createStatement()) {
+      statement.setQueryTimeout(timeout);
+      CancellableContext context = statement.createExecutionContext();
+      try {
+        return context.call(() -> {
+          try (com.google.cloud.spanner.ResultSet rs =
+              dbClient.singleUse().executeQuery(VALIDATION_QUERY)) {
+            if (rs.next()) {
+              recordSuccessfulCall();
+              return true;
+            }
+          }
+          return false;
+        });
+      } finally {
+        context.cancel(null);
+      }
+    } catch (SpannerException e) {
+      if (e.getErrorCode() == ErrorCode.DEADLINE_EXCEEDED)
+        return false;
+      throw new CloudSpannerSQLException(e);
+    } catch (SQLException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CloudSpannerSQLException(e.getMessage(), Code.UNKNOWN, e);
+    }
+  }
+
+  /**
+   * Records that a call on the {@link Spanner} instance of this connection has succeeded. This
+   * method is called by the statements of this connection, and is used by {@link #isValid(int)}
+   * to determine whether it needs to execute a query.
+   */
+  public void recordSuccessfulCall() {
+    if (lastSuccessfulCall != null)
+      lastSuccessfulCall.lazySet(System.nanoTime());
   }
 
   @Override
@@ -652,6 +879,14 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
     return metaDataStore.getTable(name);
   }
 
+  /**
+   * 
+   * @return The store containing the schema meta data that has been loaded by this connection
+   */
+  public MetaDataStore getMetaDataStore() {
+    return metaDataStore;
+  }
+
   @Override
   public Properties getSuppliedProperties() {
     return suppliedProperties;
@@ -734,6 +969,25 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
     this.originalReportDefaultSchemaAsNull = reportDefaultSchemaAsNull;
   }
 
+  @Override
+  public boolean isUseSchemaSnapshot() {
+    return useSchemaSnapshot;
+  }
+
+  @Override
+  public int setUseSchemaSnapshot(boolean useSchemaSnapshot) {
+    this.useSchemaSnapshot = useSchemaSnapshot;
+    return 1;
+  }
+
+  boolean isOriginalUseSchemaSnapshot() {
+    return originalUseSchemaSnapshot;
+  }
+
+  void setOriginalUseSchemaSnapshot(boolean useSchemaSnapshot) {
+    this.originalUseSchemaSnapshot = useSchemaSnapshot;
+  }
+
   /**
    * Set a dynamic connection property, such as AsyncDdlOperations
    * 
@@ -745,6 +999,8 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
    */
   public int setDynamicConnectionProperty(String propertyName, String propertyValue)
       throws SQLException {
+    if (isValidationWindowProperty(propertyName))
+      return setValidationWindowProperty(propertyValue);
     return getPropertySetter(propertyName).apply(Boolean.valueOf(propertyValue));
   }
 
@@ -757,9 +1013,33 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
    * @throws SQLException Throws {@link SQLException} if a database error occurs
    */
   public int resetDynamicConnectionProperty(String propertyName) throws SQLException {
+    if (isValidationWindowProperty(propertyName)) {
+      setValidationWindow(originalValidationWindow);
+      return 1;
+    }
     return getPropertySetter(propertyName).apply(getOriginalValueGetter(propertyName).get());
   }
 
+  private static boolean isValidationWindowProperty(String propertyName) {
+    return propertyName.equalsIgnoreCase(
+        ConnectionProperties.getPropertyName(ConnectionProperties.VALIDATION_WINDOW));
+  }
+
+  private int setValidationWindowProperty(String propertyValue) throws SQLException {
+    long value;
+    try {
+      value = Long.parseLong(propertyValue);
+    } catch (NumberFormatException e) {
+      throw new CloudSpannerSQLException("Invalid value for ValidationWindow: " + propertyValue
+          + ". Expected a number of milliseconds", Code.INVALID_ARGUMENT, e);
+    }
+    if (value < 0L)
+      throw new CloudSpannerSQLException("ValidationWindow may not be negative",
+          Code.INVALID_ARGUMENT);
+    setValidationWindow(value);
+    return 1;
+  }
+
   private Supplier<Boolean> getOriginalValueGetter(String propertyName) {
     if (propertyName.equalsIgnoreCase(
         ConnectionProperties.getPropertyName(ConnectionProperties.ALLOW_EXTENDED_MODE))) {
@@ -781,6 +1061,10 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
         ConnectionProperties.getPropertyName(ConnectionProperties.BATCH_READ_ONLY_MODE))) {
       return this::isOriginalBatchReadOnly;
     }
+    if (propertyName.equalsIgnoreCase(
+        ConnectionProperties.getPropertyName(ConnectionProperties.USE_SCHEMA_SNAPSHOT))) {
+      return this::isOriginalUseSchemaSnapshot;
+    }
     // Return a no-op to avoid null checks
     return () -> false;
   }
@@ -811,6 +1095,10 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
         ConnectionProperties.getPropertyName(ConnectionProperties.BATCH_READ_ONLY_MODE))) {
       return this::setBatchReadOnly;
     }
+    if (propertyName.equalsIgnoreCase(
+        ConnectionProperties.getPropertyName(ConnectionProperties.USE_SCHEMA_SNAPSHOT))) {
+      return this::setUseSchemaSnapshot;
+    }
     // Return a no-op to avoid null checks
     return x -> 0;
   }
@@ -850,9 +1138,44 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
       values.put(ConnectionProperties.getPropertyName(ConnectionProperties.BATCH_READ_ONLY_MODE),
           String.valueOf(isBatchReadOnly()));
     }
+    if (propertyName == null || propertyName.equalsIgnoreCase(
+        ConnectionProperties.getPropertyName(ConnectionProperties.USE_SCHEMA_SNAPSHOT))) {
+      values.put(ConnectionProperties.getPropertyName(ConnectionProperties.USE_SCHEMA_SNAPSHOT),
+          String.valueOf(isUseSchemaSnapshot()));
+    }
+    if (propertyName == null || isValidationWindowProperty(propertyName)) {
+      values.put(ConnectionProperties.getPropertyName(ConnectionProperties.VALIDATION_WINDOW),
+          String.valueOf(getValidationWindow()));
+    }
+    if (spanner != null)
+      putSessionPoolSettings(values, propertyName);
     return createResultSet(statement, values);
   }
 
+  /**
+   * Adds the effective session pool and channel settings of the {@link Spanner} instance of this
+   * connection to the given values. These settings are read-only.
+   */
+  private void putSessionPoolSettings(Map<String, String> values, String propertyName) {
+    SpannerOptions options = spanner.getOptions();
+    SessionPoolOptions sessionPoolOptions = options.getSessionPoolOptions();
+    Map<String, Object> settings = new HashMap<>();
+    settings.put(ConnectionProperties.MIN_SESSIONS, sessionPoolOptions.getMinSessions());
+    settings.put(ConnectionProperties.MAX_SESSIONS, sessionPoolOptions.getMaxSessions());
+    settings.put(ConnectionProperties.WRITE_SESSIONS_FRACTION,
+        sessionPoolOptions.getWriteSessionsFraction());
+    settings.put(ConnectionProperties.KEEP_ALIVE_INTERVAL_MINUTES,
+        sessionPoolOptions.getKeepAliveIntervalMinutes());
+    settings.put(ConnectionProperties.NUM_CHANNELS, options.getRpcChannels().size());
+    settings.put(ConnectionProperties.FAIL_IF_POOL_EXHAUSTED,
+        sessionPoolOptions.isFailIfPoolExhausted());
+    for (Entry<String, Object> setting : settings.entrySet()) {
+      String name = ConnectionProperties.getPropertyName(setting.getKey());
+      if (propertyName == null || propertyName.equalsIgnoreCase(name))
+        values.put(name, String.valueOf(setting.getValue()));
+    }
+  }
+
   private ResultSet createResultSet(CloudSpannerStatement statement, Map<String, String> values)
       throws SQLException {
     List<Struct> rows = new ArrayList<>(values.size());
@@ -892,6 +1215,30 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
     return transaction == null ? null : transaction.getReadTimestamp();
   }
 
+  /**
+   *
+   * @return The id of the current batch read-only transaction serialized to a string. This id can
+   *         be handed to other connections, possibly in other processes, together with serialized
+   *         partitions of a query in this transaction. The other connections can then execute the
+   *         partitions using {@link CloudSpannerStatement#executePartition(String, String)}. A
+   *         batch read-only transaction is started if there is none running yet.
+   * @throws SQLException If the connection is not in batch read-only mode
+   */
+  @Override
+  public String getSerializedBatchTransactionId() throws SQLException {
+    checkClosed();
+    if (!isBatchReadOnly())
+      throw new CloudSpannerSQLException(
+          "The connection must be in batch read-only mode to export a batch transaction id",
+          Code.FAILED_PRECONDITION);
+    try {
+      return CloudSpannerSerializationUtil
+          .serializeBatchTransactionId(getTransaction().getBatchTransactionId());
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
+  }
+
   /**
    * 
    * @return A new connection with the same URL and properties as this connection. You can use this
@@ -1063,4 +1410,30 @@ public class CloudSpannerConnection extends AbstractCloudSpannerConnection {
     this.useCustomHost = useCustomHost;
   }
 
+  @Override
+  public long getScrollableResultSetMemoryThreshold() {
+    return scrollableResultSetMemoryThreshold;
+  }
+
+  @Override
+  public void setScrollableResultSetMemoryThreshold(long threshold) {
+    Preconditions.checkArgument(threshold >= 0L, "threshold may not be negative");
+    this.scrollableResultSetMemoryThreshold = threshold;
+  }
+
+  @Override
+  public long getValidationWindow() {
+    return validationWindow;
+  }
+
+  @Override
+  public void setValidationWindow(long validationWindow) {
+    Preconditions.checkArgument(validationWindow >= 0L, "validationWindow may not be negative");
+    this.validationWindow = validationWindow;
+  }
+
+  void setOriginalValidationWindow(long validationWindow) {
+    this.originalValidationWindow = validationWindow;
+  }
+
 }
@@ -0,0 +1,361 @@
+package nl.topicus.jdbc;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.DataSource;
+import javax.sql.PooledConnection;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.rpc.Code;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+import nl.topicus.jdbc.metadata.AbstractCloudSpannerWrapper;
+
+/**
+ * Lightweight connection pool for {@link CloudSpannerPooledConnection}s that are created by a
+ * {@link CloudSpannerConnectionPoolDataSource}. Idle connections are kept on a lock-free stack, so
+ * that the connection that was returned most recently is handed out first. The number of
+ * connections that are handed out at the same time is limited by the maximum pool size.
+ * <p>
+ * The pool uses the {@link ConnectionEventListener} events of the pooled connections to detect
+ * that a connection has been returned or has encountered a fatal error. Connections are validated
+ * without a round trip to Cloud Spanner when they are taken from the pool: a connection is only
+ * handed out if its physical connection is still open and it has not exceeded its maximum
+ * lifetime. Connections that encountered a fatal error are removed from the pool. A background task
+ * closes idle connections that have exceeded their lifetime, keeps the pool at its minimum size
+ * and, if leak detection has been enabled, logs the connections that have been borrowed for longer
+ * than the leak detection threshold together with the stack trace of the code that borrowed them.
+ *
+ * @author loite
+ *
+ */
+public class CloudSpannerConnectionPool extends AbstractCloudSpannerWrapper
+    implements DataSource, AutoCloseable {
+  private static final long HOUSEKEEPING_PERIOD_MILLIS = 1000L;
+
+  private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+  private static final class PoolEntry {
+    private final CloudSpannerPooledConnection connection;
+
+    private final long created;
+
+    private final AtomicBoolean inUse = new AtomicBoolean();
+
+    private volatile long borrowed;
+
+    private volatile Exception borrowedBy;
+
+    private volatile boolean leakReported;
+
+    private PoolEntry(CloudSpannerPooledConnection connection, long created) {
+      this.connection = connection;
+      this.created = created;
+    }
+  }
+
+  private final class PoolEventListener implements ConnectionEventListener {
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+      PoolEntry entry = entries.get(event.getSource());
+      if (entry != null)
+        release(entry, true);
+    }
+
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+      PoolEntry entry = entries.get(event.getSource());
+      if (entry != null && !release(entry, false))
+        destroy(entry);
+    }
+  }
+
+  private final CloudSpannerConnectionPoolDataSource dataSource;
+
+  private final int minPoolSize;
+
+  private final int maxPoolSize;
+
+  private final long maxLifetimeNanos;
+
+  private final long leakDetectionThresholdNanos;
+
+  private final long connectionTimeoutNanos;
+
+  private final ConcurrentLinkedDeque<PoolEntry> idle = new ConcurrentLinkedDeque<>();
+
+  private final ConcurrentMap<PooledConnection, PoolEntry> entries = new ConcurrentHashMap<>();
+
+  private final Semaphore permits;
+
+  private final PoolEventListener listener = new PoolEventListener();
+
+  private final ScheduledExecutorService housekeeper;
+
+  private final Logger logger = new Logger();
+
+  private volatile boolean closed;
+
+  /**
+   * Creates a new pool and starts the background task of the pool.
+   *
+   * @param dataSource The data source that creates the pooled connections
+   * @param minPoolSize The minimum number of connections in the pool
+   * @param maxPoolSize The maximum number of connections that may be handed out at the same time
+   * @param maxLifetimeMillis The maximum time in milliseconds that a connection may exist. Zero
+   *        means that connections are kept until they are closed by the pool for another reason.
+   * @param leakDetectionThresholdMillis The time in milliseconds after which a borrowed connection
+   *        that has not been returned is reported as a possible leak. Zero disables leak detection.
+   * @param connectionTimeoutMillis The maximum time in milliseconds that {@link #getConnection()}
+   *        waits for a connection to become available
+   */
+  CloudSpannerConnectionPool(CloudSpannerConnectionPoolDataSource dataSource, int minPoolSize,
+      int maxPoolSize, long maxLifetimeMillis, long leakDetectionThresholdMillis,
+      long connectionTimeoutMillis) {
+    Preconditions.checkNotNull(dataSource);
+    Preconditions.checkArgument(maxPoolSize > 0, "The maximum pool size must be positive");
+    Preconditions.checkArgument(minPoolSize >= 0 && minPoolSize <= maxPoolSize,
+        "The minimum pool size must be between zero and the maximum pool size");
+    Preconditions.checkArgument(maxLifetimeMillis >= 0L,
+        "The maximum lifetime may not be negative");
+    Preconditions.checkArgument(leakDetectionThresholdMillis >= 0L,
+        "The leak detection threshold may not be negative");
+    Preconditions.checkArgument(connectionTimeoutMillis >= 0L,
+        "The connection timeout may not be negative");
+    this.dataSource = dataSource;
+    this.minPoolSize = minPoolSize;
+    this.maxPoolSize = maxPoolSize;
+    this.maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(maxLifetimeMillis);
+    this.leakDetectionThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakDetectionThresholdMillis);
+    this.connectionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMillis);
+    this.permits = new Semaphore(maxPoolSize);
+    this.logger.setLogLevel(CloudSpannerDriver.getLogLevel());
+    this.housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+        .setDaemon(true).setNameFormat(
+            "Google Cloud Spanner JDBC Connection Pool-" + POOL_COUNTER.incrementAndGet() + "-%d")
+        .build());
+    this.housekeeper.scheduleWithFixedDelay(this::houseKeeping, 0L, HOUSEKEEPING_PERIOD_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Borrows a connection from the pool. The connection is returned to the pool when it is closed.
+   *
+   * @return A connection from the pool
+   * @throws SQLException If the pool has been closed, if no connection became available within the
+   *         connection timeout of the pool or if a new connection could not be created
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    checkClosed();
+    try {
+      if (!permits.tryAcquire(connectionTimeoutNanos, TimeUnit.NANOSECONDS))
+        throw new CloudSpannerSQLException(
+            "Timeout while waiting for a connection from the pool. All " + getMaxPoolSize()
+                + " connections are in use.",
+            Code.DEADLINE_EXCEEDED);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CloudSpannerSQLException("Interrupted while waiting for a connection from the pool",
+          Code.CANCELLED, e);
+    }
+    PoolEntry entry = null;
+    try {
+      while ((entry = idle.pollFirst()) != null && !isUsable(entry))
+        destroy(entry);
+      if (entry == null)
+        entry = createEntry();
+      entry.borrowed = System.nanoTime();
+      entry.borrowedBy =
+          leakDetectionThresholdNanos > 0L ? new Exception("Connection borrowed here") : null;
+      entry.leakReported = false;
+      entry.inUse.set(true);
+      return entry.connection.getConnection();
+    } catch (SQLException | RuntimeException e) {
+      // A connection that could not be handed out is not returned to the pool. The connection may
+      // already have been released by the listener if the error was fatal.
+      if (entry == null)
+        permits.release();
+      else
+        release(entry, false);
+      throw e;
+    }
+  }
+
+  /**
+   * This method will just call {@link #getConnection()} as a username and password is not needed
+   * for a connection.
+   */
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getConnection();
+  }
+
+  private PoolEntry createEntry() throws SQLException {
+    CloudSpannerPooledConnection connection = dataSource.getPooledConnection();
+    PoolEntry entry = new PoolEntry(connection, System.nanoTime());
+    entries.put(connection, entry);
+    connection.addConnectionEventListener(listener);
+    return entry;
+  }
+
+  private boolean isUsable(PoolEntry entry) {
+    return !isExpired(entry) && entry.connection.isPhysicalConnectionOpen();
+  }
+
+  private boolean isExpired(PoolEntry entry) {
+    return maxLifetimeNanos > 0L && System.nanoTime() - entry.created >= maxLifetimeNanos;
+  }
+
+  /**
+   * Returns a borrowed connection to the pool.
+   *
+   * @param entry The connection to return
+   * @param reuse Whether the connection may be handed out again
+   * @return <code>true</code> if the connection was borrowed, and <code>false</code> if it had
+   *         already been returned
+   */
+  private boolean release(PoolEntry entry, boolean reuse) {
+    if (!entry.inUse.compareAndSet(true, false))
+      return false;
+    entry.borrowedBy = null;
+    if (reuse && !closed && isUsable(entry)) {
+      idle.offerFirst(entry);
+      // The pool could have been closed while the connection was being returned
+      if (closed && idle.remove(entry))
+        destroy(entry);
+    } else {
+      destroy(entry);
+    }
+    permits.release();
+    return true;
+  }
+
+  private void destroy(PoolEntry entry) {
+    if (entries.remove(entry.connection) == null)
+      return;
+    entry.connection.removeConnectionEventListener(listener);
+    try {
+      entry.connection.close();
+    } catch (SQLException e) {
+      logger.debug("Could not close pooled connection: " + e.getMessage(), e);
+    }
+  }
+
+  private void houseKeeping() {
+    try {
+      for (PoolEntry entry : idle) {
+        if (!isUsable(entry) && idle.remove(entry))
+          destroy(entry);
+      }
+      while (!closed && entries.size() < minPoolSize) {
+        PoolEntry entry = createEntry();
+        idle.offerLast(entry);
+      }
+      if (leakDetectionThresholdNanos > 0L) {
+        long now = System.nanoTime();
+        for (PoolEntry entry : entries.values()) {
+          Exception borrowedBy = entry.borrowedBy;
+          if (entry.inUse.get() && !entry.leakReported && borrowedBy != null
+              && now - entry.borrowed >= leakDetectionThresholdNanos) {
+            entry.leakReported = true;
+            logger.log("Possible connection leak: A connection has been borrowed from the pool for "
+                + TimeUnit.NANOSECONDS.toMillis(now - entry.borrowed) + "ms", borrowedBy);
+          }
+        }
+      }
+    } catch (SQLException | RuntimeException e) {
+      logger.info("Connection pool housekeeping failed: " + e.getMessage(), e);
+    }
+  }
+
+  private void checkClosed() throws SQLException {
+    if (closed)
+      throw new CloudSpannerSQLException("This connection pool has been closed",
+          Code.FAILED_PRECONDITION);
+  }
+
+  /**
+   * Closes the pool and all idle connections in the pool. Connections that are in use are closed
+   * when they are returned to the pool.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    housekeeper.shutdownNow();
+    PoolEntry entry;
+    while ((entry = idle.pollFirst()) != null)
+      destroy(entry);
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  public int getMinPoolSize() {
+    return minPoolSize;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  /**
+   *
+   * @return The number of connections in the pool, including the connections that are in use
+   */
+  public int getTotalConnections() {
+    return entries.size();
+  }
+
+  public int getIdleConnections() {
+    return idle.size();
+  }
+
+  public int getActiveConnections() {
+    int res = 0;
+    for (PoolEntry entry : entries.values()) {
+      if (entry.inUse.get())
+        res++;
+    }
+    return res;
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return dataSource.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    dataSource.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    dataSource.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return dataSource.getLoginTimeout();
+  }
+
+  @Override
+  public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    throw new SQLFeatureNotSupportedException("java.util.logging is not used");
+  }
+
+}
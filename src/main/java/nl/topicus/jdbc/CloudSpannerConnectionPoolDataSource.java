@@ -35,6 +35,33 @@ public class CloudSpannerConnectionPoolDataSource extends CloudSpannerDataSource
   private static final long serialVersionUID = 1L;
   private boolean defaultAutoCommit = true;
 
+  /**
+   * The default maximum number of connections of the built-in connection pool
+   */
+  public static final int DEFAULT_MAX_POOL_SIZE = 10;
+
+  /**
+   * The default maximum lifetime in milliseconds of the connections of the built-in pool
+   */
+  public static final long DEFAULT_MAX_LIFETIME_MILLIS = 1_800_000L;
+
+  /**
+   * The default time in milliseconds that the built-in pool waits for a connection
+   */
+  public static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 30_000L;
+
+  private int minPoolSize = 0;
+
+  private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+
+  private long maxLifetime = DEFAULT_MAX_LIFETIME_MILLIS;
+
+  private long leakDetectionThreshold = 0L;
+
+  private long connectionTimeout = DEFAULT_CONNECTION_TIMEOUT_MILLIS;
+
+  private transient CloudSpannerConnectionPool connectionPool;
+
   /**
    * 
    * @return A description of this data source
@@ -88,6 +115,103 @@ public class CloudSpannerConnectionPoolDataSource extends CloudSpannerDataSource
     this.defaultAutoCommit = defaultAutoCommit;
   }
 
+  /**
+   * Returns the built-in connection pool of this data source. The pool is created with the pool
+   * settings of this data source the first time this method is called. Changes to the pool settings
+   * after that only apply to a new pool that is created after the current pool has been closed with
+   * {@link #closeConnectionPool()}.
+   *
+   * @return The built-in connection pool of this data source
+   */
+  public synchronized CloudSpannerConnectionPool getConnectionPool() {
+    if (connectionPool == null || connectionPool.isClosed()) {
+      connectionPool = new CloudSpannerConnectionPool(this, minPoolSize, maxPoolSize, maxLifetime,
+          leakDetectionThreshold, connectionTimeout);
+    }
+    return connectionPool;
+  }
+
+  /**
+   * Closes the built-in connection pool of this data source, if it has been created.
+   */
+  public synchronized void closeConnectionPool() {
+    if (connectionPool != null) {
+      connectionPool.close();
+      connectionPool = null;
+    }
+  }
+
+  public int getMinPoolSize() {
+    return minPoolSize;
+  }
+
+  /**
+   * Sets the minimum number of connections that the built-in pool keeps open. The default is 0.
+   *
+   * @param minPoolSize The minimum number of connections
+   */
+  public void setMinPoolSize(int minPoolSize) {
+    this.minPoolSize = minPoolSize;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  /**
+   * Sets the maximum number of connections that the built-in pool hands out at the same time. The
+   * default is {@link #DEFAULT_MAX_POOL_SIZE}.
+   *
+   * @param maxPoolSize The maximum number of connections
+   */
+  public void setMaxPoolSize(int maxPoolSize) {
+    this.maxPoolSize = maxPoolSize;
+  }
+
+  public long getMaxLifetime() {
+    return maxLifetime;
+  }
+
+  /**
+   * Sets the maximum time in milliseconds that a connection is kept in the built-in pool. The
+   * default is {@link #DEFAULT_MAX_LIFETIME_MILLIS}. A value of 0 means that connections do not
+   * expire.
+   *
+   * @param maxLifetime The maximum lifetime in milliseconds
+   */
+  public void setMaxLifetime(long maxLifetime) {
+    this.maxLifetime = maxLifetime;
+  }
+
+  public long getLeakDetectionThreshold() {
+    return leakDetectionThreshold;
+  }
+
+  /**
+   * Sets the time in milliseconds after which a connection that has been borrowed from the
+   * built-in pool and that has not been returned is logged as a possible leak. The default is 0,
+   * which disables leak detection.
+   *
+   * @param leakDetectionThreshold The leak detection threshold in milliseconds
+   */
+  public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+    this.leakDetectionThreshold = leakDetectionThreshold;
+  }
+
+  public long getConnectionTimeout() {
+    return connectionTimeout;
+  }
+
+  /**
+   * Sets the maximum time in milliseconds that the built-in pool waits for a connection to become
+   * available. The default is {@link #DEFAULT_CONNECTION_TIMEOUT_MILLIS}.
+   *
+   * @param connectionTimeout The connection timeout in milliseconds
+   */
+  public void setConnectionTimeout(long connectionTimeout) {
+    this.connectionTimeout = connectionTimeout;
+  }
+
   @Override
   public java.util.logging.Logger getParentLogger()
       throws java.sql.SQLFeatureNotSupportedException {
@@ -38,6 +38,8 @@ public class CloudSpannerDataSource extends AbstractCloudSpannerWrapper implemen
   private boolean allowExtendedMode;
 
   private boolean useCustomHost;
+  private Integer warmUpSessions;
+  private Integer warmUpTimeout;
 
   private PrintWriter logger;
 
@@ -117,6 +119,8 @@ public class CloudSpannerDataSource extends AbstractCloudSpannerWrapper implemen
     setProperty(info, stripEqualsSign(ConnectionProperties.ALLOW_EXTENDED_MODE),
         isAllowExtendedMode());
     setProperty(info, stripEqualsSign(ConnectionProperties.USE_CUSTOM_HOST), isUseCustomHost());
+    setProperty(info, stripEqualsSign(ConnectionProperties.WARM_UP_SESSIONS), getWarmUpSessions());
+    setProperty(info, stripEqualsSign(ConnectionProperties.WARM_UP_TIMEOUT), getWarmUpTimeout());
 
     return info;
   }
@@ -203,4 +207,34 @@ public class CloudSpannerDataSource extends AbstractCloudSpannerWrapper implemen
     this.useCustomHost = useCustomHost;
   }
 
+  public Integer getWarmUpSessions() {
+    return warmUpSessions;
+  }
+
+  /**
+   * Sets the number of sessions that the driver creates for the database of this
+   * {@link DataSource} when the first connection is opened. The default is <code>null</code>,
+   * which disables the warm-up.
+   * 
+   * @param warmUpSessions The number of sessions to create
+   */
+  public void setWarmUpSessions(Integer warmUpSessions) {
+    this.warmUpSessions = warmUpSessions;
+  }
+
+  public Integer getWarmUpTimeout() {
+    return warmUpTimeout;
+  }
+
+  /**
+   * Sets the maximum number of milliseconds that opening a connection waits for the warm-up of the
+   * session pool. The default is <code>null</code>, which means that the connection is returned
+   * without waiting for the warm-up.
+   * 
+   * @param warmUpTimeout The timeout in milliseconds
+   */
+  public void setWarmUpTimeout(Integer warmUpTimeout) {
+    this.warmUpTimeout = warmUpTimeout;
+  }
+
 }
@@ -6,8 +6,11 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.Type;
@@ -36,6 +39,18 @@ public enum CloudSpannerDataType {
       return rs.getBooleanList(columnIndex);
     }
 
+    @Override
+    public Object getArrayData(ResultSet rs, int columnIndex) {
+      try {
+        return rs.getBooleanArray(columnIndex);
+      } catch (NullPointerException e) {
+        // The client library throws a NullPointerException if the array contains NULL elements,
+        // as these cannot be returned as a boolean[]. Checking the elements for NULL values up
+        // front would box all elements on every call.
+        return super.getArrayData(rs, columnIndex);
+      }
+    }
+
     @Override
     public Type getGoogleType() {
       return Type.bool();
@@ -122,6 +137,18 @@ public enum CloudSpannerDataType {
       return rs.getDoubleList(columnIndex);
     }
 
+    @Override
+    public Object getArrayData(ResultSet rs, int columnIndex) {
+      try {
+        return rs.getDoubleArray(columnIndex);
+      } catch (NullPointerException e) {
+        // The client library throws a NullPointerException if the array contains NULL elements,
+        // as these cannot be returned as a double[]. Checking the elements for NULL values up front
+        // would box all elements on every call.
+        return super.getArrayData(rs, columnIndex);
+      }
+    }
+
     @Override
     public Type getGoogleType() {
       return Type.float64();
@@ -156,6 +183,18 @@ public enum CloudSpannerDataType {
       return rs.getLongList(columnIndex);
     }
 
+    @Override
+    public Object getArrayData(ResultSet rs, int columnIndex) {
+      try {
+        return rs.getLongArray(columnIndex);
+      } catch (NullPointerException e) {
+        // The client library throws a NullPointerException if the array contains NULL elements,
+        // as these cannot be returned as a long[]. Checking the elements for NULL values up front
+        // would box all elements on every call.
+        return super.getArrayData(rs, columnIndex);
+      }
+    }
+
     @Override
     public Type getGoogleType() {
       return Type.int64();
@@ -228,6 +267,23 @@ public enum CloudSpannerDataType {
    */
   public abstract List<?> getArrayElements(ResultSet rs, int columnIndex);
 
+  /**
+   * Returns the elements of an array column as a Java array. BOOL, INT64 and FLOAT64 arrays without
+   * NULL elements are returned as primitive arrays (for example <code>long[]</code>), which are
+   * read from the result set without boxing the elements. BOOL, INT64 and FLOAT64 arrays that
+   * contain NULL elements, and all other arrays, are returned as an array of
+   * {@link #getJavaClass()} (for example <code>Long[]</code>).
+   * 
+   * @param rs the result set to look up the elements
+   * @param columnIndex zero based column index
+   * @return The elements of the array in the given result set
+   */
+  public Object getArrayData(ResultSet rs, int columnIndex) {
+    List<?> elements = getArrayElements(rs, columnIndex);
+    return elements.toArray(
+        (Object[]) java.lang.reflect.Array.newInstance(getJavaClass(), elements.size()));
+  }
+
   public String getTypeName() {
     return name();
   }
@@ -238,20 +294,44 @@ public enum CloudSpannerDataType {
     return Collections.singleton(getJavaClass());
   }
 
-  public static CloudSpannerDataType getType(Class<?> clazz) {
-    for (CloudSpannerDataType type : CloudSpannerDataType.values()) {
-      if (type.getSupportedJavaClasses().contains(clazz))
-        return type;
+  /**
+   * Cached copy of {@link #values()}, as each call to {@link #values()} creates a new array
+   */
+  private static final CloudSpannerDataType[] TYPES = values();
+
+  private static final Map<Code, CloudSpannerDataType> TYPES_BY_CODE = createTypesByCode();
+
+  private static final Map<Class<?>, CloudSpannerDataType> TYPES_BY_CLASS = createTypesByClass();
+
+  private static Map<Code, CloudSpannerDataType> createTypesByCode() {
+    Map<Code, CloudSpannerDataType> res = new EnumMap<>(Code.class);
+    for (CloudSpannerDataType type : TYPES) {
+      res.put(type.getCode(), type);
     }
-    return null;
+    return res;
   }
 
-  public static CloudSpannerDataType getType(Code code) {
-    for (CloudSpannerDataType type : CloudSpannerDataType.values()) {
-      if (type.getCode() == code)
-        return type;
+  private static Map<Class<?>, CloudSpannerDataType> createTypesByClass() {
+    Map<Class<?>, CloudSpannerDataType> res = new HashMap<>();
+    for (CloudSpannerDataType type : TYPES) {
+      for (Class<?> clazz : type.getSupportedJavaClasses()) {
+        // The first type that supports a class wins
+        res.putIfAbsent(clazz, type);
+      }
     }
-    return null;
+    return res;
+  }
+
+  public static CloudSpannerDataType getType(Class<?> clazz) {
+    if (clazz == null)
+      return null;
+    return TYPES_BY_CLASS.get(clazz);
+  }
+
+  public static CloudSpannerDataType getType(Code code) {
+    if (code == null)
+      return null;
+    return TYPES_BY_CODE.get(code);
   }
 
 }
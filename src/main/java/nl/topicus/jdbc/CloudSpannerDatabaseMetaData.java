@@ -7,22 +7,23 @@ import java.sql.ResultSet;
 import java.sql.RowIdLifetime;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
-import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import nl.topicus.jdbc.SchemaSnapshot.Kind;
+import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
 import nl.topicus.jdbc.statement.CloudSpannerPreparedStatement;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
 
 public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMetaData {
   private static final int JDBC_MAJOR_VERSION = 4;
 
   private static final int JDBC_MINOR_VERSION = 2;
 
-  private static final String FROM_STATEMENT_WITHOUT_RESULTS =
-      " FROM (SELECT * FROM INFORMATION_SCHEMA.TABLES) T WHERE 1=2 ";
-  private static final String FROM_COLUMNS_STATEMENT_WITHOUT_RESULTS =
-      " FROM (SELECT * FROM INFORMATION_SCHEMA.COLUMNS) T WHERE 1=2 ";
-
-  private static final String VERSION_AND_IDENTIFIER_COLUMNS_SELECT_STATEMENT =
-      "SELECT 0 AS SCOPE, '' AS COLUMN_NAME, 0 AS DATA_TYPE, '' AS TYPE_NAME, 0 AS COLUMN_SIZE, 0 AS BUFFER_LENGTH, 0 AS DECIMAL_DIGITS, 0 AS PSEUDO_COLUMN ";
-
   private CloudSpannerConnection connection;
 
   CloudSpannerDatabaseMetaData(CloudSpannerConnection connection) {
@@ -625,33 +626,49 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
   @Override
   public ResultSet getProcedures(String catalog, String schemaPattern, String procedureNamePattern)
       throws SQLException {
-    String sql =
-        "SELECT '' AS PROCEDURE_CAT, '' AS PROCEDURE_SCHEM, '' AS PROCEDURE_NAME, NULL AS RES1, NULL AS RES2, NULL AS RES3, "
-            + "'' AS REMARKS, 0 AS PROCEDURE_TYPE, '' AS SPECIFIC_NAME "
-            + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    PreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.PROCEDURES_TYPE);
   }
 
   @Override
   public ResultSet getProcedureColumns(String catalog, String schemaPattern,
       String procedureNamePattern, String columnNamePattern) throws SQLException {
-    String sql =
-        "SELECT '' AS PROCEDURE_CAT, '' AS PROCEDURE_SCHEM, '' AS PROCEDURE_NAME, '' AS COLUMN_NAME, 0 AS COLUMN_TYPE, "
-            + "0 AS DATA_TYPE, '' AS TYPE_NAME, 0 AS PRECISION, 0 AS LENGTH, 0 AS SCALE, 0 AS RADIX, "
-            + "0 AS NULLABLE, '' AS REMARKS, '' AS COLUMN_DEF, 0 AS SQL_DATA_TYPE, 0 AS SQL_DATATIME_SUB, "
-            + "0 AS CHAR_OCTET_LENGTH, 0 AS ORDINAL_POSITION, '' AS IS_NULLABLE, '' AS SPECIFIC_NAME "
-            + FROM_STATEMENT_WITHOUT_RESULTS;
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.PROCEDURE_COLUMNS_TYPE);
+  }
 
-    PreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+  /**
+   * Creates a result set with constant rows that is created by the driver without a query on the
+   * database. This is used for the meta data methods of which the result does not depend on the
+   * schema of the database.
+   * 
+   * @param type The type of the rows of the result set
+   * @param rows The rows of the result set
+   * @return A {@link ResultSet} containing the given rows
+   * @throws SQLException
+   */
+  private ResultSet createResultSet(Type type, List<Struct> rows) throws SQLException {
+    return new CloudSpannerResultSet(createStatement(), ResultSets.forRows(type, rows), null);
+  }
+
+  /**
+   * Creates a statement for a result set that is returned by this meta data object. The statement
+   * is closed when the result set is closed.
+   */
+  private CloudSpannerStatement createStatement() throws SQLException {
+    CloudSpannerStatement statement = connection.createStatement();
+    statement.closeOnCompletion();
+    return statement;
+  }
+
+  private ResultSet createEmptyResultSet(Type type) throws SQLException {
+    return createResultSet(type, Collections.emptyList());
   }
 
   private CloudSpannerPreparedStatement prepareStatement(String sql, String... params)
       throws SQLException {
     CloudSpannerPreparedStatement statement = connection.prepareStatement(sql);
     statement.setForceSingleUseReadContext(true);
+    // The result set of the statement is returned to the caller, who will only close the result set
+    statement.closeOnCompletion();
     int paramIndex = 1;
     for (String param : params) {
       if (param != null) {
@@ -674,15 +691,42 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
     return res.toString();
   }
 
-  @Override
-  public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern,
-      String[] types) throws SQLException {
+  /**
+   * Returns the rows of the given kind of the schema snapshot that match the filter. The rows are
+   * loaded with the given query the first time that the kind is requested.
+   */
+  private ResultSet getFromSnapshot(Kind kind, String sql, Predicate<Struct> filter)
+      throws SQLException {
+    SchemaSnapshot.Rows rows =
+        connection.getMetaDataStore().getSchemaSnapshot().getRows(kind, () -> loadRows(sql));
+    return new CloudSpannerResultSet(createStatement(), rows.select(filter), sql);
+  }
+
+  private SchemaSnapshot.Rows loadRows(String sql) throws SQLException {
+    try (CloudSpannerResultSet rs = (CloudSpannerResultSet) prepareStatement(sql).executeQuery()) {
+      List<Struct> rows = new ArrayList<>();
+      while (rs.next())
+        rows.add(rs.getCurrentRowAsStruct());
+      return new SchemaSnapshot.Rows(rs.getRowType(), rows);
+    }
+  }
+
+  private String getTablesSql(String catalog, String schemaPattern, String tableNamePattern) {
     String sql = CloudSpannerDatabaseMetaDataConstants.SELECT_TABLES_COLUMNS
         + CloudSpannerDatabaseMetaDataConstants.FROM_TABLES_T
         + CloudSpannerDatabaseMetaDataConstants.WHERE_1_EQUALS_1;
     sql = sql + getCatalogSchemaTableWhereClause("T", catalog, schemaPattern, tableNamePattern);
     sql = sql + "ORDER BY TABLE_NAME";
+    return sql;
+  }
 
+  @Override
+  public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern,
+      String[] types) throws SQLException {
+    if (connection.isUseSchemaSnapshot())
+      return getFromSnapshot(Kind.TABLES, getTablesSql(null, null, null),
+          Kind.TABLES.filter(catalog, schemaPattern, tableNamePattern));
+    String sql = getTablesSql(catalog, schemaPattern, tableNamePattern);
     CloudSpannerPreparedStatement statement =
         prepareStatement(sql, catalog, schemaPattern, tableNamePattern);
     return statement.executeQuery();
@@ -695,27 +739,33 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
 
   @Override
   public ResultSet getCatalogs() throws SQLException {
-    String sql = "SELECT '' AS TABLE_CAT " + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.CATALOGS_TYPE);
   }
 
   @Override
   public ResultSet getTableTypes() throws SQLException {
-    String sql = "SELECT 'TABLE' AS TABLE_TYPE";
-    return prepareStatement(sql).executeQuery();
+    return createResultSet(CloudSpannerDatabaseMetaDataConstants.TABLE_TYPES_TYPE,
+        CloudSpannerDatabaseMetaDataConstants.TABLE_TYPES);
   }
 
-  @Override
-  public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern,
-      String columnNamePattern) throws SQLException {
+  private String getColumnsSql(String catalog, String schemaPattern, String tableNamePattern,
+      String columnNamePattern) {
     String sql = CloudSpannerDatabaseMetaDataConstants.GET_COLUMNS;
     sql = sql + getCatalogSchemaTableWhereClause("C", catalog, schemaPattern, tableNamePattern);
     if (columnNamePattern != null)
       sql = sql + "AND UPPER(COLUMN_NAME) LIKE ? ";
     sql = sql + "ORDER BY TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION ";
+    return sql;
+  }
 
+  @Override
+  public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern,
+      String columnNamePattern) throws SQLException {
+    if (connection.isUseSchemaSnapshot())
+      return getFromSnapshot(Kind.COLUMNS, getColumnsSql(null, null, null, null),
+          Kind.COLUMNS.filter(catalog, schemaPattern, tableNamePattern)
+              .and(SchemaSnapshot.matches("COLUMN_NAME", columnNamePattern)));
+    String sql = getColumnsSql(catalog, schemaPattern, tableNamePattern, columnNamePattern);
     CloudSpannerPreparedStatement statement =
         prepareStatement(sql, catalog, schemaPattern, tableNamePattern, columnNamePattern);
     return statement.executeQuery();
@@ -724,23 +774,13 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
   @Override
   public ResultSet getColumnPrivileges(String catalog, String schema, String table,
       String columnNamePattern) throws SQLException {
-    String sql =
-        "SELECT '' AS TABLE_CAT, '' AS TABLE_SCHEM, '' AS TABLE_NAME, '' AS COLUMN_NAME, '' AS GRANTOR, '' AS GRANTEE, '' AS PRIVILEGE, 'NO' AS IS_GRANTABLE "
-            + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.COLUMN_PRIVILEGES_TYPE);
   }
 
   @Override
   public ResultSet getTablePrivileges(String catalog, String schemaPattern, String tableNamePattern)
       throws SQLException {
-    String sql =
-        "SELECT '' AS TABLE_CAT, '' AS TABLE_SCHEM, '' AS TABLE_NAME, '' AS GRANTOR, '' AS GRANTEE, '' AS PRIVILEGE, 'NO' AS IS_GRANTABLE "
-            + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.TABLE_PRIVILEGES_TYPE);
   }
 
   @Override
@@ -765,14 +805,21 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
    * @throws SQLException
    */
   private ResultSet getVersionColumnsOrBestRowIdentifier() throws SQLException {
-    String sql = VERSION_AND_IDENTIFIER_COLUMNS_SELECT_STATEMENT + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(
+        CloudSpannerDatabaseMetaDataConstants.VERSION_COLUMNS_AND_BEST_ROW_IDENTIFIER_TYPE);
   }
 
   @Override
   public ResultSet getPrimaryKeys(String catalog, String schema, String table) throws SQLException {
+    if (connection.isUseSchemaSnapshot())
+      return getFromSnapshot(Kind.PRIMARY_KEYS, getPrimaryKeysSql(null, null, null),
+          Kind.PRIMARY_KEYS.filter(catalog, schema, table));
+    String sql = getPrimaryKeysSql(catalog, schema, table);
+    PreparedStatement statement = prepareStatement(sql, catalog, schema, table);
+    return statement.executeQuery();
+  }
+
+  private String getPrimaryKeysSql(String catalog, String schema, String table) {
     String sql =
         "SELECT IDX.TABLE_CATALOG AS TABLE_CAT, IDX.TABLE_SCHEMA AS TABLE_SCHEM, IDX.TABLE_NAME AS TABLE_NAME, COLS.COLUMN_NAME AS COLUMN_NAME, ORDINAL_POSITION AS KEY_SEQ, IDX.INDEX_NAME AS PK_NAME "
             + "FROM INFORMATION_SCHEMA.INDEXES IDX "
@@ -780,14 +827,21 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
             + "WHERE IDX.INDEX_TYPE='PRIMARY_KEY' ";
     sql = sql + getCatalogSchemaTableWhereClause("IDX", catalog, schema, table);
     sql = sql + "ORDER BY COLS.ORDINAL_POSITION ";
-
-    PreparedStatement statement = prepareStatement(sql, catalog, schema, table);
-    return statement.executeQuery();
+    return sql;
   }
 
   @Override
   public ResultSet getImportedKeys(String catalog, String schema, String table)
       throws SQLException {
+    if (connection.isUseSchemaSnapshot())
+      return getFromSnapshot(Kind.IMPORTED_KEYS, getImportedKeysSql(null, null, null),
+          Kind.IMPORTED_KEYS.filter(catalog, schema, table));
+    String sql = getImportedKeysSql(catalog, schema, table);
+    PreparedStatement statement = prepareStatement(sql, catalog, schema, table);
+    return statement.executeQuery();
+  }
+
+  private String getImportedKeysSql(String catalog, String schema, String table) {
     String sql =
         "SELECT PARENT.TABLE_CATALOG AS PKTABLE_CAT, PARENT.TABLE_SCHEMA AS PKTABLE_SCHEM, PARENT.TABLE_NAME AS PKTABLE_NAME, COL.COLUMN_NAME AS PKCOLUMN_NAME, CHILD.TABLE_CATALOG AS FKTABLE_CAT, CHILD.TABLE_SCHEMA AS FKTABLE_SCHEM, CHILD.TABLE_NAME AS FKTABLE_NAME, COL.COLUMN_NAME FKCOLUMN_NAME, COL.ORDINAL_POSITION AS KEY_SEQ, 3 AS UPDATE_RULE, CASE WHEN CHILD.ON_DELETE_ACTION = 'CASCADE' THEN 0 ELSE 3 END AS DELETE_RULE, NULL AS FK_NAME, INDEXES.INDEX_NAME AS PK_NAME, 7 AS DEFERRABILITY "
             + "FROM INFORMATION_SCHEMA.TABLES CHILD "
@@ -799,14 +853,21 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
     sql = sql + getCatalogSchemaTableWhereClause("CHILD", catalog, schema, table);
     sql = sql
         + "ORDER BY PARENT.TABLE_CATALOG, PARENT.TABLE_SCHEMA, PARENT.TABLE_NAME, COL.ORDINAL_POSITION ";
-
-    PreparedStatement statement = prepareStatement(sql, catalog, schema, table);
-    return statement.executeQuery();
+    return sql;
   }
 
   @Override
   public ResultSet getExportedKeys(String catalog, String schema, String table)
       throws SQLException {
+    if (connection.isUseSchemaSnapshot())
+      return getFromSnapshot(Kind.EXPORTED_KEYS, getExportedKeysSql(null, null, null),
+          Kind.EXPORTED_KEYS.filter(catalog, schema, table));
+    String sql = getExportedKeysSql(catalog, schema, table);
+    CloudSpannerPreparedStatement statement = prepareStatement(sql, catalog, schema, table);
+    return statement.executeQuery();
+  }
+
+  private String getExportedKeysSql(String catalog, String schema, String table) {
     String sql = "SELECT "
         + "NULL AS PKTABLE_CAT, NULL AS PKTABLE_SCHEM, PARENT.TABLE_NAME AS PKTABLE_NAME, PARENT_INDEX_COLUMNS.COLUMN_NAME AS PKCOLUMN_NAME, "
         + "NULL AS FKTABLE_CAT, NULL AS FKTABLE_SCHEM, CHILD.TABLE_NAME AS FKTABLE_NAME, PARENT_INDEX_COLUMNS.COLUMN_NAME AS FKCOLUMN_NAME, "
@@ -820,9 +881,7 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
     sql = sql + getCatalogSchemaTableWhereClause("PARENT", catalog, schema, table);
     sql = sql
         + "ORDER BY CHILD.TABLE_CATALOG, CHILD.TABLE_SCHEMA, CHILD.TABLE_NAME, PARENT_INDEX_COLUMNS.ORDINAL_POSITION ";
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql, catalog, schema, table);
-    return statement.executeQuery();
+    return sql;
   }
 
   @Override
@@ -833,9 +892,8 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
 
   @Override
   public ResultSet getTypeInfo() throws SQLException {
-    String sql = CloudSpannerDatabaseMetaDataConstants.GET_TYPE_INFO;
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createResultSet(CloudSpannerDatabaseMetaDataConstants.TYPE_INFO_TYPE,
+        CloudSpannerDatabaseMetaDataConstants.TYPE_INFO);
   }
 
   @Override
@@ -851,6 +909,21 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
 
   private ResultSet getIndexInfo(String catalog, String schema, String table, String indexName,
       boolean unique) throws SQLException {
+    if (connection.isUseSchemaSnapshot()) {
+      Predicate<Struct> filter = Kind.INDEX_INFO.filter(catalog, schema, table)
+          .and(SchemaSnapshot.matches("INDEX_NAME", indexName));
+      if (unique)
+        filter = filter.and(row -> !row.getBoolean("NON_UNIQUE"));
+      return getFromSnapshot(Kind.INDEX_INFO, getIndexInfoSql(null, null, null, null, false),
+          filter);
+    }
+    String sql = getIndexInfoSql(catalog, schema, table, indexName, unique);
+    PreparedStatement statement = prepareStatement(sql, catalog, schema, table, indexName);
+    return statement.executeQuery();
+  }
+
+  private String getIndexInfoSql(String catalog, String schema, String table, String indexName,
+      boolean unique) {
     String sql = CloudSpannerDatabaseMetaDataConstants.GET_INDEX_INFO;
 
     sql = sql + getCatalogSchemaTableWhereClause("IDX", catalog, schema, table);
@@ -859,19 +932,17 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
     if (indexName != null)
       sql = sql + " AND UPPER(IDX.INDEX_NAME) LIKE ? ";
     sql = sql + "ORDER BY IS_UNIQUE, IDX.INDEX_NAME, ORDINAL_POSITION ";
-
-    PreparedStatement statement = prepareStatement(sql, catalog, schema, table, indexName);
-    return statement.executeQuery();
+    return sql;
   }
 
   @Override
   public boolean supportsResultSetType(int type) throws SQLException {
-    return type == ResultSet.TYPE_FORWARD_ONLY;
+    return type == ResultSet.TYPE_FORWARD_ONLY || type == ResultSet.TYPE_SCROLL_INSENSITIVE;
   }
 
   @Override
   public boolean supportsResultSetConcurrency(int type, int concurrency) throws SQLException {
-    return type == ResultSet.TYPE_FORWARD_ONLY && concurrency == ResultSet.CONCUR_READ_ONLY;
+    return supportsResultSetType(type) && concurrency == ResultSet.CONCUR_READ_ONLY;
   }
 
   @Override
@@ -927,9 +998,7 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
   @Override
   public ResultSet getUDTs(String catalog, String schemaPattern, String typeNamePattern,
       int[] types) throws SQLException {
-    String sql = CloudSpannerDatabaseMetaDataConstants.GET_UDTS;
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.UDTS_TYPE);
   }
 
   @Override
@@ -960,37 +1029,19 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
   @Override
   public ResultSet getSuperTypes(String catalog, String schemaPattern, String typeNamePattern)
       throws SQLException {
-    String sql = "SELECT '' AS TYPE_CAT, '' AS TYPE_SCHEM, '' AS TYPE_NAME, "
-        + "'' AS SUPERTYPE_CAT, '' AS SUPERTYPE_SCHEM, '' AS SUPERTYPE_NAME "
-        + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.SUPER_TYPES_TYPE);
   }
 
   @Override
   public ResultSet getSuperTables(String catalog, String schemaPattern, String tableNamePattern)
       throws SQLException {
-    String sql =
-        "SELECT '' AS TABLE_CAT, '' AS TABLE_SCHEM, '' AS TABLE_NAME, '' AS SUPERTABLE_NAME "
-            + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.SUPER_TABLES_TYPE);
   }
 
   @Override
   public ResultSet getAttributes(String catalog, String schemaPattern, String typeNamePattern,
       String attributeNamePattern) throws SQLException {
-    String sql =
-        "SELECT '' AS TYPE_CAT, '' AS TYPE_SCHEM, '' AS TYPE_NAME, '' AS ATTR_NAME, 0 AS DATA_TYPE, "
-            + "'' AS ATTR_TYPE_NAME, 0 AS ATTR_SIZE, 0 AS DECIMAL_DIGITS, 0 AS NUM_PREC_RADIX, 0 AS NULLABLE, "
-            + "'' AS REMARKS, '' AS ATTR_DEF, 0 AS SQL_DATA_TYPE, 0 AS SQL_DATETIME_SUB, 0 AS CHAR_OCTET_LENGTH, "
-            + "0 AS ORDINAL_POSITION, 'NO' AS IS_NULLABLE, '' AS SCOPE_CATALOG, '' AS SCOPE_SCHEMA, '' AS SCOPE_TABLE, "
-            + "0 AS SOURCE_DATA_TYPE " + FROM_STATEMENT_WITHOUT_RESULTS;
-
-    CloudSpannerPreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.ATTRIBUTES_TYPE);
   }
 
   @Override
@@ -1070,64 +1121,25 @@ public class CloudSpannerDatabaseMetaData extends AbstractCloudSpannerDatabaseMe
 
   @Override
   public ResultSet getClientInfoProperties() throws SQLException {
-    String sql = "SELECT '' AS NAME, 0 AS MAX_LEN, '' AS DEFAULT_VALUE, '' AS DESCRIPTION "
-        + FROM_STATEMENT_WITHOUT_RESULTS;
-    sql = sql + " ORDER BY NAME";
-
-    PreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.CLIENT_INFO_PROPERTIES_TYPE);
   }
 
   @Override
   public ResultSet getFunctions(String catalog, String schemaPattern, String functionNamePattern)
       throws SQLException {
-    String sql =
-        "SELECT '' AS FUNCTION_CAT, '' AS FUNCTION_SCHEM, '' AS FUNCTION_NAME, '' AS REMARKS, 0 AS FUNCTION_TYPE, '' AS SPECIFIC_NAME "
-            + FROM_STATEMENT_WITHOUT_RESULTS;
-    sql = sql + " ORDER BY FUNCTION_CAT, FUNCTION_SCHEM, FUNCTION_NAME, SPECIFIC_NAME ";
-
-    PreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.FUNCTIONS_TYPE);
   }
 
   @Override
   public ResultSet getFunctionColumns(String catalog, String schemaPattern,
       String functionNamePattern, String columnNamePattern) throws SQLException {
-    String sql =
-        "SELECT '' AS FUNCTION_CAT, '' AS FUNCTION_SCHEM, '' AS FUNCTION_NAME, '' AS COLUMN_NAME, 0 AS COLUMN_TYPE, 1111 AS DATA_TYPE, '' AS TYPE_NAME, 0 AS PRECISION, 0 AS LENGTH, 0 AS SCALE, 0 AS RADIX, 0 AS NULLABLE, '' AS REMARKS, 0 AS CHAR_OCTET_LENGTH, 0 AS ORDINAL_POSITION, '' AS IS_NULLABLE, '' AS SPECIFIC_NAME "
-            + FROM_STATEMENT_WITHOUT_RESULTS;
-    sql = sql + " ORDER BY FUNCTION_CAT, FUNCTION_SCHEM, FUNCTION_NAME, SPECIFIC_NAME ";
-
-    PreparedStatement statement = prepareStatement(sql);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.FUNCTION_COLUMNS_TYPE);
   }
 
   @Override
   public ResultSet getPseudoColumns(String catalog, String schemaPattern, String tableNamePattern,
       String columnNamePattern) throws SQLException {
-    String sql =
-        "SELECT TABLE_CATALOG AS TABLE_CAT, TABLE_SCHEMA AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, "
-            + "CASE " + "	WHEN SPANNER_TYPE = 'ARRAY' THEN " + Types.ARRAY + " "
-            + "	WHEN SPANNER_TYPE = 'BOOL' THEN " + Types.BOOLEAN + " "
-            + "	WHEN SPANNER_TYPE = 'BYTES' THEN " + Types.BINARY + " "
-            + "	WHEN SPANNER_TYPE = 'DATE' THEN " + Types.DATE + " "
-            + "	WHEN SPANNER_TYPE = 'FLOAT64' THEN " + Types.DOUBLE + " "
-            + "	WHEN SPANNER_TYPE = 'INT64' THEN " + Types.BIGINT + " "
-            + "	WHEN SPANNER_TYPE = 'STRING' THEN " + Types.NVARCHAR + " "
-            + "	WHEN SPANNER_TYPE = 'STRUCT' THEN " + Types.STRUCT + " "
-            + "	WHEN SPANNER_TYPE = 'TIMESTAMP' THEN " + Types.TIMESTAMP + " "
-            + "END AS DATA_TYPE, "
-            + "0 AS COLUMN_SIZE, NULL AS DECIMAL_DIGITS, 0 AS NUM_PREC_RADIX, 'USAGE_UNKNOWN' AS COLUMN_USAGE, NULL AS REMARKS, 0 AS CHAR_OCTET_LENGTH, IS_NULLABLE "
-            + FROM_COLUMNS_STATEMENT_WITHOUT_RESULTS;
-
-    sql = sql + getCatalogSchemaTableWhereClause("T", catalog, schemaPattern, tableNamePattern);
-    if (columnNamePattern != null)
-      sql = sql + "AND UPPER(COLUMN_NAME) LIKE ? ";
-    sql = sql + "ORDER BY TABLE_CATALOG, TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION ";
-
-    CloudSpannerPreparedStatement statement =
-        prepareStatement(sql, catalog, schemaPattern, tableNamePattern, columnNamePattern);
-    return statement.executeQuery();
+    return createEmptyResultSet(CloudSpannerDatabaseMetaDataConstants.PSEUDO_COLUMNS_TYPE);
   }
 
   @Override
@@ -1,6 +1,12 @@
 package nl.topicus.jdbc;
 
 import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
 
 public abstract class CloudSpannerDatabaseMetaDataConstants {
   public static final String SELECT_TABLES_COLUMNS =
@@ -10,30 +16,127 @@ public abstract class CloudSpannerDatabaseMetaDataConstants {
 
   public static final String FROM_TABLES_T = " FROM INFORMATION_SCHEMA.TABLES AS T ";
 
-  private static final String UNION_ALL = "UNION ALL\n";
-
   private static final String CASE = "CASE \n";
 
-  public static final String GET_TYPE_INFO =
-  // @formatter:off
-	          "SELECT  'BOOL'      AS TYPE_NAME, 16 AS DATA_TYPE, 1       AS PRECISION, NULL      AS LITERAL_PREFIX, NULL   AS LITERAL_SUFFIX, NULL     AS CREATE_PARAMS, 1 AS NULLABLE, FALSE AS CASE_SENSITIVE, 2 AS SEARCHABLE, TRUE  AS UNSIGNED_ATTRIBUTE, FALSE AS FIXED_PREC_SCALE, FALSE AS AUTO_INCREMENT, 'BOOL'      AS LOCAL_TYPE_NAME, 1  AS MINIMUM_SCALE, 1       AS MAXIMUM_SCALE, NULL AS SQL_DATA_TYPE, NULL AS SQL_DATETIME_SUB, NULL AS NUM_PREC_RADIX\n"
-			+ UNION_ALL
-			+ "SELECT  'BYTES'     AS TYPE_NAME, -2 AS DATA_TYPE, 5000000 AS PRECISION, '0x'      AS LITERAL_PREFIX, NULL   AS LITERAL_SUFFIX, 'LENGTH' AS CREATE_PARAMS, 1 AS NULLABLE, FALSE AS CASE_SENSITIVE, 2 AS SEARCHABLE, TRUE  AS UNSIGNED_ATTRIBUTE, FALSE AS FIXED_PREC_SCALE, FALSE AS AUTO_INCREMENT, 'BYTES'     AS LOCAL_TYPE_NAME, 1  AS MINIMUM_SCALE, 5000000 AS MAXIMUM_SCALE, NULL AS SQL_DATA_TYPE, NULL AS SQL_DATETIME_SUB, NULL AS NUM_PREC_RADIX\n"
-			+ UNION_ALL
-			+ "SELECT  'DATE'      AS TYPE_NAME, 91 AS DATA_TYPE, 8       AS PRECISION, \"{d '\"  AS LITERAL_PREFIX, \"'}\" AS LITERAL_SUFFIX, NULL     AS CREATE_PARAMS, 1 AS NULLABLE, FALSE AS CASE_SENSITIVE, 2 AS SEARCHABLE, TRUE  AS UNSIGNED_ATTRIBUTE, FALSE AS FIXED_PREC_SCALE, FALSE AS AUTO_INCREMENT, 'DATE'      AS LOCAL_TYPE_NAME, 8  AS MINIMUM_SCALE, 8       AS MAXIMUM_SCALE, NULL AS SQL_DATA_TYPE, NULL AS SQL_DATETIME_SUB, NULL AS NUM_PREC_RADIX\n"
-			+ UNION_ALL
-			+ "SELECT  'FLOAT64'   AS TYPE_NAME, 8 AS DATA_TYPE,  15      AS PRECISION, NULL      AS LITERAL_PREFIX, NULL   AS LITERAL_SUFFIX, NULL     AS CREATE_PARAMS, 1 AS NULLABLE, FALSE AS CASE_SENSITIVE, 2 AS SEARCHABLE, FALSE AS UNSIGNED_ATTRIBUTE, FALSE AS FIXED_PREC_SCALE, FALSE AS AUTO_INCREMENT, 'FLOAT64'   AS LOCAL_TYPE_NAME, 15 AS MINIMUM_SCALE, 15      AS MAXIMUM_SCALE, NULL AS SQL_DATA_TYPE, NULL AS SQL_DATETIME_SUB, NULL AS NUM_PREC_RADIX\n"
-			+ UNION_ALL
-			+ "SELECT  'INT64'     AS TYPE_NAME, -5 AS DATA_TYPE, 19      AS PRECISION, NULL      AS LITERAL_PREFIX, NULL   AS LITERAL_SUFFIX, NULL     AS CREATE_PARAMS, 1 AS NULLABLE, FALSE AS CASE_SENSITIVE, 2 AS SEARCHABLE, FALSE AS UNSIGNED_ATTRIBUTE, FALSE AS FIXED_PREC_SCALE, FALSE AS AUTO_INCREMENT, 'INT64'     AS LOCAL_TYPE_NAME, 19 AS MINIMUM_SCALE, 19      AS MAXIMUM_SCALE, NULL AS SQL_DATA_TYPE, NULL AS SQL_DATETIME_SUB, NULL AS NUM_PREC_RADIX\n"
-			+ UNION_ALL
-			+ "SELECT  'STRING'    AS TYPE_NAME, -9 AS DATA_TYPE, 5000000 AS PRECISION, \"'\"     AS LITERAL_PREFIX, \"'\"  AS LITERAL_SUFFIX, 'LENGTH' AS CREATE_PARAMS, 1 AS NULLABLE, TRUE  AS CASE_SENSITIVE, 3 AS SEARCHABLE, TRUE  AS UNSIGNED_ATTRIBUTE, FALSE AS FIXED_PREC_SCALE, FALSE AS AUTO_INCREMENT, 'STRING'    AS LOCAL_TYPE_NAME, 1  AS MINIMUM_SCALE, 5000000 AS MAXIMUM_SCALE, NULL AS SQL_DATA_TYPE, NULL AS SQL_DATETIME_SUB, NULL AS NUM_PREC_RADIX\n"
-			+ UNION_ALL
-			+ "SELECT  'TIMESTAMP' AS TYPE_NAME, 93 AS DATA_TYPE, 19      AS PRECISION, \"{ts '\" AS LITERAL_PREFIX, \"'}\" AS LITERAL_SUFFIX, NULL     AS CREATE_PARAMS, 1 AS NULLABLE, FALSE AS CASE_SENSITIVE, 2 AS SEARCHABLE, TRUE  AS UNSIGNED_ATTRIBUTE, FALSE AS FIXED_PREC_SCALE, FALSE AS AUTO_INCREMENT, 'TIMESTAMP' AS LOCAL_TYPE_NAME, 19 AS MINIMUM_SCALE, 19      AS MAXIMUM_SCALE, NULL AS SQL_DATA_TYPE, NULL AS SQL_DATETIME_SUB, NULL AS NUM_PREC_RADIX";
-            // @formatter:on
-
-  public static final String GET_UDTS = "SELECT *\n"
-      + "FROM (SELECT NULL AS TYPE_CAT, NULL AS TYPE_SCHEM, NULL AS TYPE_NAME, NULL AS CLASS_NAME, NULL AS DATA_TYPE, NULL AS REMARKS, NULL AS BASE_TYPE) UDTS\n"
-      + "WHERE 1=2";
+  private static StructField string(String name) {
+    return StructField.of(name, Type.string());
+  }
+
+  private static StructField int64(String name) {
+    return StructField.of(name, Type.int64());
+  }
+
+  private static StructField bool(String name) {
+    return StructField.of(name, Type.bool());
+  }
+
+  /*
+   * The types of the result sets of the DatabaseMetaData methods that return a constant result.
+   * These results are created by the driver without a query on the database, and the column types
+   * are equal to the types that Cloud Spanner would return for the literals in the equivalent SQL
+   * statement. An untyped NULL literal is an INT64 in Cloud Spanner.
+   */
+
+  static final Type PROCEDURES_TYPE = Type.struct(string("PROCEDURE_CAT"),
+      string("PROCEDURE_SCHEM"), string("PROCEDURE_NAME"), int64("RES1"), int64("RES2"),
+      int64("RES3"), string("REMARKS"), int64("PROCEDURE_TYPE"), string("SPECIFIC_NAME"));
+
+  static final Type PROCEDURE_COLUMNS_TYPE = Type.struct(string("PROCEDURE_CAT"),
+      string("PROCEDURE_SCHEM"), string("PROCEDURE_NAME"), string("COLUMN_NAME"),
+      int64("COLUMN_TYPE"), int64("DATA_TYPE"), string("TYPE_NAME"), int64("PRECISION"),
+      int64("LENGTH"), int64("SCALE"), int64("RADIX"), int64("NULLABLE"), string("REMARKS"),
+      string("COLUMN_DEF"), int64("SQL_DATA_TYPE"), int64("SQL_DATATIME_SUB"),
+      int64("CHAR_OCTET_LENGTH"), int64("ORDINAL_POSITION"), string("IS_NULLABLE"),
+      string("SPECIFIC_NAME"));
+
+  static final Type CATALOGS_TYPE = Type.struct(string("TABLE_CAT"));
+
+  static final Type TABLE_TYPES_TYPE = Type.struct(string("TABLE_TYPE"));
+
+  static final List<Struct> TABLE_TYPES =
+      Collections.singletonList(Struct.newBuilder().set("TABLE_TYPE").to("TABLE").build());
+
+  static final Type COLUMN_PRIVILEGES_TYPE = Type.struct(string("TABLE_CAT"),
+      string("TABLE_SCHEM"), string("TABLE_NAME"), string("COLUMN_NAME"), string("GRANTOR"),
+      string("GRANTEE"), string("PRIVILEGE"), string("IS_GRANTABLE"));
+
+  static final Type TABLE_PRIVILEGES_TYPE =
+      Type.struct(string("TABLE_CAT"), string("TABLE_SCHEM"), string("TABLE_NAME"),
+          string("GRANTOR"), string("GRANTEE"), string("PRIVILEGE"), string("IS_GRANTABLE"));
+
+  static final Type VERSION_COLUMNS_AND_BEST_ROW_IDENTIFIER_TYPE = Type.struct(int64("SCOPE"),
+      string("COLUMN_NAME"), int64("DATA_TYPE"), string("TYPE_NAME"), int64("COLUMN_SIZE"),
+      int64("BUFFER_LENGTH"), int64("DECIMAL_DIGITS"), int64("PSEUDO_COLUMN"));
+
+  static final Type TYPE_INFO_TYPE = Type.struct(string("TYPE_NAME"), int64("DATA_TYPE"),
+      int64("PRECISION"), string("LITERAL_PREFIX"), string("LITERAL_SUFFIX"),
+      string("CREATE_PARAMS"), int64("NULLABLE"), bool("CASE_SENSITIVE"), int64("SEARCHABLE"),
+      bool("UNSIGNED_ATTRIBUTE"), bool("FIXED_PREC_SCALE"), bool("AUTO_INCREMENT"),
+      string("LOCAL_TYPE_NAME"), int64("MINIMUM_SCALE"), int64("MAXIMUM_SCALE"),
+      int64("SQL_DATA_TYPE"), int64("SQL_DATETIME_SUB"), int64("NUM_PREC_RADIX"));
+
+  static final List<Struct> TYPE_INFO = Collections.unmodifiableList(Arrays.asList(
+      typeInfo("BOOL", Types.BOOLEAN, 1L, null, null, null, false, 2L, true, 1L, 1L),
+      typeInfo("BYTES", Types.BINARY, 5000000L, "0x", null, "LENGTH", false, 2L, true, 1L,
+          5000000L),
+      typeInfo("DATE", Types.DATE, 8L, "{d '", "'}", null, false, 2L, true, 8L, 8L),
+      typeInfo("FLOAT64", Types.DOUBLE, 15L, null, null, null, false, 2L, false, 15L, 15L),
+      typeInfo("INT64", Types.BIGINT, 19L, null, null, null, false, 2L, false, 19L, 19L),
+      typeInfo("STRING", Types.NVARCHAR, 5000000L, "'", "'", "LENGTH", true, 3L, true, 1L,
+          5000000L),
+      typeInfo("TIMESTAMP", Types.TIMESTAMP, 19L, "{ts '", "'}", null, false, 2L, true, 19L,
+          19L)));
+
+  private static Struct typeInfo(String name, int dataType, long precision, String literalPrefix,
+      String literalSuffix, String createParams, boolean caseSensitive, long searchable,
+      boolean unsigned, long minimumScale, long maximumScale) {
+    return Struct.newBuilder().set("TYPE_NAME").to(name).set("DATA_TYPE").to(dataType)
+        .set("PRECISION").to(precision).set("LITERAL_PREFIX").to(literalPrefix)
+        .set("LITERAL_SUFFIX").to(literalSuffix).set("CREATE_PARAMS").to(createParams)
+        .set("NULLABLE").to(1L).set("CASE_SENSITIVE").to(caseSensitive).set("SEARCHABLE")
+        .to(searchable).set("UNSIGNED_ATTRIBUTE").to(unsigned).set("FIXED_PREC_SCALE").to(false)
+        .set("AUTO_INCREMENT").to(false).set("LOCAL_TYPE_NAME").to(name).set("MINIMUM_SCALE")
+        .to(minimumScale).set("MAXIMUM_SCALE").to(maximumScale).set("SQL_DATA_TYPE")
+        .to((Long) null).set("SQL_DATETIME_SUB").to((Long) null).set("NUM_PREC_RADIX")
+        .to((Long) null).build();
+  }
+
+  static final Type UDTS_TYPE = Type.struct(int64("TYPE_CAT"), int64("TYPE_SCHEM"),
+      int64("TYPE_NAME"), int64("CLASS_NAME"), int64("DATA_TYPE"), int64("REMARKS"),
+      int64("BASE_TYPE"));
+
+  static final Type SUPER_TYPES_TYPE =
+      Type.struct(string("TYPE_CAT"), string("TYPE_SCHEM"), string("TYPE_NAME"),
+          string("SUPERTYPE_CAT"), string("SUPERTYPE_SCHEM"), string("SUPERTYPE_NAME"));
+
+  static final Type SUPER_TABLES_TYPE = Type.struct(string("TABLE_CAT"), string("TABLE_SCHEM"),
+      string("TABLE_NAME"), string("SUPERTABLE_NAME"));
+
+  static final Type ATTRIBUTES_TYPE = Type.struct(string("TYPE_CAT"), string("TYPE_SCHEM"),
+      string("TYPE_NAME"), string("ATTR_NAME"), int64("DATA_TYPE"), string("ATTR_TYPE_NAME"),
+      int64("ATTR_SIZE"), int64("DECIMAL_DIGITS"), int64("NUM_PREC_RADIX"), int64("NULLABLE"),
+      string("REMARKS"), string("ATTR_DEF"), int64("SQL_DATA_TYPE"), int64("SQL_DATETIME_SUB"),
+      int64("CHAR_OCTET_LENGTH"), int64("ORDINAL_POSITION"), string("IS_NULLABLE"),
+      string("SCOPE_CATALOG"), string("SCOPE_SCHEMA"), string("SCOPE_TABLE"),
+      int64("SOURCE_DATA_TYPE"));
+
+  static final Type CLIENT_INFO_PROPERTIES_TYPE = Type.struct(string("NAME"), int64("MAX_LEN"),
+      string("DEFAULT_VALUE"), string("DESCRIPTION"));
+
+  static final Type FUNCTIONS_TYPE = Type.struct(string("FUNCTION_CAT"), string("FUNCTION_SCHEM"),
+      string("FUNCTION_NAME"), string("REMARKS"), int64("FUNCTION_TYPE"), string("SPECIFIC_NAME"));
+
+  static final Type FUNCTION_COLUMNS_TYPE = Type.struct(string("FUNCTION_CAT"),
+      string("FUNCTION_SCHEM"), string("FUNCTION_NAME"), string("COLUMN_NAME"),
+      int64("COLUMN_TYPE"), int64("DATA_TYPE"), string("TYPE_NAME"), int64("PRECISION"),
+      int64("LENGTH"), int64("SCALE"), int64("RADIX"), int64("NULLABLE"), string("REMARKS"),
+      int64("CHAR_OCTET_LENGTH"), int64("ORDINAL_POSITION"), string("IS_NULLABLE"),
+      string("SPECIFIC_NAME"));
+
+  static final Type PSEUDO_COLUMNS_TYPE = Type.struct(string("TABLE_CAT"), string("TABLE_SCHEM"),
+      string("TABLE_NAME"), string("COLUMN_NAME"), int64("DATA_TYPE"), int64("COLUMN_SIZE"),
+      int64("DECIMAL_DIGITS"), int64("NUM_PREC_RADIX"), string("COLUMN_USAGE"), int64("REMARKS"),
+      int64("CHAR_OCTET_LENGTH"), string("IS_NULLABLE"));
 
   public static final String GET_COLUMNS =
       "SELECT TABLE_CATALOG AS TABLE_CAT, TABLE_SCHEMA AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, \n"
@@ -6,13 +6,11 @@ import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import com.google.auth.Credentials;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.NoCredentials;
@@ -21,7 +19,9 @@ import com.google.cloud.spanner.SpannerExceptionFactory;
 import com.google.cloud.spanner.SpannerOptions;
 import com.google.cloud.spanner.SpannerOptions.Builder;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import nl.topicus.jdbc.CloudSpannerConnection.CloudSpannerDatabaseSpecification;
+import nl.topicus.jdbc.statement.AsyncStatementExecutor;
 
 public class CloudSpannerDriver implements Driver {
   static {
@@ -42,6 +42,26 @@ public class CloudSpannerDriver implements Driver {
   // the number of milliseconds before a transaction is considered long-running
   private static long longTransactionTrigger = 10000L;
 
+  /**
+   * The default maximum number of asynchronous statement requests that are executed at the same
+   * time
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_ASYNC_REQUESTS = 64;
+
+  private static Executor asyncExecutor;
+
+  private static int maxConcurrentAsyncRequests = DEFAULT_MAX_CONCURRENT_ASYNC_REQUESTS;
+
+  private static AsyncStatementExecutor asyncStatementExecutor;
+
+  private static AsyncStatementExecutor readAheadExecutor;
+
+  private static final SchemaMetaDataCache schemaMetaDataCache = new SchemaMetaDataCache();
+
+  private static final DdlBatcher ddlBatcher = new DdlBatcher();
+
+  private static final SessionPoolWarmer sessionPoolWarmer = new SessionPoolWarmer();
+
   static final int MAJOR_VERSION = 1;
 
   static final int MINOR_VERSION = 0;
@@ -53,19 +73,24 @@ public class CloudSpannerDriver implements Driver {
 
     private final Credentials credentials;
 
-    private SpannerKey(String host, String projectId, Credentials credentials) {
+    private final SessionPoolSettings sessionPoolSettings;
+
+    private SpannerKey(String host, String projectId, Credentials credentials,
+        SessionPoolSettings sessionPoolSettings) {
       this.host = host;
       this.projectId = projectId;
       this.credentials = credentials;
+      this.sessionPoolSettings = sessionPoolSettings;
     }
 
-    private static SpannerKey of(String host, String projectId, Credentials credentials) {
-      return new SpannerKey(host, projectId, credentials);
+    static SpannerKey of(String host, String projectId, Credentials credentials,
+        SessionPoolSettings sessionPoolSettings) {
+      return new SpannerKey(host, projectId, credentials, sessionPoolSettings);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(host, projectId, credentials);
+      return Objects.hash(host, projectId, credentials, sessionPoolSettings);
     }
 
     @Override
@@ -76,21 +101,20 @@ public class CloudSpannerDriver implements Driver {
         return false;
       SpannerKey other = (SpannerKey) o;
       return Objects.equals(host, other.host) && Objects.equals(projectId, other.projectId)
-          && Objects.equals(credentials, other.credentials);
+          && Objects.equals(credentials, other.credentials)
+          && Objects.equals(sessionPoolSettings, other.sessionPoolSettings);
     }
   }
 
-  /**
-   * Keep track of all connections that are opened, so that we know which Spanner instances to
-   * close.
-   */
-  private Map<Spanner, List<CloudSpannerConnection>> connections = new HashMap<>();
-
   /**
    * Keep track of all spanner instances that are opened by the driver so that these can be reused
-   * for new connections to the same project and with the same credentials.
+   * for new connections to the same project and with the same credentials, and of all connections
+   * that are opened, so that we know which Spanner instances to close. The close listener is a
+   * lambda, as the registry of the driver that is registered in the static initializer is created
+   * before the session pool warmer has been initialized.
    */
-  private Map<SpannerKey, Spanner> spanners = new HashMap<>();
+  private final SpannerRegistry spanners =
+      new SpannerRegistry(this::createSpanner, spanner -> sessionPoolWarmer.remove(spanner));
 
   private class CloseSpannerRunnable implements Runnable {
     @Override
@@ -107,7 +131,7 @@ public class CloudSpannerDriver implements Driver {
    * Thread that will be run as a shutdown hook on closing the application. This thread will close
    * any Spanner instances opened by the driver that are still open.
    */
-  private Thread shutdownThread = null;
+  private volatile Thread shutdownThread = null;
 
   /**
    * 
@@ -139,22 +163,52 @@ public class CloudSpannerDriver implements Driver {
     CloudSpannerDatabaseSpecification database = new CloudSpannerDatabaseSpecification(
         properties.project, properties.instance, properties.database);
     CloudSpannerConnection connection = new CloudSpannerConnection(this, url, database,
-        properties.keyFile, properties.oauthToken, info, properties.useCustomHost);
-    connection.setSimulateProductName(properties.productName);
-    connection.setSimulateMajorVersion(properties.majorVersion);
-    connection.setSimulateMinorVersion(properties.minorVersion);
-    connection.setAllowExtendedMode(properties.allowExtendedMode);
-    connection.setOriginalAllowExtendedMode(properties.allowExtendedMode);
-    connection.setAsyncDdlOperations(properties.asyncDdlOperations);
-    connection.setOriginalAsyncDdlOperations(properties.asyncDdlOperations);
-    connection.setAutoBatchDdlOperations(properties.autoBatchDdlOperations);
-    connection.setOriginalAutoBatchDdlOperations(properties.autoBatchDdlOperations);
-    connection.setReportDefaultSchemaAsNull(properties.reportDefaultSchemaAsNull);
-    connection.setOriginalReportDefaultSchemaAsNull(properties.reportDefaultSchemaAsNull);
-    connection.setBatchReadOnly(properties.batchReadOnlyMode);
-    connection.setOriginalBatchReadOnly(properties.batchReadOnlyMode);
-    connection.setUseCustomHost(properties.useCustomHost);
-    registerConnection(connection);
+        properties.keyFile, properties.oauthToken, info, properties.useCustomHost,
+        SessionPoolSettings.of(properties));
+    boolean registered = false;
+    try {
+      connection.setSimulateProductName(properties.productName);
+      connection.setSimulateMajorVersion(properties.majorVersion);
+      connection.setSimulateMinorVersion(properties.minorVersion);
+      connection.setAllowExtendedMode(properties.allowExtendedMode);
+      connection.setOriginalAllowExtendedMode(properties.allowExtendedMode);
+      connection.setAsyncDdlOperations(properties.asyncDdlOperations);
+      connection.setOriginalAsyncDdlOperations(properties.asyncDdlOperations);
+      connection.setAutoBatchDdlOperations(properties.autoBatchDdlOperations);
+      connection.setOriginalAutoBatchDdlOperations(properties.autoBatchDdlOperations);
+      connection.setReportDefaultSchemaAsNull(properties.reportDefaultSchemaAsNull);
+      connection.setOriginalReportDefaultSchemaAsNull(properties.reportDefaultSchemaAsNull);
+      connection.setBatchReadOnly(properties.batchReadOnlyMode);
+      connection.setOriginalBatchReadOnly(properties.batchReadOnlyMode);
+      connection.setUseCustomHost(properties.useCustomHost);
+      connection.setUseSchemaSnapshot(properties.useSchemaSnapshot);
+      connection.setOriginalUseSchemaSnapshot(properties.useSchemaSnapshot);
+      if (properties.scrollableResultSetMemoryThreshold != null)
+        connection.setScrollableResultSetMemoryThreshold(
+            properties.scrollableResultSetMemoryThreshold);
+      if (properties.validationWindow != null) {
+        connection.setValidationWindow(properties.validationWindow);
+        connection.setOriginalValidationWindow(properties.validationWindow);
+      }
+      registerConnection(connection);
+      registered = true;
+    } finally {
+      // A connection that has not been registered cannot be closed, so the reference to its
+      // Spanner instance must be released here
+      if (!registered) {
+        connection.markClosed();
+        releaseSpanner(connection.getSpanner());
+      }
+    }
+    if (properties.warmUpSessions != null && properties.warmUpSessions > 0) {
+      try {
+        connection.warmUp(properties.warmUpSessions,
+            properties.warmUpTimeout == null ? 0L : properties.warmUpTimeout);
+      } catch (SQLException e) {
+        connection.close();
+        throw e;
+      }
+    }
 
     return connection;
   }
@@ -169,62 +223,74 @@ public class CloudSpannerDriver implements Driver {
    */
   public synchronized void closeSpanner() {
     try {
-      for (Entry<Spanner, List<CloudSpannerConnection>> entry : connections.entrySet()) {
-        List<CloudSpannerConnection> list = entry.getValue();
-        for (CloudSpannerConnection con : list) {
-          if (!con.isClosed()) {
-            con.rollback();
-            con.markClosed();
-          }
-        }
-        entry.getKey().close();
-      }
-      connections.clear();
-      spanners.clear();
+      spanners.closeAll();
     } catch (SQLException e) {
       throw SpannerExceptionFactory.newSpannerException(e);
     }
   }
 
-  private synchronized void registerConnection(CloudSpannerConnection connection) {
+  private void registerConnection(CloudSpannerConnection connection) {
     if (shutdownThread == null) {
-      shutdownThread = new Thread(new CloseSpannerRunnable(), "CloudSpannerDriver shutdown hook");
-      Runtime.getRuntime().addShutdownHook(shutdownThread);
-    }
-    List<CloudSpannerConnection> list = connections.get(connection.getSpanner());
-    if (list == null) {
-      list = new ArrayList<>();
-      connections.put(connection.getSpanner(), list);
+      synchronized (this) {
+        if (shutdownThread == null) {
+          shutdownThread =
+              new Thread(new CloseSpannerRunnable(), "CloudSpannerDriver shutdown hook");
+          Runtime.getRuntime().addShutdownHook(shutdownThread);
+        }
+      }
     }
-    list.add(connection);
+    spanners.registerConnection(connection);
   }
 
-  synchronized void closeConnection(CloudSpannerConnection connection) {
-    List<CloudSpannerConnection> list = connections.get(connection.getSpanner());
-    if (list == null)
-      throw new IllegalStateException("Connection is not registered");
-    if (!list.remove(connection))
-      throw new IllegalStateException("Connection is not registered");
+  void closeConnection(CloudSpannerConnection connection) {
+    spanners.closeConnection(connection);
   }
 
   /**
-   * Get a {@link Spanner} instance from the pool or create a new one if needed.
+   * Releases a {@link Spanner} instance that was obtained by a connection that could not be
+   * opened.
+   * 
+   * @param spanner The {@link Spanner} instance that is no longer used by the connection
+   */
+  void releaseSpanner(Spanner spanner) {
+    spanners.release(spanner);
+  }
+
+  /**
+   * @return The registry of the {@link Spanner} instances of this driver. Use
+   *         {@link SpannerRegistry#setIdleTimeout(long, java.util.concurrent.TimeUnit)} to change
+   *         the time after which instances that are not used by any connection are closed.
+   */
+  public SpannerRegistry getSpannerRegistry() {
+    return spanners;
+  }
+
+  /**
+   * Get a {@link Spanner} instance from the pool or create a new one if needed. The instance must
+   * be released by closing the connection that uses it.
    * 
    * @param projectId The projectId to connect to
    * @param credentials The credentials to use for the connection
    * @param host The host to connect to. Normally this is https://spanner.googleapis.com, but you
    *        could also use a (local) emulator. If null, no host will be set and the default host of
    *        Google Cloud Spanner will be used.
+   * @param sessionPoolSettings The session pool and channel settings of the instance
    * @return The {@link Spanner} instance to use
    */
-  synchronized Spanner getSpanner(String projectId, Credentials credentials, String host) {
-    SpannerKey key = SpannerKey.of(host, projectId, credentials);
-    Spanner spanner = spanners.get(key);
-    if (spanner == null) {
-      spanner = createSpanner(key);
-      spanners.put(key, spanner);
-    }
-    return spanner;
+  Spanner getSpanner(String projectId, Credentials credentials, String host,
+      SessionPoolSettings sessionPoolSettings) {
+    return spanners.acquire(SpannerKey.of(host, projectId, credentials, sessionPoolSettings));
+  }
+
+  /**
+   * 
+   * @param spanner The {@link Spanner} instance
+   * @return The holder of the time ({@link System#nanoTime()}) of the last successful call on the
+   *         given instance. The value is 0 if no call has succeeded yet. All connections that use
+   *         the same instance share the same holder.
+   */
+  AtomicLong getLastSuccessfulCall(Spanner spanner) {
+    return spanners.getLastSuccessfulCall(spanner);
   }
 
   private Spanner createSpanner(SpannerKey key) {
@@ -237,6 +303,7 @@ public class CloudSpannerDriver implements Driver {
       builder.setCredentials(NoCredentials.getInstance());
     if (key.host != null)
       builder.setHost(key.host);
+    key.sessionPoolSettings.apply(builder);
     SpannerOptions options = builder.build();
     return options.getService();
   }
@@ -339,6 +406,108 @@ public class CloudSpannerDriver implements Driver {
     }
   }
 
+  /**
+   * Sets the executor that is used for the asynchronous execution of statements, see
+   * {@link nl.topicus.jdbc.statement.ICloudSpannerStatement}. Requests that are already running or
+   * waiting for execution are not affected. If no executor has been set, the driver uses a cached
+   * thread pool of daemon threads.
+   * 
+   * @param executor The executor to use, or <code>null</code> to use the default executor of the
+   *        driver
+   */
+  public static void setAsyncExecutor(Executor executor) {
+    synchronized (CloudSpannerDriver.class) {
+      asyncExecutor = executor;
+      asyncStatementExecutor = null;
+      readAheadExecutor = null;
+    }
+  }
+
+  /**
+   * Sets the maximum number of asynchronous statement requests that are executed at the same time.
+   * Each request uses a session of the session pool while it is being executed, and additional
+   * requests are queued until a running request has finished. The same limit applies separately to
+   * the tasks that read ahead the rows of result sets. The default is
+   * {@link #DEFAULT_MAX_CONCURRENT_ASYNC_REQUESTS}.
+   * 
+   * @param maxRequests The maximum number of concurrent requests. Only values larger than zero are
+   *        allowed.
+   */
+  public static void setMaxConcurrentAsyncRequests(int maxRequests) {
+    synchronized (CloudSpannerDriver.class) {
+      Preconditions.checkArgument(maxRequests > 0);
+      maxConcurrentAsyncRequests = maxRequests;
+      asyncStatementExecutor = null;
+      readAheadExecutor = null;
+    }
+  }
+
+  public static int getMaxConcurrentAsyncRequests() {
+    synchronized (CloudSpannerDriver.class) {
+      return maxConcurrentAsyncRequests;
+    }
+  }
+
+  /**
+   * @return The executor that executes the asynchronous statement requests of all connections of
+   *         this driver
+   */
+  public static AsyncStatementExecutor getAsyncStatementExecutor() {
+    synchronized (CloudSpannerDriver.class) {
+      if (asyncStatementExecutor == null)
+        asyncStatementExecutor =
+            new AsyncStatementExecutor(getAsyncExecutor(), maxConcurrentAsyncRequests);
+      return asyncStatementExecutor;
+    }
+  }
+
+  /**
+   * @return The executor that reads ahead the rows of the result sets of all connections of this
+   *         driver when a fetch size has been set. It uses the same threads as the asynchronous
+   *         statement requests, but has its own limit on the number of concurrent tasks, so that
+   *         reading ahead is never blocked by asynchronous requests that are waiting for rows.
+   */
+  public static AsyncStatementExecutor getReadAheadExecutor() {
+    synchronized (CloudSpannerDriver.class) {
+      if (readAheadExecutor == null)
+        readAheadExecutor =
+            new AsyncStatementExecutor(getAsyncExecutor(), maxConcurrentAsyncRequests);
+      return readAheadExecutor;
+    }
+  }
+
+  private static Executor getAsyncExecutor() {
+    synchronized (CloudSpannerDriver.class) {
+      if (asyncExecutor == null) {
+        asyncExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+            .setNameFormat("Google Cloud Spanner JDBC Async Executor-%d").build());
+      }
+      return asyncExecutor;
+    }
+  }
+
+  /**
+   * @return The cache of schema meta data that is shared by all connections of this driver. Use
+   *         {@link SchemaMetaDataCache#setTtl(long, java.util.concurrent.TimeUnit)} to change the
+   *         time-to-live of the cached meta data or to disable the cache.
+   */
+  public static SchemaMetaDataCache getSchemaMetaDataCache() {
+    return schemaMetaDataCache;
+  }
+
+  /**
+   * @return The batcher that coalesces the DDL-statements of all connections of this driver to the
+   *         same database. The batcher is disabled by default. Use
+   *         {@link DdlBatcher#setWindow(long, java.util.concurrent.TimeUnit)} to enable it.
+   */
+  public static DdlBatcher getDdlBatcher() {
+    return ddlBatcher;
+  }
+
+  static SessionPoolWarmer getSessionPoolWarmer() {
+    return sessionPoolWarmer;
+  }
+
   public static void setLogLevel(int logLevel) {
     synchronized (CloudSpannerDriver.class) {
       logger.setLogLevel(logLevel);
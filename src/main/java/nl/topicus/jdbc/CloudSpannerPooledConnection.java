@@ -165,6 +165,19 @@ public class CloudSpannerPooledConnection implements PooledConnection, AutoClose
     return proxyCon;
   }
 
+  /**
+   * Checks the state of the physical connection without a round trip to the database.
+   *
+   * @return <code>true</code> if the physical connection of this pooled connection is still open
+   */
+  boolean isPhysicalConnectionOpen() {
+    try {
+      return con != null && !con.isClosed();
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
   private void rollbackAndIgnoreException() {
     try {
       con.rollback();
@@ -7,7 +7,7 @@ import com.google.rpc.Code;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 
 final class ConnectionProperties {
-  public static final int NUMBER_OF_PROPERTIES = 14;
+  public static final int NUMBER_OF_PROPERTIES = 25;
 
   static String getPropertyName(String propertyPart) {
     return propertyPart.substring(0, propertyPart.length() - 1);
@@ -33,6 +33,18 @@ final class ConnectionProperties {
   static final String REPORT_DEFAULT_SCHEMA_AS_NULL = "ReportDefaultSchemaAsNull=";
   static final String BATCH_READ_ONLY_MODE = "BatchReadOnlyMode=";
   static final String USE_CUSTOM_HOST = "UseCustomHost=";
+  static final String SCROLLABLE_RESULT_SET_MEMORY_THRESHOLD =
+      "ScrollableResultSetMemoryThreshold=";
+  static final String USE_SCHEMA_SNAPSHOT = "UseSchemaSnapshot=";
+  static final String VALIDATION_WINDOW = "ValidationWindow=";
+  static final String MIN_SESSIONS = "MinSessions=";
+  static final String MAX_SESSIONS = "MaxSessions=";
+  static final String WRITE_SESSIONS_FRACTION = "WriteSessionsFraction=";
+  static final String KEEP_ALIVE_INTERVAL_MINUTES = "KeepAliveIntervalMinutes=";
+  static final String NUM_CHANNELS = "NumChannels=";
+  static final String FAIL_IF_POOL_EXHAUSTED = "FailIfPoolExhausted=";
+  static final String WARM_UP_SESSIONS = "WarmUpSessions=";
+  static final String WARM_UP_TIMEOUT = "WarmUpTimeout=";
 
   String project = null;
   String instance = null;
@@ -48,6 +60,17 @@ final class ConnectionProperties {
   boolean reportDefaultSchemaAsNull = true;
   boolean batchReadOnlyMode = false;
   boolean useCustomHost = false;
+  Long scrollableResultSetMemoryThreshold = null;
+  boolean useSchemaSnapshot = false;
+  Integer validationWindow = null;
+  Integer minSessions = null;
+  Integer maxSessions = null;
+  Float writeSessionsFraction = null;
+  Integer keepAliveIntervalMinutes = null;
+  Integer numChannels = null;
+  boolean failIfPoolExhausted = false;
+  Integer warmUpSessions = null;
+  Integer warmUpTimeout = null;
 
   static ConnectionProperties parse(String url) throws SQLException {
     ConnectionProperties res = new ConnectionProperties();
@@ -91,6 +114,32 @@ final class ConnectionProperties {
           res.batchReadOnlyMode = Boolean.valueOf(conPart.substring(BATCH_READ_ONLY_MODE.length()));
         else if (conPartLower.startsWith(USE_CUSTOM_HOST.toLowerCase()))
           res.useCustomHost = Boolean.valueOf(conPart.substring(USE_CUSTOM_HOST.length()));
+        else if (conPartLower.startsWith(SCROLLABLE_RESULT_SET_MEMORY_THRESHOLD.toLowerCase()))
+          res.scrollableResultSetMemoryThreshold = parseLong(
+              conPart.substring(SCROLLABLE_RESULT_SET_MEMORY_THRESHOLD.length()));
+        else if (conPartLower.startsWith(USE_SCHEMA_SNAPSHOT.toLowerCase()))
+          res.useSchemaSnapshot = Boolean.valueOf(conPart.substring(USE_SCHEMA_SNAPSHOT.length()));
+        else if (conPartLower.startsWith(VALIDATION_WINDOW.toLowerCase()))
+          res.validationWindow = parseInteger(conPart.substring(VALIDATION_WINDOW.length()));
+        else if (conPartLower.startsWith(MIN_SESSIONS.toLowerCase()))
+          res.minSessions = parseInteger(conPart.substring(MIN_SESSIONS.length()));
+        else if (conPartLower.startsWith(MAX_SESSIONS.toLowerCase()))
+          res.maxSessions = parseInteger(conPart.substring(MAX_SESSIONS.length()));
+        else if (conPartLower.startsWith(WRITE_SESSIONS_FRACTION.toLowerCase()))
+          res.writeSessionsFraction =
+              parseFloat(conPart.substring(WRITE_SESSIONS_FRACTION.length()));
+        else if (conPartLower.startsWith(KEEP_ALIVE_INTERVAL_MINUTES.toLowerCase()))
+          res.keepAliveIntervalMinutes =
+              parseInteger(conPart.substring(KEEP_ALIVE_INTERVAL_MINUTES.length()));
+        else if (conPartLower.startsWith(NUM_CHANNELS.toLowerCase()))
+          res.numChannels = parseInteger(conPart.substring(NUM_CHANNELS.length()));
+        else if (conPartLower.startsWith(FAIL_IF_POOL_EXHAUSTED.toLowerCase()))
+          res.failIfPoolExhausted =
+              Boolean.valueOf(conPart.substring(FAIL_IF_POOL_EXHAUSTED.length()));
+        else if (conPartLower.startsWith(WARM_UP_SESSIONS.toLowerCase()))
+          res.warmUpSessions = parseInteger(conPart.substring(WARM_UP_SESSIONS.length()));
+        else if (conPartLower.startsWith(WARM_UP_TIMEOUT.toLowerCase()))
+          res.warmUpTimeout = parseInteger(conPart.substring(WARM_UP_TIMEOUT.length()));
         else
           throw new CloudSpannerSQLException("Unknown URL parameter " + conPart,
               Code.INVALID_ARGUMENT);
@@ -107,7 +156,23 @@ final class ConnectionProperties {
     }
   }
 
-  private static String defaultString(Integer val) {
+  private static Long parseLong(String val) {
+    try {
+      return Long.valueOf(val);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static Float parseFloat(String val) {
+    try {
+      return val == null ? null : Float.valueOf(val);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static String defaultString(Number val) {
     return val == null ? null : val.toString();
   }
 
@@ -163,6 +228,32 @@ final class ConnectionProperties {
       useCustomHost = Boolean.valueOf(lowerCaseInfo.getProperty(
           USE_CUSTOM_HOST.substring(0, USE_CUSTOM_HOST.length() - 1).toLowerCase(),
           String.valueOf(useCustomHost)));
+      scrollableResultSetMemoryThreshold = parseLong(lowerCaseInfo.getProperty(
+          getPropertyName(SCROLLABLE_RESULT_SET_MEMORY_THRESHOLD).toLowerCase(),
+          defaultString(scrollableResultSetMemoryThreshold)));
+      useSchemaSnapshot = Boolean.valueOf(lowerCaseInfo.getProperty(
+          getPropertyName(USE_SCHEMA_SNAPSHOT).toLowerCase(), String.valueOf(useSchemaSnapshot)));
+      validationWindow = parseInteger(lowerCaseInfo.getProperty(
+          getPropertyName(VALIDATION_WINDOW).toLowerCase(), defaultString(validationWindow)));
+      minSessions = parseInteger(lowerCaseInfo
+          .getProperty(getPropertyName(MIN_SESSIONS).toLowerCase(), defaultString(minSessions)));
+      maxSessions = parseInteger(lowerCaseInfo
+          .getProperty(getPropertyName(MAX_SESSIONS).toLowerCase(), defaultString(maxSessions)));
+      writeSessionsFraction = parseFloat(
+          lowerCaseInfo.getProperty(getPropertyName(WRITE_SESSIONS_FRACTION).toLowerCase(),
+              defaultString(writeSessionsFraction)));
+      keepAliveIntervalMinutes = parseInteger(
+          lowerCaseInfo.getProperty(getPropertyName(KEEP_ALIVE_INTERVAL_MINUTES).toLowerCase(),
+              defaultString(keepAliveIntervalMinutes)));
+      numChannels = parseInteger(lowerCaseInfo
+          .getProperty(getPropertyName(NUM_CHANNELS).toLowerCase(), defaultString(numChannels)));
+      failIfPoolExhausted = Boolean.valueOf(
+          lowerCaseInfo.getProperty(getPropertyName(FAIL_IF_POOL_EXHAUSTED).toLowerCase(),
+              String.valueOf(failIfPoolExhausted)));
+      warmUpSessions = parseInteger(lowerCaseInfo.getProperty(
+          getPropertyName(WARM_UP_SESSIONS).toLowerCase(), defaultString(warmUpSessions)));
+      warmUpTimeout = parseInteger(lowerCaseInfo.getProperty(
+          getPropertyName(WARM_UP_TIMEOUT).toLowerCase(), defaultString(warmUpTimeout)));
       if (!CloudSpannerDriver.logLevelSet)
         CloudSpannerDriver.setLogLevel(CloudSpannerDriver.OFF);
     }
@@ -230,6 +321,47 @@ final class ConnectionProperties {
         String.valueOf(useCustomHost));
     res[13].description =
         "Connect to a custom host instead of https://spanner.googleapis.com. This enables the use of a local emulator instead of Google Cloud Spanner";
+    res[14] = new DriverPropertyInfo(getPropertyName(SCROLLABLE_RESULT_SET_MEMORY_THRESHOLD),
+        defaultString(scrollableResultSetMemoryThreshold));
+    res[14].description =
+        "The maximum number of bytes of row data that a scrollable (TYPE_SCROLL_INSENSITIVE) result set keeps in memory. Any rows above this threshold are kept in a memory-mapped temporary file. The default is 16MB.";
+    res[15] = new DriverPropertyInfo(getPropertyName(USE_SCHEMA_SNAPSHOT),
+        String.valueOf(useSchemaSnapshot));
+    res[15].description =
+        "Answer the schema methods of DatabaseMetaData (getTables, getColumns, getPrimaryKeys, getIndexInfo, getImportedKeys and getExportedKeys) from an in-memory snapshot of the schema. The snapshot is loaded with one query for each kind of meta data, and is shared by all connections to the same database. It is refreshed when a DDL-statement is executed or when the schema meta data cache of the driver expires.";
+    res[16] = new DriverPropertyInfo(getPropertyName(VALIDATION_WINDOW),
+        defaultString(validationWindow));
+    res[16].description =
+        "The number of milliseconds after a successful call to Cloud Spanner during which Connection#isValid(int) returns true without a round trip to Cloud Spanner. The window applies to calls of all connections that share the same underlying Spanner instance. The default is 0, which means that isValid always executes a query on Cloud Spanner.";
+    res[17] = new DriverPropertyInfo(getPropertyName(MIN_SESSIONS), defaultString(minSessions));
+    res[17].description =
+        "The minimum number of sessions in the session pool of the underlying Spanner instance. Connections only share a Spanner instance if they use the same session pool settings. The default is the default of the client library.";
+    res[18] = new DriverPropertyInfo(getPropertyName(MAX_SESSIONS), defaultString(maxSessions));
+    res[18].description =
+        "The maximum number of sessions in the session pool of the underlying Spanner instance. The default is the default of the client library.";
+    res[19] = new DriverPropertyInfo(getPropertyName(WRITE_SESSIONS_FRACTION),
+        defaultString(writeSessionsFraction));
+    res[19].description =
+        "The fraction (0.0-1.0) of the sessions in the session pool that are prepared for read/write transactions. The default is the default of the client library.";
+    res[20] = new DriverPropertyInfo(getPropertyName(KEEP_ALIVE_INTERVAL_MINUTES),
+        defaultString(keepAliveIntervalMinutes));
+    res[20].description =
+        "The interval in minutes at which idle sessions in the session pool are kept alive. The default is the default of the client library.";
+    res[21] = new DriverPropertyInfo(getPropertyName(NUM_CHANNELS), defaultString(numChannels));
+    res[21].description =
+        "The number of gRPC channels of the underlying Spanner instance. The default is the default of the client library.";
+    res[22] = new DriverPropertyInfo(getPropertyName(FAIL_IF_POOL_EXHAUSTED),
+        String.valueOf(failIfPoolExhausted));
+    res[22].description =
+        "Fail immediately (true) instead of waiting (false) when a session is needed and the session pool has reached its maximum number of sessions. The default is false.";
+    res[23] =
+        new DriverPropertyInfo(getPropertyName(WARM_UP_SESSIONS), defaultString(warmUpSessions));
+    res[23].description =
+        "The number of sessions that the driver creates for the database when the first connection to the database is opened. A part of these sessions is prepared for read/write transactions according to WriteSessionsFraction. The warm-up also sets up the gRPC channels of the underlying Spanner instance. Each database is only warmed up once for each Spanner instance. The default is 0, which disables the warm-up.";
+    res[24] =
+        new DriverPropertyInfo(getPropertyName(WARM_UP_TIMEOUT), defaultString(warmUpTimeout));
+    res[24].description =
+        "The maximum number of milliseconds that opening a connection waits for the warm-up of the session pool to finish. The connection is returned when the timeout expires, and the warm-up continues in the background. The default is 0, which means that the connection is returned immediately.";
 
     return res;
   }
@@ -6,8 +6,15 @@ import java.io.StringReader;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.regex.Pattern;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Statement;
 import com.google.rpc.Code;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 
@@ -35,6 +42,12 @@ class DDLStatement {
       boolean exists(CloudSpannerConnection connection, String objectName) throws SQLException {
         return false;
       }
+
+      @Override
+      Set<String> getExistingObjects(CloudSpannerConnection connection, Set<String> objectNames)
+          throws SQLException {
+        return new HashSet<>();
+      }
     },
     TABLE {
       @Override
@@ -43,6 +56,16 @@ class DDLStatement {
           return rs.next();
         }
       }
+
+      @Override
+      Set<String> getExistingObjects(CloudSpannerConnection connection, Set<String> objectNames)
+          throws SQLException {
+        return queryExistingObjects(connection,
+            "SELECT UPPER(TABLE_NAME) AS NAME FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_CATALOG='' AND TABLE_SCHEMA='' "
+                + "AND UPPER(TABLE_NAME) IN UNNEST(@names)",
+            objectNames);
+      }
     },
     INDEX {
       @Override
@@ -51,10 +74,47 @@ class DDLStatement {
           return rs.next();
         }
       }
+
+      @Override
+      Set<String> getExistingObjects(CloudSpannerConnection connection, Set<String> objectNames)
+          throws SQLException {
+        return queryExistingObjects(connection,
+            "SELECT DISTINCT UPPER(INDEX_NAME) AS NAME FROM INFORMATION_SCHEMA.INDEXES "
+                + "WHERE TABLE_CATALOG='' AND TABLE_SCHEMA='' "
+                + "AND UPPER(INDEX_NAME) IN UNNEST(@names)",
+            objectNames);
+      }
     };
 
     abstract boolean exists(CloudSpannerConnection connection, String objectName)
         throws SQLException;
+
+    /**
+     * Checks the existence of a number of objects of this type with one query.
+     * 
+     * @param connection The connection to use to query the database
+     * @param objectNames The upper case names of the objects to check
+     * @return The upper case names of the objects that exist
+     * @throws SQLException If the query failed
+     */
+    abstract Set<String> getExistingObjects(CloudSpannerConnection connection,
+        Set<String> objectNames) throws SQLException;
+
+    private static Set<String> queryExistingObjects(CloudSpannerConnection connection, String sql,
+        Set<String> objectNames) throws SQLException {
+      Statement statement =
+          Statement.newBuilder(sql).bind("names").toStringArray(objectNames).build();
+      Set<String> res = new HashSet<>();
+      try (com.google.cloud.spanner.ResultSet rs =
+          connection.getDbClient().singleUse().executeQuery(statement)) {
+        while (rs.next())
+          res.add(rs.getString(0));
+      } catch (SpannerException e) {
+        throw new CloudSpannerSQLException(
+            "Could not check the existence of " + objectNames + ": " + e.getMessage(), e);
+      }
+      return res;
+    }
   }
 
   enum ExistsStatement {
@@ -215,8 +275,20 @@ class DDLStatement {
   }
 
   boolean shouldExecute(CloudSpannerConnection connection) throws SQLException {
-    if (getExistsStatement() == null || getExistsStatement() == ExistsStatement.NONE)
+    if (!hasExistsStatement())
       return true;
+    return getExistsStatement().shouldExecute(getObjectType().exists(connection, getObjectName()));
+  }
+
+  /**
+   * Checks whether this statement has a valid IF [NOT] EXISTS clause.
+   * 
+   * @return <code>true</code> if the statement has an IF [NOT] EXISTS clause
+   * @throws SQLException If the clause is not valid for the command of the statement
+   */
+  private boolean hasExistsStatement() throws SQLException {
+    if (getExistsStatement() == null || getExistsStatement() == ExistsStatement.NONE)
+      return false;
     if (getExistsStatement() == ExistsStatement.IF_NOT_EXISTS && getCommand() == Command.DROP)
       throw new CloudSpannerSQLException(
           "Invalid argument: Cannot use 'IF NOT EXISTS' when dropping an object",
@@ -225,8 +297,75 @@ class DDLStatement {
       throw new CloudSpannerSQLException(
           "Invalid argument: Cannot use 'IF EXISTS' when creating an object",
           Code.INVALID_ARGUMENT);
+    return true;
+  }
 
-    return getExistsStatement().shouldExecute(getObjectType().exists(connection, getObjectName()));
+  /**
+   * Determines which statements of a batch should be executed. The IF [NOT] EXISTS clauses of all
+   * statements in the batch are resolved with at most one query per object type. Objects that are
+   * created or dropped by a statement earlier in the same batch are taken into account, so a batch
+   * containing <code>DROP TABLE IF EXISTS FOO</code> followed by
+   * <code>CREATE TABLE IF NOT EXISTS FOO (...)</code> will execute both statements if table FOO
+   * exists.
+   * 
+   * @param connection The connection to use to check the existence of objects
+   * @param statements The statements of the batch in the order in which they will be executed
+   * @return The sql of the statements that should be executed, without the IF [NOT] EXISTS clauses
+   * @throws SQLException If a statement has an invalid IF [NOT] EXISTS clause, or if the existence
+   *         of the objects could not be checked
+   */
+  static List<String> getStatementsToExecute(CloudSpannerConnection connection,
+      List<DDLStatement> statements) throws SQLException {
+    List<DDLStatement> selected = selectStatementsToExecute(connection, statements);
+    List<String> res = new ArrayList<>(selected.size());
+    for (DDLStatement statement : selected)
+      res.add(statement.getSql());
+    return res;
+  }
+
+  /**
+   * Determines which statements of a batch should be executed in the same way as
+   * {@link #getStatementsToExecute(CloudSpannerConnection, List)}, but returns the statements
+   * themselves. The returned statements still know whether they had an IF [NOT] EXISTS clause,
+   * which allows the {@link DdlBatcher} to resolve the clause again when the statements are
+   * combined with the statements of other connections.
+   * 
+   * @param connection The connection to use to check the existence of objects
+   * @param statements The statements of the batch in the order in which they will be executed
+   * @return The statements that should be executed
+   * @throws SQLException If a statement has an invalid IF [NOT] EXISTS clause, or if the existence
+   *         of the objects could not be checked
+   */
+  static List<DDLStatement> selectStatementsToExecute(CloudSpannerConnection connection,
+      List<DDLStatement> statements) throws SQLException {
+    Map<ObjectType, Set<String>> objectNames = new EnumMap<>(ObjectType.class);
+    for (DDLStatement statement : statements) {
+      if (statement.hasExistsStatement() && statement.getObjectType() != ObjectType.UNKNOWN)
+        objectNames.computeIfAbsent(statement.getObjectType(), type -> new HashSet<>())
+            .add(statement.getObjectName().toUpperCase());
+    }
+    Map<ObjectType, Set<String>> existingObjects = new EnumMap<>(ObjectType.class);
+    for (Entry<ObjectType, Set<String>> entry : objectNames.entrySet())
+      existingObjects.put(entry.getKey(),
+          entry.getKey().getExistingObjects(connection, entry.getValue()));
+
+    List<DDLStatement> res = new ArrayList<>(statements.size());
+    for (DDLStatement statement : statements) {
+      Set<String> existing = existingObjects.computeIfAbsent(statement.getObjectType(),
+          type -> new HashSet<>());
+      String name = statement.getObjectName().toUpperCase();
+      if (!statement.hasExistsStatement()
+          || statement.getExistsStatement().shouldExecute(existing.contains(name))) {
+        res.add(statement);
+        if (statement.getObjectType() != ObjectType.UNKNOWN) {
+          if (statement.getCommand() == Command.CREATE)
+            existing.add(name);
+          else if (statement.getCommand() == Command.DROP)
+            existing.remove(name);
+        }
+      }
+    }
+    return res;
   }
 
   Command getCommand() {
@@ -0,0 +1,294 @@
+package nl.topicus.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import com.google.cloud.spanner.Operation;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
+import nl.topicus.jdbc.DDLStatement.Command;
+import nl.topicus.jdbc.DDLStatement.ExistsStatement;
+import nl.topicus.jdbc.DDLStatement.ObjectType;
+
+/**
+ * Driver-wide batcher that coalesces the DDL-statements of all connections to the same database
+ * into one schema update. Cloud Spanner executes the schema updates of a database one at a time,
+ * which means that DDL-statements that are executed by different connections at the same time,
+ * for example by several services that each create their own tables at startup, will queue behind
+ * each other. When the batcher is enabled, the DDL-statements that are executed on any connection
+ * to a database within a time window are collected and sent to Cloud Spanner as one operation.
+ * Each caller waits until the combined operation has finished. Only connections that use the same
+ * {@link com.google.cloud.spanner.Spanner} instance, and therefore the same credentials and client
+ * settings, share a batch.
+ * <p>
+ * The statements of a combined operation are executed in the order in which they were submitted.
+ * If a statement of the combined operation fails, only the caller that submitted the statement
+ * receives the error. Callers whose statements were applied before the failed statement succeed,
+ * and the statements of the callers after the failed statement are executed as a new operation.
+ * <p>
+ * The IF [NOT] EXISTS clauses of the statements are resolved by each caller before the statements
+ * are added to a batch. These clauses are resolved again for the combined operation, so that a
+ * statement is skipped if an earlier statement of another caller in the same batch has already
+ * created or dropped the object. Two callers that both execute
+ * <code>CREATE TABLE IF NOT EXISTS FOO (...)</code> in the same window will therefore only create
+ * the table once. Statements without such a clause are always executed.
+ * <p>
+ * The batcher is disabled by default, and only applies to connections that execute DDL-statements
+ * synchronously.
+ *
+ * @author loite
+ *
+ */
+public final class DdlBatcher {
+  private static final int BATCH_THREADS = 4;
+
+  /**
+   * The statements of one caller in a batch
+   */
+  private static final class Part {
+    private final List<DDLStatement> statements;
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private Part(List<DDLStatement> statements) {
+      this.statements = statements;
+    }
+  }
+
+  private static final class Batch {
+    private final List<Part> parts = new ArrayList<>();
+
+    private Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> executor;
+  }
+
+  private final ConcurrentMap<Object, Batch> batches = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService scheduler;
+
+  private volatile long windowNanos;
+
+  DdlBatcher() {}
+
+  @VisibleForTesting
+  DdlBatcher(long window, TimeUnit unit, ScheduledExecutorService scheduler) {
+    this.scheduler = Preconditions.checkNotNull(scheduler);
+    setWindow(window, unit);
+  }
+
+  /**
+   * Sets the time window during which the DDL-statements of all connections to the same database
+   * are collected before they are sent to Cloud Spanner. Statements that are already waiting in a
+   * batch are not affected.
+   *
+   * @param window The length of the window. A value of zero disables the batcher, which means that
+   *        each connection sends its own DDL-statements to Cloud Spanner. This is the default.
+   * @param unit The time unit of the window
+   */
+  public void setWindow(long window, TimeUnit unit) {
+    Preconditions.checkArgument(window >= 0L, "The window may not be negative");
+    Preconditions.checkNotNull(unit);
+    this.windowNanos = unit.toNanos(window);
+  }
+
+  public long getWindow(TimeUnit unit) {
+    return unit.convert(windowNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public boolean isEnabled() {
+    return windowNanos > 0L;
+  }
+
+  private synchronized ScheduledExecutorService getScheduler() {
+    if (scheduler == null) {
+      scheduler = Executors.newScheduledThreadPool(BATCH_THREADS,
+          new ThreadFactoryBuilder().setDaemon(true)
+              .setNameFormat("Google Cloud Spanner JDBC DDL Batcher-%d").build());
+    }
+    return scheduler;
+  }
+
+  /**
+   * Adds DDL-statements to the current batch of a database. A new batch is started if there is no
+   * batch waiting for the database. The batch is sent to Cloud Spanner when the window of the
+   * batch has passed.
+   *
+   * @param database The key of the database. The key must include the client that is used to
+   *        execute the statements, as the batch is executed by the executor of the caller that
+   *        started the batch.
+   * @param statements The statements to add to the batch. The IF [NOT] EXISTS clauses of the
+   *        statements must already have been resolved by the caller.
+   * @param executor The function that starts the schema update of a batch. The function of the
+   *        caller that started the batch is used.
+   * @return A future that is completed when the statements of the caller have been executed
+   */
+  CompletableFuture<Void> submit(Object database, List<DDLStatement> statements,
+      Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> executor) {
+    Preconditions.checkNotNull(database);
+    Preconditions.checkNotNull(statements);
+    Preconditions.checkNotNull(executor);
+    long window = windowNanos;
+    Preconditions.checkState(window > 0L, "The DDL batcher is not enabled");
+    Part part = new Part(new ArrayList<>(statements));
+    Batch batch;
+    synchronized (this) {
+      batch = batches.get(database);
+      if (batch == null) {
+        batch = new Batch();
+        batch.executor = executor;
+        batches.put(database, batch);
+        final Batch newBatch = batch;
+        getScheduler().schedule(() -> execute(database, newBatch), window, TimeUnit.NANOSECONDS);
+      }
+      batch.parts.add(part);
+    }
+    return part.future;
+  }
+
+  private void execute(Object database, Batch batch) {
+    List<Part> parts;
+    synchronized (this) {
+      batches.remove(database, batch);
+      parts = new ArrayList<>(batch.parts);
+    }
+    execute(parts, batch.executor, new HashMap<>());
+  }
+
+  /**
+   * Executes the statements of a number of callers as one operation.
+   *
+   * @param parts The statements of the callers
+   * @param executor The function that starts the schema update
+   * @param objects The objects that have been created (<code>true</code>) or dropped
+   *        (<code>false</code>) by statements of the batch that have already been applied
+   * @return The objects that have been created or dropped by the batch after this operation
+   */
+  private Map<String, Boolean> execute(List<Part> parts,
+      Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> executor,
+      Map<String, Boolean> objects) {
+    Map<String, Boolean> combined = new HashMap<>(objects);
+    List<List<DDLStatement>> included = new ArrayList<>(parts.size());
+    List<String> statements = new ArrayList<>();
+    for (Part part : parts) {
+      List<DDLStatement> partStatements = new ArrayList<>(part.statements.size());
+      for (DDLStatement statement : part.statements) {
+        if (include(statement, combined)) {
+          partStatements.add(statement);
+          statements.add(statement.getSql());
+        }
+      }
+      included.add(partStatements);
+    }
+    if (statements.isEmpty()) {
+      for (Part part : parts)
+        part.future.complete(null);
+      return combined;
+    }
+    Operation<Void, UpdateDatabaseDdlMetadata> operation = null;
+    try {
+      operation = executor.apply(statements);
+      do {
+        operation = operation.waitFor();
+      } while (!operation.isDone());
+      operation.getResult();
+      for (Part part : parts)
+        part.future.complete(null);
+      return combined;
+    } catch (RuntimeException e) {
+      return handleFailure(parts, included, executor, operation, e, objects);
+    }
+  }
+
+  /**
+   * Reports the failure of a combined operation to the caller whose statement failed, and executes
+   * the statements of the callers that were not reached again.
+   */
+  private Map<String, Boolean> handleFailure(List<Part> parts, List<List<DDLStatement>> included,
+      Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> executor,
+      Operation<Void, UpdateDatabaseDdlMetadata> operation, RuntimeException error,
+      Map<String, Boolean> objects) {
+    if (operation == null) {
+      // The schema update was rejected before any statement was executed, which means that it is
+      // not known which statement caused the error. Each caller is then executed separately.
+      if (parts.size() == 1) {
+        parts.get(0).future.completeExceptionally(error);
+        return objects;
+      }
+      Map<String, Boolean> res = objects;
+      for (Part part : parts)
+        res = execute(Collections.singletonList(part), executor, res);
+      return res;
+    }
+    if (!operation.isDone()) {
+      // Waiting for the operation failed, and it is not known which statements were applied
+      for (Part part : parts)
+        part.future.completeExceptionally(error);
+      return objects;
+    }
+    int applied = getAppliedStatements(operation);
+    Map<String, Boolean> res = new HashMap<>(objects);
+    int start = 0;
+    for (int index = 0; index < parts.size(); index++) {
+      Part part = parts.get(index);
+      List<DDLStatement> partStatements = included.get(index);
+      int end = start + partStatements.size();
+      for (DDLStatement statement : partStatements.subList(0,
+          Math.max(0, Math.min(end, applied) - start)))
+        register(statement, res);
+      if (end <= applied) {
+        part.future.complete(null);
+      } else if (start <= applied) {
+        part.future.completeExceptionally(error);
+      } else {
+        return execute(new ArrayList<>(parts.subList(index, parts.size())), executor, res);
+      }
+      start = end;
+    }
+    return res;
+  }
+
+  /**
+   * Determines whether a statement should be included in a combined operation, and registers the
+   * object that it creates or drops if it is included. A statement with an IF [NOT] EXISTS clause
+   * is skipped if an earlier statement of the batch has made the condition false.
+   */
+  private static boolean include(DDLStatement statement, Map<String, Boolean> objects) {
+    String key = getObjectKey(statement);
+    if (key != null && statement.getExistsStatement() != ExistsStatement.NONE) {
+      Boolean exists = objects.get(key);
+      if (exists != null && !statement.getExistsStatement().shouldExecute(exists))
+        return false;
+    }
+    register(statement, objects);
+    return true;
+  }
+
+  private static void register(DDLStatement statement, Map<String, Boolean> objects) {
+    String key = getObjectKey(statement);
+    if (key != null)
+      objects.put(key, statement.getCommand() == Command.CREATE);
+  }
+
+  private static String getObjectKey(DDLStatement statement) {
+    if (statement.getCommand() == Command.UNKNOWN
+        || statement.getObjectType() == ObjectType.UNKNOWN)
+      return null;
+    return statement.getObjectType() + "." + statement.getObjectName().toUpperCase();
+  }
+
+  private int getAppliedStatements(Operation<Void, UpdateDatabaseDdlMetadata> operation) {
+    UpdateDatabaseDdlMetadata metadata = operation.getMetadata();
+    return metadata == null ? 0 : metadata.getCommitTimestampsCount();
+  }
+
+}
@@ -52,4 +52,34 @@ public interface ICloudSpannerConnection extends Connection {
 
   public boolean isUseCustomHost();
 
+  /**
+   * 
+   * @return <code>true</code> if the schema methods of the {@link java.sql.DatabaseMetaData} of
+   *         this connection are answered from an in-memory snapshot of the schema
+   */
+  public boolean isUseSchemaSnapshot();
+
+  public int setUseSchemaSnapshot(boolean useSchemaSnapshot);
+
+  /**
+   * 
+   * @return The maximum number of bytes of row data that a scrollable result set of this
+   *         connection keeps in memory before it starts to write rows to a temporary file
+   */
+  public long getScrollableResultSetMemoryThreshold();
+
+  public void setScrollableResultSetMemoryThreshold(long threshold);
+
+  /**
+   * 
+   * @return The number of milliseconds after a successful call to Cloud Spanner during which
+   *         {@link java.sql.Connection#isValid(int)} returns <code>true</code> without executing a
+   *         query. A value of 0 means that isValid always executes a query.
+   */
+  public long getValidationWindow();
+
+  public void setValidationWindow(long validationWindow);
+
+  public String getSerializedBatchTransactionId() throws SQLException;
+
 }
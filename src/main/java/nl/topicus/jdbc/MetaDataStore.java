@@ -4,14 +4,25 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
 
 /**
  * Class for storing meta data needed for translating SQL statements into Cloud Spanner mutations,
- * such as key columns and their ordinal positions
+ * such as key columns and their ordinal positions, and for describing the result of a query. All
+ * meta data in this store is derived from the schema of the database and is cleared when a
+ * DDL-statement is executed on the connection. The key columns and column meta data of tables are
+ * shared with the other connections to the same database through the {@link SchemaMetaDataCache}
+ * of the driver, if the store has been created with a cache.
  * 
  * @author loite
  *
@@ -26,16 +37,35 @@ public class MetaDataStore {
   public class TableKeyMetaData {
     private final String name;
 
-    private final List<String> keyColumns = new ArrayList<>(2);
+    private final List<String> keyColumns;
 
-    TableKeyMetaData(String name) {
+    private List<Integer> keyColumnTypes;
+
+    TableKeyMetaData(String name, List<String> keyColumns) {
       this.name = name;
+      this.keyColumns = keyColumns;
     }
 
     public List<String> getKeyColumns() {
       return keyColumns;
     }
 
+    /**
+     * The data types of the key columns are only needed for some operations, and are therefore
+     * loaded the first time they are requested.
+     * 
+     * @return The {@link java.sql.Types} of the key columns in the same order as
+     *         {@link #getKeyColumns()}. The list contains <code>null</code> for a key column whose
+     *         type could not be determined.
+     * @throws SQLException If an error occurs while fetching the column types from the database
+     */
+    public List<Integer> getKeyColumnTypes() throws SQLException {
+      if (keyColumnTypes == null) {
+        keyColumnTypes = initKeyColumnTypes(this);
+      }
+      return keyColumnTypes;
+    }
+
     @Override
     public boolean equals(Object o) {
       if (!(o instanceof TableKeyMetaData))
@@ -50,43 +80,346 @@ public class MetaDataStore {
     }
   }
 
+  /**
+   * Class for storing the schema information of a column that is needed to describe the column in
+   * a {@link java.sql.ResultSetMetaData}.
+   * 
+   * @author loite
+   *
+   */
+  public static final class ColumnMetaData {
+    private final String name;
+
+    private final int nullable;
+
+    private final int columnSize;
+
+    private final int dataType;
+
+    private ColumnMetaData(String name, int nullable, int columnSize, int dataType) {
+      this.name = name;
+      this.nullable = nullable;
+      this.columnSize = columnSize;
+      this.dataType = dataType;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * 
+     * @return One of the NULLABLE values of {@link java.sql.DatabaseMetaData#getColumns}
+     */
+    public int getNullable() {
+      return nullable;
+    }
+
+    public int getColumnSize() {
+      return columnSize;
+    }
+
+    /**
+     * 
+     * @return The {@link java.sql.Types} of the column
+     */
+    public int getDataType() {
+      return dataType;
+    }
+  }
+
+  /**
+   * Class for storing the tables, columns and column aliases of a SELECT statement. The model is
+   * created by parsing the SQL statement, which is relatively expensive, and is therefore cached
+   * per SQL string.
+   * 
+   * @author loite
+   *
+   */
+  public static final class QueryMetaData {
+    /**
+     * Meta data for statements that could not be parsed or that are not SELECT statements
+     */
+    public static final QueryMetaData EMPTY =
+        new QueryMetaData(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+    private final List<Table> tables;
+
+    private final List<Column> columns;
+
+    private final List<Alias> aliases;
+
+    /**
+     * 
+     * @param tables The tables used in the statement in the order that they appear in the select
+     *        statement
+     * @param columns The columns of the result in the order that they appear in the result. The
+     *        list contains <code>null</code> for calculated columns.
+     * @param aliases The aliases of the columns of the result in the order that they appear in the
+     *        result. The list contains <code>null</code> for columns without an alias.
+     */
+    public QueryMetaData(List<Table> tables, List<Column> columns, List<Alias> aliases) {
+      this.tables = Collections.unmodifiableList(new ArrayList<>(tables));
+      this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+      this.aliases = Collections.unmodifiableList(new ArrayList<>(aliases));
+    }
+
+    public List<Table> getTables() {
+      return tables;
+    }
+
+    public List<Column> getColumns() {
+      return columns;
+    }
+
+    public List<Alias> getAliases() {
+      return aliases;
+    }
+  }
+
+  /**
+   * The maximum number of different SQL strings for which the {@link QueryMetaData} is cached
+   */
+  static final int MAX_CACHED_QUERIES = 250;
+
   private final Connection connection;
 
+  private final SchemaMetaDataCache cache;
+
+  private final String database;
+
+  /**
+   * The shared meta data that the tables and columns of this store were taken from. The local
+   * tables and columns are cleared when the cache returns a different instance, which means that
+   * the shared meta data has been invalidated or has expired.
+   */
+  private SchemaMetaDataCache.DatabaseSchema schema;
+
+  /**
+   * The generation of the shared meta data when the local tables and columns were last cleared.
+   * The local tables and columns are also cleared when a table has been removed from the shared
+   * meta data since then, for example because another connection changed the table.
+   */
+  private long generation;
+
+  /**
+   * The schema snapshot of this store if the meta data is not shared
+   */
+  private SchemaSnapshot snapshot;
+
   private final Map<String, TableKeyMetaData> tables = new HashMap<>();
 
-  MetaDataStore(Connection connection) {
+  private final Map<String, Map<String, ColumnMetaData>> tableColumns = new HashMap<>();
+
+  private final Map<String, QueryMetaData> queries =
+      Collections.synchronizedMap(new LinkedHashMap<String, QueryMetaData>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, QueryMetaData> eldest) {
+          return size() > MAX_CACHED_QUERIES;
+        }
+      });
+
+  /**
+   * Creates a store that only contains the meta data that has been loaded by the given connection.
+   * 
+   * @param connection The connection to load the meta data with
+   */
+  public MetaDataStore(Connection connection) {
+    this(connection, null, null);
+  }
+
+  /**
+   * Creates a store that shares its table meta data with all other stores of the same database.
+   * 
+   * @param connection The connection to load the meta data with
+   * @param cache The driver-wide cache of schema meta data, or <code>null</code> if the meta data
+   *        should not be shared
+   * @param database The key of the database in the cache
+   */
+  public MetaDataStore(Connection connection, SchemaMetaDataCache cache, String database) {
+    Preconditions.checkArgument(cache == null || database != null,
+        "A database is required when a cache is used");
     this.connection = connection;
+    this.cache = cache;
+    this.database = database;
+  }
+
+  private void checkSchema() {
+    if (cache == null)
+      return;
+    SchemaMetaDataCache.DatabaseSchema current = cache.getSchema(database);
+    long currentGeneration = current == null ? 0L : current.getGeneration();
+    if (current != schema || currentGeneration != generation) {
+      tables.clear();
+      tableColumns.clear();
+      queries.clear();
+      schema = current;
+      generation = currentGeneration;
+    }
   }
 
-  public TableKeyMetaData getTable(String name) throws SQLException {
+  public synchronized TableKeyMetaData getTable(String name) throws SQLException {
     if (name == null)
       return null;
-    TableKeyMetaData res = tables.get(name.toUpperCase());
+    checkSchema();
+    String key = name.toUpperCase();
+    TableKeyMetaData res = tables.get(key);
     if (res == null) {
-      res = initTable(name);
-      tables.put(name.toUpperCase(), res);
+      List<String> keyColumns = schema == null ? null : schema.getKeyColumns(key);
+      if (keyColumns == null) {
+        keyColumns = initKeyColumns(name);
+        if (schema != null)
+          schema.putKeyColumns(key, keyColumns);
+      }
+      res = new TableKeyMetaData(name, keyColumns);
+      tables.put(key, res);
     }
     return res;
   }
 
-  private TableKeyMetaData initTable(String name) throws SQLException {
-    TableKeyMetaData table = new TableKeyMetaData(name);
+  private List<String> initKeyColumns(String name) throws SQLException {
+    List<String> res = new ArrayList<>(2);
     try (ResultSet rs = connection.getMetaData().getPrimaryKeys(null, null, name)) {
       while (rs.next()) {
-        table.keyColumns.add(rs.getString("COLUMN_NAME").toUpperCase());
+        res.add(rs.getString("COLUMN_NAME").toUpperCase());
+      }
+    }
+    return Collections.unmodifiableList(res);
+  }
+
+  private synchronized List<Integer> initKeyColumnTypes(TableKeyMetaData table)
+      throws SQLException {
+    checkSchema();
+    Map<String, ColumnMetaData> columns = getColumnsOfTable(null, table.name);
+    List<Integer> res = new ArrayList<>(table.keyColumns.size());
+    for (String column : table.keyColumns) {
+      ColumnMetaData metaData = columns.get(column);
+      res.add(metaData == null ? null : metaData.getDataType());
+    }
+    return res;
+  }
+
+  /**
+   * Returns the columns of a table in the order of their ordinal position. The columns are fetched
+   * from the database the first time the columns of the table are requested.
+   * 
+   * @param schema The schema of the table, may be <code>null</code>
+   * @param table The name of the table
+   * @return The columns of the table, or an empty list if the table does not exist
+   * @throws SQLException If an error occurs while fetching the columns from the database
+   */
+  public synchronized List<ColumnMetaData> getTableColumns(String schema, String table)
+      throws SQLException {
+    checkSchema();
+    return new ArrayList<>(getColumnsOfTable(schema, table).values());
+  }
+
+  /**
+   * 
+   * @param schema The schema of the table, may be <code>null</code>
+   * @param table The name of the table
+   * @param column The name of the column
+   * @return The meta data of the column, or <code>null</code> if the column does not exist
+   * @throws SQLException If an error occurs while fetching the columns from the database
+   */
+  public synchronized ColumnMetaData getColumn(String schema, String table, String column)
+      throws SQLException {
+    if (column == null)
+      return null;
+    checkSchema();
+    return getColumnsOfTable(schema, table).get(column.toUpperCase());
+  }
+
+  private Map<String, ColumnMetaData> getColumnsOfTable(String schemaName, String table)
+      throws SQLException {
+    String key = getTableColumnsKey(schemaName, table);
+    Map<String, ColumnMetaData> res = tableColumns.get(key);
+    if (res == null) {
+      res = schema == null ? null : schema.getTableColumns(key);
+      if (res == null) {
+        res = initTableColumns(Strings.nullToEmpty(schemaName), table);
+        if (schema != null)
+          schema.putTableColumns(key, res);
+      }
+      tableColumns.put(key, res);
+    }
+    return res;
+  }
+
+  private Map<String, ColumnMetaData> initTableColumns(String schema, String table)
+      throws SQLException {
+    Map<String, ColumnMetaData> res = new LinkedHashMap<>();
+    try (ResultSet rs = connection.getMetaData().getColumns("", schema, table, null)) {
+      while (rs.next()) {
+        // The table name is used as a LIKE pattern, so filter out any other tables
+        if (!table.equalsIgnoreCase(rs.getString("TABLE_NAME")))
+          continue;
+        String name = rs.getString("COLUMN_NAME");
+        res.put(name.toUpperCase(), new ColumnMetaData(name, rs.getInt("NULLABLE"),
+            rs.getInt("COLUMN_SIZE"), rs.getInt("DATA_TYPE")));
       }
     }
-    return table;
+    return Collections.unmodifiableMap(res);
+  }
+
+  private static String getTableColumnsKey(String schema, String table) {
+    return Strings.nullToEmpty(schema).toUpperCase() + "." + table.toUpperCase();
   }
 
-  void clear() {
+  /**
+   * 
+   * @return The snapshot of the schema of the database. The snapshot is shared with the other
+   *         stores of the same database if the store has been created with a cache.
+   */
+  synchronized SchemaSnapshot getSchemaSnapshot() {
+    checkSchema();
+    if (schema != null)
+      return schema.getSnapshot();
+    if (snapshot == null)
+      snapshot = new SchemaSnapshot();
+    return snapshot;
+  }
+
+  /**
+   * 
+   * @param sql The SQL statement
+   * @return The cached meta data of the statement, or <code>null</code> if the statement is not in
+   *         the cache
+   */
+  public synchronized QueryMetaData getQueryMetaData(String sql) {
+    checkSchema();
+    return queries.get(sql);
+  }
+
+  public void putQueryMetaData(String sql, QueryMetaData metaData) {
+    queries.put(sql, metaData);
+  }
+
+  /**
+   * Clears all meta data of this store, and the shared meta data of the database in the cache. The
+   * other stores of the same database will reload their meta data the next time it is requested.
+   */
+  synchronized void clear() {
+    if (cache != null)
+      cache.invalidate(database);
     tables.clear();
+    tableColumns.clear();
+    queries.clear();
+    snapshot = null;
   }
 
-  void clearTable(String name) {
+  synchronized void clearTable(String name) {
     if (name == null)
       return;
+    if (cache != null)
+      cache.invalidateTable(database, name);
     tables.remove(name.toUpperCase());
+    tableColumns.keySet().removeIf(key -> key.endsWith("." + name.toUpperCase()));
+    snapshot = null;
+    // The statements that use the table cannot be found without parsing them again
+    queries.clear();
   }
 
 }
@@ -3,14 +3,25 @@ package nl.topicus.jdbc;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ErrorCode;
 import com.google.cloud.spanner.Operation;
 import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.StructField;
 import com.google.cloud.spanner.Value;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.rpc.Code;
 import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
@@ -18,18 +29,58 @@ import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
 import nl.topicus.jdbc.statement.CloudSpannerStatement;
 
 /**
- * This class maintains a list of all long running (DDL-)operations of a connection.
+ * This class maintains a list of all long running (DDL-)operations of a connection. The state of
+ * each operation is tracked by a background task that polls the operation with an exponential
+ * backoff until it has finished. Operations are polled concurrently, and the completion of an
+ * operation is exposed as a {@link CompletableFuture}.
  * 
  * @author loite
  *
  */
 class RunningOperationsStore {
+  /**
+   * The delay in milliseconds before the first poll of a new operation
+   */
+  static final long INITIAL_POLL_DELAY_MILLIS = 100L;
+
+  /**
+   * The maximum delay in milliseconds between two polls of an operation
+   */
+  static final long MAX_POLL_DELAY_MILLIS = 5000L;
+
+  /**
+   * The maximum number of consecutive polls of an operation that may fail with a transient error
+   * before the operation is reported as failed
+   */
+  static final int MAX_POLL_RETRIES = 10;
+
+  private static final double POLL_DELAY_MULTIPLIER = 1.5D;
+
+  private static final int POLL_THREADS = 4;
+
+  private static ScheduledExecutorService defaultScheduler;
+
   private static final class DdlOperation {
     private final Timestamp timeStarted;
 
     private final List<String> sql;
 
-    private Operation<Void, UpdateDatabaseDdlMetadata> operation;
+    /**
+     * The most recent state of the operation. This is updated by the polling task.
+     */
+    private volatile Operation<Void, UpdateDatabaseDdlMetadata> operation;
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    /**
+     * The error that stopped the polling of the operation, if any
+     */
+    private volatile RuntimeException pollError;
+
+    /**
+     * The number of consecutive polls that failed with a transient error
+     */
+    private int retries;
 
     private DdlOperation(Timestamp timeStarted, List<String> sql,
         Operation<Void, UpdateDatabaseDdlMetadata> operation) {
@@ -38,81 +89,176 @@ class RunningOperationsStore {
       this.operation = operation;
     }
 
+    /**
+     * 
+     * @return The percentage of the statements of this operation that have been committed
+     */
+    private long getProgress() {
+      Operation<Void, UpdateDatabaseDdlMetadata> current = operation;
+      if (current.isDone() || sql.isEmpty())
+        return 100L;
+      UpdateDatabaseDdlMetadata metadata = current.getMetadata();
+      int committed = metadata == null ? 0 : metadata.getCommitTimestampsCount();
+      return Math.min(100L, committed * 100L / sql.size());
+    }
+
+    private Timestamp getCommitTimestamp(int statementIndex) {
+      UpdateDatabaseDdlMetadata metadata = operation.getMetadata();
+      if (metadata == null || statementIndex >= metadata.getCommitTimestampsCount())
+        return null;
+      return Timestamp.fromProto(metadata.getCommitTimestamps(statementIndex));
+    }
   }
 
+  private final ScheduledExecutorService scheduler;
+
   private List<DdlOperation> operations = new ArrayList<>();
 
-  RunningOperationsStore() {}
+  RunningOperationsStore() {
+    this(getDefaultScheduler());
+  }
+
+  @VisibleForTesting
+  RunningOperationsStore(ScheduledExecutorService scheduler) {
+    this.scheduler = Preconditions.checkNotNull(scheduler);
+  }
+
+  private static synchronized ScheduledExecutorService getDefaultScheduler() {
+    if (defaultScheduler == null) {
+      defaultScheduler = Executors.newScheduledThreadPool(POLL_THREADS,
+          new ThreadFactoryBuilder().setDaemon(true)
+              .setNameFormat("Google Cloud Spanner JDBC DDL Operation Poller-%d").build());
+    }
+    return defaultScheduler;
+  }
+
+  /**
+   * Registers a new operation and starts polling it.
+   * 
+   * @param sql The statements of the operation
+   * @param operation The operation
+   * @return A future that is completed when the operation has finished
+   */
+  CompletableFuture<Void> addOperation(List<String> sql,
+      Operation<Void, UpdateDatabaseDdlMetadata> operation) {
+    DdlOperation op = new DdlOperation(Timestamp.now(), sql, operation);
+    operations.add(op);
+    schedulePoll(op, INITIAL_POLL_DELAY_MILLIS);
+    return op.future;
+  }
+
+  private void schedulePoll(DdlOperation op, long delay) {
+    scheduler.schedule(() -> poll(op, delay), delay, TimeUnit.MILLISECONDS);
+  }
 
-  void addOperation(List<String> sql, Operation<Void, UpdateDatabaseDdlMetadata> operation) {
-    operations.add(new DdlOperation(Timestamp.now(), sql, operation));
+  private void poll(DdlOperation op, long delay) {
+    long nextDelay = Math.min((long) (delay * POLL_DELAY_MULTIPLIER), MAX_POLL_DELAY_MILLIS);
+    try {
+      op.operation = op.operation.reload();
+      op.retries = 0;
+    } catch (SpannerException e) {
+      if ((e.getErrorCode() == ErrorCode.UNAVAILABLE
+          || e.getErrorCode() == ErrorCode.DEADLINE_EXCEEDED) && op.retries < MAX_POLL_RETRIES) {
+        op.retries++;
+        schedulePoll(op, nextDelay);
+      } else {
+        stopPolling(op, e);
+      }
+      return;
+    } catch (RuntimeException e) {
+      stopPolling(op, e);
+      return;
+    }
+    if (op.operation.isDone()) {
+      try {
+        op.future.complete(op.operation.getResult());
+      } catch (RuntimeException e) {
+        op.future.completeExceptionally(e);
+      }
+    } else {
+      schedulePoll(op, nextDelay);
+    }
+  }
+
+  /**
+   * Marks an operation as done when its state can no longer be retrieved
+   */
+  private void stopPolling(DdlOperation op, RuntimeException error) {
+    op.pollError = error;
+    op.future.completeExceptionally(error);
   }
 
   int clearFinishedOperations() {
     int count = 0;
-    int index = 0;
-    while (index < operations.size()) {
-      DdlOperation op = operations.get(index);
-      op.operation = op.operation.reload();
-      if (op.operation.isDone()) {
-        operations.remove(index);
+    Iterator<DdlOperation> iterator = operations.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().future.isDone()) {
+        iterator.remove();
         count++;
-      } else {
-        index++;
       }
     }
     return count;
   }
 
+  /**
+   * 
+   * @return A future that is completed when all operations in this store have finished. The future
+   *         is also completed normally if one or more of the operations failed.
+   */
+  CompletableFuture<Void> getCompletion() {
+    return CompletableFuture.allOf(operations.stream().map(op -> op.future.handle((r, e) -> r))
+        .toArray(CompletableFuture[]::new));
+  }
+
   void waitForOperations() throws SQLException {
-    boolean finished = false;
-    while (!finished) {
-      finished = true;
-      for (DdlOperation op : operations) {
-        op.operation = op.operation.reload();
-        if (!op.operation.isDone()) {
-          finished = false;
-          break;
-        }
-      }
-      try {
-        Thread.sleep(1000l);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        throw new CloudSpannerSQLException("Wait for DDL-operations interrupted", Code.CANCELLED,
-            e);
-      }
+    try {
+      getCompletion().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CloudSpannerSQLException("Wait for DDL-operations interrupted", Code.CANCELLED,
+          e);
+    } catch (ExecutionException e) {
+      throw new CloudSpannerSQLException("Wait for DDL-operations failed: " + e.getMessage(),
+          Code.UNKNOWN, e);
     }
   }
 
   /**
    * 
    * @return A result set of all DDL operations that have been issued on this connection since the
-   *         last clear operation.
+   *         last clear operation. The state of the operations is the state of the last poll of
+   *         each operation.
    * @throws SQLException If a database error occurs
    */
   ResultSet getOperations(CloudSpannerStatement statement) throws SQLException {
     List<Struct> rows = new ArrayList<>(operations.size());
     for (DdlOperation op : operations) {
-      op.operation = op.operation.reload();
+      Operation<Void, UpdateDatabaseDdlMetadata> operation = op.operation;
       String exception = null;
       try {
-        op.operation.getResult();
+        operation.getResult();
       } catch (Exception e) {
         exception = e.getMessage();
       }
-      for (String ddl : op.sql) {
-        rows.add(Struct.newBuilder().set("NAME").to(Value.string(op.operation.getName()))
+      RuntimeException pollError = op.pollError;
+      boolean done = operation.isDone() || pollError != null;
+      if (exception == null && pollError != null)
+        exception = pollError.getMessage();
+      long progress = op.getProgress();
+      for (int index = 0; index < op.sql.size(); index++) {
+        rows.add(Struct.newBuilder().set("NAME").to(Value.string(operation.getName()))
             .set("TIME_STARTED").to(Value.timestamp(op.timeStarted)).set("STATEMENT")
-            .to(Value.string(ddl)).set("DONE").to(Value.bool(op.operation.isDone()))
-            .set("EXCEPTION").to(Value.string(exception)).build());
+            .to(Value.string(op.sql.get(index))).set("DONE").to(Value.bool(done))
+            .set("EXCEPTION").to(Value.string(exception)).set("PROGRESS")
+            .to(Value.int64(progress)).set("COMMIT_TIMESTAMP")
+            .to(Value.timestamp(op.getCommitTimestamp(index))).build());
       }
     }
-    com.google.cloud.spanner.ResultSet rs =
-        ResultSets.forRows(Type.struct(StructField.of("NAME", Type.string()),
-            StructField.of("TIME_STARTED", Type.timestamp()),
-            StructField.of("STATEMENT", Type.string()), StructField.of("DONE", Type.bool()),
-            StructField.of("EXCEPTION", Type.string())), rows);
+    com.google.cloud.spanner.ResultSet rs = ResultSets.forRows(Type.struct(
+        StructField.of("NAME", Type.string()), StructField.of("TIME_STARTED", Type.timestamp()),
+        StructField.of("STATEMENT", Type.string()), StructField.of("DONE", Type.bool()),
+        StructField.of("EXCEPTION", Type.string()), StructField.of("PROGRESS", Type.int64()),
+        StructField.of("COMMIT_TIMESTAMP", Type.timestamp())), rows);
     return new CloudSpannerResultSet(statement, rs, null);
   }
 
@@ -0,0 +1,178 @@
+package nl.topicus.jdbc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import nl.topicus.jdbc.MetaDataStore.ColumnMetaData;
+
+/**
+ * Driver-wide cache for the schema meta data of the databases that the driver is connected to.
+ * The {@link MetaDataStore}s of all connections to the same database share the key columns and
+ * column meta data of the tables in this cache, so that the meta data of a table is only fetched
+ * from the database once, instead of once for each connection. The {@link SchemaSnapshot} that is
+ * used to answer {@link java.sql.DatabaseMetaData} calls is shared in the same way. The meta data
+ * of a database is discarded when a DDL-statement is executed on any connection to the database, or
+ * when it is older than the time-to-live of the cache. The time-to-live also limits how long the
+ * cache can be out of date when the schema is changed by another application.
+ *
+ * @author loite
+ *
+ */
+public final class SchemaMetaDataCache {
+  /**
+   * The default time-to-live of the meta data of a database in milliseconds
+   */
+  public static final long DEFAULT_TTL_MILLIS = 600_000L;
+
+  /**
+   * The schema meta data of one database. An instance is never reused after it has been
+   * invalidated or has expired, which allows a {@link MetaDataStore} to detect that its own
+   * meta data must be reloaded by comparing the instance that it used with the current instance.
+   */
+  static final class DatabaseSchema {
+    private final long created;
+
+    private final ConcurrentMap<String, List<String>> keyColumns = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Map<String, ColumnMetaData>> tableColumns =
+        new ConcurrentHashMap<>();
+
+    private volatile SchemaSnapshot snapshot = new SchemaSnapshot();
+
+    /**
+     * Incremented each time a table is removed, so that the stores that have copied the meta data
+     * of the table can detect that their copies are out of date
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private DatabaseSchema(long created) {
+      this.created = created;
+    }
+
+    List<String> getKeyColumns(String table) {
+      return keyColumns.get(table);
+    }
+
+    void putKeyColumns(String table, List<String> columns) {
+      keyColumns.putIfAbsent(table, columns);
+    }
+
+    Map<String, ColumnMetaData> getTableColumns(String key) {
+      return tableColumns.get(key);
+    }
+
+    void putTableColumns(String key, Map<String, ColumnMetaData> columns) {
+      tableColumns.putIfAbsent(key, columns);
+    }
+
+    SchemaSnapshot getSnapshot() {
+      return snapshot;
+    }
+
+    long getGeneration() {
+      return generation.get();
+    }
+
+    void removeTable(String table) {
+      keyColumns.remove(table);
+      tableColumns.keySet().removeIf(key -> key.endsWith("." + table));
+      snapshot = new SchemaSnapshot();
+      generation.incrementAndGet();
+    }
+  }
+
+  private final ConcurrentMap<String, DatabaseSchema> databases = new ConcurrentHashMap<>();
+
+  private final Ticker ticker;
+
+  private volatile long ttlNanos;
+
+  SchemaMetaDataCache() {
+    this(DEFAULT_TTL_MILLIS, TimeUnit.MILLISECONDS, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  SchemaMetaDataCache(long ttl, TimeUnit unit, Ticker ticker) {
+    this.ticker = Preconditions.checkNotNull(ticker);
+    setTtl(ttl, unit);
+  }
+
+  /**
+   * Sets the time-to-live of the cached meta data. Meta data that is already in the cache will
+   * also expire based on the new value.
+   *
+   * @param ttl The time-to-live. A value of zero disables the cache, which means that each
+   *        connection will fetch and keep its own meta data.
+   * @param unit The time unit of the time-to-live
+   */
+  public void setTtl(long ttl, TimeUnit unit) {
+    Preconditions.checkArgument(ttl >= 0L, "The time-to-live may not be negative");
+    Preconditions.checkNotNull(unit);
+    this.ttlNanos = unit.toNanos(ttl);
+    if (ttl == 0L)
+      databases.clear();
+  }
+
+  public long getTtl(TimeUnit unit) {
+    return unit.convert(ttlNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   *
+   * @param database The key of the database
+   * @return The current schema meta data of the database, or <code>null</code> if the cache has
+   *         been disabled
+   */
+  DatabaseSchema getSchema(String database) {
+    Preconditions.checkNotNull(database);
+    long ttl = ttlNanos;
+    if (ttl == 0L)
+      return null;
+    long now = ticker.read();
+    DatabaseSchema res = databases.get(database);
+    if (res == null || now - res.created >= ttl) {
+      res = databases.compute(database,
+          (key, current) -> current == null || now - current.created >= ttl
+              ? new DatabaseSchema(now) : current);
+    }
+    return res;
+  }
+
+  /**
+   * Discards all cached meta data of the given database.
+   *
+   * @param database The key of the database
+   */
+  public void invalidate(String database) {
+    Preconditions.checkNotNull(database);
+    databases.remove(database);
+  }
+
+  /**
+   * Discards the cached meta data of one table of the given database.
+   *
+   * @param database The key of the database
+   * @param table The name of the table
+   */
+  public void invalidateTable(String database, String table) {
+    Preconditions.checkNotNull(database);
+    Preconditions.checkNotNull(table);
+    DatabaseSchema schema = databases.get(database);
+    if (schema != null)
+      schema.removeTable(table.toUpperCase());
+  }
+
+  /**
+   * Discards all cached meta data of all databases.
+   */
+  public void invalidateAll() {
+    databases.clear();
+  }
+
+}
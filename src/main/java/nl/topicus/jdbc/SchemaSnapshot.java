@@ -0,0 +1,148 @@
+package nl.topicus.jdbc;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.common.base.Preconditions;
+
+/**
+ * In-memory snapshot of the schema of a database that is used to answer the schema methods of
+ * {@link CloudSpannerDatabaseMetaData} without a query for each call. The rows of each kind of
+ * schema meta data are loaded with one query without any filters the first time that kind is
+ * requested. The rows are never changed after they have been loaded, and each call of a
+ * {@link java.sql.DatabaseMetaData} method filters them in memory in the same way as the LIKE
+ * conditions of the query of the method would. A snapshot is discarded together with the other
+ * shared meta data of the database, which means that it is refreshed after a DDL-statement or when
+ * the time-to-live of the {@link SchemaMetaDataCache} has passed.
+ *
+ * @author loite
+ *
+ */
+final class SchemaSnapshot {
+  /**
+   * The kinds of schema meta data in a snapshot, together with the columns that contain the
+   * catalog, schema and table that the rows are filtered on.
+   */
+  enum Kind {
+    TABLES("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME"),
+    COLUMNS("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME"),
+    PRIMARY_KEYS("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME"),
+    INDEX_INFO("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME"),
+    IMPORTED_KEYS("FKTABLE_CAT", "FKTABLE_SCHEM", "FKTABLE_NAME"),
+    EXPORTED_KEYS("PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME");
+
+    private final String catalogColumn;
+
+    private final String schemaColumn;
+
+    private final String tableColumn;
+
+    private Kind(String catalogColumn, String schemaColumn, String tableColumn) {
+      this.catalogColumn = catalogColumn;
+      this.schemaColumn = schemaColumn;
+      this.tableColumn = tableColumn;
+    }
+
+    Predicate<Struct> filter(String catalog, String schema, String table) {
+      return matches(catalogColumn, catalog).and(matches(schemaColumn, schema))
+          .and(matches(tableColumn, table));
+    }
+  }
+
+  /**
+   * All rows of one kind of schema meta data
+   */
+  static final class Rows {
+    private final Type type;
+
+    private final List<Struct> rows;
+
+    Rows(Type type, List<Struct> rows) {
+      this.type = Preconditions.checkNotNull(type);
+      this.rows = Collections.unmodifiableList(rows);
+    }
+
+    /**
+     *
+     * @param filter The filter to apply
+     * @return A result set containing the rows that match the filter in their original order
+     */
+    ResultSet select(Predicate<Struct> filter) {
+      return ResultSets.forRows(type,
+          rows.stream().filter(filter).collect(Collectors.toList()));
+    }
+  }
+
+  @FunctionalInterface
+  interface RowsLoader {
+    Rows load() throws SQLException;
+  }
+
+  private final ConcurrentMap<Kind, Rows> rows = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the rows of the given kind, and loads them if they have not been loaded before. Two
+   * threads may load the same rows at the same time, in which case the rows of the first thread
+   * are used.
+   *
+   * @param kind The kind of meta data
+   * @param loader The loader of the rows
+   * @return All rows of the given kind
+   * @throws SQLException If the rows could not be loaded
+   */
+  Rows getRows(Kind kind, RowsLoader loader) throws SQLException {
+    Rows res = rows.get(kind);
+    if (res == null) {
+      res = loader.load();
+      Rows current = rows.putIfAbsent(kind, res);
+      if (current != null)
+        res = current;
+    }
+    return res;
+  }
+
+  /**
+   * Creates a filter that matches the rows of which the value of the given column matches a LIKE
+   * pattern in the same way as <code>UPPER(column) LIKE UPPER(pattern)</code> would. A
+   * <code>null</code> value of the column is treated as an empty string.
+   *
+   * @param column The name of the STRING column to match
+   * @param pattern The pattern to match, or <code>null</code> to match all rows
+   * @return A filter for the given column and pattern
+   */
+  static Predicate<Struct> matches(String column, String pattern) {
+    if (pattern == null)
+      return row -> true;
+    Pattern regex = toRegex(pattern.toUpperCase());
+    return row -> regex.matcher(row.isNull(column) ? "" : row.getString(column).toUpperCase())
+        .matches();
+  }
+
+  static Pattern toRegex(String likePattern) {
+    StringBuilder regex = new StringBuilder(likePattern.length() + 8);
+    for (int index = 0; index < likePattern.length(); index++) {
+      char c = likePattern.charAt(index);
+      if (c == '\\' && index < likePattern.length() - 1) {
+        index++;
+        regex.append(Pattern.quote(String.valueOf(likePattern.charAt(index))));
+      } else if (c == '%') {
+        regex.append(".*");
+      } else if (c == '_') {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+}
@@ -0,0 +1,120 @@
+package nl.topicus.jdbc;
+
+import java.sql.SQLException;
+import java.util.Objects;
+import com.google.cloud.spanner.SessionPoolOptions;
+import com.google.cloud.spanner.Spanner;
+import com.google.cloud.spanner.SpannerOptions;
+import com.google.rpc.Code;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+
+/**
+ * The session pool and gRPC channel settings of a {@link Spanner} instance of the driver. These
+ * settings are part of the key of the {@link Spanner} instances that are shared by connections, so
+ * that connections with differently tuned session pools never share an instance. A setting that is
+ * <code>null</code> uses the default of the client library.
+ *
+ * @author loite
+ *
+ */
+final class SessionPoolSettings {
+  static final SessionPoolSettings DEFAULT =
+      new SessionPoolSettings(null, null, null, null, null, false);
+
+  private final Integer minSessions;
+
+  private final Integer maxSessions;
+
+  private final Float writeSessionsFraction;
+
+  private final Integer keepAliveIntervalMinutes;
+
+  private final Integer numChannels;
+
+  private final boolean failIfPoolExhausted;
+
+  private SessionPoolSettings(Integer minSessions, Integer maxSessions,
+      Float writeSessionsFraction, Integer keepAliveIntervalMinutes, Integer numChannels,
+      boolean failIfPoolExhausted) {
+    this.minSessions = minSessions;
+    this.maxSessions = maxSessions;
+    this.writeSessionsFraction = writeSessionsFraction;
+    this.keepAliveIntervalMinutes = keepAliveIntervalMinutes;
+    this.numChannels = numChannels;
+    this.failIfPoolExhausted = failIfPoolExhausted;
+  }
+
+  /**
+   * Creates the session pool settings from the given connection properties.
+   *
+   * @param properties The connection properties
+   * @return The session pool settings of the properties
+   * @throws SQLException If the properties contain an invalid combination of settings
+   */
+  static SessionPoolSettings of(ConnectionProperties properties) throws SQLException {
+    SessionPoolSettings res = new SessionPoolSettings(properties.minSessions,
+        properties.maxSessions, properties.writeSessionsFraction,
+        properties.keepAliveIntervalMinutes, properties.numChannels,
+        properties.failIfPoolExhausted);
+    if (res.equals(DEFAULT))
+      return DEFAULT;
+    if (res.numChannels != null && res.numChannels <= 0)
+      throw new CloudSpannerSQLException("NumChannels must be greater than 0",
+          Code.INVALID_ARGUMENT);
+    try {
+      res.createSessionPoolOptions();
+    } catch (IllegalArgumentException e) {
+      throw new CloudSpannerSQLException("Invalid session pool settings: " + e.getMessage(),
+          Code.INVALID_ARGUMENT, e);
+    }
+    return res;
+  }
+
+  private SessionPoolOptions createSessionPoolOptions() {
+    SessionPoolOptions.Builder builder = SessionPoolOptions.newBuilder();
+    if (minSessions != null)
+      builder.setMinSessions(minSessions);
+    if (maxSessions != null)
+      builder.setMaxSessions(maxSessions);
+    if (writeSessionsFraction != null)
+      builder.setWriteSessionsFraction(writeSessionsFraction);
+    if (keepAliveIntervalMinutes != null)
+      builder.setKeepAliveIntervalMinutes(keepAliveIntervalMinutes);
+    if (failIfPoolExhausted)
+      builder.setFailIfPoolExhausted();
+    return builder.build();
+  }
+
+  /**
+   * Applies these settings to the options of a new {@link Spanner} instance.
+   *
+   * @param builder The builder of the options
+   */
+  void apply(SpannerOptions.Builder builder) {
+    if (this.equals(DEFAULT))
+      return;
+    builder.setSessionPoolOption(createSessionPoolOptions());
+    if (numChannels != null)
+      builder.setNumChannels(numChannels);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(minSessions, maxSessions, writeSessionsFraction, keepAliveIntervalMinutes,
+        numChannels, failIfPoolExhausted);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof SessionPoolSettings))
+      return false;
+    SessionPoolSettings other = (SessionPoolSettings) o;
+    return Objects.equals(minSessions, other.minSessions)
+        && Objects.equals(maxSessions, other.maxSessions)
+        && Objects.equals(writeSessionsFraction, other.writeSessionsFraction)
+        && Objects.equals(keepAliveIntervalMinutes, other.keepAliveIntervalMinutes)
+        && Objects.equals(numChannels, other.numChannels)
+        && failIfPoolExhausted == other.failIfPoolExhausted;
+  }
+
+}
@@ -0,0 +1,140 @@
+package nl.topicus.jdbc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.DatabaseId;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SessionPoolOptions;
+import com.google.cloud.spanner.Spanner;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Statement;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Driver-wide warmer for the session pools of the {@link Spanner} instances of the driver. The
+ * first requests on a new {@link Spanner} instance pay for setting up the gRPC channels and for
+ * creating sessions. Warming up a database executes a number of simple queries and read/write
+ * transactions at the same time, which forces the session pool to create that number of sessions,
+ * of which a part is prepared for read/write transactions according to the write sessions fraction
+ * of the pool. Each database of a {@link Spanner} instance is only warmed up once.
+ *
+ * @author loite
+ *
+ */
+final class SessionPoolWarmer {
+  private static final Statement WARM_UP_QUERY = Statement.of("SELECT 1");
+
+  /**
+   * The default maximum time in milliseconds that a warm-up task keeps its session to wait for the
+   * other tasks to get a session
+   */
+  private static final long DEFAULT_HOLD_MILLIS = 10_000L;
+
+  private final ConcurrentMap<List<Object>, CompletableFuture<Void>> warmUps =
+      new ConcurrentHashMap<>();
+
+  private final long holdMillis;
+
+  SessionPoolWarmer() {
+    this(DEFAULT_HOLD_MILLIS);
+  }
+
+  @VisibleForTesting
+  SessionPoolWarmer(long holdMillis) {
+    this.holdMillis = holdMillis;
+  }
+
+  /**
+   * Starts the warm-up of the session pool of a database, unless the database has already been
+   * warmed up or is being warmed up. A warm-up that failed is started again.
+   *
+   * @param spanner The {@link Spanner} instance that owns the session pool
+   * @param databaseId The database to create sessions for
+   * @param sessions The number of sessions to create. This is limited to the maximum number of
+   *        sessions of the session pool.
+   * @return A future that is completed when the warm-up has finished
+   */
+  CompletableFuture<Void> warmUp(Spanner spanner, DatabaseId databaseId, int sessions) {
+    Preconditions.checkNotNull(spanner);
+    Preconditions.checkNotNull(databaseId);
+    Preconditions.checkArgument(sessions > 0, "The number of sessions must be greater than 0");
+    List<Object> key = Arrays.asList(spanner, databaseId);
+    CompletableFuture<Void> res = warmUps.get(key);
+    if (res == null || res.isCompletedExceptionally()) {
+      CompletableFuture<Void> current = res;
+      res = warmUps.compute(key, (k, existing) -> existing == null || existing == current
+          ? start(spanner, databaseId, sessions) : existing);
+    }
+    return res;
+  }
+
+  private CompletableFuture<Void> start(Spanner spanner, DatabaseId databaseId, int sessions) {
+    SessionPoolOptions options = spanner.getOptions().getSessionPoolOptions();
+    int total = Math.min(sessions, options.getMaxSessions());
+    int writeSessions = Math.round(total * options.getWriteSessionsFraction());
+    DatabaseClient client = spanner.getDatabaseClient(databaseId);
+    ExecutorService executor = Executors.newFixedThreadPool(total, new ThreadFactoryBuilder()
+        .setDaemon(true).setNameFormat("Google Cloud Spanner JDBC Session Warmer-%d").build());
+    CountDownLatch acquired = new CountDownLatch(total);
+    CompletableFuture<?>[] tasks = new CompletableFuture<?>[total];
+    for (int i = 0; i < total; i++) {
+      boolean write = i < writeSessions;
+      tasks[i] = CompletableFuture.runAsync(
+          () -> warmUpSession(client, write, acquired), executor);
+    }
+    CompletableFuture<Void> res = CompletableFuture.allOf(tasks);
+    res.whenComplete((result, error) -> executor.shutdown());
+    return res;
+  }
+
+  private void warmUpSession(DatabaseClient client, boolean write, CountDownLatch acquired) {
+    if (write) {
+      client.readWriteTransaction().run(transaction -> {
+        try (ResultSet rs = transaction.executeQuery(WARM_UP_QUERY)) {
+          rs.next();
+          holdSession(acquired);
+        }
+        return null;
+      });
+    } else {
+      try (ResultSet rs = client.singleUse().executeQuery(WARM_UP_QUERY)) {
+        rs.next();
+        holdSession(acquired);
+      }
+    }
+  }
+
+  /**
+   * Keeps the session of a warm-up task in use until all other tasks have a session, so that each
+   * task uses a different session.
+   */
+  private void holdSession(CountDownLatch acquired) {
+    acquired.countDown();
+    try {
+      acquired.await(holdMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      throw SpannerExceptionFactory.propagateInterrupt(e);
+    }
+  }
+
+  /**
+   * Forgets the warm-ups of the given {@link Spanner} instance. This method should be called when
+   * the instance is closed.
+   *
+   * @param spanner The {@link Spanner} instance that has been closed
+   */
+  void remove(Spanner spanner) {
+    warmUps.keySet().removeIf(key -> key.get(0) == spanner);
+  }
+
+}
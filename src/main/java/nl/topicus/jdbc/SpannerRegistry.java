@@ -0,0 +1,297 @@
+package nl.topicus.jdbc;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import com.google.cloud.spanner.Spanner;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import nl.topicus.jdbc.CloudSpannerDriver.SpannerKey;
+
+/**
+ * Registry of the {@link Spanner} instances of a {@link CloudSpannerDriver}. Connections to the
+ * same project with the same credentials, host and session pool settings share one instance. The
+ * registry keeps a reference count for each instance, which is increased when a connection obtains
+ * the instance and decreased when the connection is closed. Obtaining an instance that already
+ * exists and registering and closing connections do not need a lock, so that opening many
+ * connections at the same time, for example when a connection pool refills itself, does not
+ * serialize on the driver.
+ * <p>
+ * An instance that has not been used by any connection during the idle timeout of the registry is
+ * closed, which also closes its session pool. A new instance is created when a connection needs it
+ * again. The default idle timeout is {@link #DEFAULT_IDLE_TIMEOUT_MINUTES} minutes.
+ *
+ * @author loite
+ *
+ */
+public final class SpannerRegistry {
+  public static final long DEFAULT_IDLE_TIMEOUT_MINUTES = 10L;
+
+  /**
+   * The reference count of an instance that has been closed
+   */
+  private static final int CLOSED = -1;
+
+  private static final class Entry {
+    private final SpannerKey key;
+
+    private final Spanner spanner;
+
+    private final AtomicInteger references = new AtomicInteger();
+
+    private final Set<CloudSpannerConnection> connections = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong lastSuccessfulCall = new AtomicLong();
+
+    /**
+     * The time ({@link System#nanoTime()}) of the last release of a reference to the instance
+     */
+    private volatile long idleSince = System.nanoTime();
+
+    private Entry(SpannerKey key, Spanner spanner) {
+      this.key = key;
+      this.spanner = spanner;
+    }
+
+    private boolean isClosed() {
+      return references.get() == CLOSED;
+    }
+
+    private boolean tryAcquire() {
+      while (true) {
+        int current = references.get();
+        if (current == CLOSED)
+          return false;
+        if (references.compareAndSet(current, current + 1))
+          return true;
+      }
+    }
+
+    private void release() {
+      // Set the idle time before the reference count can reach zero, so that an instance is never
+      // considered idle based on an earlier idle period
+      idleSince = System.nanoTime();
+      while (true) {
+        int current = references.get();
+        if (current <= 0)
+          return;
+        if (references.compareAndSet(current, current - 1))
+          return;
+      }
+    }
+  }
+
+  private final ConcurrentMap<SpannerKey, Entry> spanners = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<Spanner, Entry> instances = new ConcurrentHashMap<>();
+
+  private final Function<SpannerKey, Spanner> factory;
+
+  private final Consumer<Spanner> closeListener;
+
+  private ScheduledExecutorService scheduler;
+
+  private ScheduledFuture<?> sweeper;
+
+  private volatile long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(DEFAULT_IDLE_TIMEOUT_MINUTES);
+
+  SpannerRegistry(Function<SpannerKey, Spanner> factory, Consumer<Spanner> closeListener) {
+    this.factory = Preconditions.checkNotNull(factory);
+    this.closeListener = Preconditions.checkNotNull(closeListener);
+  }
+
+  @VisibleForTesting
+  SpannerRegistry(Function<SpannerKey, Spanner> factory, Consumer<Spanner> closeListener,
+      ScheduledExecutorService scheduler) {
+    this(factory, closeListener);
+    this.scheduler = Preconditions.checkNotNull(scheduler);
+  }
+
+  /**
+   * Sets the time after which a {@link Spanner} instance that is not used by any connection is
+   * closed. Instances are checked regularly, which means that an idle instance is closed at the
+   * earliest after this time, and at the latest after one and a half times this time.
+   *
+   * @param timeout The idle timeout. A value of zero means that instances are never closed until
+   *        {@link CloudSpannerDriver#closeSpanner()} is called.
+   * @param unit The time unit of the timeout
+   */
+  public synchronized void setIdleTimeout(long timeout, TimeUnit unit) {
+    Preconditions.checkArgument(timeout >= 0L, "The idle timeout may not be negative");
+    Preconditions.checkNotNull(unit);
+    this.idleTimeoutNanos = unit.toNanos(timeout);
+    if (sweeper != null) {
+      sweeper.cancel(false);
+      sweeper = null;
+    }
+    if (!instances.isEmpty())
+      startSweeper();
+  }
+
+  public long getIdleTimeout(TimeUnit unit) {
+    return unit.convert(idleTimeoutNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private synchronized void startSweeper() {
+    long timeout = idleTimeoutNanos;
+    if (sweeper == null && timeout > 0L) {
+      if (scheduler == null) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true)
+                .setNameFormat("Google Cloud Spanner JDBC Spanner Registry-%d").build());
+      }
+      long interval = Math.max(timeout / 2L, 1L);
+      sweeper = scheduler.scheduleWithFixedDelay(this::closeIdleSpanners, interval, interval,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Gets the {@link Spanner} instance for the given key and increases its reference count. A new
+   * instance is created if there is no open instance for the key. Each call to this method must be
+   * followed by a call to {@link #closeConnection(CloudSpannerConnection)} or
+   * {@link #release(Spanner)} when the instance is no longer used.
+   *
+   * @param key The key of the instance
+   * @return The {@link Spanner} instance to use
+   */
+  Spanner acquire(SpannerKey key) {
+    while (true) {
+      Entry entry = spanners.get(key);
+      if (entry == null || entry.isClosed()) {
+        entry = spanners.compute(key,
+            (k, existing) -> existing == null || existing.isClosed() ? create(k) : existing);
+        startSweeper();
+      }
+      if (entry.tryAcquire())
+        return entry.spanner;
+    }
+  }
+
+  private Entry create(SpannerKey key) {
+    Entry entry = new Entry(key, factory.apply(key));
+    instances.put(entry.spanner, entry);
+    return entry;
+  }
+
+  /**
+   * Decreases the reference count of a {@link Spanner} instance that was obtained for a connection
+   * that could not be opened.
+   *
+   * @param spanner The {@link Spanner} instance that is no longer used
+   */
+  void release(Spanner spanner) {
+    Entry entry = instances.get(spanner);
+    if (entry != null)
+      entry.release();
+  }
+
+  /**
+   * Registers an open connection, so that the connection can be closed when the {@link Spanner}
+   * instance of the connection is closed by {@link #closeAll()}.
+   *
+   * @param connection The connection to register. The {@link Spanner} instance of the connection
+   *        must have been obtained from this registry.
+   */
+  void registerConnection(CloudSpannerConnection connection) {
+    Entry entry = instances.get(connection.getSpanner());
+    if (entry == null)
+      throw new IllegalStateException("The Spanner instance of the connection has been closed");
+    entry.connections.add(connection);
+  }
+
+  /**
+   * Removes a connection from the registry and decreases the reference count of its
+   * {@link Spanner} instance.
+   *
+   * @param connection The connection that has been closed
+   */
+  void closeConnection(CloudSpannerConnection connection) {
+    Entry entry = instances.get(connection.getSpanner());
+    if (entry == null || !entry.connections.remove(connection))
+      throw new IllegalStateException("Connection is not registered");
+    entry.release();
+  }
+
+  /**
+   *
+   * @param spanner The {@link Spanner} instance
+   * @return The holder of the time ({@link System#nanoTime()}) of the last successful call on the
+   *         given instance. The value is 0 if no call has succeeded yet. All connections that use
+   *         the same instance share the same holder.
+   */
+  AtomicLong getLastSuccessfulCall(Spanner spanner) {
+    Entry entry = instances.get(spanner);
+    return entry == null ? new AtomicLong() : entry.lastSuccessfulCall;
+  }
+
+  /**
+   * @return The number of open {@link Spanner} instances in this registry
+   */
+  int size() {
+    return instances.size();
+  }
+
+  /**
+   * Closes all {@link Spanner} instances that have not been used by any connection during the idle
+   * timeout.
+   */
+  @VisibleForTesting
+  void closeIdleSpanners() {
+    long timeout = idleTimeoutNanos;
+    if (timeout == 0L)
+      return;
+    long now = System.nanoTime();
+    for (Entry entry : instances.values()) {
+      if (entry.references.get() == 0 && now - entry.idleSince >= timeout
+          && entry.references.compareAndSet(0, CLOSED)) {
+        try {
+          close(entry);
+        } catch (RuntimeException e) {
+          // ignore, the instance is no longer used
+        }
+      }
+    }
+  }
+
+  /**
+   * Closes all {@link Spanner} instances and marks all open connections of the instances as closed.
+   * Any open transaction on a connection is rolled back.
+   *
+   * @throws SQLException if rolling back a transaction fails
+   */
+  void closeAll() throws SQLException {
+    for (Entry entry : instances.values()) {
+      entry.references.set(CLOSED);
+      for (CloudSpannerConnection con : entry.connections) {
+        if (!con.isClosed()) {
+          con.rollback();
+          con.markClosed();
+        }
+      }
+      close(entry);
+    }
+  }
+
+  private void close(Entry entry) {
+    spanners.remove(entry.key, entry);
+    instances.remove(entry.spanner, entry);
+    entry.connections.clear();
+    try {
+      entry.spanner.close();
+    } finally {
+      closeListener.accept(entry.spanner);
+    }
+  }
+
+}
@@ -0,0 +1,24 @@
+package nl.topicus.jdbc.exception;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a {@link SQLException} that occurred in an API that does not allow checked exceptions,
+ * such as the streams and publishers of a result set.
+ *
+ * @author loite
+ *
+ */
+public class UncheckedCloudSpannerSQLException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  public UncheckedCloudSpannerSQLException(SQLException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  @Override
+  public synchronized SQLException getCause() {
+    return (SQLException) super.getCause();
+  }
+
+}
@@ -27,16 +27,6 @@ abstract class AbstractCloudSpannerResultSet extends AbstractCloudSpannerFetcher
     return EMPTY_STRING;
   }
 
-  @Override
-  public boolean absolute(int row) throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
-  @Override
-  public boolean relative(int rows) throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
   @Override
   public int getType() throws SQLException {
     return ResultSet.TYPE_FORWARD_ONLY;
@@ -575,34 +565,4 @@ abstract class AbstractCloudSpannerResultSet extends AbstractCloudSpannerFetcher
     throw new SQLFeatureNotSupportedException();
   }
 
-  @Override
-  public boolean isLast() throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
-  @Override
-  public void beforeFirst() throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
-  @Override
-  public void afterLast() throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
-  @Override
-  public boolean first() throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
-  @Override
-  public boolean last() throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
-  @Override
-  public boolean previous() throws SQLException {
-    throw new SQLFeatureNotSupportedException();
-  }
-
 }
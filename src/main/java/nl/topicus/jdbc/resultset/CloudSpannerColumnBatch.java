@@ -0,0 +1,361 @@
+package nl.topicus.jdbc.resultset;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.Code;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.common.base.Preconditions;
+
+/**
+ * A batch of rows of a result set stored per column. The values of each column are stored in a
+ * form that can be processed without creating an object per value:
+ * <ul>
+ * <li>BOOL: <code>boolean[]</code></li>
+ * <li>INT64: <code>long[]</code></li>
+ * <li>FLOAT64: <code>double[]</code></li>
+ * <li>DATE: <code>long[]</code> containing the number of days since 1970-01-01</li>
+ * <li>TIMESTAMP: <code>long[]</code> containing the number of seconds since 1970-01-01T00:00:00Z
+ * and <code>int[]</code> containing the nanoseconds</li>
+ * <li>STRING and BYTES: a buffer containing the data of all values (UTF-8 encoded for STRING) and
+ * an <code>int[]</code> with the offsets of the values in the buffer. The value of row
+ * <code>i</code> consists of the bytes from <code>offsets[i]</code> up to
+ * <code>offsets[i + 1]</code>.</li>
+ * <li>ARRAY: <code>Object[]</code> containing a {@link List} per row</li>
+ * </ul>
+ * The null values of a column are registered in a {@link BitSet}. The primitive value of a null
+ * value is the default value of the primitive type, and STRING and BYTES values that are null have
+ * length zero. Columns are numbered from 1 like in a JDBC result set, and rows are numbered from 0.
+ * The arrays that are returned by a batch are not copied, and should not be modified.
+ *
+ * @author loite
+ *
+ */
+public final class CloudSpannerColumnBatch {
+  private static final class Column {
+    private final String name;
+
+    private final Type type;
+
+    private final BitSet nulls = new BitSet();
+
+    private boolean[] booleans;
+
+    private long[] longs;
+
+    private int[] nanos;
+
+    private double[] doubles;
+
+    private int[] offsets;
+
+    private ByteBuffer data;
+
+    private Object[] objects;
+
+    private Column(StructField field) {
+      this.name = field.getName();
+      this.type = field.getType();
+    }
+  }
+
+  private final int rowCount;
+
+  private final Column[] columns;
+
+  private CloudSpannerColumnBatch(int rowCount, Column[] columns) {
+    this.rowCount = rowCount;
+    this.columns = columns;
+  }
+
+  /**
+   * Converts the given rows into a column-oriented batch.
+   *
+   * @param type The type of the rows
+   * @param rows The rows to convert
+   * @param offHeap Store the data of STRING and BYTES columns in direct buffers
+   * @return The converted rows
+   */
+  static CloudSpannerColumnBatch of(Type type, List<Struct> rows, boolean offHeap) {
+    Preconditions.checkArgument(type.getCode() == Code.STRUCT, "type must be a STRUCT type");
+    Struct[] input = rows.toArray(new Struct[rows.size()]);
+    List<StructField> fields = type.getStructFields();
+    Column[] columns = new Column[fields.size()];
+    for (int index = 0; index < columns.length; index++) {
+      columns[index] = new Column(fields.get(index));
+      convert(columns[index], index, input, offHeap);
+    }
+    return new CloudSpannerColumnBatch(input.length, columns);
+  }
+
+  private static void convert(Column column, int index, Struct[] rows, boolean offHeap) {
+    BitSet nulls = column.nulls;
+    switch (column.type.getCode()) {
+      case BOOL:
+        boolean[] booleans = new boolean[rows.length];
+        for (int row = 0; row < rows.length; row++) {
+          if (rows[row].isNull(index))
+            nulls.set(row);
+          else
+            booleans[row] = rows[row].getBoolean(index);
+        }
+        column.booleans = booleans;
+        break;
+      case INT64:
+        long[] longs = new long[rows.length];
+        for (int row = 0; row < rows.length; row++) {
+          if (rows[row].isNull(index))
+            nulls.set(row);
+          else
+            longs[row] = rows[row].getLong(index);
+        }
+        column.longs = longs;
+        break;
+      case FLOAT64:
+        double[] doubles = new double[rows.length];
+        for (int row = 0; row < rows.length; row++) {
+          if (rows[row].isNull(index))
+            nulls.set(row);
+          else
+            doubles[row] = rows[row].getDouble(index);
+        }
+        column.doubles = doubles;
+        break;
+      case DATE:
+        long[] days = new long[rows.length];
+        for (int row = 0; row < rows.length; row++) {
+          if (rows[row].isNull(index)) {
+            nulls.set(row);
+          } else {
+            Date date = rows[row].getDate(index);
+            days[row] =
+                LocalDate.of(date.getYear(), date.getMonth(), date.getDayOfMonth()).toEpochDay();
+          }
+        }
+        column.longs = days;
+        break;
+      case TIMESTAMP:
+        long[] seconds = new long[rows.length];
+        int[] nanos = new int[rows.length];
+        for (int row = 0; row < rows.length; row++) {
+          if (rows[row].isNull(index)) {
+            nulls.set(row);
+          } else {
+            Timestamp timestamp = rows[row].getTimestamp(index);
+            seconds[row] = timestamp.getSeconds();
+            nanos[row] = timestamp.getNanos();
+          }
+        }
+        column.longs = seconds;
+        column.nanos = nanos;
+        break;
+      case STRING:
+      case BYTES:
+        convertVariableLength(column, index, rows, offHeap);
+        break;
+      case ARRAY:
+        Object[] objects = new Object[rows.length];
+        for (int row = 0; row < rows.length; row++) {
+          if (rows[row].isNull(index))
+            nulls.set(row);
+          else
+            objects[row] = getList(rows[row], index, column.type.getArrayElementType());
+        }
+        column.objects = objects;
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported column type: " + column.type);
+    }
+  }
+
+  private static void convertVariableLength(Column column, int index, Struct[] rows,
+      boolean offHeap) {
+    boolean string = column.type.getCode() == Code.STRING;
+    int[] offsets = new int[rows.length + 1];
+    byte[] data = new byte[Math.max(rows.length * 16, 16)];
+    int length = 0;
+    for (int row = 0; row < rows.length; row++) {
+      offsets[row] = length;
+      if (rows[row].isNull(index)) {
+        column.nulls.set(row);
+        continue;
+      }
+      byte[] value = string ? rows[row].getString(index).getBytes(StandardCharsets.UTF_8)
+          : rows[row].getBytes(index).toByteArray();
+      if (length + value.length > data.length)
+        data = Arrays.copyOf(data, Math.max(data.length * 2, length + value.length));
+      System.arraycopy(value, 0, data, length, value.length);
+      length += value.length;
+    }
+    offsets[rows.length] = length;
+    ByteBuffer buffer;
+    if (offHeap) {
+      buffer = ByteBuffer.allocateDirect(length);
+      buffer.put(data, 0, length);
+      buffer.flip();
+    } else {
+      buffer = ByteBuffer.wrap(data, 0, length).slice();
+    }
+    column.offsets = offsets;
+    column.data = buffer.asReadOnlyBuffer();
+  }
+
+  private static List<?> getList(Struct row, int index, Type elementType) {
+    switch (elementType.getCode()) {
+      case BOOL:
+        return row.getBooleanList(index);
+      case INT64:
+        return row.getLongList(index);
+      case FLOAT64:
+        return row.getDoubleList(index);
+      case STRING:
+        return row.getStringList(index);
+      case BYTES:
+        return row.getBytesList(index);
+      case DATE:
+        return row.getDateList(index);
+      case TIMESTAMP:
+        return row.getTimestampList(index);
+      case STRUCT:
+        return row.getStructList(index);
+      default:
+        throw new IllegalArgumentException("Unsupported array element type: " + elementType);
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  private Column getColumn(int column) {
+    Preconditions.checkElementIndex(column - 1, columns.length, "column");
+    return columns[column - 1];
+  }
+
+  private Column getColumn(int column, Code... codes) {
+    Column res = getColumn(column);
+    for (Code code : codes) {
+      if (res.type.getCode() == code)
+        return res;
+    }
+    throw new IllegalStateException(
+        "Column " + column + " is of type " + res.type + " and not " + Arrays.toString(codes));
+  }
+
+  public String getColumnName(int column) {
+    return getColumn(column).name;
+  }
+
+  public Type getColumnType(int column) {
+    return getColumn(column).type;
+  }
+
+  /**
+   *
+   * @return The rows that contain null for the given column
+   */
+  public BitSet getNulls(int column) {
+    return (BitSet) getColumn(column).nulls.clone();
+  }
+
+  public boolean isNull(int column, int row) {
+    Preconditions.checkElementIndex(row, rowCount, "row");
+    return getColumn(column).nulls.get(row);
+  }
+
+  /**
+   *
+   * @return The values of a BOOL column
+   */
+  public boolean[] getBooleans(int column) {
+    return getColumn(column, Code.BOOL).booleans;
+  }
+
+  /**
+   *
+   * @return The values of an INT64 column, the epoch days of a DATE column or the epoch seconds of
+   *         a TIMESTAMP column
+   */
+  public long[] getLongs(int column) {
+    return getColumn(column, Code.INT64, Code.DATE, Code.TIMESTAMP).longs;
+  }
+
+  /**
+   *
+   * @return The nanoseconds of the values of a TIMESTAMP column
+   */
+  public int[] getNanos(int column) {
+    return getColumn(column, Code.TIMESTAMP).nanos;
+  }
+
+  /**
+   *
+   * @return The values of a FLOAT64 column
+   */
+  public double[] getDoubles(int column) {
+    return getColumn(column, Code.FLOAT64).doubles;
+  }
+
+  /**
+   *
+   * @return The offsets of the values of a STRING or BYTES column in the data buffer. The array
+   *         contains one more element than the number of rows.
+   */
+  public int[] getOffsets(int column) {
+    return getColumn(column, Code.STRING, Code.BYTES).offsets;
+  }
+
+  /**
+   *
+   * @return A read-only buffer containing the data of a STRING or BYTES column
+   */
+  public ByteBuffer getData(int column) {
+    return getColumn(column, Code.STRING, Code.BYTES).data.duplicate();
+  }
+
+  /**
+   *
+   * @return The values of an ARRAY column as a {@link List} per row
+   */
+  public Object[] getArrays(int column) {
+    return getColumn(column, Code.ARRAY).objects;
+  }
+
+  /**
+   * Convenience method for reading a single value of a STRING column
+   */
+  public String getString(int column, int row) {
+    byte[] bytes = getBytes(getColumn(column, Code.STRING), row);
+    return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Convenience method for reading a single value of a BYTES column
+   */
+  public byte[] getBytes(int column, int row) {
+    return getBytes(getColumn(column, Code.BYTES), row);
+  }
+
+  private byte[] getBytes(Column column, int row) {
+    Preconditions.checkElementIndex(row, rowCount, "row");
+    if (column.nulls.get(row))
+      return null;
+    byte[] res = new byte[column.offsets[row + 1] - column.offsets[row]];
+    ByteBuffer data = column.data.duplicate();
+    data.position(column.offsets[row]);
+    data.get(res);
+    return res;
+  }
+
+}
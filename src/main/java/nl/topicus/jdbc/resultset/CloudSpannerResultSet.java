@@ -18,21 +18,64 @@ import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.Code;
+import com.google.cloud.spanner.Type.StructField;
+import io.grpc.Context;
+import io.grpc.Context.CancellableContext;
 import nl.topicus.jdbc.CloudSpannerArray;
 import nl.topicus.jdbc.CloudSpannerDataType;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 import nl.topicus.jdbc.statement.CloudSpannerStatement;
 import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
 
-public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
+public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet
+    implements ICloudSpannerResultSet {
+  /**
+   * Describes a column of the result set. The descriptors of a result set are created once, so that
+   * the getters do not need to look up the type of the column for every value that is read.
+   */
+  private static final class ColumnDescriptor {
+    private final Type type;
+
+    /**
+     * The data type of the column, or for arrays the data type of the elements of the array. This
+     * is <code>null</code> for types that are not supported by the driver.
+     */
+    private final CloudSpannerDataType dataType;
+
+    private ColumnDescriptor(Type type) {
+      this.type = type;
+      this.dataType = CloudSpannerDataType.getType(
+          type.getCode() == Code.ARRAY ? type.getArrayElementType().getCode() : type.getCode());
+    }
+  }
+
   private com.google.cloud.spanner.ResultSet resultSet;
 
+  /**
+   * The underlying result set if this is a scrollable result set, otherwise <code>null</code>
+   */
+  private ScrollableResultSet scrollableResultSet;
+
   private boolean closed = false;
 
   private boolean wasNull = false;
@@ -51,6 +94,31 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   private final String sql;
 
+  private int maxRows = 0;
+
+  /**
+   * The context in which the calls to Google Cloud Spanner for this result set are made
+   */
+  private CancellableContext executionContext;
+
+  private CloudSpannerResultSetMetaData metaData;
+
+  /**
+   * The columns of the result set, created the first time a value is read
+   */
+  private ColumnDescriptor[] columns;
+
+  /**
+   * The (zero based) index of each column label that occurs exactly once in the result set
+   */
+  private Map<String, Integer> columnIndices;
+
+  /**
+   * The default time zone of the JVM when the first DATE value of this result set was read. This
+   * is used for all DATE values of the result set.
+   */
+  private TimeZone defaultTimeZone;
+
   CloudSpannerResultSet(CloudSpannerStatement statement, String sql) {
     this.statement = statement;
     this.sql = sql;
@@ -59,13 +127,66 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
   public CloudSpannerResultSet(CloudSpannerStatement statement,
       com.google.cloud.spanner.ResultSet resultSet, String sql) throws SQLException {
     this.statement = statement;
-    this.resultSet = resultSet;
     this.sql = sql;
+    setResultSet(resultSet);
     callNextForInternalReasons();
   }
 
-  void setResultSet(com.google.cloud.spanner.ResultSet rs) {
-    this.resultSet = rs;
+  /**
+   * Sets the underlying {@link com.google.cloud.spanner.ResultSet} of this result set. If a fetch
+   * size has been set on the statement, the rows of the result set will be read ahead on a
+   * background thread into a buffer that can contain at most fetch size rows. If the statement
+   * creates result sets of type {@link ResultSet#TYPE_SCROLL_INSENSITIVE}, the rows that have been
+   * read are kept in a {@link RowStore}.
+   * 
+   * @param rs The result set from Google Cloud Spanner
+   * @throws SQLException If the settings of the statement could not be determined
+   */
+  void setResultSet(com.google.cloud.spanner.ResultSet rs) throws SQLException {
+    maxRows = statement == null ? 0 : statement.getMaxRows();
+    executionContext = statement == null ? null : statement.createExecutionContext();
+    int fetchSize = statement == null ? 0 : statement.getFetchSize();
+    setFetchSize(fetchSize);
+    com.google.cloud.spanner.ResultSet delegate =
+        fetchSize > 0 ? new ReadAheadResultSet(rs, fetchSize) : rs;
+    if (statement != null && statement.getResultSetType() == ResultSet.TYPE_SCROLL_INSENSITIVE) {
+      // The scrollable result set applies the maximum number of rows itself, as the cursor can
+      // move back and forth
+      scrollableResultSet = new ScrollableResultSet(delegate,
+          statement.getConnection().getScrollableResultSetMemoryThreshold(), maxRows);
+      maxRows = 0;
+      delegate = scrollableResultSet;
+    } else {
+      scrollableResultSet = null;
+    }
+    this.resultSet = delegate;
+    this.columns = null;
+    this.columnIndices = null;
+  }
+
+  private void initColumns() {
+    List<StructField> fields = resultSet.getType().getStructFields();
+    ColumnDescriptor[] descriptors = new ColumnDescriptor[fields.size()];
+    Map<String, Integer> indices = new HashMap<>(fields.size() * 2);
+    for (int index = 0; index < fields.size(); index++) {
+      StructField field = fields.get(index);
+      descriptors[index] = new ColumnDescriptor(field.getType());
+      // Ambiguous labels are not registered, so that they are handled by the underlying result set
+      if (indices.putIfAbsent(field.getName(), index) != null)
+        indices.put(field.getName(), -1);
+    }
+    indices.values().removeIf(index -> index < 0);
+    columnIndices = indices;
+    columns = descriptors;
+  }
+
+  private ColumnDescriptor getColumn(int columnIndex) throws SQLException {
+    if (columns == null)
+      initColumns();
+    if (columnIndex < 1 || columnIndex > columns.length)
+      throw new CloudSpannerSQLException("Invalid column index: " + columnIndex,
+          com.google.rpc.Code.INVALID_ARGUMENT);
+    return columns[columnIndex - 1];
   }
 
   @Override
@@ -107,7 +228,7 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
   private void callNextForInternalReasons() throws CloudSpannerSQLException {
     if (!nextCalledForInternalReasons) {
       try {
-        nextCalledForInternalReasonsResult = resultSet.next();
+        nextCalledForInternalReasonsResult = nextInternal();
       } catch (SpannerException e) {
         throw new CloudSpannerSQLException(e);
       }
@@ -118,6 +239,17 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
   @Override
   public boolean next() throws SQLException {
     ensureOpen();
+    if (maxRows > 0 && currentRowIndex + 1 >= maxRows) {
+      if (!afterLast) {
+        // Close the underlying result set to stop the server from sending any more rows
+        resultSet.close();
+        releaseExecutionContext();
+        currentRowIndex++;
+        beforeFirst = false;
+        afterLast = true;
+      }
+      return false;
+    }
     if (beforeFirst && nextCalledForInternalReasons) {
       currentRowIndex++;
       nextCalledForInternalReasons = false;
@@ -127,7 +259,7 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
     }
     boolean res = false;
     try {
-      res = resultSet.next();
+      res = nextInternal();
     } catch (SpannerException e) {
       throw new CloudSpannerSQLException(e);
     }
@@ -138,21 +270,249 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
     return res;
   }
 
+  /**
+   * Moves the underlying result set to the next row. Any call to Google Cloud Spanner that is
+   * started by this method is made in the context of this result set, so that it honors the query
+   * timeout of the statement and can be cancelled by {@link Statement#cancel()}.
+   */
+  private boolean nextInternal() {
+    boolean res = inExecutionContext(resultSet::next);
+    // A scrollable result set can still move back, and keeps the context until it is closed
+    if (!res && scrollableResultSet == null)
+      releaseExecutionContext();
+    return res;
+  }
+
+  private <T> T inExecutionContext(Supplier<T> call) {
+    if (executionContext == null)
+      return call.get();
+    Context previous = executionContext.attach();
+    try {
+      return call.get();
+    } finally {
+      executionContext.detach(previous);
+    }
+  }
+
+  private void releaseExecutionContext() {
+    if (executionContext != null)
+      executionContext.cancel(null);
+  }
+
+  @Override
+  public CloudSpannerColumnBatch nextBatch(int maxRows) throws SQLException {
+    return nextBatch(maxRows, false);
+  }
+
+  @Override
+  public CloudSpannerColumnBatch nextBatch(int maxRows, boolean offHeap) throws SQLException {
+    ensureOpen();
+    if (maxRows <= 0)
+      throw new CloudSpannerSQLException("Max rows must be greater than 0",
+          com.google.rpc.Code.INVALID_ARGUMENT);
+    List<Struct> rows = new ArrayList<>(Math.min(maxRows, 1024));
+    while (rows.size() < maxRows && next())
+      rows.add(getCurrentRowAsStruct());
+    try {
+      return CloudSpannerColumnBatch.of(resultSet.getType(), rows, offHeap);
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
+  }
+
+  @Override
+  public Stream<Struct> stream() throws SQLException {
+    return stream(Collections.singletonList(this), false);
+  }
+
+  /**
+   * Creates a stream of the rows of the given result sets. A parallel stream consumes different
+   * result sets on different threads.
+   * 
+   * @param resultSets The result sets to stream, for example the partitions of a query
+   * @param parallel Whether the returned stream should be parallel
+   * @return A stream of the rows of all the result sets. Closing the stream closes all the result
+   *         sets.
+   * @throws SQLException If one of the result sets is closed
+   */
+  public static Stream<Struct> stream(List<? extends CloudSpannerResultSet> resultSets,
+      boolean parallel) throws SQLException {
+    for (CloudSpannerResultSet rs : resultSets)
+      rs.ensureOpen();
+    return StreamSupport.stream(new ResultSetSpliterator(resultSets), parallel).onClose(() -> {
+      for (CloudSpannerResultSet rs : resultSets) {
+        try {
+          rs.close();
+        } catch (SQLException e) {
+          // ignore, the stream has been closed
+        }
+      }
+    });
+  }
+
+  @Override
+  public CloudSpannerRowPublisher<Struct> publisher(Executor executor) throws SQLException {
+    return publisher(executor, Function.identity());
+  }
+
+  @Override
+  public <T> CloudSpannerRowPublisher<T> publisher(Executor executor, Function<Struct, T> mapper)
+      throws SQLException {
+    ensureOpen();
+    return new CloudSpannerRowPublisher<>(this, executor, mapper);
+  }
+
+  /**
+   * 
+   * @return The current row of the underlying result set
+   * @throws SQLException If the result set is closed or not positioned on a row
+   */
+  public Struct getCurrentRowAsStruct() throws SQLException {
+    ensureOpenAndInValidPosition();
+    try {
+      return resultSet.getCurrentRowAsStruct();
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
+  }
+
+  /**
+   * 
+   * @return The type of the rows of the underlying result set. The type is only known after
+   *         {@link #next()} has been called at least once.
+   * @throws SQLException If the result set is closed or if the type is not yet known
+   */
+  public Type getRowType() throws SQLException {
+    ensureOpen();
+    try {
+      return resultSet.getType();
+    } catch (SpannerException | IllegalStateException e) {
+      throw new CloudSpannerSQLException("The type of the result set is not yet known",
+          com.google.rpc.Code.FAILED_PRECONDITION, e);
+    }
+  }
+
   @Override
   public boolean isFirst() throws SQLException {
-    return currentRowIndex == 0;
+    return currentRowIndex == 0 && !afterLast;
+  }
+
+  @Override
+  public int getType() throws SQLException {
+    return scrollableResultSet == null ? ResultSet.TYPE_FORWARD_ONLY
+        : ResultSet.TYPE_SCROLL_INSENSITIVE;
+  }
+
+  private ScrollableResultSet getScrollableResultSet() throws SQLException {
+    ensureOpen();
+    if (scrollableResultSet == null)
+      throw new CloudSpannerSQLException("The result set is of type TYPE_FORWARD_ONLY",
+          com.google.rpc.Code.FAILED_PRECONDITION);
+    return scrollableResultSet;
+  }
+
+  /**
+   * Moves the cursor of a scrollable result set to the given row.
+   * 
+   * @param row The zero based index of the row, or -1 for before the first row
+   * @return <code>true</code> if the cursor is positioned on a row
+   */
+  private boolean moveTo(int row) throws SQLException {
+    ScrollableResultSet rs = getScrollableResultSet();
+    boolean res;
+    try {
+      res = inExecutionContext(() -> rs.moveTo(row));
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
+    // The result of the first internal call to next() is no longer valid
+    nextCalledForInternalReasons = false;
+    currentRowIndex = rs.getPosition();
+    beforeFirst = currentRowIndex < 0;
+    afterLast = !res && !beforeFirst;
+    return res;
+  }
+
+  private int getRowCount() throws SQLException {
+    ScrollableResultSet rs = getScrollableResultSet();
+    try {
+      return inExecutionContext(rs::getRowCount);
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
+  }
+
+  @Override
+  public boolean absolute(int row) throws SQLException {
+    if (row > 0)
+      return moveTo(row - 1);
+    if (row == 0)
+      return moveTo(-1);
+    return moveTo(Math.max(getRowCount() + row, -1));
+  }
+
+  @Override
+  public boolean relative(int rows) throws SQLException {
+    getScrollableResultSet();
+    long row = (long) currentRowIndex + rows;
+    return moveTo((int) Math.max(Math.min(row, Integer.MAX_VALUE - 1L), -1L));
+  }
+
+  @Override
+  public boolean previous() throws SQLException {
+    return relative(-1);
+  }
+
+  @Override
+  public boolean first() throws SQLException {
+    return moveTo(0);
+  }
+
+  @Override
+  public boolean last() throws SQLException {
+    return absolute(-1);
+  }
+
+  @Override
+  public void beforeFirst() throws SQLException {
+    moveTo(-1);
+  }
+
+  @Override
+  public void afterLast() throws SQLException {
+    moveTo(getRowCount());
+  }
+
+  @Override
+  public boolean isLast() throws SQLException {
+    ScrollableResultSet rs = getScrollableResultSet();
+    if (beforeFirst || afterLast)
+      return false;
+    try {
+      return !inExecutionContext(() -> rs.exists(currentRowIndex + 1));
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
   }
 
   @Override
   public int getRow() throws SQLException {
+    // There is no current row when the cursor is after the last row
+    if (afterLast)
+      return 0;
     return currentRowIndex + 1;
   }
 
   @Override
   public void close() throws SQLException {
+    boolean wasClosed = closed;
     if (resultSet != null)
       resultSet.close();
+    releaseExecutionContext();
     closed = true;
+    // A statement only has one open result set at a time
+    if (!wasClosed && statement != null && statement.isCloseOnCompletion())
+      statement.close();
   }
 
   @Override
@@ -207,8 +567,14 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public Date getDate(int columnIndex) throws SQLException {
-    return isNull(columnIndex) ? null
-        : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnIndex - 1));
+    return isNull(columnIndex) ? null : toSqlDate(columnIndex);
+  }
+
+  private Date toSqlDate(int columnIndex) {
+    if (defaultTimeZone == null)
+      defaultTimeZone = TimeZone.getDefault();
+    return CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnIndex - 1),
+        defaultTimeZone);
   }
 
   @Override
@@ -224,70 +590,70 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public String getString(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? null : resultSet.getString(columnLabel);
+    return getString(findColumn(columnLabel));
   }
 
   @Override
   public URL getURL(String columnLabel) throws SQLException {
-    try {
-      return isNull(columnLabel) ? null : new URL(resultSet.getString(columnLabel));
-    } catch (MalformedURLException e) {
-      throw new CloudSpannerSQLException("Invalid URL: " + resultSet.getString(columnLabel),
-          com.google.rpc.Code.INVALID_ARGUMENT);
-    }
+    return getURL(findColumn(columnLabel));
   }
 
   @Override
   public boolean getBoolean(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? false : resultSet.getBoolean(columnLabel);
+    return getBoolean(findColumn(columnLabel));
   }
 
   @Override
   public long getLong(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? 0 : resultSet.getLong(columnLabel);
+    return getLong(findColumn(columnLabel));
   }
 
   @Override
   public double getDouble(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? 0 : resultSet.getDouble(columnLabel);
+    return getDouble(findColumn(columnLabel));
   }
 
   @Override
   public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
-    return isNull(columnLabel) ? null : toBigDecimal(resultSet.getDouble(columnLabel), scale);
+    return getBigDecimal(findColumn(columnLabel), scale);
   }
 
   @Override
   public byte[] getBytes(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? null : resultSet.getBytes(columnLabel).toByteArray();
+    return getBytes(findColumn(columnLabel));
   }
 
   @Override
   public Date getDate(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? null
-        : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnLabel));
+    return getDate(findColumn(columnLabel));
   }
 
   @Override
   public Time getTime(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? null
-        : CloudSpannerConversionUtil.toSqlTime(resultSet.getTimestamp(columnLabel));
+    return getTime(findColumn(columnLabel));
   }
 
   @Override
   public Timestamp getTimestamp(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? null : resultSet.getTimestamp(columnLabel).toSqlTimestamp();
+    return getTimestamp(findColumn(columnLabel));
   }
 
   @Override
   public CloudSpannerResultSetMetaData getMetaData() throws SQLException {
     ensureOpen();
-    return new CloudSpannerResultSetMetaData(resultSet, statement, sql);
+    if (metaData == null)
+      metaData = new CloudSpannerResultSetMetaData(resultSet, statement, sql);
+    return metaData;
   }
 
   @Override
   public int findColumn(String columnLabel) throws SQLException {
     ensureOpen();
+    if (columns == null)
+      initColumns();
+    Integer index = columnIndices.get(columnLabel);
+    if (index != null)
+      return index + 1;
     try {
       return resultSet.getColumnIndex(columnLabel) + 1;
     } catch (IllegalArgumentException e) {
@@ -303,13 +669,6 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
     return res;
   }
 
-  private boolean isNull(String columnName) throws SQLException {
-    ensureOpenAndInValidPosition();
-    boolean res = resultSet.isNull(columnName);
-    wasNull = res;
-    return res;
-  }
-
   @Override
   public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
     return isNull(columnIndex) ? null : toBigDecimal(resultSet.getDouble(columnIndex - 1));
@@ -317,7 +676,7 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? null : toBigDecimal(resultSet.getDouble(columnLabel));
+    return getBigDecimal(findColumn(columnLabel));
   }
 
   @Override
@@ -334,8 +693,7 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public Date getDate(String columnLabel, Calendar cal) throws SQLException {
-    return isNull(columnLabel) ? null
-        : CloudSpannerConversionUtil.toSqlDate(resultSet.getDate(columnLabel), cal);
+    return getDate(findColumn(columnLabel), cal);
   }
 
   @Override
@@ -346,8 +704,7 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public Time getTime(String columnLabel, Calendar cal) throws SQLException {
-    return isNull(columnLabel) ? null
-        : CloudSpannerConversionUtil.toSqlTime(resultSet.getTimestamp(columnLabel));
+    return getTime(findColumn(columnLabel), cal);
   }
 
   @Override
@@ -357,7 +714,7 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
-    return isNull(columnLabel) ? null : resultSet.getTimestamp(columnLabel).toSqlTimestamp();
+    return getTimestamp(findColumn(columnLabel), cal);
   }
 
   @Override
@@ -387,85 +744,98 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public byte getByte(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? 0 : (byte) resultSet.getLong(columnLabel);
+    return getByte(findColumn(columnLabel));
   }
 
   @Override
   public short getShort(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? 0 : (short) resultSet.getLong(columnLabel);
+    return getShort(findColumn(columnLabel));
   }
 
   @Override
   public int getInt(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? 0 : (int) resultSet.getLong(columnLabel);
+    return getInt(findColumn(columnLabel));
   }
 
   @Override
   public float getFloat(String columnLabel) throws SQLException {
-    return isNull(columnLabel) ? 0 : (float) resultSet.getDouble(columnLabel);
+    return getFloat(findColumn(columnLabel));
   }
 
   @Override
   public Object getObject(String columnLabel) throws SQLException {
-    Type type = resultSet.getColumnType(columnLabel);
-    return isNull(columnLabel) ? null : getObject(type, columnLabel);
+    return getObject(findColumn(columnLabel));
   }
 
   @Override
   public Object getObject(int columnIndex) throws SQLException {
-    Type type = resultSet.getColumnType(columnIndex - 1);
-    return isNull(columnIndex) ? null : getObject(type, columnIndex);
-  }
-
-  private Object getObject(Type type, String columnLabel) throws SQLException {
-    return getObject(type, resultSet.getColumnIndex(columnLabel) + 1);
-  }
-
-  private Object getObject(Type type, int columnIndex) throws SQLException {
-    if (type == Type.bool())
-      return getBoolean(columnIndex);
-    if (type == Type.bytes())
-      return getBytes(columnIndex);
-    if (type == Type.date())
-      return getDate(columnIndex);
-    if (type == Type.float64())
-      return getDouble(columnIndex);
-    if (type == Type.int64())
-      return getLong(columnIndex);
-    if (type == Type.string())
-      return getString(columnIndex);
-    if (type == Type.timestamp())
-      return getTimestamp(columnIndex);
-    if (type.getCode() == Code.ARRAY)
-      return getArray(columnIndex);
-    throw new CloudSpannerSQLException("Unknown type: " + type.toString(),
+    ColumnDescriptor column = getColumn(columnIndex);
+    return isNull(columnIndex) ? null : getObject(column, columnIndex);
+  }
+
+  private Object getObject(ColumnDescriptor column, int columnIndex) throws SQLException {
+    if (column.type.getCode() == Code.ARRAY)
+      return getArray(column, columnIndex);
+    if (column.dataType != null) {
+      switch (column.dataType) {
+        case BOOL:
+          return resultSet.getBoolean(columnIndex - 1);
+        case BYTES:
+          return resultSet.getBytes(columnIndex - 1).toByteArray();
+        case DATE:
+          return toSqlDate(columnIndex);
+        case FLOAT64:
+          return resultSet.getDouble(columnIndex - 1);
+        case INT64:
+          return resultSet.getLong(columnIndex - 1);
+        case STRING:
+          return resultSet.getString(columnIndex - 1);
+        case TIMESTAMP:
+          return resultSet.getTimestamp(columnIndex - 1).toSqlTimestamp();
+        default:
+          break;
+      }
+    }
+    throw new CloudSpannerSQLException("Unknown type: " + column.type.toString(),
         com.google.rpc.Code.INVALID_ARGUMENT);
   }
 
   @Override
   public Array getArray(String columnLabel) throws SQLException {
-    Type type = resultSet.getColumnType(columnLabel);
-    if (type.getCode() != Code.ARRAY)
+    int columnIndex = findColumn(columnLabel);
+    if (getColumn(columnIndex).type.getCode() != Code.ARRAY)
       throw new CloudSpannerSQLException(
           "Column with label " + columnLabel + " does not contain an array",
           com.google.rpc.Code.INVALID_ARGUMENT);
-    return getArray(resultSet.getColumnIndex(columnLabel) + 1);
+    return getArray(columnIndex);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * {@link Array#getArray()} of the returned array returns a primitive array (for example
+   * <code>long[]</code>) for BOOL, INT64 and FLOAT64 arrays without NULL elements, and an array of
+   * the boxed type (for example <code>Long[]</code>) for arrays that contain NULL elements. See
+   * {@link CloudSpannerArray}.
+   */
   @Override
   public Array getArray(int columnIndex) throws SQLException {
+    ColumnDescriptor column = getColumn(columnIndex);
     if (isNull(columnIndex))
       return null;
-    Type type = resultSet.getColumnType(columnIndex - 1);
-    if (type.getCode() != Code.ARRAY)
+    if (column.type.getCode() != Code.ARRAY)
       throw new CloudSpannerSQLException(
           "Column with index " + columnIndex + " does not contain an array",
           com.google.rpc.Code.INVALID_ARGUMENT);
-    CloudSpannerDataType dataType =
-        CloudSpannerDataType.getType(type.getArrayElementType().getCode());
-    List<? extends Object> elements = dataType.getArrayElements(resultSet, columnIndex - 1);
+    return getArray(column, columnIndex);
+  }
 
-    return CloudSpannerArray.createArray(dataType, elements);
+  private Array getArray(ColumnDescriptor column, int columnIndex) throws SQLException {
+    if (column.dataType == null)
+      throw new CloudSpannerSQLException("Unknown type: " + column.type.toString(),
+          com.google.rpc.Code.INVALID_ARGUMENT);
+    return CloudSpannerArray.createArray(column.dataType,
+        column.dataType.getArrayData(resultSet, columnIndex - 1));
   }
 
   @Override
@@ -569,22 +939,49 @@ public class CloudSpannerResultSet extends AbstractCloudSpannerResultSet {
 
   @Override
   public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
-    return convertObject(getObject(columnIndex), type, resultSet.getColumnType(columnIndex - 1));
+    ColumnDescriptor column = getColumn(columnIndex);
+    if (isNull(columnIndex))
+      return null;
+    Object value = getJavaTimeObject(column, columnIndex, type);
+    if (value != null)
+      return type.cast(value);
+    return convertObject(getObject(column, columnIndex), type, column.type);
+  }
+
+  /**
+   * Converts DATE and TIMESTAMP values directly to the requested java.time type, without creating
+   * an intermediate {@link Date} or {@link Timestamp}.
+   * 
+   * @return The converted value, or <code>null</code> if the column cannot be converted directly
+   *         to the given type
+   */
+  private Object getJavaTimeObject(ColumnDescriptor column, int columnIndex, Class<?> type) {
+    if (column.type.getCode() == Code.DATE && type == LocalDate.class)
+      return CloudSpannerConversionUtil.toLocalDate(resultSet.getDate(columnIndex - 1));
+    if (column.type.getCode() == Code.TIMESTAMP) {
+      if (type == Instant.class)
+        return CloudSpannerConversionUtil.toInstant(resultSet.getTimestamp(columnIndex - 1));
+      if (type == OffsetDateTime.class)
+        return OffsetDateTime.ofInstant(
+            CloudSpannerConversionUtil.toInstant(resultSet.getTimestamp(columnIndex - 1)),
+            ZoneOffset.UTC);
+    }
+    return null;
   }
 
   @Override
   public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
-    return convertObject(getObject(columnLabel), type, resultSet.getColumnType(columnLabel));
+    return getObject(findColumn(columnLabel), type);
   }
 
   @Override
   public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
-    return convertObject(getObject(columnIndex), map, resultSet.getColumnType(columnIndex - 1));
+    return convertObject(getObject(columnIndex), map, getColumn(columnIndex).type);
   }
 
   @Override
   public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
-    return convertObject(getObject(columnLabel), map, resultSet.getColumnType(columnLabel));
+    return getObject(findColumn(columnLabel), map);
   }
 
   @SuppressWarnings("unchecked")
@@ -26,6 +26,9 @@ import net.sf.jsqlparser.statement.select.SelectItem;
 import net.sf.jsqlparser.statement.select.SelectItemVisitor;
 import net.sf.jsqlparser.statement.select.SelectVisitorAdapter;
 import nl.topicus.jdbc.CloudSpannerDriver;
+import nl.topicus.jdbc.MetaDataStore;
+import nl.topicus.jdbc.MetaDataStore.ColumnMetaData;
+import nl.topicus.jdbc.MetaDataStore.QueryMetaData;
 import nl.topicus.jdbc.metadata.AbstractCloudSpannerWrapper;
 import nl.topicus.jdbc.statement.CloudSpannerStatement;
 
@@ -48,22 +51,11 @@ public class CloudSpannerResultSetMetaData extends AbstractCloudSpannerWrapper
 
   private final String sql;
 
-  private boolean initialized = false;
-
-  /**
-   * The tables used in this result set in the order that they appear in the select statement
-   */
-  private List<Table> tables = null;
-
-  /**
-   * The columns of this result set in the order that they appear in the result set
-   */
-  private List<Column> columns = null;
-
   /**
-   * The aliases of the columns of this result set in the order that they appear in the result set
+   * The tables, columns and aliases of the select statement. This model is shared by all result
+   * sets of the connection for the same SQL string.
    */
-  private List<Alias> aliases = null;
+  private QueryMetaData queryMetaData = null;
 
   public CloudSpannerResultSetMetaData(ResultSet resultSet, CloudSpannerStatement statement,
       String sql) {
@@ -72,126 +64,148 @@ public class CloudSpannerResultSetMetaData extends AbstractCloudSpannerWrapper
     this.sql = sql;
   }
 
-  private void initMetaData() throws SQLException {
-    if (initialized)
-      return;
+  private MetaDataStore getMetaDataStore() throws SQLException {
+    return statement.getConnection().getMetaDataStore();
+  }
 
-    initialized = true;
-    Statement sqlStatement = null;
-    if (sql == null)
-      return;
-    try {
-      sqlStatement = CCJSqlParserUtil.parse(sanitizeSQL(sql));
-    } catch (JSQLParserException | TokenMgrException e) {
-      // ignore
-      return;
-    }
-    if (!(sqlStatement instanceof Select))
-      return;
-    Select select = (Select) sqlStatement;
-    try {
-      initTables(select);
-      initColumns(select);
-    } catch (ParseException e) {
-      throw e.e;
+  private QueryMetaData getQueryMetaData() throws SQLException {
+    if (queryMetaData == null) {
+      if (sql == null) {
+        queryMetaData = QueryMetaData.EMPTY;
+      } else {
+        MetaDataStore store = getMetaDataStore();
+        queryMetaData = store.getQueryMetaData(sql);
+        if (queryMetaData == null) {
+          queryMetaData = new Parser().parse(sql);
+          store.putQueryMetaData(sql, queryMetaData);
+        }
+      }
     }
+    return queryMetaData;
   }
 
-  private void initTables(Select select) {
-    tables = new ArrayList<>();
-    if (select.getSelectBody() != null) {
-      select.getSelectBody().accept(new SelectVisitorAdapter() {
-        @Override
-        public void visit(PlainSelect plainSelect) {
-          if (plainSelect.getFromItem() != null) {
-            plainSelect.getFromItem().accept(new FromItemVisitorAdapter() {
-              @Override
-              public void visit(Table table) {
-                initTable(table);
-              }
-            });
-          }
-          if (plainSelect.getJoins() != null) {
-            for (Join join : plainSelect.getJoins()) {
-              join.getRightItem().accept(new FromItemVisitorAdapter() {
+  /**
+   * Creates the {@link QueryMetaData} of a SQL string
+   */
+  private final class Parser {
+    private final List<Table> tables = new ArrayList<>();
+
+    private final List<Column> columns = new ArrayList<>();
+
+    private final List<Alias> aliases = new ArrayList<>();
+
+    private QueryMetaData parse(String sql) throws SQLException {
+      Statement sqlStatement = null;
+      try {
+        sqlStatement = CCJSqlParserUtil.parse(sanitizeSQL(sql));
+      } catch (JSQLParserException | TokenMgrException e) {
+        // ignore
+        return QueryMetaData.EMPTY;
+      }
+      if (!(sqlStatement instanceof Select))
+        return QueryMetaData.EMPTY;
+      Select select = (Select) sqlStatement;
+      try {
+        initTables(select);
+        initColumns(select);
+      } catch (ParseException e) {
+        throw e.e;
+      }
+      return new QueryMetaData(tables, columns, aliases);
+    }
+
+    private void initTables(Select select) {
+      if (select.getSelectBody() != null) {
+        select.getSelectBody().accept(new SelectVisitorAdapter() {
+          @Override
+          public void visit(PlainSelect plainSelect) {
+            if (plainSelect.getFromItem() != null) {
+              plainSelect.getFromItem().accept(new FromItemVisitorAdapter() {
                 @Override
                 public void visit(Table table) {
                   initTable(table);
                 }
               });
             }
+            if (plainSelect.getJoins() != null) {
+              for (Join join : plainSelect.getJoins()) {
+                join.getRightItem().accept(new FromItemVisitorAdapter() {
+                  @Override
+                  public void visit(Table table) {
+                    initTable(table);
+                  }
+                });
+              }
+            }
           }
-        }
-      });
+        });
+      }
     }
-  }
 
-  private void initTable(Table table) {
-    tables.add(table);
-  }
+    private void initTable(Table table) {
+      tables.add(table);
+    }
 
-  private void initColumns(Select select) {
-    columns = new ArrayList<>();
-    aliases = new ArrayList<>();
-    select.getSelectBody().accept(new SelectVisitorAdapter() {
-      @Override
-      public void visit(PlainSelect plainSelect) {
-        for (SelectItem selectItem : plainSelect.getSelectItems()) {
-          selectItem.accept(new SelectItemVisitor() {
-            private boolean foundColumn = false;
-
-            @Override
-            public void visit(SelectExpressionItem selectExpressionItem) {
-              selectExpressionItem.getExpression().accept(new ExpressionVisitorAdapter() {
-                @Override
-                public void visit(Column column) {
-                  registerColumn(column, selectExpressionItem.getAlias());
-                  foundColumn = true;
+    private void initColumns(Select select) {
+      select.getSelectBody().accept(new SelectVisitorAdapter() {
+        @Override
+        public void visit(PlainSelect plainSelect) {
+          for (SelectItem selectItem : plainSelect.getSelectItems()) {
+            selectItem.accept(new SelectItemVisitor() {
+              private boolean foundColumn = false;
+
+              @Override
+              public void visit(SelectExpressionItem selectExpressionItem) {
+                selectExpressionItem.getExpression().accept(new ExpressionVisitorAdapter() {
+                  @Override
+                  public void visit(Column column) {
+                    registerColumn(column, selectExpressionItem.getAlias());
+                    foundColumn = true;
+                  }
+                });
+                if (!foundColumn) {
+                  registerColumn(null, selectExpressionItem.getAlias());
                 }
-              });
-              if (!foundColumn) {
-                registerColumn(null, selectExpressionItem.getAlias());
               }
-            }
 
-            @Override
-            public void visit(AllTableColumns allTableColumns) {
-              registerAllTableColumns(allTableColumns.getTable());
-            }
+              @Override
+              public void visit(AllTableColumns allTableColumns) {
+                registerAllTableColumns(allTableColumns.getTable());
+              }
 
-            @Override
-            public void visit(AllColumns allColumns) {
-              for (Table table : tables) {
-                registerAllTableColumns(table);
+              @Override
+              public void visit(AllColumns allColumns) {
+                for (Table table : tables) {
+                  registerAllTableColumns(table);
+                }
               }
-            }
-          });
+            });
+          }
         }
-      }
-    });
-  }
+      });
+    }
 
-  private void registerAllTableColumns(Table table) {
-    String schema = Strings.isNullOrEmpty(table.getSchemaName()) ? ""
-        : CloudSpannerDriver.unquoteIdentifier(table.getSchemaName());
-    String tableName = CloudSpannerDriver.unquoteIdentifier(table.getName());
-    try (java.sql.ResultSet rs =
-        statement.getConnection().getMetaData().getColumns("", schema, tableName, null)) {
-      while (rs.next()) {
-        registerColumn(new Column(table, rs.getString("COLUMN_NAME")));
+    private void registerAllTableColumns(Table table) {
+      String schema = Strings.isNullOrEmpty(table.getSchemaName()) ? ""
+          : CloudSpannerDriver.unquoteIdentifier(table.getSchemaName());
+      String tableName = CloudSpannerDriver.unquoteIdentifier(table.getName());
+      try {
+        for (ColumnMetaData column : getMetaDataStore().getTableColumns(schema, tableName)) {
+          registerColumn(new Column(table, column.getName()));
+        }
+      } catch (SQLException e) {
+        throw new ParseException(e);
       }
-    } catch (SQLException e) {
-      throw new ParseException(e);
     }
-  }
 
-  private void registerColumn(Column column) {
-    registerColumn(column, null);
-  }
+    private void registerColumn(Column column) {
+      registerColumn(column, null);
+    }
 
-  private void registerColumn(Column column, Alias alias) {
-    columns.add(column);
-    aliases.add(alias);
+    private void registerColumn(Column column, Alias alias) {
+      columns.add(column);
+      aliases.add(alias);
+    }
   }
 
   private String sanitizeSQL(String sql) {
@@ -235,19 +249,9 @@ public class CloudSpannerResultSetMetaData extends AbstractCloudSpannerWrapper
 
   @Override
   public int isNullable(int column) throws SQLException {
-    Column col = getColumn(column);
-    if (col != null && col.getTable() != null) {
-      String schema = Strings.isNullOrEmpty(col.getTable().getSchemaName()) ? ""
-          : CloudSpannerDriver.unquoteIdentifier(col.getTable().getSchemaName());
-      String tableName = CloudSpannerDriver.unquoteIdentifier(col.getTable().getName());
-      String colName = CloudSpannerDriver.unquoteIdentifier(col.getColumnName());
-      try (java.sql.ResultSet rs =
-          statement.getConnection().getMetaData().getColumns("", schema, tableName, colName)) {
-        if (rs.next()) {
-          return rs.getInt("NULLABLE");
-        }
-      }
-    }
+    ColumnMetaData metaData = getColumnMetaData(column);
+    if (metaData != null)
+      return metaData.getNullable();
     return columnNullableUnknown;
   }
 
@@ -306,19 +310,37 @@ public class CloudSpannerResultSetMetaData extends AbstractCloudSpannerWrapper
   }
 
   private Column getColumn(int column) throws SQLException {
-    initMetaData();
-    if (columns == null || column > columns.size())
+    List<Column> columns = getQueryMetaData().getColumns();
+    if (column > columns.size())
       return null;
     return columns.get(column - 1);
   }
 
   private Alias getAlias(int column) throws SQLException {
-    initMetaData();
-    if (aliases == null || column > aliases.size())
+    List<Alias> aliases = getQueryMetaData().getAliases();
+    if (column > aliases.size())
       return null;
     return aliases.get(column - 1);
   }
 
+  /**
+   * 
+   * @param column The index of the column in the result set
+   * @return The schema information of the table column, or <code>null</code> if the result set
+   *         column is not a table column
+   */
+  private ColumnMetaData getColumnMetaData(int column) throws SQLException {
+    Column col = getColumn(column);
+    if (col != null && col.getTable() != null) {
+      String schema = Strings.isNullOrEmpty(col.getTable().getSchemaName()) ? ""
+          : CloudSpannerDriver.unquoteIdentifier(col.getTable().getSchemaName());
+      String tableName = CloudSpannerDriver.unquoteIdentifier(col.getTable().getName());
+      String colName = CloudSpannerDriver.unquoteIdentifier(col.getColumnName());
+      return getMetaDataStore().getColumn(schema, tableName, colName);
+    }
+    return null;
+  }
+
   @Override
   public int getPrecision(int column) throws SQLException {
     int colType = getColumnType(column);
@@ -336,19 +358,9 @@ public class CloudSpannerResultSetMetaData extends AbstractCloudSpannerWrapper
       default:
         // Not fixed size, try to get it from INFORMATION_SCHEMA
     }
-    Column col = getColumn(column);
-    if (col != null && col.getTable() != null) {
-      String schema = Strings.isNullOrEmpty(col.getTable().getSchemaName()) ? ""
-          : CloudSpannerDriver.unquoteIdentifier(col.getTable().getSchemaName());
-      String tableName = CloudSpannerDriver.unquoteIdentifier(col.getTable().getName());
-      String colName = CloudSpannerDriver.unquoteIdentifier(col.getColumnName());
-      try (java.sql.ResultSet rs =
-          statement.getConnection().getMetaData().getColumns("", schema, tableName, colName)) {
-        if (rs.next()) {
-          return rs.getInt("COLUMN_SIZE");
-        }
-      }
-    }
+    ColumnMetaData metaData = getColumnMetaData(column);
+    if (metaData != null)
+      return metaData.getColumnSize();
     return 0;
   }
 
@@ -0,0 +1,184 @@
+package nl.topicus.jdbc.resultset;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import com.google.cloud.spanner.Struct;
+import com.google.common.base.Preconditions;
+import nl.topicus.jdbc.exception.UncheckedCloudSpannerSQLException;
+
+/**
+ * Publishes the rows of a result set to a subscriber with demand-driven backpressure. Rows are
+ * only read from the result set when the subscriber has requested them, and all reads are
+ * executed on the executor of the publisher, so that the thread of the subscriber is never
+ * blocked. The interfaces of this class follow the contract of
+ * <code>java.util.concurrent.Flow</code> (Reactive Streams), which allows a publisher to be
+ * adapted to any reactive library with a simple wrapper. A result set can only be published once,
+ * and the result set is closed when the subscription completes, fails or is cancelled.
+ *
+ * @author loite
+ *
+ * @param <T> The type of the published elements
+ */
+public final class CloudSpannerRowPublisher<T> {
+  /**
+   * Receives the rows of a {@link CloudSpannerRowPublisher}. The methods of a subscriber are never
+   * called concurrently.
+   */
+  public interface Subscriber<T> {
+    public void onSubscribe(Subscription subscription);
+
+    public void onNext(T item);
+
+    public void onError(Throwable throwable);
+
+    public void onComplete();
+  }
+
+  public interface Subscription {
+    /**
+     * Requests the given number of additional rows
+     */
+    public void request(long n);
+
+    /**
+     * Stops the delivery of rows and closes the result set
+     */
+    public void cancel();
+  }
+
+  private final CloudSpannerResultSet resultSet;
+
+  private final Executor executor;
+
+  private final Function<Struct, T> mapper;
+
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  CloudSpannerRowPublisher(CloudSpannerResultSet resultSet, Executor executor,
+      Function<Struct, T> mapper) {
+    this.resultSet = Preconditions.checkNotNull(resultSet);
+    this.executor = Preconditions.checkNotNull(executor);
+    this.mapper = Preconditions.checkNotNull(mapper);
+  }
+
+  public void subscribe(Subscriber<? super T> subscriber) {
+    Preconditions.checkNotNull(subscriber);
+    RowSubscription subscription = new RowSubscription(subscriber);
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(subscription);
+      subscription.fail(
+          new IllegalStateException("The result set has already been subscribed to"), false);
+      return;
+    }
+    subscriber.onSubscribe(subscription);
+  }
+
+  private final class RowSubscription implements Subscription {
+    private final Subscriber<? super T> subscriber;
+
+    private final AtomicLong demand = new AtomicLong();
+
+    /**
+     * The number of times the drain loop has been requested to run. Only the caller that
+     * increments this value from zero schedules the loop, which guarantees that the result set is
+     * only read by one thread at a time.
+     */
+    private final AtomicInteger work = new AtomicInteger();
+
+    private volatile boolean cancelled = false;
+
+    private volatile Throwable invalidRequest;
+
+    /**
+     * Only accessed by the drain loop
+     */
+    private boolean done = false;
+
+    private RowSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0L) {
+        invalidRequest =
+            new IllegalArgumentException("The number of requested rows must be positive");
+      } else {
+        // Add to the demand, but never overflow. Long.MAX_VALUE means an unbounded demand.
+        demand.accumulateAndGet(n, (current, add) -> {
+          long sum = current + add;
+          return sum < 0L ? Long.MAX_VALUE : sum;
+        });
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (work.getAndIncrement() == 0)
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+      int missed = 1;
+      do {
+        if (!done) {
+          if (invalidRequest != null) {
+            fail(invalidRequest, true);
+          } else {
+            long emitted = 0L;
+            long requested = demand.get();
+            while (!done && !cancelled && emitted < requested) {
+              try {
+                if (resultSet.next()) {
+                  subscriber.onNext(mapper.apply(resultSet.getCurrentRowAsStruct()));
+                  emitted++;
+                } else {
+                  done = true;
+                  closeResultSet();
+                  subscriber.onComplete();
+                }
+              } catch (SQLException e) {
+                fail(new UncheckedCloudSpannerSQLException(e), true);
+              } catch (RuntimeException e) {
+                fail(e, true);
+              }
+            }
+            if (emitted > 0L && requested != Long.MAX_VALUE)
+              demand.addAndGet(-emitted);
+            if (cancelled && !done) {
+              done = true;
+              closeResultSet();
+            }
+          }
+        }
+        missed = work.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void fail(Throwable throwable, boolean close) {
+      done = true;
+      if (close)
+        closeResultSet();
+      subscriber.onError(throwable);
+    }
+
+    private void closeResultSet() {
+      try {
+        resultSet.close();
+      } catch (SQLException e) {
+        // ignore, the subscription has already ended
+      }
+    }
+  }
+
+}
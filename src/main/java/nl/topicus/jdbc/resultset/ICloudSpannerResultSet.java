@@ -0,0 +1,78 @@
+package nl.topicus.jdbc.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import com.google.cloud.spanner.Struct;
+
+/**
+ * Interface containing all extra methods that are provided by CloudSpannerResultSet. Use
+ * {@link ResultSet#unwrap(Class)} to get access to these methods.
+ *
+ * @author loite
+ *
+ */
+public interface ICloudSpannerResultSet extends ResultSet {
+
+  /**
+   * Reads the next rows of this result set into a column-oriented batch. The cursor of the result
+   * set is moved forward by the number of rows in the batch, which means that the cursor is
+   * positioned on the last row of the batch, or after the last row of the result set if the batch
+   * contains less than maxRows rows.
+   *
+   * @param maxRows The maximum number of rows in the batch
+   * @return A batch containing at most maxRows rows. The batch is empty if there are no more rows.
+   * @throws SQLException If the rows could not be read
+   */
+  public CloudSpannerColumnBatch nextBatch(int maxRows) throws SQLException;
+
+  /**
+   * Reads the next rows of this result set into a column-oriented batch.
+   *
+   * @param maxRows The maximum number of rows in the batch
+   * @param offHeap If <code>true</code>, the data of STRING and BYTES columns is stored in direct
+   *        (off-heap) buffers
+   * @return A batch containing at most maxRows rows
+   * @throws SQLException If the rows could not be read
+   * @see #nextBatch(int)
+   */
+  public CloudSpannerColumnBatch nextBatch(int maxRows, boolean offHeap) throws SQLException;
+
+  /**
+   * Returns a sequential stream of the remaining rows of this result set. The stream reads the
+   * rows from the result set when they are consumed, and the result set is closed when the stream
+   * is closed or when all rows have been consumed. Any {@link SQLException} that occurs while
+   * reading the rows is thrown as an
+   * {@link nl.topicus.jdbc.exception.UncheckedCloudSpannerSQLException}.
+   *
+   * @return A stream of the remaining rows
+   * @throws SQLException If the result set is closed
+   */
+  public Stream<Struct> stream() throws SQLException;
+
+  /**
+   * Creates a publisher that delivers the remaining rows of this result set to a subscriber when
+   * they are requested. All rows are read on the given executor.
+   *
+   * @param executor The executor to read the rows on
+   * @return A publisher of the remaining rows
+   * @throws SQLException If the result set is closed
+   */
+  public CloudSpannerRowPublisher<Struct> publisher(Executor executor) throws SQLException;
+
+  /**
+   * Creates a publisher that delivers the remaining rows of this result set, converted by the
+   * given mapper, to a subscriber when they are requested. All rows are read and mapped on the
+   * given executor.
+   *
+   * @param executor The executor to read the rows on
+   * @param mapper The function that converts a row into the element that is published
+   * @return A publisher of the converted rows
+   * @throws SQLException If the result set is closed
+   */
+  public <T> CloudSpannerRowPublisher<T> publisher(Executor executor, Function<Struct, T> mapper)
+      throws SQLException;
+
+}
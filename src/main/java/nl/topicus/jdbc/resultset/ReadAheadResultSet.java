@@ -0,0 +1,307 @@
+package nl.topicus.jdbc.resultset;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.AbstractStructReader;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.common.base.Preconditions;
+import com.google.spanner.v1.ResultSetStats;
+import io.grpc.Context;
+import nl.topicus.jdbc.CloudSpannerDriver;
+import nl.topicus.jdbc.statement.AsyncStatementExecutor;
+
+/**
+ * {@link ResultSet} that reads rows from an underlying {@link ResultSet} on a background thread
+ * into a bounded buffer. This allows the rows of a query to be fetched from Google Cloud Spanner
+ * while the application is processing the rows that have already been received. The rows are read
+ * by tasks on the shared read-ahead executor of the driver, see
+ * {@link CloudSpannerDriver#getReadAheadExecutor()}. A task is started by the first call to
+ * {@link #next()}, and stops when the buffer is full instead of blocking a thread of the executor.
+ * A new task is started when the application has consumed a row from a full buffer.
+ *
+ * @author loite
+ *
+ */
+class ReadAheadResultSet extends AbstractStructReader implements ResultSet {
+  /**
+   * Marker that is put in the buffer when all rows have been read
+   */
+  private static final Object END_OF_STREAM = new Object();
+
+  private final ResultSet delegate;
+
+  private final AsyncStatementExecutor executor;
+
+  /**
+   * Contains the rows that have been read ahead, followed by either {@link #END_OF_STREAM} or the
+   * exception that was thrown by the underlying {@link ResultSet}
+   */
+  private final BlockingQueue<Object> buffer;
+
+  /**
+   * Indicates whether a read-ahead task has been started and has not yet stopped
+   */
+  private final AtomicBoolean reading = new AtomicBoolean();
+
+  /**
+   * Held by a read-ahead task while it is reading from the underlying {@link ResultSet}
+   */
+  private final Object readLock = new Object();
+
+  /**
+   * The thread of the running read-ahead task. Guarded by {@link #buffer}.
+   */
+  private Thread reader;
+
+  private volatile boolean closed = false;
+
+  private boolean finished = false;
+
+  private Struct currentRow;
+
+  ReadAheadResultSet(ResultSet delegate, int bufferSize) {
+    this(delegate, bufferSize, CloudSpannerDriver.getReadAheadExecutor());
+  }
+
+  ReadAheadResultSet(ResultSet delegate, int bufferSize, AsyncStatementExecutor executor) {
+    Preconditions.checkNotNull(delegate);
+    Preconditions.checkArgument(bufferSize > 0, "bufferSize must be positive");
+    Preconditions.checkNotNull(executor);
+    this.delegate = delegate;
+    this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    this.executor = executor;
+  }
+
+  /**
+   * Starts a read-ahead task if there is room in the buffer and no task is running. The task is
+   * executed in the current context, so that the query timeout and cancellation of the statement
+   * also apply to the calls made by the task.
+   */
+  private void startReadAhead() {
+    if (buffer.remainingCapacity() == 0 || !reading.compareAndSet(false, true))
+      return;
+    executor.run(Context.current().wrap(this::readAhead)).whenComplete((result, error) -> {
+      // The task could not be started. The buffer has room for the error, as the consumer is the
+      // only one that has accessed the buffer since the task was submitted.
+      if (error != null && !closed)
+        buffer.offer(error instanceof RuntimeException ? error
+            : SpannerExceptionFactory.newSpannerException(error));
+    });
+  }
+
+  /**
+   * Reads rows from the underlying {@link ResultSet} until the buffer is full, all rows have been
+   * read or the result set is closed. The entries that are put in the buffer never block, as this
+   * task is the only one that adds entries to the buffer and it checks the remaining capacity
+   * first.
+   */
+  private void readAhead() {
+    synchronized (readLock) {
+      synchronized (buffer) {
+        reader = Thread.currentThread();
+      }
+      try {
+        while (!closed) {
+          if (buffer.remainingCapacity() == 0) {
+            reading.set(false);
+            // The consumer may have taken a row after the check above without starting a new task
+            if (buffer.remainingCapacity() == 0 || !reading.compareAndSet(false, true))
+              return;
+          } else if (delegate.next()) {
+            buffer.add(delegate.getCurrentRowAsStruct());
+          } else {
+            buffer.add(END_OF_STREAM);
+            return;
+          }
+        }
+      } catch (RuntimeException e) {
+        // Hand the exception over to the consumer, unless the result set has been closed
+        if (!closed)
+          buffer.add(e);
+      } finally {
+        synchronized (buffer) {
+          reader = null;
+          // Do not leave an interrupt of close() behind on the thread of the executor
+          Thread.interrupted();
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean next() throws SpannerException {
+    if (closed)
+      throw new IllegalStateException("ResultSet is closed");
+    if (finished)
+      return false;
+    startReadAhead();
+    Object entry;
+    try {
+      entry = buffer.take();
+    } catch (InterruptedException e) {
+      throw SpannerExceptionFactory.propagateInterrupt(e);
+    }
+    if (entry instanceof Struct) {
+      currentRow = (Struct) entry;
+      // Continue reading if the task stopped because the buffer was full
+      startReadAhead();
+      return true;
+    }
+    currentRow = null;
+    finished = true;
+    if (entry instanceof SpannerException)
+      throw (SpannerException) entry;
+    if (entry instanceof RuntimeException)
+      throw SpannerExceptionFactory.newSpannerException((RuntimeException) entry);
+    return false;
+  }
+
+  @Override
+  public Struct getCurrentRowAsStruct() {
+    return currentRow();
+  }
+
+  @Override
+  public void close() {
+    if (closed)
+      return;
+    closed = true;
+    synchronized (buffer) {
+      if (reader != null)
+        reader.interrupt();
+    }
+    // Wait until a running read-ahead task has stopped using the underlying result set
+    synchronized (readLock) {
+      buffer.clear();
+    }
+    currentRow = null;
+    delegate.close();
+  }
+
+  @Override
+  public ResultSetStats getStats() {
+    return delegate.getStats();
+  }
+
+  private Struct currentRow() {
+    Preconditions.checkState(currentRow != null, "next() call required");
+    return currentRow;
+  }
+
+  @Override
+  public Type getType() {
+    // The type of the underlying result set may only be read by this thread if there is no current
+    // row, as reading ahead has then either not yet been started or has already finished.
+    return currentRow == null ? delegate.getType() : currentRow.getType();
+  }
+
+  @Override
+  public int getColumnIndex(String columnName) {
+    return getType().getFieldIndex(columnName);
+  }
+
+  @Override
+  public boolean isNull(int columnIndex) {
+    return currentRow().isNull(columnIndex);
+  }
+
+  @Override
+  protected boolean getBooleanInternal(int columnIndex) {
+    return currentRow().getBoolean(columnIndex);
+  }
+
+  @Override
+  protected long getLongInternal(int columnIndex) {
+    return currentRow().getLong(columnIndex);
+  }
+
+  @Override
+  protected double getDoubleInternal(int columnIndex) {
+    return currentRow().getDouble(columnIndex);
+  }
+
+  @Override
+  protected String getStringInternal(int columnIndex) {
+    return currentRow().getString(columnIndex);
+  }
+
+  @Override
+  protected ByteArray getBytesInternal(int columnIndex) {
+    return currentRow().getBytes(columnIndex);
+  }
+
+  @Override
+  protected Timestamp getTimestampInternal(int columnIndex) {
+    return currentRow().getTimestamp(columnIndex);
+  }
+
+  @Override
+  protected Date getDateInternal(int columnIndex) {
+    return currentRow().getDate(columnIndex);
+  }
+
+  @Override
+  protected boolean[] getBooleanArrayInternal(int columnIndex) {
+    return currentRow().getBooleanArray(columnIndex);
+  }
+
+  @Override
+  protected List<Boolean> getBooleanListInternal(int columnIndex) {
+    return currentRow().getBooleanList(columnIndex);
+  }
+
+  @Override
+  protected long[] getLongArrayInternal(int columnIndex) {
+    return currentRow().getLongArray(columnIndex);
+  }
+
+  @Override
+  protected List<Long> getLongListInternal(int columnIndex) {
+    return currentRow().getLongList(columnIndex);
+  }
+
+  @Override
+  protected double[] getDoubleArrayInternal(int columnIndex) {
+    return currentRow().getDoubleArray(columnIndex);
+  }
+
+  @Override
+  protected List<Double> getDoubleListInternal(int columnIndex) {
+    return currentRow().getDoubleList(columnIndex);
+  }
+
+  @Override
+  protected List<String> getStringListInternal(int columnIndex) {
+    return currentRow().getStringList(columnIndex);
+  }
+
+  @Override
+  protected List<ByteArray> getBytesListInternal(int columnIndex) {
+    return currentRow().getBytesList(columnIndex);
+  }
+
+  @Override
+  protected List<Timestamp> getTimestampListInternal(int columnIndex) {
+    return currentRow().getTimestampList(columnIndex);
+  }
+
+  @Override
+  protected List<Date> getDateListInternal(int columnIndex) {
+    return currentRow().getDateList(columnIndex);
+  }
+
+  @Override
+  protected List<Struct> getStructListInternal(int columnIndex) {
+    return currentRow().getStructList(columnIndex);
+  }
+
+}
@@ -0,0 +1,86 @@
+package nl.topicus.jdbc.resultset;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import com.google.cloud.spanner.Struct;
+import com.google.common.base.Preconditions;
+import nl.topicus.jdbc.exception.UncheckedCloudSpannerSQLException;
+
+/**
+ * {@link Spliterator} over the rows of one or more result sets. The rows of the result sets are
+ * returned in order. If there are multiple result sets, for example one for each partition of a
+ * query in batch read-only mode, the spliterator can be split into spliterators that each cover a
+ * part of the result sets, which allows the partitions to be consumed in parallel. A result set is
+ * closed when all its rows have been consumed.
+ *
+ * @author loite
+ *
+ */
+class ResultSetSpliterator implements Spliterator<Struct> {
+  private final List<? extends CloudSpannerResultSet> resultSets;
+
+  /**
+   * The index of the result set that is currently being read
+   */
+  private int index;
+
+  private final int end;
+
+  ResultSetSpliterator(List<? extends CloudSpannerResultSet> resultSets) {
+    this(resultSets, 0, resultSets.size());
+  }
+
+  private ResultSetSpliterator(List<? extends CloudSpannerResultSet> resultSets, int start,
+      int end) {
+    Preconditions.checkNotNull(resultSets);
+    this.resultSets = resultSets;
+    this.index = start;
+    this.end = end;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Struct> action) {
+    Preconditions.checkNotNull(action);
+    try {
+      while (index < end) {
+        CloudSpannerResultSet rs = resultSets.get(index);
+        if (rs.next()) {
+          action.accept(rs.getCurrentRowAsStruct());
+          return true;
+        }
+        rs.close();
+        index++;
+      }
+      return false;
+    } catch (SQLException e) {
+      throw new UncheckedCloudSpannerSQLException(e);
+    }
+  }
+
+  /**
+   * Splits off the first half of the remaining result sets, including the result set that is
+   * currently being read. A spliterator with less than two remaining result sets cannot be split.
+   */
+  @Override
+  public Spliterator<Struct> trySplit() {
+    if (end - index < 2)
+      return null;
+    int mid = index + (end - index) / 2;
+    ResultSetSpliterator prefix = new ResultSetSpliterator(resultSets, index, mid);
+    index = mid;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return Spliterator.ORDERED | Spliterator.NONNULL;
+  }
+
+}
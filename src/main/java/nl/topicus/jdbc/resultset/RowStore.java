@@ -0,0 +1,516 @@
+package nl.topicus.jdbc.resultset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.Code;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.cloud.spanner.Value;
+import com.google.common.base.Preconditions;
+
+/**
+ * Append-only store for the rows of a result set that gives random access to the rows by their
+ * index. The rows are stored in a compact binary encoding in pages. The first pages are kept on the
+ * heap. When the total size of these pages would exceed the memory threshold of the store, any
+ * further pages are created in a memory-mapped temporary file, so that the heap usage of the store
+ * is bounded regardless of the number of rows. Each row is stored within a single page, and the
+ * page and offset of each row are kept in an index, which makes reading a row an O(1) operation.
+ * <p>
+ * The temporary file can only be read and written by its owner, and is unmapped and deleted when
+ * the store is closed.
+ *
+ * @author loite
+ *
+ */
+class RowStore implements Closeable {
+  private static final int FIRST_HEAP_PAGE_SIZE = 8 * 1024;
+
+  private static final int MAX_HEAP_PAGE_SIZE = 1024 * 1024;
+
+  static final int FILE_PAGE_SIZE = 8 * 1024 * 1024;
+
+  private static final byte NULL = 0;
+
+  private static final byte NOT_NULL = 1;
+
+  /**
+   * Buffer that gives access to the bytes that have been written to it without copying them
+   */
+  private static final class RowBuffer extends ByteArrayOutputStream {
+    private RowBuffer() {
+      super(256);
+    }
+
+    private byte[] getBuffer() {
+      return buf;
+    }
+  }
+
+  private final Type type;
+
+  private final long memoryThreshold;
+
+  private final List<ByteBuffer> pages = new ArrayList<>();
+
+  /**
+   * The location of each row: the page index in the upper 32 bits and the offset in the page in
+   * the lower 32 bits
+   */
+  private long[] index = new long[64];
+
+  private int size = 0;
+
+  private long heapSize = 0L;
+
+  private final RowBuffer rowBuffer = new RowBuffer();
+
+  private final DataOutputStream output = new DataOutputStream(rowBuffer);
+
+  private File file;
+
+  private RandomAccessFile randomAccessFile;
+
+  private long fileSize = 0L;
+
+  private boolean closed = false;
+
+  /**
+   *
+   * @param type The type of the rows in the store
+   * @param memoryThreshold The maximum number of bytes of row data that is kept on the heap
+   */
+  RowStore(Type type, long memoryThreshold) {
+    Preconditions.checkNotNull(type);
+    Preconditions.checkArgument(type.getCode() == Code.STRUCT, "type must be a STRUCT type");
+    Preconditions.checkArgument(memoryThreshold >= 0L, "memoryThreshold may not be negative");
+    this.type = type;
+    this.memoryThreshold = memoryThreshold;
+  }
+
+  Type getType() {
+    return type;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   *
+   * @return <code>true</code> if the store has started to write rows to a temporary file
+   */
+  boolean isSpilled() {
+    return file != null;
+  }
+
+  /**
+   *
+   * @return The temporary file of this store, or <code>null</code> if the store has not spilled
+   */
+  File getFile() {
+    return file;
+  }
+
+  void add(Struct row) throws IOException {
+    Preconditions.checkState(!closed, "RowStore is closed");
+    rowBuffer.reset();
+    encodeStruct(type, row, output);
+    int length = rowBuffer.size();
+    ByteBuffer page = getPageFor(length);
+    int offset = page.position();
+    page.put(rowBuffer.getBuffer(), 0, length);
+    if (size == index.length)
+      index = Arrays.copyOf(index, size * 2);
+    index[size] = ((long) (pages.size() - 1) << 32) | offset;
+    size++;
+  }
+
+  Struct get(int row) {
+    Preconditions.checkState(!closed, "RowStore is closed");
+    Preconditions.checkElementIndex(row, size);
+    long location = index[row];
+    ByteBuffer page = pages.get((int) (location >>> 32)).duplicate();
+    page.position((int) location);
+    return decodeStruct(type, page);
+  }
+
+  /**
+   * Returns the page that the next row should be written to. A new page is created if the current
+   * page does not have enough space left for the row.
+   */
+  private ByteBuffer getPageFor(int length) throws IOException {
+    ByteBuffer current = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+    if (current != null && current.remaining() >= length)
+      return current;
+    ByteBuffer page;
+    if (file == null) {
+      int pageSize = current == null ? FIRST_HEAP_PAGE_SIZE
+          : Math.min(current.capacity() * 2, MAX_HEAP_PAGE_SIZE);
+      pageSize = Math.max(pageSize, length);
+      if (heapSize + pageSize <= memoryThreshold) {
+        page = ByteBuffer.allocate(pageSize);
+        heapSize += pageSize;
+      } else {
+        page = createFilePage(length);
+      }
+    } else {
+      page = createFilePage(length);
+    }
+    pages.add(page);
+    return page;
+  }
+
+  private ByteBuffer createFilePage(int length) throws IOException {
+    if (file == null) {
+      file = createTempFile();
+      file.deleteOnExit();
+      randomAccessFile = new RandomAccessFile(file, "rw");
+    }
+    int pageSize = Math.max(FILE_PAGE_SIZE, length);
+    MappedByteBuffer page =
+        randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, fileSize, pageSize);
+    fileSize += pageSize;
+    return page;
+  }
+
+  /**
+   * Creates a temporary file that can only be read and written by the current user, as the file
+   * contains the data of the result set.
+   */
+  private static File createTempFile() throws IOException {
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      return Files.createTempFile("spanner-jdbc-rows", ".tmp",
+          PosixFilePermissions.asFileAttribute(
+              EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)))
+          .toFile();
+    }
+    File res = Files.createTempFile("spanner-jdbc-rows", ".tmp").toFile();
+    if (!(res.setReadable(false, false) && res.setReadable(true, true)
+        && res.setWritable(false, false) && res.setWritable(true, true))) {
+      Files.delete(res.toPath());
+      throw new IOException("Could not restrict the permissions of temporary file " + res);
+    }
+    return res;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed)
+      return;
+    closed = true;
+    for (ByteBuffer page : pages) {
+      if (page instanceof MappedByteBuffer)
+        unmap((MappedByteBuffer) page);
+    }
+    pages.clear();
+    index = null;
+    if (randomAccessFile != null) {
+      try {
+        randomAccessFile.close();
+      } finally {
+        // The file could still be mapped if unmapping is not possible on this JVM, in which case
+        // it cannot be deleted on all platforms. It will then be deleted when the JVM exits.
+        if (!file.delete())
+          file.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * Releases the mapping of a page of the temporary file. A mapping is otherwise only released when
+   * the page is garbage collected. There is no public API for this, so the mapping is released on a
+   * best effort basis. The page may not be accessed after it has been unmapped.
+   */
+  private static void unmap(MappedByteBuffer page) {
+    try {
+      try {
+        // Java 9 and higher
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), page);
+      } catch (NoSuchMethodException e) {
+        // Java 8
+        Method cleanerMethod = page.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(page);
+        if (cleaner != null)
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // ignore, the mapping is released when the page is garbage collected
+    }
+  }
+
+  private static void encodeStruct(Type type, Struct struct, DataOutputStream output)
+      throws IOException {
+    List<StructField> fields = type.getStructFields();
+    for (int field = 0; field < fields.size(); field++) {
+      encodeValue(fields.get(field).getType(), struct, field, output);
+    }
+  }
+
+  private static void encodeValue(Type type, Struct struct, int field, DataOutputStream output)
+      throws IOException {
+    if (struct.isNull(field)) {
+      output.writeByte(NULL);
+      return;
+    }
+    output.writeByte(NOT_NULL);
+    switch (type.getCode()) {
+      case BOOL:
+        output.writeBoolean(struct.getBoolean(field));
+        break;
+      case INT64:
+        output.writeLong(struct.getLong(field));
+        break;
+      case FLOAT64:
+        output.writeDouble(struct.getDouble(field));
+        break;
+      case STRING:
+        writeBytes(struct.getString(field).getBytes(StandardCharsets.UTF_8), output);
+        break;
+      case BYTES:
+        writeBytes(struct.getBytes(field).toByteArray(), output);
+        break;
+      case DATE:
+        writeDate(struct.getDate(field), output);
+        break;
+      case TIMESTAMP:
+        writeTimestamp(struct.getTimestamp(field), output);
+        break;
+      case STRUCT:
+        encodeStruct(type, struct.getStruct(field), output);
+        break;
+      case ARRAY:
+        encodeArray(type.getArrayElementType(), struct, field, output);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+
+  private static void encodeArray(Type elementType, Struct struct, int field,
+      DataOutputStream output) throws IOException {
+    switch (elementType.getCode()) {
+      case BOOL:
+        List<Boolean> booleans = struct.getBooleanList(field);
+        output.writeInt(booleans.size());
+        for (Boolean value : booleans) {
+          if (writeNullMarker(value, output))
+            output.writeBoolean(value);
+        }
+        break;
+      case INT64:
+        List<Long> longs = struct.getLongList(field);
+        output.writeInt(longs.size());
+        for (Long value : longs) {
+          if (writeNullMarker(value, output))
+            output.writeLong(value);
+        }
+        break;
+      case FLOAT64:
+        List<Double> doubles = struct.getDoubleList(field);
+        output.writeInt(doubles.size());
+        for (Double value : doubles) {
+          if (writeNullMarker(value, output))
+            output.writeDouble(value);
+        }
+        break;
+      case STRING:
+        List<String> strings = struct.getStringList(field);
+        output.writeInt(strings.size());
+        for (String value : strings) {
+          if (writeNullMarker(value, output))
+            writeBytes(value.getBytes(StandardCharsets.UTF_8), output);
+        }
+        break;
+      case BYTES:
+        List<ByteArray> bytes = struct.getBytesList(field);
+        output.writeInt(bytes.size());
+        for (ByteArray value : bytes) {
+          if (writeNullMarker(value, output))
+            writeBytes(value.toByteArray(), output);
+        }
+        break;
+      case DATE:
+        List<Date> dates = struct.getDateList(field);
+        output.writeInt(dates.size());
+        for (Date value : dates) {
+          if (writeNullMarker(value, output))
+            writeDate(value, output);
+        }
+        break;
+      case TIMESTAMP:
+        List<Timestamp> timestamps = struct.getTimestampList(field);
+        output.writeInt(timestamps.size());
+        for (Timestamp value : timestamps) {
+          if (writeNullMarker(value, output))
+            writeTimestamp(value, output);
+        }
+        break;
+      case STRUCT:
+        List<Struct> structs = struct.getStructList(field);
+        output.writeInt(structs.size());
+        for (Struct value : structs) {
+          if (writeNullMarker(value, output))
+            encodeStruct(elementType, value, output);
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported array element type: " + elementType);
+    }
+  }
+
+  private static boolean writeNullMarker(Object value, DataOutputStream output)
+      throws IOException {
+    output.writeByte(value == null ? NULL : NOT_NULL);
+    return value != null;
+  }
+
+  private static void writeBytes(byte[] bytes, DataOutputStream output) throws IOException {
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static void writeDate(Date date, DataOutputStream output) throws IOException {
+    output.writeInt(date.getYear());
+    output.writeByte(date.getMonth());
+    output.writeByte(date.getDayOfMonth());
+  }
+
+  private static void writeTimestamp(Timestamp timestamp, DataOutputStream output)
+      throws IOException {
+    output.writeLong(timestamp.getSeconds());
+    output.writeInt(timestamp.getNanos());
+  }
+
+  private static Struct decodeStruct(Type type, ByteBuffer input) {
+    Struct.Builder builder = Struct.newBuilder();
+    for (StructField field : type.getStructFields()) {
+      builder.set(field.getName()).to(decodeValue(field.getType(), input));
+    }
+    return builder.build();
+  }
+
+  private static Value decodeValue(Type type, ByteBuffer input) {
+    boolean isNull = input.get() == NULL;
+    switch (type.getCode()) {
+      case BOOL:
+        return Value.bool(isNull ? null : input.get() != 0);
+      case INT64:
+        return Value.int64(isNull ? null : input.getLong());
+      case FLOAT64:
+        return Value.float64(isNull ? null : input.getDouble());
+      case STRING:
+        return Value.string(isNull ? null : readString(input));
+      case BYTES:
+        return Value.bytes(isNull ? null : ByteArray.copyFrom(readBytes(input)));
+      case DATE:
+        return Value.date(isNull ? null : readDate(input));
+      case TIMESTAMP:
+        return Value.timestamp(isNull ? null : readTimestamp(input));
+      case STRUCT:
+        return Value.struct(type, isNull ? null : decodeStruct(type, input));
+      case ARRAY:
+        return decodeArray(type.getArrayElementType(), isNull, input);
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + type);
+    }
+  }
+
+  private static Value decodeArray(Type elementType, boolean isNull, ByteBuffer input) {
+    int length = isNull ? 0 : input.getInt();
+    switch (elementType.getCode()) {
+      case BOOL:
+        List<Boolean> booleans = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          booleans.add(input.get() == NULL ? null : input.get() != 0);
+        return Value.boolArray(booleans);
+      case INT64:
+        List<Long> longs = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          longs.add(input.get() == NULL ? null : input.getLong());
+        return Value.int64Array(longs);
+      case FLOAT64:
+        List<Double> doubles = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          doubles.add(input.get() == NULL ? null : input.getDouble());
+        return Value.float64Array(doubles);
+      case STRING:
+        List<String> strings = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          strings.add(input.get() == NULL ? null : readString(input));
+        return Value.stringArray(strings);
+      case BYTES:
+        List<ByteArray> bytes = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          bytes.add(input.get() == NULL ? null : ByteArray.copyFrom(readBytes(input)));
+        return Value.bytesArray(bytes);
+      case DATE:
+        List<Date> dates = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          dates.add(input.get() == NULL ? null : readDate(input));
+        return Value.dateArray(dates);
+      case TIMESTAMP:
+        List<Timestamp> timestamps = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          timestamps.add(input.get() == NULL ? null : readTimestamp(input));
+        return Value.timestampArray(timestamps);
+      case STRUCT:
+        List<Struct> structs = isNull ? null : new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+          structs.add(input.get() == NULL ? null : decodeStruct(elementType, input));
+        return Value.structArray(elementType, structs);
+      default:
+        throw new IllegalArgumentException("Unsupported array element type: " + elementType);
+    }
+  }
+
+  private static byte[] readBytes(ByteBuffer input) {
+    byte[] bytes = new byte[input.getInt()];
+    input.get(bytes);
+    return bytes;
+  }
+
+  private static String readString(ByteBuffer input) {
+    return new String(readBytes(input), StandardCharsets.UTF_8);
+  }
+
+  private static Date readDate(ByteBuffer input) {
+    int year = input.getInt();
+    int month = input.get();
+    int day = input.get();
+    return Date.fromYearMonthDay(year, month, day);
+  }
+
+  private static Timestamp readTimestamp(ByteBuffer input) {
+    long seconds = input.getLong();
+    int nanos = input.getInt();
+    return Timestamp.ofTimeSecondsAndNanos(seconds, nanos);
+  }
+
+}
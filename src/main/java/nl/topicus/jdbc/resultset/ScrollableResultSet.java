@@ -0,0 +1,292 @@
+package nl.topicus.jdbc.resultset;
+
+import java.io.IOException;
+import java.util.List;
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.AbstractStructReader;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.common.base.Preconditions;
+import com.google.spanner.v1.ResultSetStats;
+
+/**
+ * {@link ResultSet} that keeps all rows that have been read from an underlying {@link ResultSet}
+ * in a {@link RowStore}, so that the rows can be visited in any order. Rows are only read from the
+ * underlying {@link ResultSet} when they are needed to position the cursor, which means that moving
+ * forward through the result set does not require all rows to be fetched first.
+ *
+ * @author loite
+ *
+ */
+class ScrollableResultSet extends AbstractStructReader implements ResultSet {
+  private final ResultSet delegate;
+
+  private final long memoryThreshold;
+
+  private final int maxRows;
+
+  /**
+   * The rows that have been read so far. The store is created when the first row is read, as the
+   * type of the underlying result set is only known at that moment.
+   */
+  private RowStore store;
+
+  private boolean finished = false;
+
+  private boolean closed = false;
+
+  /**
+   * The zero based index of the current row. A value of -1 means before the first row and a value
+   * equal to the number of rows means after the last row.
+   */
+  private int position = -1;
+
+  private Struct currentRow;
+
+  /**
+   *
+   * @param delegate The result set to read the rows from
+   * @param memoryThreshold The maximum number of bytes of row data to keep in memory
+   * @param maxRows The maximum number of rows to read from the underlying result set, or 0 for no
+   *        limit
+   */
+  ScrollableResultSet(ResultSet delegate, long memoryThreshold, int maxRows) {
+    Preconditions.checkNotNull(delegate);
+    Preconditions.checkArgument(maxRows >= 0, "maxRows may not be negative");
+    this.delegate = delegate;
+    this.memoryThreshold = memoryThreshold;
+    this.maxRows = maxRows;
+  }
+
+  @Override
+  public boolean next() throws SpannerException {
+    return moveTo(position + 1);
+  }
+
+  /**
+   * Moves the cursor to the given row, reading rows from the underlying result set if necessary.
+   * If the row does not exist, the cursor is positioned after the last row.
+   *
+   * @param row The zero based index of the row, or -1 for before the first row
+   * @return <code>true</code> if the cursor is positioned on a row
+   */
+  boolean moveTo(int row) throws SpannerException {
+    Preconditions.checkState(!closed, "ResultSet is closed");
+    Preconditions.checkArgument(row >= -1, "row may not be less than -1");
+    currentRow = null;
+    if (row == -1) {
+      position = -1;
+      return false;
+    }
+    if (!fetch(row)) {
+      position = size();
+      return false;
+    }
+    position = row;
+    currentRow = store.get(row);
+    return true;
+  }
+
+  /**
+   *
+   * @return The zero based index of the current row, -1 if the cursor is before the first row or
+   *         the number of rows if the cursor is after the last row
+   */
+  int getPosition() {
+    return position;
+  }
+
+  /**
+   *
+   * @param row The zero based index of a row
+   * @return <code>true</code> if the result set contains the row
+   */
+  boolean exists(int row) throws SpannerException {
+    Preconditions.checkState(!closed, "ResultSet is closed");
+    return row >= 0 && fetch(row);
+  }
+
+  /**
+   * Reads all remaining rows from the underlying result set and returns the total number of rows.
+   */
+  int getRowCount() throws SpannerException {
+    Preconditions.checkState(!closed, "ResultSet is closed");
+    fetch(Integer.MAX_VALUE - 1);
+    return size();
+  }
+
+  private int size() {
+    return store == null ? 0 : store.size();
+  }
+
+  /**
+   * Reads rows from the underlying result set until the given row has been read or there are no
+   * more rows.
+   *
+   * @return <code>true</code> if the row has been read
+   */
+  private boolean fetch(int row) throws SpannerException {
+    while (size() <= row && !finished) {
+      if (maxRows > 0 && size() >= maxRows) {
+        // Close the underlying result set to stop the server from sending any more rows
+        finished = true;
+        delegate.close();
+      } else if (delegate.next()) {
+        try {
+          if (store == null)
+            store = new RowStore(delegate.getType(), memoryThreshold);
+          store.add(delegate.getCurrentRowAsStruct());
+        } catch (IOException e) {
+          throw SpannerExceptionFactory.newSpannerException(ErrorCode.INTERNAL,
+              "Could not store row: " + e.getMessage(), e);
+        }
+      } else {
+        finished = true;
+      }
+    }
+    return row < size();
+  }
+
+  @Override
+  public Struct getCurrentRowAsStruct() {
+    return currentRow();
+  }
+
+  @Override
+  public void close() {
+    if (closed)
+      return;
+    closed = true;
+    currentRow = null;
+    try {
+      if (store != null)
+        store.close();
+    } catch (IOException e) {
+      // ignore, the temporary file will be deleted when the JVM exits
+    } finally {
+      delegate.close();
+    }
+  }
+
+  @Override
+  public ResultSetStats getStats() {
+    return delegate.getStats();
+  }
+
+  private Struct currentRow() {
+    Preconditions.checkState(currentRow != null, "next() call required");
+    return currentRow;
+  }
+
+  @Override
+  public Type getType() {
+    return store == null ? delegate.getType() : store.getType();
+  }
+
+  @Override
+  public int getColumnIndex(String columnName) {
+    return getType().getFieldIndex(columnName);
+  }
+
+  @Override
+  public boolean isNull(int columnIndex) {
+    return currentRow().isNull(columnIndex);
+  }
+
+  @Override
+  protected boolean getBooleanInternal(int columnIndex) {
+    return currentRow().getBoolean(columnIndex);
+  }
+
+  @Override
+  protected long getLongInternal(int columnIndex) {
+    return currentRow().getLong(columnIndex);
+  }
+
+  @Override
+  protected double getDoubleInternal(int columnIndex) {
+    return currentRow().getDouble(columnIndex);
+  }
+
+  @Override
+  protected String getStringInternal(int columnIndex) {
+    return currentRow().getString(columnIndex);
+  }
+
+  @Override
+  protected ByteArray getBytesInternal(int columnIndex) {
+    return currentRow().getBytes(columnIndex);
+  }
+
+  @Override
+  protected Timestamp getTimestampInternal(int columnIndex) {
+    return currentRow().getTimestamp(columnIndex);
+  }
+
+  @Override
+  protected Date getDateInternal(int columnIndex) {
+    return currentRow().getDate(columnIndex);
+  }
+
+  @Override
+  protected boolean[] getBooleanArrayInternal(int columnIndex) {
+    return currentRow().getBooleanArray(columnIndex);
+  }
+
+  @Override
+  protected List<Boolean> getBooleanListInternal(int columnIndex) {
+    return currentRow().getBooleanList(columnIndex);
+  }
+
+  @Override
+  protected long[] getLongArrayInternal(int columnIndex) {
+    return currentRow().getLongArray(columnIndex);
+  }
+
+  @Override
+  protected List<Long> getLongListInternal(int columnIndex) {
+    return currentRow().getLongList(columnIndex);
+  }
+
+  @Override
+  protected double[] getDoubleArrayInternal(int columnIndex) {
+    return currentRow().getDoubleArray(columnIndex);
+  }
+
+  @Override
+  protected List<Double> getDoubleListInternal(int columnIndex) {
+    return currentRow().getDoubleList(columnIndex);
+  }
+
+  @Override
+  protected List<String> getStringListInternal(int columnIndex) {
+    return currentRow().getStringList(columnIndex);
+  }
+
+  @Override
+  protected List<ByteArray> getBytesListInternal(int columnIndex) {
+    return currentRow().getBytesList(columnIndex);
+  }
+
+  @Override
+  protected List<Timestamp> getTimestampListInternal(int columnIndex) {
+    return currentRow().getTimestampList(columnIndex);
+  }
+
+  @Override
+  protected List<Date> getDateListInternal(int columnIndex) {
+    return currentRow().getDateList(columnIndex);
+  }
+
+  @Override
+  protected List<Struct> getStructListInternal(int columnIndex) {
+    return currentRow().getStructList(columnIndex);
+  }
+
+}
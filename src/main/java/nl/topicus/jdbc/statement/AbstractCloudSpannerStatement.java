@@ -2,10 +2,14 @@ package nl.topicus.jdbc.statement;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import com.google.cloud.spanner.BatchReadOnlyTransaction;
 import com.google.cloud.spanner.DatabaseClient;
@@ -15,7 +19,10 @@ import com.google.cloud.spanner.ReadContext;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.TransactionContext;
 import com.google.cloud.spanner.TransactionRunner.TransactionCallable;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.rpc.Code;
+import io.grpc.Context;
+import io.grpc.Context.CancellableContext;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.select.FromItemVisitorAdapter;
@@ -39,6 +46,13 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
   protected static final String NO_MUTATIONS_IN_READ_ONLY_MODE_EXCEPTION =
       "The connection is in read-only mode. Mutations are not allowed.";
 
+  /**
+   * Scheduler for the deadlines of statements that have a query timeout
+   */
+  private static final ScheduledExecutorService DEADLINE_SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+          .setNameFormat("Google Cloud Spanner JDBC Deadline Scheduler-%d").build());
+
   private DatabaseClient dbClient;
 
   /**
@@ -62,6 +76,16 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
 
   private int maxFieldSize = 0;
 
+  private int resultSetType = ResultSet.TYPE_FORWARD_ONLY;
+
+  private SQLWarning warnings;
+
+  /**
+   * The parent context of all calls to Google Cloud Spanner that are made for the results of this
+   * statement. Cancelling this context cancels all calls that are in flight.
+   */
+  private CancellableContext executionContext;
+
   AbstractCloudSpannerStatement(CloudSpannerConnection connection, DatabaseClient dbClient) {
     this.connection = connection;
     this.dbClient = dbClient;
@@ -182,6 +206,33 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
     }
   }
 
+  /**
+   * Creates a LIMIT clause that can be appended to the given query in order to let Google Cloud
+   * Spanner return at most {@link #getMaxRows()} rows. This is only done for simple SELECT
+   * statements that do not already contain a LIMIT, OFFSET or FETCH clause, and that are not
+   * executed as a partitioned query. Result sets stop reading from the server after
+   * {@link #getMaxRows()} rows in all other cases.
+   * 
+   * @param select The parsed query
+   * @param sql The sql string of the query
+   * @return The LIMIT clause to append to the sql string of the query, or an empty string if no
+   *         LIMIT clause should be added
+   * @throws SQLException If the connection is closed
+   */
+  protected String createMaxRowsLimitClause(Select select, String sql) throws SQLException {
+    if (maxRows <= 0 || (connection.isBatchReadOnly() && !forceSingleUseReadContext)
+        || !(select.getSelectBody() instanceof PlainSelect))
+      return "";
+    PlainSelect plainSelect = (PlainSelect) select.getSelectBody();
+    if (plainSelect.getLimit() != null || plainSelect.getOffset() != null
+        || plainSelect.getFetch() != null || plainSelect.getTop() != null
+        || sql.trim().endsWith(";"))
+      return "";
+    // Start the clause on a new line to prevent it from being swallowed by a trailing single line
+    // comment
+    return "\nLIMIT " + maxRows;
+  }
+
   public boolean isForceSingleUseReadContext() {
     return forceSingleUseReadContext;
   }
@@ -232,6 +283,7 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
             return null;
           }
         });
+        connection.recordSuccessfulCall();
       } else {
         connection.getTransaction().buffer(mutations.getMutations());
       }
@@ -247,6 +299,7 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
   @Override
   public void close() throws SQLException {
     closed = true;
+    cancelExecutionContext();
   }
 
   protected void checkClosed() throws SQLException {
@@ -254,6 +307,19 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
       throw new CloudSpannerSQLException("Statement is closed", Code.FAILED_PRECONDITION);
   }
 
+  /**
+   * Executes the given task on the asynchronous executor of the driver. Tasks that are executed on
+   * the transaction of the connection are executed one at a time, as a transaction may not be used
+   * by multiple threads at the same time.
+   */
+  <T> CompletableFuture<T> executeAsync(SQLCallable<T> task) throws SQLException {
+    checkClosed();
+    AsyncStatementExecutor executor = CloudSpannerDriver.getAsyncStatementExecutor();
+    if (connection.getAutoCommit())
+      return executor.submit(task);
+    return executor.submit(connection, task);
+  }
+
   @Override
   public int getMaxFieldSize() throws SQLException {
     return maxFieldSize;
@@ -271,6 +337,9 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
 
   @Override
   public void setMaxRows(int max) throws SQLException {
+    if (max < 0)
+      throw new CloudSpannerSQLException("Max rows must be greater than or equal to 0",
+          Code.INVALID_ARGUMENT);
     this.maxRows = max;
   }
 
@@ -286,22 +355,68 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
 
   @Override
   public void setQueryTimeout(int seconds) throws SQLException {
+    if (seconds < 0)
+      throw new CloudSpannerSQLException("Query timeout must be greater than or equal to 0",
+          Code.INVALID_ARGUMENT);
     queryTimeout = seconds;
   }
 
+  /**
+   * Creates the gRPC context in which the calls to Google Cloud Spanner for one result of this
+   * statement should be made. The context has a deadline if a query timeout has been set on this
+   * statement, and is cancelled when {@link #cancel()} is called. The caller must cancel the
+   * returned context when the result is no longer needed.
+   * 
+   * @return A new context for the calls of one result of this statement
+   */
+  public CancellableContext createExecutionContext() {
+    CancellableContext parent;
+    synchronized (this) {
+      if (executionContext == null)
+        executionContext = Context.current().withCancellation();
+      parent = executionContext;
+    }
+    if (queryTimeout > 0)
+      return parent.withDeadlineAfter(queryTimeout, TimeUnit.SECONDS, DEADLINE_SCHEDULER);
+    return parent.withCancellation();
+  }
+
+  /**
+   * Cancels all calls to Google Cloud Spanner that are currently being executed for the results of
+   * this statement. The results will throw an exception with code {@link Code#CANCELLED}. The
+   * statement itself can be executed again.
+   */
   @Override
   public void cancel() throws SQLException {
-    throw new SQLFeatureNotSupportedException();
+    checkClosed();
+    cancelExecutionContext();
+  }
+
+  private void cancelExecutionContext() {
+    CancellableContext context;
+    synchronized (this) {
+      context = executionContext;
+      executionContext = null;
+    }
+    if (context != null)
+      context.cancel(new CancellationException("Statement cancelled"));
   }
 
   @Override
   public SQLWarning getWarnings() throws SQLException {
-    return null;
+    return warnings;
   }
 
   @Override
   public void clearWarnings() throws SQLException {
-    // silently ignore
+    warnings = null;
+  }
+
+  private void addWarning(SQLWarning warning) {
+    if (warnings == null)
+      warnings = warning;
+    else
+      warnings.setNextWarning(warning);
   }
 
   @Override
@@ -317,7 +432,33 @@ abstract class AbstractCloudSpannerStatement extends AbstractCloudSpannerFetcher
 
   @Override
   public int getResultSetType() throws SQLException {
-    return ResultSet.TYPE_FORWARD_ONLY;
+    return resultSetType;
+  }
+
+  /**
+   * Sets the type of the result sets that are created by this statement. Result sets of type
+   * {@link ResultSet#TYPE_SCROLL_SENSITIVE} are not supported, and are downgraded to
+   * {@link ResultSet#TYPE_SCROLL_INSENSITIVE}. A {@link SQLWarning} is added to the warnings of
+   * this statement when the type is downgraded.
+   * 
+   * @param type The result set type
+   * @throws SQLException If the type is not a valid result set type
+   */
+  public void setResultSetType(int type) throws SQLException {
+    switch (type) {
+      case ResultSet.TYPE_FORWARD_ONLY:
+      case ResultSet.TYPE_SCROLL_INSENSITIVE:
+        resultSetType = type;
+        break;
+      case ResultSet.TYPE_SCROLL_SENSITIVE:
+        resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
+        addWarning(new SQLWarning("TYPE_SCROLL_SENSITIVE is not supported, "
+            + "the result set type has been changed to TYPE_SCROLL_INSENSITIVE"));
+        break;
+      default:
+        throw new CloudSpannerSQLException("Invalid result set type: " + type,
+            Code.INVALID_ARGUMENT);
+    }
   }
 
   @Override
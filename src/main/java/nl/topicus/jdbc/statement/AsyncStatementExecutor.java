@@ -0,0 +1,196 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.common.base.Preconditions;
+
+/**
+ * Executes asynchronous statement requests on an {@link Executor} while limiting the number of
+ * requests that are in flight at the same time. Each request that is executed holds a session of
+ * the session pool of the Spanner client for the duration of the request, and this executor
+ * prevents that a large number of asynchronous requests exhausts the session pool. Requests that
+ * exceed the limit are queued and are started in order when a running request finishes. No thread
+ * is blocked while a request is waiting in the queue.
+ * <p>
+ * Requests that share a sequence, such as the requests on the transaction of one connection, are
+ * executed one at a time in the order in which they were submitted.
+ *
+ * @author loite
+ *
+ */
+public final class AsyncStatementExecutor {
+  private final Executor executor;
+
+  private final int maxConcurrentRequests;
+
+  private final Queue<Request<?>> queue = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger running = new AtomicInteger();
+
+  /**
+   * The future that is completed when the last submitted request of each sequence has finished
+   */
+  private final ConcurrentMap<Object, CompletableFuture<Void>> sequences =
+      new ConcurrentHashMap<>();
+
+  private static final class Request<T> {
+    private final SQLCallable<T> task;
+
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    private Request(SQLCallable<T> task) {
+      this.task = task;
+    }
+
+    private void run() {
+      // The request may have been cancelled while it was waiting in the queue
+      if (future.isDone())
+        return;
+      try {
+        future.complete(task.call());
+      } catch (Throwable t) {
+        future.completeExceptionally(t);
+      }
+    }
+  }
+
+  public AsyncStatementExecutor(Executor executor, int maxConcurrentRequests) {
+    Preconditions.checkNotNull(executor);
+    Preconditions.checkArgument(maxConcurrentRequests > 0,
+        "The maximum number of concurrent requests must be positive");
+    this.executor = executor;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * @return The number of requests that are currently being executed
+   */
+  public int getRunningRequests() {
+    return running.get();
+  }
+
+  /**
+   * @return The number of requests that are waiting for a running request to finish
+   */
+  public int getQueuedRequests() {
+    return queue.size();
+  }
+
+  <T> CompletableFuture<T> submit(SQLCallable<T> task) {
+    Request<T> request = new Request<>(Preconditions.checkNotNull(task));
+    enqueue(request);
+    return request.future;
+  }
+
+  /**
+   * Submits a task that is executed under the same limit on concurrent requests as the statement
+   * requests of this executor.
+   *
+   * @param task The task to execute
+   * @return A future that is completed when the task has finished, or exceptionally if the task
+   *         failed or could not be started
+   */
+  public CompletableFuture<Void> run(Runnable task) {
+    Preconditions.checkNotNull(task);
+    return submit(() -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Submits a request that is started when all requests that were submitted earlier for the same
+   * sequence have finished.
+   *
+   * @param sequence The key of the sequence, for example the connection of the request
+   * @param task The request to execute
+   * @return A future that is completed with the result of the request
+   */
+  <T> CompletableFuture<T> submit(Object sequence, SQLCallable<T> task) {
+    Preconditions.checkNotNull(sequence);
+    Preconditions.checkNotNull(task);
+    CompletableFuture<Void> finished = new CompletableFuture<>();
+    CompletableFuture<Void> previous = sequences.put(sequence, finished);
+    finished.whenComplete((result, error) -> sequences.remove(sequence, finished));
+    // Guards that a request that is cancelled while it is waiting is not started
+    AtomicBoolean started = new AtomicBoolean();
+    Request<T> request = new Request<>(() -> {
+      if (started.getAndSet(true))
+        return null;
+      try {
+        return task.call();
+      } finally {
+        finished.complete(null);
+      }
+    });
+    request.future.whenComplete((result, error) -> {
+      // A request that is cancelled or rejected before it has started only releases the sequence
+      // when the previous request has finished
+      if (!started.getAndSet(true)) {
+        if (previous == null)
+          finished.complete(null);
+        else
+          previous.whenComplete((r, e) -> finished.complete(null));
+      }
+    });
+    if (previous == null)
+      enqueue(request);
+    else
+      previous.whenComplete((result, error) -> enqueue(request));
+    return request.future;
+  }
+
+  private void enqueue(Request<?> request) {
+    queue.add(request);
+    drain();
+  }
+
+  /**
+   * Starts queued requests until the queue is empty or the maximum number of running requests has
+   * been reached. This method is called both when a request is submitted and when a request
+   * finishes, so a queued request is always started by one of the two.
+   */
+  private void drain() {
+    while (!queue.isEmpty()) {
+      int current = running.get();
+      if (current >= maxConcurrentRequests)
+        return;
+      if (!running.compareAndSet(current, current + 1))
+        continue;
+      Request<?> request = queue.poll();
+      if (request == null) {
+        running.decrementAndGet();
+        continue;
+      }
+      try {
+        executor.execute(() -> {
+          try {
+            request.run();
+          } finally {
+            running.decrementAndGet();
+            drain();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        running.decrementAndGet();
+        request.future.completeExceptionally(e);
+      }
+    }
+  }
+
+}
@@ -8,19 +8,35 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.KeySet;
 import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Options;
 import com.google.cloud.spanner.Mutation.WriteBuilder;
 import com.google.cloud.spanner.Partition;
 import com.google.cloud.spanner.ReadContext;
 import com.google.rpc.Code;
 import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.DateValue;
+import net.sf.jsqlparser.expression.DoubleValue;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.expression.HexValue;
 import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.SignedExpression;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.TimestampValue;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
 import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.ItemsList;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.parser.TokenMgrException;
@@ -52,7 +68,8 @@ import nl.topicus.jdbc.statement.AbstractTablePartWorker.DMLOperation;
  * @author loite
  *
  */
-public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedStatement {
+public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedStatement
+    implements ICloudSpannerPreparedStatement {
   private static final Timestamp SPANNER_COMMIT_TIMESTAMP = new Timestamp(Long.MIN_VALUE);
   public static final String SPANNER_COMMIT_TIMESTAMP_PLACEHOLDER = "spanner.commit_timestamp()";
 
@@ -98,6 +115,16 @@ public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedS
     throw new CloudSpannerSQLException(METHOD_NOT_ON_PREPARED_STATEMENT, Code.FAILED_PRECONDITION);
   }
 
+  @Override
+  public CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException {
+    throw new CloudSpannerSQLException(METHOD_NOT_ON_PREPARED_STATEMENT, Code.FAILED_PRECONDITION);
+  }
+
+  @Override
+  public CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLException {
+    throw new CloudSpannerSQLException(METHOD_NOT_ON_PREPARED_STATEMENT, Code.FAILED_PRECONDITION);
+  }
+
   @Override
   public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
     throw new CloudSpannerSQLException(METHOD_NOT_ON_PREPARED_STATEMENT, Code.FAILED_PRECONDITION);
@@ -130,9 +157,23 @@ public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedS
 
   @Override
   public ResultSet executeQuery() throws SQLException {
+    return prepareQuery().call();
+  }
+
+  @Override
+  public CompletableFuture<ResultSet> executeQueryAsync() throws SQLException {
+    checkClosed();
+    return executeAsync(prepareQuery());
+  }
+
+  /**
+   * Parses the query and binds the current parameter values. The returned task executes the query
+   * on Google Cloud Spanner.
+   */
+  private SQLCallable<ResultSet> prepareQuery() throws SQLException {
     CustomDriverStatement custom = getCustomDriverStatement(sqlTokens);
     if (custom != null && custom.isQuery()) {
-      return custom.executeQuery(sqlTokens);
+      return () -> custom.executeQuery(sql, sqlTokens);
     }
     Statement statement;
     try {
@@ -143,20 +184,195 @@ public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedS
     }
     if (statement instanceof Select) {
       determineForceSingleUseReadContext((Select) statement);
-      com.google.cloud.spanner.Statement.Builder builder = createSelectBuilder(statement, sql);
-      try (ReadContext context = getReadContext()) {
-        com.google.cloud.spanner.ResultSet rs = context.executeQuery(builder.build());
-        return new CloudSpannerResultSet(this, rs, sql);
+      KeyRead keyRead = createKeyRead((Select) statement);
+      if (keyRead != null) {
+        return () -> {
+          try (ReadContext context = getReadContext()) {
+            ResultSet rs =
+                new CloudSpannerResultSet(this, keyRead.execute(context, getMaxRows()), sql);
+            getConnection().recordSuccessfulCall();
+            return rs;
+          }
+        };
       }
+      com.google.cloud.spanner.Statement query = createSelectBuilder(statement, sql).build();
+      return () -> {
+        try (ReadContext context = getReadContext()) {
+          com.google.cloud.spanner.ResultSet rs = context.executeQuery(query);
+          ResultSet res = new CloudSpannerResultSet(this, rs, sql);
+          getConnection().recordSuccessfulCall();
+          return res;
+        }
+      };
     }
     throw new CloudSpannerSQLException(
         "SQL statement not suitable for executeQuery. Expected SELECT-statement.",
         Code.INVALID_ARGUMENT);
   }
 
+  /**
+   * A SELECT statement that selects a fixed set of rows by their primary key. These statements are
+   * executed as a read on Google Cloud Spanner, which is cheaper than executing a query.
+   */
+  private static final class KeyRead {
+    private final String table;
+
+    private final KeySet keys;
+
+    private final List<String> columns;
+
+    private KeyRead(String table, KeySet keys, List<String> columns) {
+      this.table = table;
+      this.keys = keys;
+      this.columns = columns;
+    }
+
+    private com.google.cloud.spanner.ResultSet execute(ReadContext context, int maxRows) {
+      if (maxRows > 0)
+        return context.read(table, keys, columns, Options.limit(maxRows));
+      return context.read(table, keys, columns);
+    }
+  }
+
+  /**
+   * Checks whether the given SELECT statement can be executed as a read. This is possible if the
+   * statement selects only plain columns from one table, and the WHERE clause only contains
+   * conditions in the form <code>ID=value</code> or <code>ID IN (value1, value2, ...)</code> for
+   * each column of the primary key, combined with AND.
+   * 
+   * @param select The statement to check
+   * @return A {@link KeyRead} for the statement, or <code>null</code> if the statement must be
+   *         executed as a query
+   * @throws SQLException If an error occurs while getting the key meta data of the table
+   */
+  private KeyRead createKeyRead(Select select) throws SQLException {
+    if (isForceSingleUseReadContext()
+        || (select.getWithItemsList() != null && !select.getWithItemsList().isEmpty())
+        || !(select.getSelectBody() instanceof PlainSelect))
+      return null;
+    PlainSelect plainSelect = (PlainSelect) select.getSelectBody();
+    if (plainSelect.getWhere() == null || !(plainSelect.getFromItem() instanceof Table)
+        || plainSelect.getDistinct() != null || plainSelect.getTop() != null
+        || (plainSelect.getJoins() != null && !plainSelect.getJoins().isEmpty())
+        || plainSelect.getGroupByColumnReferences() != null || plainSelect.getHaving() != null
+        || plainSelect.getOrderByElements() != null || plainSelect.getLimit() != null
+        || plainSelect.getOffset() != null || plainSelect.getFetch() != null
+        || plainSelect.getIntoTables() != null || plainSelect.isForUpdate()
+        || plainSelect.getOracleHierarchical() != null || plainSelect.getSkip() != null
+        || plainSelect.getFirst() != null)
+      return null;
+    Table from = (Table) plainSelect.getFromItem();
+    if (from.getSchemaName() != null || from.getPivot() != null)
+      return null;
+    List<String> columns = new ArrayList<>(plainSelect.getSelectItems().size());
+    for (SelectItem item : plainSelect.getSelectItems()) {
+      if (!(item instanceof SelectExpressionItem))
+        return null;
+      SelectExpressionItem expressionItem = (SelectExpressionItem) item;
+      if (expressionItem.getAlias() != null || !(expressionItem.getExpression() instanceof Column))
+        return null;
+      Column column = (Column) expressionItem.getExpression();
+      if (!isColumnOf(column, from) || isBooleanLiteral(column))
+        return null;
+      columns.add(unquoteIdentifier(column.getColumnName()));
+    }
+    Map<String, List<Expression>> conditions = new LinkedHashMap<>();
+    if (!collectKeyConditions(plainSelect.getWhere(), from, conditions))
+      return null;
+
+    String tableName = unquoteIdentifier(from.getName());
+    KeyReadBuilder builder = new KeyReadBuilder(getConnection().getTable(tableName));
+    for (Entry<String, List<Expression>> condition : conditions.entrySet()) {
+      builder.set(condition.getKey());
+      for (Expression value : condition.getValue()) {
+        value.accept(new KeyReadBuilderExpressionVisitorAdapter(getParameterStore(),
+            condition.getKey(), builder));
+      }
+    }
+    KeySet keys = builder.build();
+    return keys == null ? null : new KeyRead(tableName, keys, columns);
+  }
+
+  private boolean collectKeyConditions(Expression where, Table from,
+      Map<String, List<Expression>> conditions) {
+    if (where instanceof Parenthesis) {
+      Parenthesis parenthesis = (Parenthesis) where;
+      return !parenthesis.isNot()
+          && collectKeyConditions(parenthesis.getExpression(), from, conditions);
+    }
+    if (where instanceof AndExpression) {
+      AndExpression and = (AndExpression) where;
+      return !and.isNot() && collectKeyConditions(and.getLeftExpression(), from, conditions)
+          && collectKeyConditions(and.getRightExpression(), from, conditions);
+    }
+    Column column = null;
+    List<Expression> values = null;
+    if (where instanceof EqualsTo && !((EqualsTo) where).isNot()) {
+      EqualsTo equals = (EqualsTo) where;
+      if (equals.getLeftExpression() instanceof Column
+          && isKeyValue(equals.getRightExpression())) {
+        column = (Column) equals.getLeftExpression();
+        values = Arrays.asList(equals.getRightExpression());
+      } else if (equals.getRightExpression() instanceof Column
+          && isKeyValue(equals.getLeftExpression())) {
+        column = (Column) equals.getRightExpression();
+        values = Arrays.asList(equals.getLeftExpression());
+      }
+    } else if (where instanceof InExpression && !((InExpression) where).isNot()) {
+      InExpression in = (InExpression) where;
+      if (in.getLeftExpression() instanceof Column && in.getLeftItemsList() == null
+          && in.getRightItemsList() instanceof ExpressionList
+          && ((ExpressionList) in.getRightItemsList()).getExpressions() != null
+          && ((ExpressionList) in.getRightItemsList()).getExpressions().stream()
+              .allMatch(this::isKeyValue)) {
+        column = (Column) in.getLeftExpression();
+        values = ((ExpressionList) in.getRightItemsList()).getExpressions();
+      }
+    }
+    if (column == null || !isColumnOf(column, from) || isBooleanLiteral(column))
+      return false;
+    String columnName = unquoteIdentifier(column.getColumnName());
+    if (conditions.containsKey(columnName))
+      return false;
+    conditions.put(columnName, values);
+    return true;
+  }
+
+  private boolean isKeyValue(Expression expression) {
+    if (expression instanceof SignedExpression) {
+      Expression value = ((SignedExpression) expression).getExpression();
+      return value instanceof LongValue || value instanceof DoubleValue;
+    }
+    if (expression instanceof StringValue) {
+      // Escape sequences are interpreted differently by the parser and Cloud Spanner
+      String value = ((StringValue) expression).getValue();
+      return value.indexOf('\\') == -1 && value.indexOf('\'') == -1;
+    }
+    return expression instanceof JdbcParameter || expression instanceof LongValue
+        || expression instanceof DoubleValue || expression instanceof DateValue
+        || expression instanceof TimestampValue || expression instanceof HexValue;
+  }
+
+  private boolean isColumnOf(Column column, Table table) {
+    if (column.getTable() == null || column.getTable().getName() == null)
+      return true;
+    if (column.getTable().getSchemaName() != null)
+      return false;
+    String name = unquoteIdentifier(column.getTable().getName());
+    return name.equalsIgnoreCase(unquoteIdentifier(table.getName()))
+        || (table.getAlias() != null && name.equalsIgnoreCase(table.getAlias().getName()));
+  }
+
+  private boolean isBooleanLiteral(Column column) {
+    return (column.getTable() == null || column.getTable().getName() == null)
+        && ("true".equalsIgnoreCase(column.getColumnName())
+            || "false".equalsIgnoreCase(column.getColumnName()));
+  }
+
   private com.google.cloud.spanner.Statement.Builder createSelectBuilder(Statement statement,
-      String sql) {
-    String namedSql = convertPositionalParametersToNamedParameters(sql);
+      String sql) throws SQLException {
+    String namedSql = convertPositionalParametersToNamedParameters(sql)
+        + createMaxRowsLimitClause((Select) statement, sql);
     com.google.cloud.spanner.Statement.Builder builder =
         com.google.cloud.spanner.Statement.newBuilder(namedSql);
     setSelectParameters(((Select) statement).getSelectBody(), builder);
@@ -343,29 +559,57 @@ public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedS
 
   @Override
   public int[] executeBatch() throws SQLException {
-    int[] res = new int[batchMutations.size()];
+    int[] res = writeBatch(batchMutations);
+    batchMutations.clear();
+    getParameterStore().clearParameters();
+    return res;
+  }
+
+  @Override
+  public CompletableFuture<int[]> executeBatchAsync() throws SQLException {
+    checkClosed();
+    List<Mutations> mutations = new ArrayList<>(batchMutations);
+    batchMutations.clear();
+    getParameterStore().clearParameters();
+    return executeAsync(() -> writeBatch(mutations));
+  }
+
+  private int[] writeBatch(List<Mutations> mutations) throws SQLException {
+    int[] res = new int[mutations.size()];
     int index = 0;
-    for (Mutations mutation : batchMutations) {
+    for (Mutations mutation : mutations) {
       res[index] = (int) writeMutations(mutation);
       index++;
     }
-    batchMutations.clear();
-    getParameterStore().clearParameters();
     return res;
   }
 
   @Override
   public int executeUpdate() throws SQLException {
+    return prepareUpdate().call();
+  }
+
+  @Override
+  public CompletableFuture<Integer> executeUpdateAsync() throws SQLException {
+    checkClosed();
+    return executeAsync(prepareUpdate());
+  }
+
+  /**
+   * Parses the statement and creates the mutations for the current parameter values. The returned
+   * task writes the mutations to Google Cloud Spanner.
+   */
+  SQLCallable<Integer> prepareUpdate() throws SQLException {
     CustomDriverStatement custom = getCustomDriverStatement(sqlTokens);
     if (custom != null && !custom.isQuery()) {
-      return custom.executeUpdate(sqlTokens);
+      return () -> custom.executeUpdate(sqlTokens);
     }
     if (isDDLStatement()) {
       String ddl = formatDDLStatement(sql);
-      return executeDDL(ddl);
+      return () -> executeDDL(ddl);
     }
     Mutations mutations = createMutations();
-    return (int) writeMutations(mutations);
+    return () -> (int) writeMutations(mutations);
   }
 
   private Mutations createMutations() throws SQLException {
@@ -586,7 +830,7 @@ public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedS
   public boolean execute() throws SQLException {
     CustomDriverStatement custom = getCustomDriverStatement(sqlTokens);
     if (custom != null)
-      return custom.execute(sqlTokens);
+      return custom.execute(sql, sqlTokens);
     Statement statement = null;
     boolean ddl = isDDLStatement();
     if (!ddl) {
@@ -599,6 +843,17 @@ public class CloudSpannerPreparedStatement extends AbstractCloudSpannerPreparedS
     }
     if (!ddl && statement instanceof Select) {
       determineForceSingleUseReadContext((Select) statement);
+      KeyRead keyRead = getConnection().isBatchReadOnly() ? null : createKeyRead((Select) statement);
+      if (keyRead != null) {
+        try (ReadContext context = getReadContext()) {
+          currentResultSets =
+              Arrays.asList(new CloudSpannerResultSet(this,
+                  keyRead.execute(context, getMaxRows()), sql));
+          currentResultSetIndex = 0;
+          lastUpdateCount = -1;
+        }
+        return true;
+      }
       com.google.cloud.spanner.Statement.Builder builder = createSelectBuilder(statement, sql);
       if (!isForceSingleUseReadContext() && getConnection().isBatchReadOnly()) {
         List<Partition> partitions = partitionQuery(builder.build());
@@ -8,11 +8,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import com.google.cloud.spanner.BatchTransactionId;
 import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Options.ReadOption;
 import com.google.cloud.spanner.Partition;
 import com.google.cloud.spanner.ReadContext;
 import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.StructField;
 import com.google.rpc.Code;
@@ -25,13 +32,15 @@ import nl.topicus.jdbc.CloudSpannerConnection;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 import nl.topicus.jdbc.resultset.CloudSpannerPartitionResultSet;
 import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
+import nl.topicus.jdbc.util.CloudSpannerSerializationUtil;
 
 /**
  * 
  * @author loite
  *
  */
-public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
+public class CloudSpannerStatement extends AbstractCloudSpannerStatement
+    implements ICloudSpannerStatement {
   protected List<ResultSet> currentResultSets = null;
 
   protected int currentResultSetIndex = 0;
@@ -141,20 +150,47 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
 
   @Override
   public int[] executeBatch() throws SQLException {
-    int[] res = new int[batchStatements.size()];
-    if (batchMode == BatchMode.DDL) {
-      executeDDL(batchStatements);
+    int[] res = executeBatch(batchMode, batchStatements);
+    batchStatements.clear();
+    batchMode = BatchMode.NONE;
+    return res;
+  }
+
+  private int[] executeBatch(BatchMode mode, List<String> statements) throws SQLException {
+    int[] res = new int[statements.size()];
+    if (mode == BatchMode.DDL) {
+      executeDDL(statements);
     } else {
       int index = 0;
-      for (String sql : batchStatements) {
+      for (String sql : statements) {
         PreparedStatement ps = getConnection().prepareStatement(sql);
         res[index] = ps.executeUpdate();
         index++;
       }
     }
+    return res;
+  }
+
+  @Override
+  public CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException {
+    checkClosed();
+    return executeAsync(prepareQuery(sql));
+  }
+
+  @Override
+  public CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLException {
+    checkClosed();
+    return executeAsync(prepareUpdate(sql));
+  }
+
+  @Override
+  public CompletableFuture<int[]> executeBatchAsync() throws SQLException {
+    checkClosed();
+    BatchMode mode = batchMode;
+    List<String> statements = new ArrayList<>(batchStatements);
     batchStatements.clear();
     batchMode = BatchMode.NONE;
-    return res;
+    return executeAsync(() -> executeBatch(mode, statements));
   }
 
   protected int executeDDL(String ddl) throws SQLException {
@@ -168,31 +204,51 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
 
   @Override
   public ResultSet executeQuery(String sql) throws SQLException {
+    return prepareQuery(sql).call();
+  }
+
+  /**
+   * Parses the query on the calling thread. The returned task executes the query on Google Cloud
+   * Spanner.
+   */
+  private SQLCallable<ResultSet> prepareQuery(String sql) throws SQLException {
     String[] sqlTokens = getTokens(sql);
     CustomDriverStatement custom = getCustomDriverStatement(sqlTokens);
     if (custom != null && custom.isQuery()) {
-      return custom.executeQuery(sqlTokens);
-    }
-    try (ReadContext context = getReadContext()) {
-      com.google.cloud.spanner.ResultSet rs =
-          context.executeQuery(com.google.cloud.spanner.Statement.of(sql));
-      return new CloudSpannerResultSet(this, rs, sql);
-    }
+      return () -> custom.executeQuery(sql, sqlTokens);
+    }
+    com.google.cloud.spanner.Statement query =
+        com.google.cloud.spanner.Statement.of(sql + createMaxRowsLimitClause(sql));
+    return () -> {
+      try (ReadContext context = getReadContext()) {
+        com.google.cloud.spanner.ResultSet rs = context.executeQuery(query);
+        ResultSet res = new CloudSpannerResultSet(this, rs, sql);
+        getConnection().recordSuccessfulCall();
+        return res;
+      }
+    };
   }
 
   @Override
   public int executeUpdate(String sql) throws SQLException {
+    return prepareUpdate(sql).call();
+  }
+
+  /**
+   * Parses the statement on the calling thread. The returned task executes the statement on Google
+   * Cloud Spanner.
+   */
+  private SQLCallable<Integer> prepareUpdate(String sql) throws SQLException {
     String[] sqlTokens = getTokens(sql);
     CustomDriverStatement custom = getCustomDriverStatement(sqlTokens);
     if (custom != null && !custom.isQuery()) {
-      return custom.executeUpdate(sqlTokens);
+      return () -> custom.executeUpdate(sqlTokens);
     }
     if (isDDLStatement(sqlTokens) && getConnection().isAutoBatchDdlOperations()) {
       getConnection().addAutoBatchedDdlOperation(sql);
-      return 0;
+      return () -> 0;
     }
-    PreparedStatement ps = getConnection().prepareStatement(sql);
-    return ps.executeUpdate();
+    return getConnection().prepareStatement(sql).prepareUpdate();
   }
 
   @Override
@@ -200,17 +256,11 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
     String[] sqlTokens = getTokens(sql);
     CustomDriverStatement custom = getCustomDriverStatement(sqlTokens);
     if (custom != null)
-      return custom.execute(sqlTokens);
+      return custom.execute(sql, sqlTokens);
     Statement statement = null;
     boolean ddl = isDDLStatement(sqlTokens);
     if (!ddl) {
-      try {
-        statement = CCJSqlParserUtil.parse(sanitizeSQL(sql));
-      } catch (JSQLParserException | TokenMgrException e) {
-        throw new CloudSpannerSQLException(
-            "Error while parsing sql statement " + sql + ": " + e.getLocalizedMessage(),
-            Code.INVALID_ARGUMENT, e);
-      }
+      statement = parse(sql);
     }
     if (!ddl && statement instanceof Select) {
       determineForceSingleUseReadContext((Select) statement);
@@ -224,10 +274,12 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
       } else {
         try (ReadContext context = getReadContext()) {
           com.google.cloud.spanner.ResultSet rs =
-              context.executeQuery(com.google.cloud.spanner.Statement.of(sql));
+              context.executeQuery(com.google.cloud.spanner.Statement
+                  .of(sql + createMaxRowsLimitClause((Select) statement, sql)));
           currentResultSets = Arrays.asList(new CloudSpannerResultSet(this, rs, sql));
           currentResultSetIndex = 0;
           lastUpdateCount = -1;
+          getConnection().recordSuccessfulCall();
         }
       }
       return true;
@@ -239,6 +291,94 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
     }
   }
 
+  /**
+   * Creates the LIMIT clause for {@link #getMaxRows()} for a query that is executed with
+   * {@link #executeQuery(String)}. The query is only parsed if a maximum number of rows has been
+   * set. Queries that cannot be parsed, for example because they contain syntax that is specific
+   * to Google Cloud Spanner, are sent to Google Cloud Spanner without a LIMIT clause.
+   */
+  private String createMaxRowsLimitClause(String sql) throws SQLException {
+    if (getMaxRows() <= 0)
+      return "";
+    Statement statement;
+    try {
+      statement = CCJSqlParserUtil.parse(sanitizeSQL(sql));
+    } catch (JSQLParserException | TokenMgrException e) {
+      return "";
+    }
+    if (!(statement instanceof Select))
+      return "";
+    determineForceSingleUseReadContext((Select) statement);
+    return createMaxRowsLimitClause((Select) statement, sql);
+  }
+
+  private Statement parse(String sql) throws SQLException {
+    try {
+      return CCJSqlParserUtil.parse(sanitizeSQL(sql));
+    } catch (JSQLParserException | TokenMgrException e) {
+      throw new CloudSpannerSQLException(
+          "Error while parsing sql statement " + sql + ": " + e.getLocalizedMessage(),
+          Code.INVALID_ARGUMENT, e);
+    }
+  }
+
+  /**
+   * Partitions the given query in the current batch read-only transaction of the connection and
+   * returns the partitions serialized to strings. The partitions can be executed by other
+   * connections, possibly in other processes, by calling
+   * {@link #executePartition(String, String)} with the serialized batch transaction id of this
+   * connection (see {@link CloudSpannerConnection#getSerializedBatchTransactionId()}) and one of
+   * the returned partitions. The batch read-only transaction must be kept open until all
+   * partitions have been executed.
+   * 
+   * @param sql The query to partition
+   * @return The partitions of the query serialized to strings
+   * @throws SQLException If the connection is not in batch read-only mode, or if the query could
+   *         not be partitioned
+   */
+  public List<String> exportPartitions(String sql) throws SQLException {
+    checkClosed();
+    if (!getConnection().isBatchReadOnly())
+      throw new CloudSpannerSQLException(
+          "The connection must be in batch read-only mode to export partitions",
+          Code.FAILED_PRECONDITION);
+    try {
+      List<Partition> partitions = partitionQuery(com.google.cloud.spanner.Statement.of(sql));
+      List<String> res = new ArrayList<>(partitions.size());
+      for (Partition partition : partitions)
+        res.add(CloudSpannerSerializationUtil.serializePartition(partition));
+      return res;
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
+  }
+
+  /**
+   * Executes a partition that was exported by a connection using
+   * {@link #exportPartitions(String)}. The connection executing the partition does not need to be
+   * in batch read-only mode, and the batch read-only transaction of the partition is not closed by
+   * this connection.
+   * 
+   * @param batchTransactionId The serialized id of the batch read-only transaction of the
+   *        partition
+   * @param partition The serialized partition to execute
+   * @return A {@link ResultSet} containing the results of the partition
+   * @throws SQLException If the transaction id or partition is invalid
+   */
+  public CloudSpannerPartitionResultSet executePartition(String batchTransactionId,
+      String partition) throws SQLException {
+    checkClosed();
+    BatchTransactionId id =
+        CloudSpannerSerializationUtil.deserializeBatchTransactionId(batchTransactionId);
+    Partition p = CloudSpannerSerializationUtil.deserializePartition(partition);
+    try {
+      return new CloudSpannerPartitionResultSet(this,
+          getConnection().getTransaction().getBatchReadOnlyTransaction(id), p, null);
+    } catch (SpannerException e) {
+      throw new CloudSpannerSQLException(e);
+    }
+  }
+
   private static final String[] DDL_STATEMENTS = {"CREATE", "ALTER", "DROP"};
 
   /**
@@ -303,9 +443,9 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
       return query;
     }
 
-    protected final boolean execute(String[] sqlTokens) throws SQLException {
+    protected final boolean execute(String sql, String[] sqlTokens) throws SQLException {
       if (query) {
-        currentResultSets = Arrays.asList(executeQuery(sqlTokens));
+        currentResultSets = Arrays.asList(executeQuery(sql, sqlTokens));
         currentResultSetIndex = 0;
         lastUpdateCount = -1;
         return true;
@@ -317,6 +457,19 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
       }
     }
 
+    /**
+     * Executes the custom statement as a query. Custom statements that need the original sql
+     * string instead of the (limited) tokens of the statement can override this method.
+     * 
+     * @param sql The original sql string of the statement
+     * @param sqlTokens The tokens of the statement
+     * @return The result of the query
+     * @throws SQLException If the query could not be executed
+     */
+    protected ResultSet executeQuery(String sql, String[] sqlTokens) throws SQLException {
+      return executeQuery(sqlTokens);
+    }
+
     protected ResultSet executeQuery(String[] sqlTokens) throws SQLException {
       throw new IllegalArgumentException("This statement is not valid for execution as a query");
     }
@@ -458,10 +611,75 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
     }
   }
 
+  private class ExportPartitions extends CustomDriverStatement {
+    private ExportPartitions() {
+      super("EXPORT_PARTITIONS", true);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql, String[] sqlTokens) throws SQLException {
+      if (sqlTokens.length < 2)
+        throw new CloudSpannerSQLException(
+            "Invalid argument(s) for EXPORT_PARTITIONS. Expected \"EXPORT_PARTITIONS query\"",
+            Code.INVALID_ARGUMENT);
+      String query = removeComments(sql).substring(sqlTokens[0].length()).trim();
+      String transactionId = getConnection().getSerializedBatchTransactionId();
+      List<Struct> rows = new ArrayList<>();
+      for (String partition : exportPartitions(query)) {
+        rows.add(Struct.newBuilder().set("TRANSACTION_ID").to(transactionId).set("PARTITION")
+            .to(partition).build());
+      }
+      com.google.cloud.spanner.ResultSet rs =
+          ResultSets.forRows(Type.struct(StructField.of("TRANSACTION_ID", Type.string()),
+              StructField.of("PARTITION", Type.string())), rows);
+      return new CloudSpannerResultSet(CloudSpannerStatement.this, rs, null);
+    }
+  }
+
+  private class ExecutePartition extends CustomDriverStatement {
+    private ExecutePartition() {
+      super("EXECUTE_PARTITION", true);
+    }
+
+    @Override
+    public ResultSet executeQuery(String[] sqlTokens) throws SQLException {
+      if (sqlTokens.length != 3)
+        throw new CloudSpannerSQLException(
+            "Invalid argument(s) for EXECUTE_PARTITION. Expected \"EXECUTE_PARTITION transactionId partition\"",
+            Code.INVALID_ARGUMENT);
+      return executePartition(sqlTokens[1], sqlTokens[2]);
+    }
+  }
+
+  private class Read extends CustomDriverStatement {
+    private Read() {
+      super(ReadStatement.NAME, true);
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql, String[] sqlTokens) throws SQLException {
+      ReadStatement read = ReadStatement.parse(removeComments(sql));
+      ReadOption[] options =
+          getMaxRows() > 0 ? new ReadOption[] {Options.limit(getMaxRows())} : new ReadOption[0];
+      try (ReadContext context = getReadContext()) {
+        com.google.cloud.spanner.ResultSet rs;
+        if (read.getIndex() == null)
+          rs = context.read(read.getTable(), read.getKeys(), read.getColumns(), options);
+        else
+          rs = context.readUsingIndex(read.getTable(), read.getIndex(), read.getKeys(),
+              read.getColumns(), options);
+        return new CloudSpannerResultSet(CloudSpannerStatement.this, rs, sql);
+      } catch (SpannerException e) {
+        throw new CloudSpannerSQLException(e);
+      }
+    }
+  }
+
   private final List<CustomDriverStatement> customDriverStatements =
       Arrays.asList(new ShowDdlOperations(), new CleanDdlOperations(), new WaitForDdlOperations(),
           new ExecuteDdlBatch(), new SetConnectionProperty(), new GetConnectionProperty(),
-          new ResetConnectionProperty(), new GetLastCommitTimestamp());
+          new ResetConnectionProperty(), new GetLastCommitTimestamp(), new ExportPartitions(),
+          new ExecutePartition(), new Read());
 
   /**
    * Checks if a sql statement is a custom statement only recognized by this driver
@@ -487,6 +705,29 @@ public class CloudSpannerStatement extends AbstractCloudSpannerStatement {
         : currentResultSets.get(currentResultSetIndex);
   }
 
+  /**
+   * Returns a stream of the rows of the current and all following result sets of this statement.
+   * When a query is executed in batch read-only mode, there is a result set for each partition of
+   * the query, and a parallel stream will read different partitions on different threads.
+   * 
+   * @param parallel Whether the returned stream should be parallel
+   * @return A stream of the rows of the remaining result sets. The stream is empty if the current
+   *         result of this statement is not a result set.
+   * @throws SQLException If the statement or one of the result sets is closed
+   */
+  public Stream<Struct> streamResults(boolean parallel) throws SQLException {
+    checkClosed();
+    List<CloudSpannerResultSet> resultSets = new ArrayList<>();
+    if (currentResultSets != null) {
+      for (int index = currentResultSetIndex; index < currentResultSets.size(); index++) {
+        ResultSet rs = currentResultSets.get(index);
+        if (rs instanceof CloudSpannerResultSet)
+          resultSets.add((CloudSpannerResultSet) rs);
+      }
+    }
+    return CloudSpannerResultSet.stream(resultSets, parallel);
+  }
+
   @Override
   public int getUpdateCount() throws SQLException {
     return lastUpdateCount;
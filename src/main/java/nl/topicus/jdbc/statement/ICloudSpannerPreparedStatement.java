@@ -0,0 +1,39 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface containing all extra methods that are provided by CloudSpannerPreparedStatement. Use
+ * {@link PreparedStatement#unwrap(Class)} to get access to these methods. The statement is parsed
+ * and the current parameter values are bound on the calling thread, which means that the
+ * parameters of the statement may be changed as soon as an asynchronous method has returned.
+ *
+ * @author loite
+ * @see ICloudSpannerStatement
+ *
+ */
+public interface ICloudSpannerPreparedStatement extends ICloudSpannerStatement, PreparedStatement {
+
+  /**
+   * Asynchronously executes the query of this prepared statement.
+   *
+   * @return A future that is completed with the result of the query
+   * @throws SQLException If the statement is closed or if the statement is not a valid query
+   * @see PreparedStatement#executeQuery()
+   */
+  public CompletableFuture<ResultSet> executeQueryAsync() throws SQLException;
+
+  /**
+   * Asynchronously executes the DML or DDL statement of this prepared statement.
+   *
+   * @return A future that is completed with the update count of the statement
+   * @throws SQLException If the statement is closed or if the statement is not a valid DML or DDL
+   *         statement
+   * @see PreparedStatement#executeUpdate()
+   */
+  public CompletableFuture<Integer> executeUpdateAsync() throws SQLException;
+
+}
@@ -0,0 +1,62 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface containing all extra methods that are provided by CloudSpannerStatement. Use
+ * {@link Statement#unwrap(Class)} to get access to these methods.
+ * <p>
+ * The asynchronous methods of this interface return immediately and execute the statement on the
+ * executor of the driver, see
+ * {@link nl.topicus.jdbc.CloudSpannerDriver#setAsyncExecutor(java.util.concurrent.Executor)}. The
+ * number of asynchronous requests that are executed at the same time is limited by
+ * {@link nl.topicus.jdbc.CloudSpannerDriver#setMaxConcurrentAsyncRequests(int)}. In autocommit
+ * mode each request uses its own single-use read context or read/write transaction, which means
+ * that independent requests are executed in parallel. Without autocommit the requests use the
+ * current transaction of the connection. A transaction can only execute one request at a time, so
+ * these requests are executed one after the other in the order in which they were submitted. The
+ * application must wait until all asynchronous requests on a transaction have finished before it
+ * executes other statements on the connection or commits or rolls back the transaction. If an
+ * asynchronous request fails, the returned future is completed exceptionally with the
+ * {@link SQLException} of the request.
+ *
+ * @author loite
+ *
+ */
+public interface ICloudSpannerStatement extends Statement {
+
+  /**
+   * Asynchronously executes the given query.
+   *
+   * @param sql The query to execute
+   * @return A future that is completed with the result of the query
+   * @throws SQLException If the statement is closed
+   * @see Statement#executeQuery(String)
+   */
+  public CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException;
+
+  /**
+   * Asynchronously executes the given DML or DDL statement.
+   *
+   * @param sql The statement to execute
+   * @return A future that is completed with the update count of the statement
+   * @throws SQLException If the statement is closed
+   * @see Statement#executeUpdate(String)
+   */
+  public CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLException;
+
+  /**
+   * Asynchronously executes the current batch of this statement. The batch of this statement is
+   * cleared immediately, which means that a new batch can be built while the previous batch is
+   * being executed.
+   *
+   * @return A future that is completed with the update counts of the batch
+   * @throws SQLException If the statement is closed
+   * @see Statement#executeBatch()
+   */
+  public CompletableFuture<int[]> executeBatchAsync() throws SQLException;
+
+}
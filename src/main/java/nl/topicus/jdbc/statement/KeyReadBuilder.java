@@ -0,0 +1,166 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.google.cloud.ByteArray;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import nl.topicus.jdbc.MetaDataStore.TableKeyMetaData;
+import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
+
+/**
+ * Builds the {@link KeySet} for a SELECT statement that selects a fixed set of rows by their primary
+ * key, so that the statement can be executed as a read instead of a query. Each key column must be
+ * given exactly one value (ID=1) or a list of values (ID IN (1, 2, 3)). A key is created for each
+ * combination of values.
+ *
+ * @author loite
+ *
+ */
+class KeyReadBuilder {
+  /**
+   * The maximum number of keys in one read. Statements that would need more keys are executed as a
+   * normal query.
+   */
+  static final int MAX_KEYS = 1000;
+
+  private final TableKeyMetaData table;
+
+  private final Map<String, List<Object>> keyValues = new HashMap<>();
+
+  private String currentColumn = null;
+
+  private boolean invalid = false;
+
+  KeyReadBuilder(TableKeyMetaData table) {
+    this.table = table;
+  }
+
+  void set(String column) {
+    String keyColumn = column.toUpperCase();
+    if (!table.getKeyColumns().contains(keyColumn) || keyValues.containsKey(keyColumn)) {
+      // Only one condition per key column is allowed, and only on key columns
+      invalid = true;
+      currentColumn = null;
+    } else {
+      currentColumn = keyColumn;
+      keyValues.put(keyColumn, new ArrayList<>());
+    }
+  }
+
+  void to(Object value) {
+    if (invalid)
+      return;
+    if (currentColumn == null)
+      throw new IllegalArgumentException("No column set");
+    // ID=NULL never returns any rows in a query, but a read would return the row with key NULL
+    if (value == null)
+      invalid = true;
+    else
+      keyValues.get(currentColumn).add(value);
+  }
+
+  /**
+   *
+   * @return The key set to read, or <code>null</code> if the values in the WHERE clause do not
+   *         correspond exactly with the primary key of the table
+   * @throws SQLException If an error occurs while fetching the types of the key columns
+   */
+  KeySet build() throws SQLException {
+    List<String> keyColumns = table.getKeyColumns();
+    if (invalid || keyColumns.isEmpty() || keyValues.size() != keyColumns.size())
+      return null;
+    List<Integer> types = table.getKeyColumnTypes();
+    if (types.size() != keyColumns.size())
+      return null;
+    List<List<Object>> values = new ArrayList<>(keyColumns.size());
+    long numberOfKeys = 1L;
+    for (int index = 0; index < keyColumns.size(); index++) {
+      List<Object> columnValues = keyValues.get(keyColumns.get(index));
+      List<Object> convertedValues = new ArrayList<>(columnValues.size());
+      for (Object value : columnValues) {
+        Object converted = convert(value, types.get(index));
+        if (converted == null)
+          return null;
+        convertedValues.add(converted);
+      }
+      numberOfKeys = numberOfKeys * convertedValues.size();
+      if (numberOfKeys == 0L || numberOfKeys > MAX_KEYS)
+        return null;
+      values.add(convertedValues);
+    }
+    KeySet.Builder builder = KeySet.newBuilder();
+    int[] positions = new int[values.size()];
+    for (long key = 0L; key < numberOfKeys; key++) {
+      Object[] parts = new Object[values.size()];
+      for (int index = 0; index < values.size(); index++)
+        parts[index] = values.get(index).get(positions[index]);
+      builder.addKey(Key.of(parts));
+      nextPosition(values, positions);
+    }
+    return builder.build();
+  }
+
+  private static void nextPosition(List<List<Object>> values, int[] positions) {
+    for (int index = positions.length - 1; index >= 0; index--) {
+      positions[index]++;
+      if (positions[index] < values.get(index).size())
+        return;
+      positions[index] = 0;
+    }
+  }
+
+  /**
+   * Converts a value from the WHERE clause to the type of the key column. Unlike a query, a read
+   * does not coerce values to the type of the column.
+   *
+   * @param value The value to convert
+   * @param type The {@link Types} of the key column
+   * @return The converted value, or <code>null</code> if the value cannot be used for the column
+   */
+  private static Object convert(Object value, Integer type) {
+    if (type == null)
+      return null;
+    switch (type.intValue()) {
+      case Types.BIGINT:
+        if (value instanceof Long || value instanceof Integer || value instanceof Short
+            || value instanceof Byte)
+          return ((Number) value).longValue();
+        break;
+      case Types.DOUBLE:
+        if (value instanceof Number)
+          return ((Number) value).doubleValue();
+        break;
+      case Types.NVARCHAR:
+        if (value instanceof String)
+          return value;
+        break;
+      case Types.BOOLEAN:
+        if (value instanceof Boolean)
+          return value;
+        break;
+      case Types.BINARY:
+        if (value instanceof byte[])
+          return ByteArray.copyFrom((byte[]) value);
+        break;
+      case Types.DATE:
+        if (value instanceof Date)
+          return CloudSpannerConversionUtil.toCloudSpannerDate((Date) value);
+        break;
+      case Types.TIMESTAMP:
+        if (value instanceof Timestamp)
+          return CloudSpannerConversionUtil.toCloudSpannerTimestamp((Timestamp) value);
+        break;
+      default:
+        break;
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,17 @@
+package nl.topicus.jdbc.statement;
+
+class KeyReadBuilderExpressionVisitorAdapter extends AbstractSpannerExpressionVisitorAdapter {
+  private KeyReadBuilder keyReadBuilder;
+
+  KeyReadBuilderExpressionVisitorAdapter(ParameterStore parameterStore, String column,
+      KeyReadBuilder keyReadBuilder) {
+    super(parameterStore, column);
+    this.keyReadBuilder = keyReadBuilder;
+  }
+
+  @Override
+  protected void setValue(Object value, Integer sqlType) {
+    keyReadBuilder.to(value);
+  }
+
+}
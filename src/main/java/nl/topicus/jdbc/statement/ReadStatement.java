@@ -0,0 +1,353 @@
+package nl.topicus.jdbc.statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeyRange;
+import com.google.cloud.spanner.KeyRange.Endpoint;
+import com.google.cloud.spanner.KeySet;
+import com.google.rpc.Code;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+
+/**
+ * Parsed form of the custom statement
+ *
+ * <pre>
+ * READ table [USING INDEX index] KEYS keys COLUMNS column [, column ...]
+ * </pre>
+ *
+ * that reads rows directly by key instead of executing a query. The keys can be
+ * <code>ALL</code> or a comma separated list of:
+ * <ul>
+ * <li>A single key, either a single value (<code>1</code>) or a list of values
+ * (<code>(1, 'one')</code>)</li>
+ * <li><code>PREFIX key</code> for all rows whose key starts with the given key</li>
+ * <li><code>RANGE [start, end)</code> for all rows between the start and end key. A square bracket
+ * means that the endpoint is included and a parenthesis means that it is excluded.</li>
+ * </ul>
+ * Values can be integers, decimals, quoted strings, <code>TRUE</code>, <code>FALSE</code>,
+ * <code>NULL</code>, <code>DATE 'yyyy-mm-dd'</code> and <code>TIMESTAMP '...'</code>. Reads do not
+ * coerce values, which means that the type of a value must match the type of the key column.
+ *
+ * @author loite
+ *
+ */
+class ReadStatement {
+  static final String NAME = "READ";
+
+  private static final String SYNTAX =
+      "Expected \"READ table [USING INDEX index] KEYS keys COLUMNS column [, column ...]\"";
+
+  private enum TokenType {
+    IDENTIFIER, QUOTED_IDENTIFIER, STRING, NUMBER, SYMBOL, END;
+  }
+
+  private static final class Token {
+    private final TokenType type;
+
+    private final String value;
+
+    private Token(TokenType type, String value) {
+      this.type = type;
+      this.value = value;
+    }
+
+    private boolean isKeyword(String keyword) {
+      return type == TokenType.IDENTIFIER && value.equalsIgnoreCase(keyword);
+    }
+
+    private boolean isSymbol(char symbol) {
+      return type == TokenType.SYMBOL && value.charAt(0) == symbol;
+    }
+  }
+
+  private final String table;
+
+  private final String index;
+
+  private final KeySet keys;
+
+  private final List<String> columns;
+
+  private ReadStatement(String table, String index, KeySet keys, List<String> columns) {
+    this.table = table;
+    this.index = index;
+    this.keys = keys;
+    this.columns = Collections.unmodifiableList(columns);
+  }
+
+  String getTable() {
+    return table;
+  }
+
+  /**
+   *
+   * @return The index to read from, or <code>null</code> if the statement reads from the table
+   */
+  String getIndex() {
+    return index;
+  }
+
+  KeySet getKeys() {
+    return keys;
+  }
+
+  List<String> getColumns() {
+    return columns;
+  }
+
+  static ReadStatement parse(String sql) throws CloudSpannerSQLException {
+    return new Parser(tokenize(sql)).parseStatement();
+  }
+
+  private static final class Parser {
+    private final List<Token> tokens;
+
+    private int position = 0;
+
+    private Parser(List<Token> tokens) {
+      this.tokens = tokens;
+    }
+
+    private Token peek() {
+      return tokens.get(position);
+    }
+
+    private Token next() {
+      Token token = tokens.get(position);
+      if (token.type != TokenType.END)
+        position++;
+      return token;
+    }
+
+    private void expectKeyword(String keyword) throws CloudSpannerSQLException {
+      if (!next().isKeyword(keyword))
+        throw invalid("Expected " + keyword);
+    }
+
+    private void expectSymbol(char symbol) throws CloudSpannerSQLException {
+      if (!next().isSymbol(symbol))
+        throw invalid("Expected '" + symbol + "'");
+    }
+
+    private boolean skipSymbol(char symbol) {
+      if (peek().isSymbol(symbol)) {
+        next();
+        return true;
+      }
+      return false;
+    }
+
+    private ReadStatement parseStatement() throws CloudSpannerSQLException {
+      expectKeyword(NAME);
+      String table = parseIdentifier();
+      String index = null;
+      if (peek().isKeyword("USING")) {
+        next();
+        expectKeyword("INDEX");
+        index = parseIdentifier();
+      }
+      expectKeyword("KEYS");
+      KeySet keys = parseKeySet();
+      expectKeyword("COLUMNS");
+      List<String> columns = new ArrayList<>();
+      do {
+        columns.add(parseIdentifier());
+      } while (skipSymbol(','));
+      if (peek().type != TokenType.END)
+        throw invalid("Unexpected token " + peek().value);
+      return new ReadStatement(table, index, keys, columns);
+    }
+
+    private String parseIdentifier() throws CloudSpannerSQLException {
+      Token token = next();
+      if (token.type != TokenType.IDENTIFIER && token.type != TokenType.QUOTED_IDENTIFIER)
+        throw invalid("Expected identifier");
+      return token.value;
+    }
+
+    private KeySet parseKeySet() throws CloudSpannerSQLException {
+      if (peek().isKeyword("ALL")) {
+        next();
+        return KeySet.all();
+      }
+      KeySet.Builder builder = KeySet.newBuilder();
+      do {
+        if (peek().isKeyword("PREFIX")) {
+          next();
+          builder.addRange(KeyRange.prefix(parseKey()));
+        } else if (peek().isKeyword("RANGE")) {
+          next();
+          builder.addRange(parseRange());
+        } else {
+          builder.addKey(parseKey());
+        }
+      } while (skipSymbol(','));
+      return builder.build();
+    }
+
+    private KeyRange parseRange() throws CloudSpannerSQLException {
+      Endpoint startType = parseEndpoint(next(), '[', '(');
+      Key start = parseKey();
+      expectSymbol(',');
+      Key end = parseKey();
+      Endpoint endType = parseEndpoint(next(), ']', ')');
+      return KeyRange.newBuilder().setStart(start).setStartType(startType).setEnd(end)
+          .setEndType(endType).build();
+    }
+
+    private Endpoint parseEndpoint(Token token, char closed, char open)
+        throws CloudSpannerSQLException {
+      if (token.isSymbol(closed))
+        return Endpoint.CLOSED;
+      if (token.isSymbol(open))
+        return Endpoint.OPEN;
+      throw invalid("Expected '" + closed + "' or '" + open + "'");
+    }
+
+    private Key parseKey() throws CloudSpannerSQLException {
+      Key.Builder builder = Key.newBuilder();
+      if (skipSymbol('(')) {
+        if (!skipSymbol(')')) {
+          do {
+            appendValue(builder);
+          } while (skipSymbol(','));
+          expectSymbol(')');
+        }
+      } else {
+        appendValue(builder);
+      }
+      return builder.build();
+    }
+
+    private void appendValue(Key.Builder builder) throws CloudSpannerSQLException {
+      Token token = next();
+      boolean negative = false;
+      if (token.isSymbol('-')) {
+        negative = true;
+        token = next();
+        if (token.type != TokenType.NUMBER)
+          throw invalid("Expected number after '-'");
+      }
+      try {
+        switch (token.type) {
+          case NUMBER:
+            String number = negative ? "-" + token.value : token.value;
+            if (number.indexOf('.') > -1 || number.indexOf('e') > -1
+                || number.indexOf('E') > -1)
+              builder.append(Double.valueOf(number));
+            else
+              builder.append(Long.valueOf(number));
+            return;
+          case STRING:
+            builder.append(token.value);
+            return;
+          case IDENTIFIER:
+            if (token.isKeyword("NULL")) {
+              builder.appendObject(null);
+              return;
+            } else if (token.isKeyword("TRUE") || token.isKeyword("FALSE")) {
+              builder.append(Boolean.valueOf(token.value));
+              return;
+            } else if (token.isKeyword("DATE") && peek().type == TokenType.STRING) {
+              builder.append(Date.parseDate(next().value));
+              return;
+            } else if (token.isKeyword("TIMESTAMP") && peek().type == TokenType.STRING) {
+              builder.append(Timestamp.parseTimestamp(next().value));
+              return;
+            }
+            break;
+          default:
+            break;
+        }
+      } catch (IllegalArgumentException e) {
+        throw new CloudSpannerSQLException("Invalid key value for " + NAME + ": " + token.value,
+            Code.INVALID_ARGUMENT, e);
+      }
+      throw invalid("Invalid key value " + token.value);
+    }
+  }
+
+  private static List<Token> tokenize(String sql) throws CloudSpannerSQLException {
+    List<Token> tokens = new ArrayList<>();
+    int position = 0;
+    while (position < sql.length()) {
+      char c = sql.charAt(position);
+      if (Character.isWhitespace(c)) {
+        position++;
+      } else if (Character.isLetter(c) || c == '_') {
+        int start = position;
+        while (position < sql.length()
+            && (Character.isLetterOrDigit(sql.charAt(position)) || sql.charAt(position) == '_'))
+          position++;
+        tokens.add(new Token(TokenType.IDENTIFIER, sql.substring(start, position)));
+      } else if (Character.isDigit(c) || c == '.') {
+        int start = position;
+        while (position < sql.length() && isNumberPart(sql, position))
+          position++;
+        tokens.add(new Token(TokenType.NUMBER, sql.substring(start, position)));
+      } else if (c == '\'' || c == '"') {
+        StringBuilder value = new StringBuilder();
+        position = readQuoted(sql, position, value);
+        tokens.add(new Token(TokenType.STRING, value.toString()));
+      } else if (c == '`') {
+        StringBuilder value = new StringBuilder();
+        position = readQuoted(sql, position, value);
+        tokens.add(new Token(TokenType.QUOTED_IDENTIFIER, value.toString()));
+      } else if ("()[],-".indexOf(c) > -1) {
+        tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c)));
+        position++;
+      } else {
+        throw invalid("Unexpected character " + c);
+      }
+    }
+    tokens.add(new Token(TokenType.END, "end of statement"));
+    return tokens;
+  }
+
+  private static boolean isNumberPart(String sql, int position) {
+    char c = sql.charAt(position);
+    if (Character.isDigit(c) || c == '.' || c == 'e' || c == 'E')
+      return true;
+    // sign of an exponent
+    char previous = sql.charAt(position - 1);
+    return (c == '-' || c == '+') && (previous == 'e' || previous == 'E');
+  }
+
+  /**
+   * Reads a quoted string or identifier starting at the given position. The quote character can
+   * be escaped by doubling it.
+   *
+   * @return The position directly after the closing quote
+   */
+  private static int readQuoted(String sql, int start, StringBuilder value)
+      throws CloudSpannerSQLException {
+    char quote = sql.charAt(start);
+    int position = start + 1;
+    while (position < sql.length()) {
+      char c = sql.charAt(position);
+      if (c == quote) {
+        if (position + 1 < sql.length() && sql.charAt(position + 1) == quote) {
+          value.append(quote);
+          position += 2;
+        } else {
+          return position + 1;
+        }
+      } else {
+        value.append(c);
+        position++;
+      }
+    }
+    throw invalid("Missing closing quote");
+  }
+
+  private static CloudSpannerSQLException invalid(String message) {
+    return new CloudSpannerSQLException(
+        "Invalid argument(s) for " + NAME + ": " + message + ". " + SYNTAX,
+        Code.INVALID_ARGUMENT);
+  }
+
+}
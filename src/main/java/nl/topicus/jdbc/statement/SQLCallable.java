@@ -0,0 +1,16 @@
+package nl.topicus.jdbc.statement;
+
+import java.sql.SQLException;
+
+/**
+ * A task that returns a result and that may throw a {@link SQLException}. Used for statement
+ * executions that are prepared on the calling thread and executed asynchronously.
+ *
+ * @author loite
+ *
+ * @param <T> The type of the result of the task
+ */
+@FunctionalInterface
+interface SQLCallable<T> {
+  T call() throws SQLException;
+}
@@ -17,7 +17,6 @@ import com.google.api.client.util.DateTime;
 import com.google.cloud.ByteArray;
 import com.google.cloud.spanner.ValueBinder;
 import com.google.common.io.CharStreams;
-import com.google.common.primitives.Booleans;
 import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Longs;
 import nl.topicus.jdbc.util.CloudSpannerConversionUtil;
@@ -36,9 +35,13 @@ class ValueBinderExpressionVisitorAdapter<R> extends AbstractSpannerExpressionVi
 
   @Override
   protected void setValue(Object value, Integer sqlType) {
-    R res = setSingleValue(value, sqlType);
-    if (res == null && value != null)
+    R res = null;
+    // Try arrays first, so that large arrays do not need to be checked against all single value
+    // types. Some arrays, such as byte[] and char[], are bound as a single value.
+    if (value != null && value.getClass().isArray())
       res = setArrayValue(value);
+    if (res == null)
+      res = setSingleValue(value, sqlType);
 
     if (res == null && value != null) {
       throw new IllegalArgumentException(
@@ -288,37 +291,48 @@ class ValueBinderExpressionVisitorAdapter<R> extends AbstractSpannerExpressionVi
     return res;
   }
 
+  /**
+   * Binds an array value. Primitive arrays are passed to the binder without boxing the elements,
+   * and long[] and double[] arrays are not copied before they are passed to the binder. Arrays of
+   * Boolean, Long and Double are bound as a list, which allows the array to contain NULL elements.
+   */
   private R setArrayValue(Object value) {
-    if (boolean[].class.isAssignableFrom(value.getClass())) {
+    if (value instanceof double[]) {
+      return binder.toFloat64Array((double[]) value);
+    } else if (value instanceof long[]) {
+      return binder.toInt64Array((long[]) value);
+    } else if (value instanceof boolean[]) {
       return binder.toBoolArray((boolean[]) value);
-    } else if (Boolean[].class.isAssignableFrom(value.getClass())) {
-      return binder.toBoolArray(Booleans.toArray(Arrays.asList((Boolean[]) value)));
-    } else if (short[].class.isAssignableFrom(value.getClass())) {
-      long[] l = new long[((short[]) value).length];
-      Arrays.parallelSetAll(l, i -> ((short[]) value)[i]);
+    } else if (value instanceof Boolean[]) {
+      return binder.toBoolArray(Arrays.asList((Boolean[]) value));
+    } else if (value instanceof short[]) {
+      short[] s = (short[]) value;
+      long[] l = new long[s.length];
+      for (int i = 0; i < s.length; i++)
+        l[i] = s[i];
       return binder.toInt64Array(l);
-    } else if (Short[].class.isAssignableFrom(value.getClass())) {
+    } else if (value instanceof Short[]) {
       return binder.toInt64Array(Longs.toArray(Arrays.asList((Short[]) value)));
-    } else if (int[].class.isAssignableFrom(value.getClass())) {
-      long[] l = new long[((int[]) value).length];
-      Arrays.parallelSetAll(l, i -> ((int[]) value)[i]);
+    } else if (value instanceof int[]) {
+      int[] ints = (int[]) value;
+      long[] l = new long[ints.length];
+      for (int i = 0; i < ints.length; i++)
+        l[i] = ints[i];
       return binder.toInt64Array(l);
-    } else if (Integer[].class.isAssignableFrom(value.getClass())) {
+    } else if (value instanceof Integer[]) {
       return binder.toInt64Array(Longs.toArray(Arrays.asList((Integer[]) value)));
-    } else if (long[].class.isAssignableFrom(value.getClass())) {
-      return binder.toInt64Array((long[]) value);
-    } else if (Long[].class.isAssignableFrom(value.getClass())) {
-      return binder.toInt64Array(Longs.toArray(Arrays.asList((Long[]) value)));
-    } else if (float[].class.isAssignableFrom(value.getClass())) {
-      double[] l = new double[((float[]) value).length];
-      Arrays.parallelSetAll(l, i -> ((float[]) value)[i]);
-      return binder.toFloat64Array(l);
-    } else if (Float[].class.isAssignableFrom(value.getClass())) {
+    } else if (value instanceof Long[]) {
+      return binder.toInt64Array(Arrays.asList((Long[]) value));
+    } else if (value instanceof float[]) {
+      float[] f = (float[]) value;
+      double[] d = new double[f.length];
+      for (int i = 0; i < f.length; i++)
+        d[i] = f[i];
+      return binder.toFloat64Array(d);
+    } else if (value instanceof Float[]) {
       return binder.toFloat64Array(Doubles.toArray(Arrays.asList((Float[]) value)));
-    } else if (double[].class.isAssignableFrom(value.getClass())) {
-      return binder.toFloat64Array((double[]) value);
-    } else if (Double[].class.isAssignableFrom(value.getClass())) {
-      return binder.toFloat64Array(Doubles.toArray(Arrays.asList((Double[]) value)));
+    } else if (value instanceof Double[]) {
+      return binder.toFloat64Array(Arrays.asList((Double[]) value));
     } else if (BigDecimal[].class.isAssignableFrom(value.getClass())) {
       return binder.toFloat64Array(Doubles.toArray(Arrays.asList((BigDecimal[]) value)));
     } else if (Date[].class.isAssignableFrom(value.getClass())) {
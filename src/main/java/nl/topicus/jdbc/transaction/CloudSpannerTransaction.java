@@ -250,27 +250,74 @@ public class CloudSpannerTransaction implements TransactionContext, BatchReadOnl
   @Override
   public ResultSet read(String table, KeySet keys, Iterable<String> columns,
       ReadOption... options) {
-    throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNIMPLEMENTED,
-        METHOD_NOT_IMPLEMENTED);
+    checkReadArgument(table, "table");
+    checkReadArgument(keys, "keys");
+    checkReadArgument(columns, "columns");
+    checkTransaction();
+    if (batchReadOnlyTransaction != null)
+      return batchReadOnlyTransaction.read(table, keys, columns, options);
+    else if (readOnlyTransaction != null)
+      return readOnlyTransaction.read(table, keys, columns, options);
+    else if (transactionThread != null)
+      return transactionThread.read(table, keys, columns, options);
+
+    throw new IllegalStateException("No transaction found (this should not happen)");
+  }
+
+  /**
+   * Reads are executed asynchronously by the transaction thread, which means that invalid
+   * arguments must be rejected before the read is handed over to the transaction.
+   */
+  private static void checkReadArgument(Object argument, String name) {
+    if (argument == null)
+      throw SpannerExceptionFactory.newSpannerException(ErrorCode.INVALID_ARGUMENT,
+          name + " may not be null");
   }
 
   @Override
   public ResultSet readUsingIndex(String table, String index, KeySet keys, Iterable<String> columns,
       ReadOption... options) {
-    throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNIMPLEMENTED,
-        METHOD_NOT_IMPLEMENTED);
+    checkReadArgument(table, "table");
+    checkReadArgument(index, "index");
+    checkReadArgument(keys, "keys");
+    checkReadArgument(columns, "columns");
+    checkTransaction();
+    if (batchReadOnlyTransaction != null)
+      return batchReadOnlyTransaction.readUsingIndex(table, index, keys, columns, options);
+    else if (readOnlyTransaction != null)
+      return readOnlyTransaction.readUsingIndex(table, index, keys, columns, options);
+    else if (transactionThread != null)
+      return transactionThread.readUsingIndex(table, index, keys, columns, options);
+
+    throw new IllegalStateException("No transaction found (this should not happen)");
   }
 
   @Override
   public Struct readRow(String table, Key key, Iterable<String> columns) {
-    throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNIMPLEMENTED,
-        METHOD_NOT_IMPLEMENTED);
+    checkReadArgument(table, "table");
+    checkReadArgument(key, "key");
+    try (ResultSet rs = read(table, KeySet.singleKey(key), columns)) {
+      return consumeSingleRow(rs);
+    }
   }
 
   @Override
   public Struct readRowUsingIndex(String table, String index, Key key, Iterable<String> columns) {
-    throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNIMPLEMENTED,
-        METHOD_NOT_IMPLEMENTED);
+    checkReadArgument(table, "table");
+    checkReadArgument(key, "key");
+    try (ResultSet rs = readUsingIndex(table, index, KeySet.singleKey(key), columns)) {
+      return consumeSingleRow(rs);
+    }
+  }
+
+  private static Struct consumeSingleRow(ResultSet rs) {
+    if (!rs.next())
+      return null;
+    Struct row = rs.getCurrentRowAsStruct();
+    if (rs.next())
+      throw SpannerExceptionFactory.newSpannerException(ErrorCode.INTERNAL,
+          "Multiple rows returned for single key");
+    return row;
   }
 
   @Override
@@ -299,16 +346,26 @@ public class CloudSpannerTransaction implements TransactionContext, BatchReadOnl
   @Override
   public List<Partition> partitionRead(PartitionOptions partitionOptions, String table, KeySet keys,
       Iterable<String> columns, ReadOption... options) throws SpannerException {
-    throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNIMPLEMENTED,
-        METHOD_NOT_IMPLEMENTED);
+    checkTransaction();
+    if (batchReadOnlyTransaction != null) {
+      return batchReadOnlyTransaction.partitionRead(partitionOptions, table, keys, columns,
+          options);
+    }
+    throw SpannerExceptionFactory.newSpannerException(ErrorCode.FAILED_PRECONDITION,
+        METHOD_ONLY_IN_BATCH_READONLY);
   }
 
   @Override
   public List<Partition> partitionReadUsingIndex(PartitionOptions partitionOptions, String table,
       String index, KeySet keys, Iterable<String> columns, ReadOption... options)
       throws SpannerException {
-    throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNIMPLEMENTED,
-        METHOD_NOT_IMPLEMENTED);
+    checkTransaction();
+    if (batchReadOnlyTransaction != null) {
+      return batchReadOnlyTransaction.partitionReadUsingIndex(partitionOptions, table, index, keys,
+          columns, options);
+    }
+    throw SpannerExceptionFactory.newSpannerException(ErrorCode.FAILED_PRECONDITION,
+        METHOD_ONLY_IN_BATCH_READONLY);
   }
 
   @Override
@@ -346,4 +403,18 @@ public class CloudSpannerTransaction implements TransactionContext, BatchReadOnl
     return batchReadOnlyTransaction;
   }
 
+  /**
+   * Opens a reference to a batch read-only transaction that was started by another connection,
+   * possibly in another process. The returned transaction can be used to execute partitions of that
+   * transaction, but it is not owned by this connection. The caller should therefore not close the
+   * returned transaction, as that would also end the transaction for all other users of it.
+   *
+   * @param id The id of the batch read-only transaction to open
+   * @return A reference to the batch read-only transaction with the given id
+   */
+  public BatchReadOnlyTransaction getBatchReadOnlyTransaction(BatchTransactionId id) {
+    Preconditions.checkNotNull(id);
+    return batchClient.batchReadOnlyTransaction(id);
+  }
+
 }
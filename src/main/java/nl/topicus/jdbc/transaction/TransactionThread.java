@@ -3,20 +3,18 @@ package nl.topicus.jdbc.transaction;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.KeySet;
 import com.google.cloud.spanner.Mutation;
+import com.google.cloud.spanner.Options.ReadOption;
 import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.Statement;
@@ -75,15 +73,25 @@ class TransactionThread extends Thread {
    */
   private String xid;
 
-  private final Set<String> stopStatementStrings =
-      new HashSet<>(Arrays.asList(TransactionStopStatement.values()).stream().map(x -> x.name())
-          .collect(Collectors.toList()));
+  /**
+   * A query or read that is executed on the transaction by the transaction thread
+   */
+  @FunctionalInterface
+  private interface ReadOperation {
+    ResultSet execute(TransactionContext transaction);
+  }
+
+  /**
+   * Marker operation that is put on the queue in order to get the transaction thread to proceed
+   * when the transaction is stopped
+   */
+  private static final ReadOperation STOP_OPERATION = transaction -> null;
 
   private List<Mutation> mutations = new ArrayList<>(40);
 
   private Map<Savepoint, Integer> savepoints = new HashMap<>();
 
-  private BlockingQueue<Statement> statements = new LinkedBlockingQueue<>();
+  private BlockingQueue<ReadOperation> operations = new LinkedBlockingQueue<>();
 
   private BlockingQueue<ResultSet> resultSets = new LinkedBlockingQueue<>();
 
@@ -124,11 +132,10 @@ class TransactionThread extends Thread {
             status = TransactionStatus.RUNNING;
             while (!stop) {
               try {
-                Statement statement = statements.poll(5, TimeUnit.SECONDS);
-                if (statement != null) {
-                  String sql = statement.getSql();
-                  if (!stopStatementStrings.contains(sql)) {
-                    resultSets.put(transaction.executeQuery(statement));
+                ReadOperation operation = operations.poll(5, TimeUnit.SECONDS);
+                if (operation != null) {
+                  if (operation != STOP_OPERATION) {
+                    resultSets.put(operation.execute(transaction));
                   }
                 } else {
                   // keep alive
@@ -242,8 +249,22 @@ class TransactionThread extends Thread {
   }
 
   ResultSet executeQuery(Statement statement) {
+    return execute(transaction -> transaction.executeQuery(statement));
+  }
+
+  ResultSet read(String table, KeySet keys, Iterable<String> columns, ReadOption... options) {
+    return execute(transaction -> transaction.read(table, keys, columns, options));
+  }
+
+  ResultSet readUsingIndex(String table, String index, KeySet keys, Iterable<String> columns,
+      ReadOption... options) {
+    return execute(
+        transaction -> transaction.readUsingIndex(table, index, keys, columns, options));
+  }
+
+  private ResultSet execute(ReadOperation operation) {
     try {
-      statements.put(statement);
+      operations.put(operation);
       return resultSets.take();
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -339,9 +360,9 @@ class TransactionThread extends Thread {
 
     this.stopStatement = statement;
     stop = true;
-    // Add a statement object in order to get the transaction thread to
+    // Add a stop operation in order to get the transaction thread to
     // proceed
-    statements.add(Statement.of(statement.name()));
+    operations.add(STOP_OPERATION);
     synchronized (monitor) {
       while (!stopped || status == TransactionStatus.NOT_STARTED
           || status == TransactionStatus.RUNNING) {
@@ -5,10 +5,15 @@ import java.math.BigInteger;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.TimeZone;
 import com.google.cloud.ByteArray;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.Code;
@@ -16,39 +21,136 @@ import com.google.common.base.Preconditions;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 
 public class CloudSpannerConversionUtil {
+  private static final long MILLIS_PER_DAY = 86400000L;
+
+  /**
+   * The epoch day of 1583-01-01, the first full year of the Gregorian calendar. The conversions of
+   * earlier dates are left to {@link Calendar}, as {@link java.util.Date} uses the Julian calendar
+   * for dates before the Gregorian cutover, while Google Cloud Spanner and java.time use the
+   * proleptic Gregorian calendar for all dates.
+   */
+  private static final long FIRST_GREGORIAN_EPOCH_DAY = -141_349L;
+
   private CloudSpannerConversionUtil() {}
 
   public static Date toSqlDate(com.google.cloud.Date date) {
-    return toSqlDate(date, Calendar.getInstance());
+    return toSqlDate(date, TimeZone.getDefault());
   }
 
+  /**
+   * Converts the given date to a {@link Date} at midnight in the time zone of the given calendar.
+   * The calendar itself is not modified.
+   */
   public static Date toSqlDate(com.google.cloud.Date date, Calendar cal) {
-    cal.set(date.getYear(), date.getMonth() - 1, date.getDayOfMonth(), 0, 0, 0);
-    cal.clear(Calendar.MILLISECOND);
-    return new Date(cal.getTimeInMillis());
+    return toSqlDate(date, cal.getTimeZone());
+  }
+
+  /**
+   * Converts the given date to a {@link Date} at midnight in the given time zone. The conversion
+   * is done with epoch day arithmetic and the offset rules of the time zone, and does not create
+   * any {@link Calendar} instances.
+   */
+  public static Date toSqlDate(com.google.cloud.Date date, TimeZone zone) {
+    long epochDay = toEpochDay(date.getYear(), date.getMonth(), date.getDayOfMonth());
+    if (epochDay < FIRST_GREGORIAN_EPOCH_DAY) {
+      Calendar cal = Calendar.getInstance(zone);
+      cal.clear();
+      cal.set(date.getYear(), date.getMonth() - 1, date.getDayOfMonth(), 0, 0, 0);
+      return new Date(cal.getTimeInMillis());
+    }
+    return new Date(localToUtc(epochDay * MILLIS_PER_DAY, zone));
   }
 
   public static com.google.cloud.Date toCloudSpannerDate(Date date) {
-    Calendar cal = Calendar.getInstance();
-    cal.setTime(date);
-    return com.google.cloud.Date.fromYearMonthDay(cal.get(Calendar.YEAR),
-        cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH));
+    return toCloudSpannerDate(date, TimeZone.getDefault());
+  }
+
+  /**
+   * Converts the given {@link Date} to the date that it represents in the given time zone.
+   */
+  public static com.google.cloud.Date toCloudSpannerDate(Date date, TimeZone zone) {
+    long millis = date.getTime();
+    long epochDay = Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+    if (epochDay < FIRST_GREGORIAN_EPOCH_DAY) {
+      Calendar cal = Calendar.getInstance(zone);
+      cal.setTime(date);
+      return com.google.cloud.Date.fromYearMonthDay(cal.get(Calendar.YEAR),
+          cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH));
+    }
+    return toCloudSpannerDate(LocalDate.ofEpochDay(epochDay));
+  }
+
+  public static com.google.cloud.Date toCloudSpannerDate(LocalDate date) {
+    return com.google.cloud.Date.fromYearMonthDay(date.getYear(), date.getMonthValue(),
+        date.getDayOfMonth());
+  }
+
+  public static LocalDate toLocalDate(com.google.cloud.Date date) {
+    return LocalDate.of(date.getYear(), date.getMonth(), date.getDayOfMonth());
   }
 
   public static List<com.google.cloud.Date> toCloudSpannerDates(Date[] dates) {
+    TimeZone zone = TimeZone.getDefault();
     List<com.google.cloud.Date> res = new ArrayList<>(dates.length);
     for (int index = 0; index < dates.length; index++)
-      res.add(toCloudSpannerDate(dates[index]));
+      res.add(toCloudSpannerDate(dates[index], zone));
     return res;
   }
 
   public static List<Date> toJavaDates(List<com.google.cloud.Date> dates) {
+    TimeZone zone = TimeZone.getDefault();
     List<Date> res = new ArrayList<>(dates.size());
     for (com.google.cloud.Date date : dates)
-      res.add(CloudSpannerConversionUtil.toSqlDate(date));
+      res.add(CloudSpannerConversionUtil.toSqlDate(date, zone));
     return res;
   }
 
+  /**
+   * Calculates the number of days since 1970-01-01 of the given date in the proleptic Gregorian
+   * calendar. This is the same calculation as {@link LocalDate#toEpochDay()}, but without the
+   * validation of the input and the creation of a {@link LocalDate}.
+   */
+  static long toEpochDay(int year, int month, int day) {
+    long y = year;
+    long total = 365L * y;
+    if (y >= 0) {
+      total += (y + 3L) / 4L - (y + 99L) / 100L + (y + 399L) / 400L;
+    } else {
+      total -= y / -4L - y / -100L + y / -400L;
+    }
+    total += (367L * month - 362L) / 12L;
+    total += day - 1;
+    if (month > 2) {
+      total--;
+      if (!isLeapYear(year))
+        total--;
+    }
+    // 719528 is the number of days from 0000-01-01 to 1970-01-01
+    return total - 719528L;
+  }
+
+  private static boolean isLeapYear(long year) {
+    return (year & 3L) == 0L && (year % 100L != 0L || year % 400L == 0L);
+  }
+
+  /**
+   * Converts a local time in milliseconds since the epoch to UTC milliseconds in the given time
+   * zone. If the offset of the time zone changes around the local time, a local time that falls in
+   * the gap of the transition or that occurs twice is resolved with the smallest offset, which
+   * gives the same result as {@link Calendar}.
+   */
+  private static long localToUtc(long local, TimeZone zone) {
+    int before = zone.getOffset(local - MILLIS_PER_DAY);
+    int after = zone.getOffset(local + MILLIS_PER_DAY);
+    if (before == after)
+      return local - before;
+    boolean beforeValid = zone.getOffset(local - before) == before;
+    boolean afterValid = zone.getOffset(local - after) == after;
+    if (beforeValid != afterValid)
+      return local - (beforeValid ? before : after);
+    return local - Math.min(before, after);
+  }
+
   public static com.google.cloud.Timestamp toCloudSpannerTimestamp(Timestamp ts) {
     long milliseconds = ts.getTime();
     long seconds = milliseconds / 1000l;
@@ -64,15 +166,24 @@ public class CloudSpannerConversionUtil {
   }
 
   public static Time toSqlTime(com.google.cloud.Timestamp ts) {
-    return toSqlTime(ts, Calendar.getInstance());
+    return new Time(ts.getSeconds() * 1000L + ts.getNanos() / 1000000);
   }
 
+  /**
+   * Converts the given timestamp to a {@link Time}. A timestamp is an absolute point in time, which
+   * means that the time zone of the calendar does not influence the result.
+   */
   public static Time toSqlTime(com.google.cloud.Timestamp ts, Calendar cal) {
-    cal.set(1970, 0, 1, 0, 0, 0);
-    cal.clear(Calendar.MILLISECOND);
-    cal.setTimeInMillis(ts.getSeconds() * 1000
-        + TimeUnit.MILLISECONDS.convert(ts.getNanos(), TimeUnit.NANOSECONDS));
-    return new Time(cal.getTimeInMillis());
+    return toSqlTime(ts);
+  }
+
+  public static Instant toInstant(com.google.cloud.Timestamp ts) {
+    return Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos());
+  }
+
+  public static com.google.cloud.Timestamp toCloudSpannerTimestamp(Instant instant) {
+    return com.google.cloud.Timestamp.ofTimeSecondsAndNanos(instant.getEpochSecond(),
+        instant.getNano());
   }
 
   public static List<Timestamp> toJavaTimestamps(List<com.google.cloud.Timestamp> timestamps) {
@@ -114,6 +225,8 @@ public class CloudSpannerConversionUtil {
       return null;
     if (targetType.equals(String.class))
       return value.toString();
+    if (targetType.isInstance(value))
+      return value;
 
     try {
       if (targetType.equals(Boolean.class) && type.getCode() == Code.BOOL)
@@ -178,6 +291,21 @@ public class CloudSpannerConversionUtil {
         return value;
       if (targetType.equals(Double.class) && type.getCode() == Code.STRING)
         return Double.valueOf((String) value);
+
+      if (targetType.equals(LocalDate.class) && type.getCode() == Code.DATE)
+        return ((Date) value).toLocalDate();
+      if (targetType.equals(LocalDate.class) && type.getCode() == Code.STRING)
+        return LocalDate.parse((String) value);
+      if (targetType.equals(LocalDateTime.class) && type.getCode() == Code.TIMESTAMP)
+        return ((Timestamp) value).toLocalDateTime();
+      if (targetType.equals(Instant.class) && type.getCode() == Code.TIMESTAMP)
+        return ((Timestamp) value).toInstant();
+      if (targetType.equals(Instant.class) && type.getCode() == Code.STRING)
+        return Instant.parse((String) value);
+      if (targetType.equals(OffsetDateTime.class) && type.getCode() == Code.TIMESTAMP)
+        return OffsetDateTime.ofInstant(((Timestamp) value).toInstant(), ZoneOffset.UTC);
+      if (targetType.equals(OffsetDateTime.class) && type.getCode() == Code.STRING)
+        return OffsetDateTime.parse((String) value);
     } catch (Exception e) {
       throw new CloudSpannerSQLException("Cannot convert " + value + " to " + targetType.getName(),
           com.google.rpc.Code.INVALID_ARGUMENT, e);
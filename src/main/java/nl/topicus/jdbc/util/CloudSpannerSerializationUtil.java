@@ -0,0 +1,138 @@
+package nl.topicus.jdbc.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Set;
+import com.google.cloud.spanner.BatchTransactionId;
+import com.google.cloud.spanner.Partition;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.rpc.Code;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+
+/**
+ * Utility methods for converting {@link BatchTransactionId}s and {@link Partition}s to and from
+ * strings, so that the partitions of a query can be handed to other connections or processes. The
+ * strings are encoded with the URL-safe Base64 alphabet without padding, which means that they can
+ * also be used as arguments of custom driver statements.
+ * <p>
+ * The strings can be supplied by anyone who can execute a SQL statement, and are therefore only
+ * deserialized into {@link BatchTransactionId}s, {@link Partition}s and the types of their fields.
+ * Any other class in the serialized data is rejected before it is instantiated.
+ *
+ * @author loite
+ *
+ */
+public class CloudSpannerSerializationUtil {
+  private static final Set<String> ALLOWED_CLASSES = ImmutableSet.of(
+      "com.google.cloud.spanner.BatchTransactionId", "com.google.cloud.spanner.Partition",
+      "com.google.cloud.spanner.PartitionOptions", "com.google.cloud.spanner.Statement",
+      "com.google.cloud.spanner.Value", "com.google.cloud.spanner.Type",
+      "com.google.cloud.spanner.KeySet", "com.google.cloud.spanner.Key",
+      "com.google.cloud.spanner.KeyRange", "com.google.cloud.spanner.Options",
+      "com.google.cloud.ByteArray", "com.google.cloud.Date", "com.google.cloud.Timestamp",
+      "com.google.protobuf.ByteString", "com.google.common.collect.ImmutableMap$SerializedForm",
+      "com.google.common.collect.ImmutableBiMap$SerializedForm",
+      "com.google.common.collect.ImmutableList$SerializedForm",
+      "com.google.common.collect.ImmutableSet$SerializedForm", "java.lang.Enum",
+      "java.lang.Number", "java.lang.Boolean", "java.lang.Long", "java.lang.Double",
+      "java.util.ArrayList", "java.util.Arrays$ArrayList",
+      "java.util.Collections$UnmodifiableCollection", "java.util.Collections$UnmodifiableList",
+      "java.util.Collections$UnmodifiableRandomAccessList", "[Z", "[J", "[D", "[B",
+      "[Ljava.lang.Object;");
+
+  /**
+   * The nested classes of these classes are also allowed, such as the implementations of the
+   * different value types
+   */
+  private static final Set<String> ALLOWED_OUTER_CLASSES = ImmutableSet.of(
+      "com.google.cloud.spanner.Value", "com.google.cloud.spanner.Type",
+      "com.google.cloud.spanner.KeyRange", "com.google.cloud.spanner.Options",
+      "com.google.protobuf.ByteString");
+
+  /**
+   * {@link ObjectInputStream} that only resolves the classes that can be part of a serialized
+   * {@link BatchTransactionId} or {@link Partition}
+   */
+  private static final class AllowListObjectInputStream extends ObjectInputStream {
+    private AllowListObjectInputStream(InputStream input) throws IOException {
+      super(input);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc)
+        throws IOException, ClassNotFoundException {
+      if (!isAllowed(desc.getName()))
+        throw new InvalidClassException(desc.getName(), "Class is not allowed");
+      return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+      throw new InvalidClassException("Proxy classes are not allowed");
+    }
+  }
+
+  private CloudSpannerSerializationUtil() {}
+
+  static boolean isAllowed(String className) {
+    if (ALLOWED_CLASSES.contains(className))
+      return true;
+    int index = className.indexOf('$');
+    return index > 0 && ALLOWED_OUTER_CLASSES.contains(className.substring(0, index));
+  }
+
+  public static String serializeBatchTransactionId(BatchTransactionId id) throws SQLException {
+    return serialize(id, "batch transaction id");
+  }
+
+  public static BatchTransactionId deserializeBatchTransactionId(String id) throws SQLException {
+    return deserialize(id, BatchTransactionId.class, "batch transaction id");
+  }
+
+  public static String serializePartition(Partition partition) throws SQLException {
+    return serialize(partition, "partition");
+  }
+
+  public static Partition deserializePartition(String partition) throws SQLException {
+    return deserialize(partition, Partition.class, "partition");
+  }
+
+  private static String serialize(Serializable object, String description) throws SQLException {
+    Preconditions.checkNotNull(object);
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream stream = new ObjectOutputStream(bos)) {
+      stream.writeObject(object);
+      stream.flush();
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(bos.toByteArray());
+    } catch (IOException e) {
+      throw new CloudSpannerSQLException("Could not serialize " + description, Code.INTERNAL, e);
+    }
+  }
+
+  private static <T> T deserialize(String value, Class<T> type, String description)
+      throws SQLException {
+    Preconditions.checkNotNull(value);
+    try (ByteArrayInputStream bis = new ByteArrayInputStream(Base64.getUrlDecoder().decode(value));
+        ObjectInputStream input = new AllowListObjectInputStream(bis)) {
+      Object res = input.readObject();
+      if (!type.isInstance(res))
+        throw new CloudSpannerSQLException("Value is not a valid " + description,
+            Code.INVALID_ARGUMENT);
+      return type.cast(res);
+    } catch (IllegalArgumentException | IOException | ClassNotFoundException e) {
+      throw new CloudSpannerSQLException("Could not deserialize " + description,
+          Code.INVALID_ARGUMENT, e);
+    }
+  }
+
+}
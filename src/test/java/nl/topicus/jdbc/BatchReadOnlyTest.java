@@ -5,6 +5,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.lang.reflect.Field;
 import java.sql.PreparedStatement;
@@ -16,13 +18,17 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
 import org.mockito.internal.stubbing.answers.Returns;
 import com.google.cloud.spanner.BatchClient;
 import com.google.cloud.spanner.BatchReadOnlyTransaction;
+import com.google.cloud.spanner.BatchTransactionId;
 import com.google.cloud.spanner.Partition;
 import com.google.cloud.spanner.TimestampBound;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 import nl.topicus.jdbc.test.category.UnitTest;
 import nl.topicus.jdbc.transaction.CloudSpannerTransaction;
+import nl.topicus.jdbc.util.CloudSpannerSerializationUtilTest;
 
 @Category(UnitTest.class)
 public class BatchReadOnlyTest {
@@ -76,6 +82,64 @@ public class BatchReadOnlyTest {
     }
   }
 
+  @Test
+  public void testExportAndExecutePartitions() throws Exception {
+    final String sql = "SELECT * FROM FOO WHERE ID=1";
+    final int numberOfPartitions = 3;
+    BatchTransactionId id = CloudSpannerSerializationUtilTest.createBatchTransactionId("session");
+    List<Partition> partitions = new ArrayList<>(numberOfPartitions);
+    for (int i = 0; i < numberOfPartitions; i++)
+      partitions.add(CloudSpannerSerializationUtilTest.createQueryPartition("token" + i, sql));
+    BatchClient batchClient = mock(BatchClient.class);
+    BatchReadOnlyTransaction tx = mock(BatchReadOnlyTransaction.class);
+    when(tx.getBatchTransactionId()).then(new Returns(id));
+    when(tx.partitionQuery(any(), any())).then(new Returns(partitions));
+    when(batchClient.batchReadOnlyTransaction(TimestampBound.strong())).then(new Returns(tx));
+    Field field = CloudSpannerTransaction.class.getDeclaredField("batchClient");
+    field.setAccessible(true);
+    field.set(connection.getTransaction(), batchClient);
+    connection.setBatchReadOnly(true);
+
+    List<String[]> exported = new ArrayList<>();
+    try (ResultSet rs = connection.createStatement().executeQuery("EXPORT_PARTITIONS " + sql)) {
+      while (rs.next())
+        exported.add(new String[] {rs.getString("TRANSACTION_ID"), rs.getString("PARTITION")});
+    }
+    assertEquals(numberOfPartitions, exported.size());
+    ArgumentCaptor<com.google.cloud.spanner.Statement> captor =
+        ArgumentCaptor.forClass(com.google.cloud.spanner.Statement.class);
+    verify(tx).partitionQuery(any(), captor.capture());
+    assertEquals(sql, captor.getValue().getSql());
+
+    // Execute the exported partitions on another connection
+    CloudSpannerConnection worker = new CloudSpannerConnection();
+    BatchClient workerBatchClient = mock(BatchClient.class);
+    BatchReadOnlyTransaction workerTx = mock(BatchReadOnlyTransaction.class);
+    when(workerBatchClient.batchReadOnlyTransaction(id)).then(new Returns(workerTx));
+    for (int i = 0; i < numberOfPartitions; i++) {
+      com.google.cloud.spanner.ResultSet rs = mock(com.google.cloud.spanner.ResultSet.class);
+      when(rs.next()).thenReturn(true, false);
+      when(workerTx.execute(partitions.get(i))).then(new Returns(rs));
+    }
+    field.set(worker.getTransaction(), workerBatchClient);
+    Statement statement = worker.createStatement();
+    for (String[] partition : exported) {
+      assertTrue(statement
+          .execute("EXECUTE_PARTITION " + partition[0] + " " + partition[1]));
+      try (ResultSet rs = statement.getResultSet()) {
+        assertTrue(rs.next());
+        assertFalse(rs.next());
+      }
+    }
+    verify(workerTx, never()).close();
+    assertFalse(worker.isBatchReadOnly());
+  }
+
+  @Test(expected = CloudSpannerSQLException.class)
+  public void testExportPartitionsNotInBatchReadOnly() throws SQLException {
+    connection.createStatement().executeQuery("EXPORT_PARTITIONS " + SELECT_ALL_FROM_FOO);
+  }
+
   @Test
   public void testExecuteNormal() throws SQLException, NoSuchFieldException, SecurityException,
       IllegalArgumentException, IllegalAccessException {
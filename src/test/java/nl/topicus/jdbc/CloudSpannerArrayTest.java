@@ -107,6 +107,23 @@ public class CloudSpannerArrayTest {
     assertEquals("{one,two,three}", array.toString());
   }
 
+  @Test
+  public void testPrimitiveArray() throws SQLException {
+    long[] data = new long[] {1L, 2L, 3L};
+    CloudSpannerArray array = CloudSpannerArray.createArray(CloudSpannerDataType.INT64, data);
+    assertTrue(array.getArray() instanceof long[]);
+    assertArrayEquals(data, (long[]) array.getArray());
+    assertArrayEquals(new long[] {2L, 3L}, (long[]) array.getArray(2, 2));
+    assertEquals("{1,2,3}", array.toString());
+    // Primitive and boxed arrays with the same elements are equal
+    CloudSpannerArray boxed =
+        CloudSpannerArray.createArray(CloudSpannerDataType.INT64, Arrays.asList(1L, 2L, 3L));
+    assertEquals(boxed, array);
+    assertEquals(boxed.hashCode(), array.hashCode());
+    assertFalse(array.equals(
+        CloudSpannerArray.createArray(CloudSpannerDataType.FLOAT64, new double[] {1d, 2d, 3d})));
+  }
+
   @Test
   public void testHashCodeAndEquals() throws SQLException {
     CloudSpannerArray array1 = CloudSpannerArray.createArray("String", inputArray);
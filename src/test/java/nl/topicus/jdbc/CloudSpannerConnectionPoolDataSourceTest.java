@@ -1,6 +1,7 @@
 package nl.topicus.jdbc;
 
 import java.io.PrintWriter;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import javax.sql.PooledConnection;
@@ -55,4 +56,35 @@ public class CloudSpannerConnectionPoolDataSourceTest {
     Assert.assertTrue(exception);
   }
 
+  @Test
+  public void connectionPoolTest() throws SQLException {
+    CloudSpannerConnectionPoolDataSource subject = new CloudSpannerConnectionPoolDataSource();
+    subject.setProjectId("helpful-adroit-123456");
+    subject.setInstanceId("test-instance");
+    subject.setDatabase("test");
+    subject.setOauthAccessToken("TEST");
+    subject.setMaxPoolSize(2);
+    subject.setMaxLifetime(60000L);
+    subject.setLeakDetectionThreshold(10000L);
+    subject.setConnectionTimeout(100L);
+    Assert.assertEquals(0, subject.getMinPoolSize());
+    Assert.assertEquals(2, subject.getMaxPoolSize());
+    Assert.assertEquals(60000L, subject.getMaxLifetime());
+    Assert.assertEquals(10000L, subject.getLeakDetectionThreshold());
+    Assert.assertEquals(100L, subject.getConnectionTimeout());
+
+    CloudSpannerConnectionPool pool = subject.getConnectionPool();
+    Assert.assertSame(pool, subject.getConnectionPool());
+    Assert.assertEquals(2, pool.getMaxPoolSize());
+    try (Connection connection = pool.getConnection()) {
+      Assert.assertEquals(1, pool.getActiveConnections());
+    }
+    Assert.assertEquals(1, pool.getIdleConnections());
+    subject.closeConnectionPool();
+    Assert.assertTrue(pool.isClosed());
+    Assert.assertEquals(0, pool.getTotalConnections());
+    Assert.assertNotSame(pool, subject.getConnectionPool());
+    subject.closeConnectionPool();
+  }
+
 }
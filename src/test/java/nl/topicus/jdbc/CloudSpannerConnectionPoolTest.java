@@ -0,0 +1,146 @@
+package nl.topicus.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.io.StringWriter;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class CloudSpannerConnectionPoolTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final List<CloudSpannerConnection> physicalConnections = new ArrayList<>();
+
+  private CloudSpannerConnectionPool pool;
+
+  @After
+  public void closePool() {
+    if (pool != null)
+      pool.close();
+  }
+
+  private CloudSpannerConnectionPoolDataSource createDataSource() throws SQLException {
+    CloudSpannerConnectionPoolDataSource dataSource =
+        mock(CloudSpannerConnectionPoolDataSource.class);
+    when(dataSource.getPooledConnection()).then(invocation -> {
+      CloudSpannerConnection connection = mock(CloudSpannerConnection.class);
+      when(connection.getAutoCommit()).thenReturn(true);
+      physicalConnections.add(connection);
+      return new CloudSpannerPooledConnection(connection, true);
+    });
+    return dataSource;
+  }
+
+  private CloudSpannerConnectionPool createPool(CloudSpannerConnectionPoolDataSource dataSource,
+      int maxPoolSize, long maxLifetimeMillis, long leakDetectionThresholdMillis) {
+    pool = new CloudSpannerConnectionPool(dataSource, 0, maxPoolSize, maxLifetimeMillis,
+        leakDetectionThresholdMillis, 50L);
+    return pool;
+  }
+
+  @Test
+  public void testBorrowAndReturn() throws SQLException {
+    CloudSpannerConnectionPoolDataSource dataSource = createDataSource();
+    CloudSpannerConnectionPool subject = createPool(dataSource, 2, 0L, 0L);
+    Connection first = subject.getConnection();
+    assertNotNull(first);
+    assertEquals(1, subject.getActiveConnections());
+    first.close();
+    assertEquals(0, subject.getActiveConnections());
+    assertEquals(1, subject.getIdleConnections());
+    // The idle connection is reused
+    Connection second = subject.getConnection();
+    Connection third = subject.getConnection();
+    assertEquals(2, subject.getTotalConnections());
+    verify(dataSource, times(2)).getPooledConnection();
+    second.close();
+    third.close();
+    assertEquals(2, subject.getIdleConnections());
+  }
+
+  @Test
+  public void testTimeout() throws SQLException {
+    CloudSpannerConnectionPool subject = createPool(createDataSource(), 2, 0L, 0L);
+    subject.getConnection();
+    subject.getConnection();
+    thrown.expect(CloudSpannerSQLException.class);
+    thrown.expectMessage("Timeout while waiting for a connection from the pool");
+    subject.getConnection();
+  }
+
+  @Test
+  public void testMaxLifetime() throws Exception {
+    CloudSpannerConnectionPoolDataSource dataSource = createDataSource();
+    CloudSpannerConnectionPool subject = createPool(dataSource, 2, 1L, 0L);
+    subject.getConnection().close();
+    Thread.sleep(5L);
+    subject.getConnection().close();
+    verify(dataSource, times(2)).getPooledConnection();
+    verify(physicalConnections.get(0)).close();
+  }
+
+  @Test
+  public void testClosedPhysicalConnection() throws SQLException {
+    CloudSpannerConnectionPoolDataSource dataSource = createDataSource();
+    CloudSpannerConnectionPool subject = createPool(dataSource, 2, 0L, 0L);
+    Connection connection = subject.getConnection();
+    connection.close();
+    when(physicalConnections.get(0).isClosed()).thenReturn(true);
+    subject.getConnection();
+    verify(dataSource, times(2)).getPooledConnection();
+    assertEquals(1, subject.getTotalConnections());
+  }
+
+  @Test
+  public void testLeakDetection() throws Exception {
+    StringWriter log = new StringWriter();
+    DriverManager.setLogWriter(new PrintWriter(log));
+    try {
+      CloudSpannerConnectionPool subject = createPool(createDataSource(), 2, 0L, 10L);
+      subject.getConnection();
+      long deadline = System.currentTimeMillis() + 5000L;
+      while (!log.toString().contains("Possible connection leak")
+          && System.currentTimeMillis() < deadline)
+        Thread.sleep(50L);
+      assertTrue(log.toString().contains("Possible connection leak"));
+      assertTrue(log.toString().contains("Connection borrowed here"));
+    } finally {
+      DriverManager.setLogWriter(null);
+    }
+  }
+
+  @Test
+  public void testClose() throws SQLException {
+    CloudSpannerConnectionPool subject = createPool(createDataSource(), 2, 0L, 0L);
+    Connection idle = subject.getConnection();
+    Connection active = subject.getConnection();
+    idle.close();
+    subject.close();
+    verify(physicalConnections.get(0)).close();
+    active.close();
+    verify(physicalConnections.get(1)).close();
+    assertEquals(0, subject.getTotalConnections());
+    thrown.expect(CloudSpannerSQLException.class);
+    thrown.expectMessage("This connection pool has been closed");
+    subject.getConnection();
+  }
+
+}
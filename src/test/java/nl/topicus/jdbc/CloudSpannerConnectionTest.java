@@ -3,6 +3,7 @@ package nl.topicus.jdbc;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -227,6 +228,12 @@ public class CloudSpannerConnectionTest {
     assertTrue(connection.isBatchReadOnly());
     connection.resetDynamicConnectionProperty("BatchReadOnlyMode");
     assertFalse(connection.isBatchReadOnly());
+
+    connection.setDynamicConnectionProperty("UseSchemaSnapshot", "true");
+    assertFalse(connection.isOriginalUseSchemaSnapshot());
+    assertTrue(connection.isUseSchemaSnapshot());
+    connection.resetDynamicConnectionProperty("UseSchemaSnapshot");
+    assertFalse(connection.isUseSchemaSnapshot());
   }
 
   @Test
@@ -246,16 +253,100 @@ public class CloudSpannerConnectionTest {
     assertFalse(connection.isValid(1));
   }
 
+  @Test
+  public void testIsValidWithinValidationWindow() throws SQLException {
+    Properties properties = createDefaultProperties();
+    properties.setProperty("ValidationWindow", "60000");
+    try (CloudSpannerConnection connection = createConnection(properties);
+        CloudSpannerConnection other = createConnection(properties)) {
+      assertEquals(60000L, connection.getValidationWindow());
+      assertEquals(0L, subject.getValidationWindow());
+      // A successful call on any connection using the same Spanner instance makes a query
+      // unnecessary
+      other.recordSuccessfulCall();
+      assertTrue(connection.isValid(0));
+      assertTrue(connection.isValid(1));
+      connection.close();
+      assertFalse(connection.isValid(1));
+    }
+  }
+
+  @Test
+  public void testLargeScrollableResultSetMemoryThreshold() throws SQLException {
+    Properties properties = createDefaultProperties();
+    properties.setProperty("ScrollableResultSetMemoryThreshold", "10000000000");
+    try (CloudSpannerConnection connection = createConnection(properties)) {
+      assertEquals(10000000000L, connection.getScrollableResultSetMemoryThreshold());
+    }
+  }
+
+  @Test
+  public void testScrollSensitiveStatementIsDowngraded() throws SQLException {
+    try (CloudSpannerConnection connection = createConnection(createDefaultProperties())) {
+      Statement statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE,
+          ResultSet.CONCUR_READ_ONLY);
+      assertNull(statement.getWarnings());
+      assertNull(connection.getWarnings());
+
+      statement =
+          connection.createStatement(ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY);
+      assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, statement.getResultSetType());
+      assertNotNull(statement.getWarnings());
+      assertNotNull(connection.getWarnings());
+      statement.clearWarnings();
+      assertNull(statement.getWarnings());
+      connection.clearWarnings();
+      assertNull(connection.getWarnings());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeValidationWindow() {
+    subject.setValidationWindow(-1L);
+  }
+
+  @Test
+  public void testValidationWindowConnectionProperty() throws SQLException {
+    Properties properties = createDefaultProperties();
+    properties.setProperty("ValidationWindow", "60000");
+    try (CloudSpannerConnection connection = createConnection(properties);
+        Statement statement = connection.createStatement()) {
+      assertEquals(1,
+          statement.executeUpdate("SET_CONNECTION_PROPERTY ValidationWindow=1000"));
+      assertEquals(1000L, connection.getValidationWindow());
+      try (ResultSet rs =
+          statement.executeQuery("GET_CONNECTION_PROPERTY ValidationWindow")) {
+        assertTrue(rs.next());
+        assertEquals("1000", rs.getString("VALUE"));
+        assertFalse(rs.next());
+      }
+      assertEquals(1, statement.executeUpdate("RESET_CONNECTION_PROPERTY ValidationWindow"));
+      assertEquals(60000L, connection.getValidationWindow());
+
+      thrown.expect(SQLException.class);
+      thrown.expectMessage("ValidationWindow may not be negative");
+      statement.executeUpdate("SET_CONNECTION_PROPERTY ValidationWindow=-1");
+    }
+  }
+
   @Test
   public void testGetDynamicConnectionProperties() throws SQLException {
     Properties properties = createDefaultProperties();
     try (CloudSpannerConnection connection = createConnection(properties)) {
-      testGetDynamicConnectionProperty(connection, null, 5);
+      testGetDynamicConnectionProperty(connection, null, 13);
       testGetDynamicConnectionProperty(connection, "ALLOWEXTENDEDMODE", 1);
       testGetDynamicConnectionProperty(connection, "ASYNCDDLOPERATIONS", 1);
       testGetDynamicConnectionProperty(connection, "AUTOBATCHDDLOPERATIONS", 1);
       testGetDynamicConnectionProperty(connection, "REPORTDEFAULTSCHEMAASNULL", 1);
       testGetDynamicConnectionProperty(connection, "BATCHREADONLYMODE", 1);
+      testGetDynamicConnectionProperty(connection, "USESCHEMASNAPSHOT", 1);
+      testGetDynamicConnectionProperty(connection, "VALIDATIONWINDOW", 1);
+      testGetDynamicConnectionProperty(connection, "MINSESSIONS", 1);
+      testGetDynamicConnectionProperty(connection, "MAXSESSIONS", 1);
+      testGetDynamicConnectionProperty(connection, "WRITESESSIONSFRACTION", 1);
+      testGetDynamicConnectionProperty(connection, "KEEPALIVEINTERVALMINUTES", 1);
+      testGetDynamicConnectionProperty(connection, "NUMCHANNELS", 1);
+      testGetDynamicConnectionProperty(connection, "FAILIFPOOLEXHAUSTED", 1);
       testGetDynamicConnectionProperty(connection, "NOT_A_PROPERTY", 0);
     }
   }
@@ -16,8 +16,11 @@ import org.junit.experimental.categories.Category;
 import org.mockito.Mockito;
 import com.google.cloud.ByteArray;
 import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.Code;
+import com.google.cloud.spanner.Type.StructField;
 import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
 import nl.topicus.jdbc.statement.CloudSpannerStatement;
 import nl.topicus.jdbc.test.category.UnitTest;
@@ -56,31 +59,70 @@ public class CloudSpannerDataTypeTest {
     }
   }
 
+  @Test
+  public void testGetArrayData() {
+    ResultSet rs = ResultSets.forRows(
+        Type.struct(StructField.of("LONGS", Type.array(Type.int64())),
+            StructField.of("LONGS_WITH_NULL", Type.array(Type.int64())),
+            StructField.of("DOUBLES", Type.array(Type.float64())),
+            StructField.of("BOOLS", Type.array(Type.bool())),
+            StructField.of("STRINGS", Type.array(Type.string())),
+            StructField.of("DOUBLES_WITH_NULL", Type.array(Type.float64())),
+            StructField.of("BOOLS_WITH_NULL", Type.array(Type.bool()))),
+        Arrays.asList(Struct.newBuilder().set("LONGS").toInt64Array(new long[] {1L, 2L})
+            .set("LONGS_WITH_NULL").toInt64Array(Arrays.asList(1L, null)).set("DOUBLES")
+            .toFloat64Array(new double[] {1.5d}).set("BOOLS")
+            .toBoolArray(new boolean[] {true, false}).set("STRINGS")
+            .toStringArray(Arrays.asList("foo", null)).set("DOUBLES_WITH_NULL")
+            .toFloat64Array(Arrays.asList(null, 2.5d)).set("BOOLS_WITH_NULL")
+            .toBoolArray(Arrays.asList(true, null)).build()));
+    assertTrue(rs.next());
+    assertArrayEquals(new long[] {1L, 2L},
+        (long[]) CloudSpannerDataType.INT64.getArrayData(rs, 0));
+    assertArrayEquals(new Long[] {1L, null},
+        (Long[]) CloudSpannerDataType.INT64.getArrayData(rs, 1));
+    assertArrayEquals(new double[] {1.5d},
+        (double[]) CloudSpannerDataType.FLOAT64.getArrayData(rs, 2), 0d);
+    assertArrayEquals(new boolean[] {true, false},
+        (boolean[]) CloudSpannerDataType.BOOL.getArrayData(rs, 3));
+    assertArrayEquals(new String[] {"foo", null},
+        (String[]) CloudSpannerDataType.STRING.getArrayData(rs, 4));
+    assertArrayEquals(new Double[] {null, 2.5d},
+        (Double[]) CloudSpannerDataType.FLOAT64.getArrayData(rs, 5));
+    assertArrayEquals(new Boolean[] {true, null},
+        (Boolean[]) CloudSpannerDataType.BOOL.getArrayData(rs, 6));
+  }
+
   @Test
   public void testGetArrayElements() throws SQLException {
     ResultSet googleResultSet = Mockito.mock(ResultSet.class);
     when(googleResultSet.getBooleanList(0)).thenReturn(Arrays.asList(true, true, false));
+    when(googleResultSet.getBooleanArray(0)).thenReturn(new boolean[] {true, true, false});
     when(googleResultSet.getBytesList(0))
         .thenReturn(Arrays.asList(ByteArray.copyFrom("foo"), ByteArray.copyFrom("bar")));
     when(googleResultSet.getDateList(0))
         .thenReturn(Arrays.asList(com.google.cloud.Date.fromYearMonthDay(2017, 10, 1),
             com.google.cloud.Date.fromYearMonthDay(2017, 9, 1)));
     when(googleResultSet.getDoubleList(0)).thenReturn(Arrays.asList(1d, 2d, 3d));
+    when(googleResultSet.getDoubleArray(0)).thenReturn(new double[] {1d, 2d, 3d});
     when(googleResultSet.getLongList(0)).thenReturn(Arrays.asList(1l, 2l, 3l));
+    when(googleResultSet.getLongArray(0)).thenReturn(new long[] {1l, 2l, 3l});
     when(googleResultSet.getStringList(0)).thenReturn(Arrays.asList("foo", "bar"));
     when(googleResultSet.getTimestampList(0)).thenReturn(
         Arrays.asList(com.google.cloud.Timestamp.now(), com.google.cloud.Timestamp.now()));
     when(googleResultSet.next()).thenReturn(true);
 
-    try (CloudSpannerResultSet rs = new CloudSpannerResultSet(
-        Mockito.mock(CloudSpannerStatement.class), googleResultSet, "SELECT * FROM FOO")) {
-      rs.next();
-      for (CloudSpannerDataType type : CloudSpannerDataType.values()) {
-        when(googleResultSet.getColumnType(0)).thenReturn(Type.array(type.getGoogleType()));
+    for (CloudSpannerDataType type : CloudSpannerDataType.values()) {
+      // The column types of a result set are fixed, so create a new result set for each type
+      when(googleResultSet.getType())
+          .thenReturn(Type.struct(StructField.of("COL", Type.array(type.getGoogleType()))));
+      when(googleResultSet.getColumnType(0)).thenReturn(Type.array(type.getGoogleType()));
+      try (CloudSpannerResultSet rs = new CloudSpannerResultSet(
+          Mockito.mock(CloudSpannerStatement.class), googleResultSet, "SELECT * FROM FOO")) {
+        rs.next();
         Array array = rs.getArray(1);
         assertTrue(array.getArray().getClass().isArray());
-        assertArrayEquals((Object[]) array.getArray(),
-            (Object[]) ((Array) rs.getObject(1)).getArray());
+        assertEquals(array, rs.getObject(1));
       }
     }
   }
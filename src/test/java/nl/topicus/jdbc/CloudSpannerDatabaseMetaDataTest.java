@@ -5,7 +5,11 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
@@ -13,12 +17,23 @@ import java.sql.RowIdLifetime;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 import com.google.cloud.spanner.BatchClient;
 import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import nl.topicus.jdbc.resultset.CloudSpannerResultSet;
+import nl.topicus.jdbc.statement.CloudSpannerPreparedStatement;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
 import nl.topicus.jdbc.test.category.UnitTest;
 
 @Category(UnitTest.class)
@@ -652,7 +667,7 @@ public class CloudSpannerDatabaseMetaDataTest {
   @Test
   public void testSupportsResultSetType() throws SQLException {
     assertTrue(testSubject.supportsResultSetType(ResultSet.TYPE_FORWARD_ONLY));
-    assertFalse(testSubject.supportsResultSetType(ResultSet.TYPE_SCROLL_INSENSITIVE));
+    assertTrue(testSubject.supportsResultSetType(ResultSet.TYPE_SCROLL_INSENSITIVE));
     assertFalse(testSubject.supportsResultSetType(ResultSet.TYPE_SCROLL_SENSITIVE));
   }
 
@@ -662,7 +677,7 @@ public class CloudSpannerDatabaseMetaDataTest {
         ResultSet.CONCUR_READ_ONLY));
     assertFalse(testSubject.supportsResultSetConcurrency(ResultSet.TYPE_FORWARD_ONLY,
         ResultSet.CONCUR_UPDATABLE));
-    assertFalse(testSubject.supportsResultSetConcurrency(ResultSet.TYPE_SCROLL_INSENSITIVE,
+    assertTrue(testSubject.supportsResultSetConcurrency(ResultSet.TYPE_SCROLL_INSENSITIVE,
         ResultSet.CONCUR_READ_ONLY));
     assertFalse(testSubject.supportsResultSetConcurrency(ResultSet.TYPE_SCROLL_INSENSITIVE,
         ResultSet.CONCUR_UPDATABLE));
@@ -822,4 +837,90 @@ public class CloudSpannerDatabaseMetaDataTest {
   public void testGeneratedKeyAlwaysReturned() throws SQLException {
     assertFalse(testSubject.generatedKeyAlwaysReturned());
   }
+
+  @Test
+  public void testGetTablesFromSnapshot() throws SQLException {
+    CloudSpannerConnection connection = MockCloudSpannerConnection.create(URL);
+    when(connection.isUseSchemaSnapshot()).thenReturn(true);
+    when(connection.getMetaDataStore()).thenReturn(new MetaDataStore(connection));
+    CloudSpannerStatement snapshotStatement = mock(CloudSpannerStatement.class);
+    when(connection.createStatement()).thenReturn(snapshotStatement);
+    CloudSpannerPreparedStatement statement = mock(CloudSpannerPreparedStatement.class);
+    when(statement.executeQuery()).then(invocation -> {
+      Type type = Type.struct(StructField.of("TABLE_CAT", Type.string()),
+          StructField.of("TABLE_SCHEM", Type.string()), StructField.of("TABLE_NAME", Type.string()));
+      List<Struct> rows = new ArrayList<>();
+      for (String table : new String[] {"BAR", "FOO", "FOO_BAR", "FOOXBAR"})
+        rows.add(Struct.newBuilder().set("TABLE_CAT").to((String) null).set("TABLE_SCHEM")
+            .to((String) null).set("TABLE_NAME").to(table).build());
+      return new CloudSpannerResultSet(statement, ResultSets.forRows(type, rows), null);
+    });
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    CloudSpannerDatabaseMetaData metaData = new CloudSpannerDatabaseMetaData(connection);
+
+    assertEquals(Arrays.asList("BAR", "FOO", "FOO_BAR", "FOOXBAR"),
+        getTableNames(metaData.getTables(null, null, null, null)));
+    assertEquals(Arrays.asList("FOO", "FOO_BAR", "FOOXBAR"),
+        getTableNames(metaData.getTables("", "", "foo%", null)));
+    assertEquals(Arrays.asList("FOO_BAR", "FOOXBAR"),
+        getTableNames(metaData.getTables(null, null, "FOO_BAR", null)));
+    assertEquals(Arrays.asList("FOO_BAR"),
+        getTableNames(metaData.getTables(null, null, "FOO\\_BAR", null)));
+    assertEquals(Collections.emptyList(),
+        getTableNames(metaData.getTables("catalog", null, null, null)));
+    // All calls are answered by the rows of one query
+    verify(connection, times(1)).prepareStatement(anyString());
+    // The statements are closed together with their result sets
+    verify(statement).closeOnCompletion();
+    verify(snapshotStatement, times(5)).closeOnCompletion();
+  }
+
+  @Test
+  public void testConstantResultSets() throws SQLException {
+    CloudSpannerConnection connection = MockCloudSpannerConnection.create(URL);
+    CloudSpannerDatabaseMetaData metaData = new CloudSpannerDatabaseMetaData(connection);
+
+    ResultSet tableTypes = metaData.getTableTypes();
+    assertTrue(tableTypes.next());
+    assertEquals("TABLE", tableTypes.getString("TABLE_TYPE"));
+    assertFalse(tableTypes.next());
+
+    ResultSet typeInfo = metaData.getTypeInfo();
+    assertEquals(18, typeInfo.getMetaData().getColumnCount());
+    List<String> typeNames = new ArrayList<>();
+    while (typeInfo.next()) {
+      typeNames.add(typeInfo.getString("TYPE_NAME"));
+      assertEquals(typeInfo.getString("TYPE_NAME"), typeInfo.getString("LOCAL_TYPE_NAME"));
+      assertEquals(DatabaseMetaData.typeNullable, typeInfo.getInt("NULLABLE"));
+      if ("STRING".equals(typeInfo.getString("TYPE_NAME"))) {
+        assertEquals(Types.NVARCHAR, typeInfo.getInt("DATA_TYPE"));
+        assertEquals("'", typeInfo.getString("LITERAL_PREFIX"));
+        assertTrue(typeInfo.getBoolean("CASE_SENSITIVE"));
+        assertEquals(DatabaseMetaData.typeSearchable, typeInfo.getInt("SEARCHABLE"));
+      }
+    }
+    assertEquals(Arrays.asList("BOOL", "BYTES", "DATE", "FLOAT64", "INT64", "STRING", "TIMESTAMP"),
+        typeNames);
+
+    ResultSet procedures = metaData.getProcedures(null, null, null);
+    assertEquals(9, procedures.getMetaData().getColumnCount());
+    assertEquals("PROCEDURE_NAME", procedures.getMetaData().getColumnName(3));
+    assertFalse(procedures.next());
+    assertFalse(metaData.getCatalogs().next());
+    assertEquals(8, metaData.getColumnPrivileges(null, null, "FOO", null).getMetaData()
+        .getColumnCount());
+    assertEquals(7,
+        metaData.getTablePrivileges(null, null, null).getMetaData().getColumnCount());
+    assertEquals(8, metaData.getVersionColumns(null, null, "FOO").getMetaData().getColumnCount());
+    assertFalse(metaData.getPseudoColumns(null, null, "FOO", null).next());
+    // None of the results above require a query on the database
+    verify(connection, times(0)).prepareStatement(anyString());
+  }
+
+  private static List<String> getTableNames(ResultSet rs) throws SQLException {
+    List<String> res = new ArrayList<>();
+    while (rs.next())
+      res.add(rs.getString("TABLE_NAME"));
+    return res;
+  }
 }
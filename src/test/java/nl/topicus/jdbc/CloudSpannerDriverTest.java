@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -11,10 +12,12 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.EnvironmentVariables;
@@ -25,6 +28,8 @@ import org.junit.runner.RunWith;
 import com.google.auth.oauth2.ComputeEngineCredentials;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.SessionPoolOptions;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 import nl.topicus.jdbc.test.category.UnitTest;
 import nl.topicus.jdbc.test.util.EnvironmentVariablesUtil;
 
@@ -162,7 +167,9 @@ public class CloudSpannerDriverTest {
       for (DriverPropertyInfo property : properties) {
         if (property.name.equals("AllowExtendedMode") || property.name.equals("AsyncDdlOperations")
             || property.name.equals("AutoBatchDdlOperations")
-            || property.name.equals("BatchReadOnlyMode") || property.name.equals("UseCustomHost"))
+            || property.name.equals("BatchReadOnlyMode") || property.name.equals("UseCustomHost")
+            || property.name.equals("UseSchemaSnapshot")
+            || property.name.equals("FailIfPoolExhausted"))
           assertEquals("false", property.value);
         else if (property.name.equals("ReportDefaultSchemaAsNull"))
           assertEquals("true", property.value);
@@ -230,15 +237,18 @@ public class CloudSpannerDriverTest {
   }
 
   public static class ConnectAndCloseTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
     @Test
     public void testConnect() throws SQLException, NoSuchFieldException, SecurityException,
         IllegalArgumentException, IllegalAccessException {
       CloudSpannerDriver driver = CloudSpannerDriver.getDriver();
       assertNotNull(driver);
-      Field spannersField = CloudSpannerDriver.class.getDeclaredField("spanners");
+      Field spannersField = SpannerRegistry.class.getDeclaredField("spanners");
       spannersField.setAccessible(true);
       @SuppressWarnings("rawtypes")
-      Map spanners = (Map) spannersField.get(driver);
+      Map spanners = (Map) spannersField.get(driver.getSpannerRegistry());
       // Clear spanners to have a known initial situation
       spanners.clear();
 
@@ -278,6 +288,76 @@ public class CloudSpannerDriverTest {
           "jdbc:cloudspanner://localhost;Project=adroit-hall-123;Instance=test-instance;Database=testdb2;OAuthAccessToken="
               + token);
       assertEquals(4, spanners.size());
+
+      // Connections with different session pool settings do not share a Spanner instance
+      DriverManager.getConnection(
+          "jdbc:cloudspanner://localhost;Project=adroit-hall-123;Instance=test-instance;Database=testdb2;MaxSessions=100");
+      assertEquals(5, spanners.size());
+      DriverManager.getConnection(
+          "jdbc:cloudspanner://localhost;Project=adroit-hall-123;Instance=test-instance;Database=testdb;MaxSessions=100");
+      assertEquals(5, spanners.size());
+      DriverManager.getConnection(
+          "jdbc:cloudspanner://localhost;Project=adroit-hall-123;Instance=test-instance;Database=testdb;MaxSessions=100;NumChannels=2");
+      assertEquals(6, spanners.size());
+    }
+
+    @Test
+    public void testConnectWithSessionPoolSettings() throws SQLException {
+      try (CloudSpannerConnection connection = (CloudSpannerConnection) DriverManager.getConnection(
+          "jdbc:cloudspanner://localhost;Project=adroit-hall-xxx;Instance=test-instance;Database=testdb;MinSessions=0;MaxSessions=50;WriteSessionsFraction=0.5;KeepAliveIntervalMinutes=20;NumChannels=2;FailIfPoolExhausted=true")) {
+        SessionPoolOptions options = connection.getSpanner().getOptions().getSessionPoolOptions();
+        assertEquals(0, options.getMinSessions());
+        assertEquals(50, options.getMaxSessions());
+        assertEquals(0.5f, options.getWriteSessionsFraction(), 0.0f);
+        assertEquals(20, options.getKeepAliveIntervalMinutes());
+        assertTrue(options.isFailIfPoolExhausted());
+        assertEquals(2, connection.getSpanner().getOptions().getRpcChannels().size());
+        try (ResultSet rs =
+            connection.createStatement().executeQuery("GET_CONNECTION_PROPERTY MaxSessions")) {
+          assertTrue(rs.next());
+          assertEquals("50", rs.getString("VALUE"));
+        }
+      }
+    }
+
+    @Test
+    public void testConnectFailureReleasesSpanner() throws SQLException, NoSuchFieldException,
+        SecurityException, IllegalArgumentException, IllegalAccessException {
+      CloudSpannerDriver driver = CloudSpannerDriver.getDriver();
+      String url =
+          "jdbc:cloudspanner://localhost;Project=adroit-hall-xxx;Instance=test-instance;Database=testdb";
+      try (CloudSpannerConnection connection = driver.connect(url, new Properties())) {
+        AtomicInteger references = getReferences(driver, connection);
+        int count = references.get();
+        try {
+          // The connection is created, but setting the validation window fails
+          driver.connect(url + ";ValidationWindow=-1", new Properties());
+          fail("missing expected exception");
+        } catch (IllegalArgumentException e) {
+          // ignore
+        }
+        assertEquals(count, references.get());
+      }
+    }
+
+    private static AtomicInteger getReferences(CloudSpannerDriver driver,
+        CloudSpannerConnection connection) throws NoSuchFieldException, SecurityException,
+        IllegalArgumentException, IllegalAccessException {
+      Field instancesField = SpannerRegistry.class.getDeclaredField("instances");
+      instancesField.setAccessible(true);
+      Map<?, ?> instances = (Map<?, ?>) instancesField.get(driver.getSpannerRegistry());
+      Object entry = instances.get(connection.getSpanner());
+      Field referencesField = entry.getClass().getDeclaredField("references");
+      referencesField.setAccessible(true);
+      return (AtomicInteger) referencesField.get(entry);
+    }
+
+    @Test
+    public void testConnectWithInvalidSessionPoolSettings() throws SQLException {
+      thrown.expect(CloudSpannerSQLException.class);
+      thrown.expectMessage("Invalid session pool settings");
+      DriverManager.getConnection(
+          "jdbc:cloudspanner://localhost;Project=adroit-hall-xxx;Instance=test-instance;Database=testdb;MinSessions=100;MaxSessions=50");
     }
   }
 
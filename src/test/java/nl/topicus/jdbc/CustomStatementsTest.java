@@ -21,15 +21,19 @@ import org.junit.experimental.categories.Category;
 import org.mockito.internal.stubbing.answers.Returns;
 import com.google.cloud.spanner.DatabaseAdminClient;
 import com.google.cloud.spanner.Operation;
+import com.google.common.collect.ImmutableList;
 import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
 import nl.topicus.jdbc.CloudSpannerConnection.CloudSpannerDatabaseSpecification;
 import nl.topicus.jdbc.test.category.UnitTest;
 
 @Category(UnitTest.class)
 public class CustomStatementsTest {
-  private static final List<String> CONNECTION_PROPERTIES =
+  private static final List<String> BOOLEAN_CONNECTION_PROPERTIES =
       Arrays.asList("AllowExtendedMode", "AsyncDdlOperations", "AutoBatchDdlOperations",
-          "ReportDefaultSchemaAsNull", "BatchReadOnlyMode");
+          "ReportDefaultSchemaAsNull", "BatchReadOnlyMode", "UseSchemaSnapshot");
+
+  private static final List<String> CONNECTION_PROPERTIES = ImmutableList.<String>builder()
+      .addAll(BOOLEAN_CONNECTION_PROPERTIES).add("ValidationWindow").build();
 
   private Connection connection;
 
@@ -62,7 +66,7 @@ public class CustomStatementsTest {
   public void testSetConnectionProperty() throws SQLException {
     connection.setAutoCommit(false);
     Statement statement = connection.createStatement();
-    for (String prop : CONNECTION_PROPERTIES) {
+    for (String prop : BOOLEAN_CONNECTION_PROPERTIES) {
       for (Boolean value : new Boolean[] {Boolean.TRUE, Boolean.FALSE}) {
         int count = statement.executeUpdate("SET_CONNECTION_PROPERTY " + prop + "=" + value);
         assertEquals(1, count);
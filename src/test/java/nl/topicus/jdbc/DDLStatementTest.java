@@ -9,18 +9,32 @@ import static nl.topicus.jdbc.DDLStatement.ObjectType.TABLE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.ReadOnlyTransaction;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.cloud.spanner.Value;
 import nl.topicus.jdbc.DDLStatement.Command;
 import nl.topicus.jdbc.DDLStatement.ExistsStatement;
 import nl.topicus.jdbc.DDLStatement.ObjectType;
@@ -302,6 +316,41 @@ public class DDLStatementTest {
     }
   }
 
+  @Test
+  public void testGetStatementsToExecute() throws SQLException {
+    // Existing tables: FOO, existing indexes: BAR
+    Set<String> existing = new HashSet<>(Arrays.asList("FOO", "BAR"));
+    ReadOnlyTransaction context = mock(ReadOnlyTransaction.class);
+    when(context.executeQuery(any(Statement.class))).then(invocation -> {
+      Statement statement = invocation.getArgument(0);
+      Value names = statement.getParameters().get("names");
+      List<Struct> rows = new ArrayList<>();
+      for (String name : names.getStringArray())
+        if (existing.contains(name))
+          rows.add(Struct.newBuilder().set("NAME").to(name).build());
+      return ResultSets.forRows(Type.struct(StructField.of("NAME", Type.string())), rows);
+    });
+    DatabaseClient dbClient = mock(DatabaseClient.class);
+    when(dbClient.singleUse()).thenReturn(context);
+    CloudSpannerConnection connection = mock(CloudSpannerConnection.class);
+    when(connection.getDbClient()).thenReturn(dbClient);
+
+    List<DDLStatement> statements = DDLStatement.parseDdlStatements(Arrays.asList(
+        "CREATE TABLE IF NOT EXISTS foo (ID INT64 NOT NULL) PRIMARY KEY (ID)",
+        "CREATE TABLE IF NOT EXISTS TAB (ID INT64 NOT NULL) PRIMARY KEY (ID)",
+        "CREATE INDEX IF NOT EXISTS TAB_IDX ON TAB (ID)",
+        "CREATE INDEX IF NOT EXISTS TAB_IDX ON TAB (ID)", "DROP INDEX IF EXISTS BAR",
+        "CREATE INDEX IF NOT EXISTS BAR ON FOO (ID)", "DROP TABLE IF EXISTS OTHER",
+        "CREATE TABLE TAB2 (ID INT64 NOT NULL) PRIMARY KEY (ID)",
+        "CREATE TABLE IF NOT EXISTS TAB2 (ID INT64 NOT NULL) PRIMARY KEY (ID)"));
+    List<String> sql = DDLStatement.getStatementsToExecute(connection, statements);
+    assertEquals(Arrays.asList("CREATE TABLE   TAB (ID INT64 NOT NULL) PRIMARY KEY (ID)",
+        "CREATE INDEX   TAB_IDX ON TAB (ID)", "DROP INDEX   BAR", "CREATE INDEX   BAR ON FOO (ID)",
+        "CREATE TABLE TAB2 (ID INT64 NOT NULL) PRIMARY KEY (ID)"), sql);
+    // One query for the tables and one query for the indexes
+    verify(context, times(2)).executeQuery(any(Statement.class));
+  }
+
   private void assertStatement(DDLStatement statement, Command command, ObjectType objectType,
       ExistsStatement exists, String objectName) {
     assertEquals(command, statement.getCommand());
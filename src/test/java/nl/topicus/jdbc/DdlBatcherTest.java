@@ -0,0 +1,232 @@
+package nl.topicus.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.Operation;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.protobuf.Timestamp;
+import com.google.spanner.admin.database.v1.UpdateDatabaseDdlMetadata;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class DdlBatcherTest {
+  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+  private final List<List<String>> executed = Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private static List<DDLStatement> parse(String... sql) throws SQLException {
+    return DDLStatement.parseDdlStatements(Arrays.asList(sql));
+  }
+
+  private Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> createExecutor(
+      SpannerException error) {
+    return createExecutor(null, error);
+  }
+
+  /**
+   * Creates an executor that fails at the given statement, or at the first statement if no failing
+   * statement is given. The statements before the failing statement are reported as applied.
+   */
+  private Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> createExecutor(
+      String failingStatement, SpannerException error) {
+    return statements -> {
+      executed.add(statements);
+      @SuppressWarnings("unchecked")
+      Operation<Void, UpdateDatabaseDdlMetadata> op = mock(Operation.class);
+      when(op.waitFor()).thenReturn(op);
+      when(op.isDone()).thenReturn(true);
+      int failingIndex = failingStatement == null ? 0 : statements.indexOf(failingStatement);
+      if (error == null || failingIndex == -1) {
+        when(op.getResult()).thenReturn(null);
+      } else {
+        UpdateDatabaseDdlMetadata.Builder metadata = UpdateDatabaseDdlMetadata.newBuilder();
+        for (int i = 0; i < failingIndex; i++)
+          metadata.addCommitTimestamps(Timestamp.getDefaultInstance());
+        when(op.getMetadata()).thenReturn(metadata.build());
+        when(op.getResult()).thenThrow(error);
+      }
+      return op;
+    };
+  }
+
+  @Test
+  public void testCoalesce() throws Exception {
+    DdlBatcher subject = new DdlBatcher(200L, TimeUnit.MILLISECONDS, scheduler);
+    assertTrue(subject.isEnabled());
+    CompletableFuture<Void> first = subject.submit("db1",
+        parse("CREATE TABLE FOO (ID INT64) PRIMARY KEY (ID)"), createExecutor(null));
+    CompletableFuture<Void> second = subject.submit("db1",
+        parse("CREATE TABLE FOO (ID INT64) PRIMARY KEY (ID)",
+            "CREATE TABLE BAR (ID INT64) PRIMARY KEY (ID)"),
+        createExecutor(null));
+    CompletableFuture<Void> other = subject.submit("db2",
+        parse("CREATE TABLE BAZ (ID INT64) PRIMARY KEY (ID)"), createExecutor(null));
+    assertNotSame(first, second);
+    assertFalse(first.isDone());
+    first.get(10L, TimeUnit.SECONDS);
+    second.get(10L, TimeUnit.SECONDS);
+    other.get(10L, TimeUnit.SECONDS);
+    assertEquals(2, executed.size());
+    // Statements without an IF [NOT] EXISTS clause are not dropped, even if they are equal to a
+    // statement of another caller
+    assertTrue(executed.contains(Arrays.asList("CREATE TABLE FOO (ID INT64) PRIMARY KEY (ID)",
+        "CREATE TABLE FOO (ID INT64) PRIMARY KEY (ID)",
+        "CREATE TABLE BAR (ID INT64) PRIMARY KEY (ID)")));
+    assertTrue(executed.contains(Arrays.asList("CREATE TABLE BAZ (ID INT64) PRIMARY KEY (ID)")));
+
+    // A new batch is started after the previous batch has been sent
+    subject.submit("db1", parse("DROP TABLE BAR"), createExecutor(null)).get(10L,
+        TimeUnit.SECONDS);
+    assertEquals(3, executed.size());
+  }
+
+  @Test
+  public void testExistsClausesAreResolvedForCombinedBatch() throws Exception {
+    DdlBatcher subject = new DdlBatcher(200L, TimeUnit.MILLISECONDS, scheduler);
+    // Both callers have found that FOO does not exist and BAR does exist
+    CompletableFuture<Void> first = subject.submit("db1",
+        parse("CREATE TABLE IF NOT EXISTS FOO (ID INT64) PRIMARY KEY (ID)",
+            "DROP TABLE IF EXISTS BAR"),
+        createExecutor(null));
+    CompletableFuture<Void> second = subject.submit("db1",
+        parse("DROP TABLE IF EXISTS BAR",
+            "CREATE TABLE IF NOT EXISTS FOO (ID INT64) PRIMARY KEY (ID)",
+            "CREATE TABLE IF NOT EXISTS BAR (ID INT64) PRIMARY KEY (ID)"),
+        createExecutor(null));
+    first.get(10L, TimeUnit.SECONDS);
+    second.get(10L, TimeUnit.SECONDS);
+    assertEquals(Arrays.asList(Arrays.asList("CREATE TABLE   FOO (ID INT64) PRIMARY KEY (ID)",
+        "DROP TABLE   BAR", "CREATE TABLE   BAR (ID INT64) PRIMARY KEY (ID)")), executed);
+  }
+
+  @Test
+  public void testSkippedStatementIsExecutedIfEarlierStatementFails() throws Exception {
+    DdlBatcher subject = new DdlBatcher(100L, TimeUnit.MILLISECONDS, scheduler);
+    SpannerException error =
+        SpannerExceptionFactory.newSpannerException(ErrorCode.FAILED_PRECONDITION, "Some error");
+    Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> failing =
+        createExecutor("CREATE TABLE   FOO (ID INT64) PRIMARY KEY (ID)", error);
+    Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> executor =
+        statements -> executed.isEmpty() ? failing.apply(statements)
+            : createExecutor(null).apply(statements);
+    CompletableFuture<Void> failed = subject.submit("db1",
+        parse("CREATE TABLE IF NOT EXISTS FOO (ID INT64) PRIMARY KEY (ID)"), executor);
+    CompletableFuture<Void> skipped = subject.submit("db1",
+        parse("CREATE TABLE IF NOT EXISTS FOO (ID INT64) PRIMARY KEY (ID)"), executor);
+    try {
+      failed.get(10L, TimeUnit.SECONDS);
+      fail("missing expected exception");
+    } catch (ExecutionException e) {
+      assertSame(error, e.getCause());
+    }
+    skipped.get(10L, TimeUnit.SECONDS);
+    assertEquals(Arrays.asList(Arrays.asList("CREATE TABLE   FOO (ID INT64) PRIMARY KEY (ID)"),
+        Arrays.asList("CREATE TABLE   FOO (ID INT64) PRIMARY KEY (ID)")), executed);
+  }
+
+  @Test
+  public void testFailure() throws Exception {
+    DdlBatcher subject = new DdlBatcher(50L, TimeUnit.MILLISECONDS, scheduler);
+    SpannerException error =
+        SpannerExceptionFactory.newSpannerException(ErrorCode.FAILED_PRECONDITION, "Some error");
+    CompletableFuture<Void> future =
+        subject.submit("db1", parse("DROP TABLE FOO"), createExecutor(error));
+    try {
+      future.get(10L, TimeUnit.SECONDS);
+      fail("missing expected exception");
+    } catch (ExecutionException e) {
+      assertSame(error, e.getCause());
+    }
+  }
+
+  @Test
+  public void testFailureIsReportedToCallerOfFailedStatement() throws Exception {
+    DdlBatcher subject = new DdlBatcher(100L, TimeUnit.MILLISECONDS, scheduler);
+    SpannerException error =
+        SpannerExceptionFactory.newSpannerException(ErrorCode.FAILED_PRECONDITION, "Some error");
+    Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> executor =
+        createExecutor("DROP TABLE BAR", error);
+    CompletableFuture<Void> applied =
+        subject.submit("db1", parse("DROP TABLE FOO"), executor);
+    CompletableFuture<Void> failed = subject.submit("db1",
+        parse("DROP INDEX IDX_BAR", "DROP TABLE BAR"), executor);
+    CompletableFuture<Void> notReached =
+        subject.submit("db1", parse("DROP TABLE BAZ"), executor);
+    applied.get(10L, TimeUnit.SECONDS);
+    try {
+      failed.get(10L, TimeUnit.SECONDS);
+      fail("missing expected exception");
+    } catch (ExecutionException e) {
+      assertSame(error, e.getCause());
+    }
+    notReached.get(10L, TimeUnit.SECONDS);
+    // The statements after the failed statement are executed as a new operation
+    assertEquals(Arrays.asList(
+        Arrays.asList("DROP TABLE FOO", "DROP INDEX IDX_BAR", "DROP TABLE BAR", "DROP TABLE BAZ"),
+        Arrays.asList("DROP TABLE BAZ")), executed);
+  }
+
+  @Test
+  public void testRejectedBatchIsExecutedPerCaller() throws Exception {
+    DdlBatcher subject = new DdlBatcher(100L, TimeUnit.MILLISECONDS, scheduler);
+    SpannerException error =
+        SpannerExceptionFactory.newSpannerException(ErrorCode.INVALID_ARGUMENT, "Syntax error");
+    Function<List<String>, Operation<Void, UpdateDatabaseDdlMetadata>> executor = statements -> {
+      if (statements.contains("DROP TABLE WITH SYNTAX ERROR")) {
+        executed.add(statements);
+        throw error;
+      }
+      return createExecutor(null).apply(statements);
+    };
+    CompletableFuture<Void> valid =
+        subject.submit("db1", parse("DROP TABLE FOO"), executor);
+    CompletableFuture<Void> invalid =
+        subject.submit("db1", parse("DROP TABLE WITH SYNTAX ERROR"), executor);
+    valid.get(10L, TimeUnit.SECONDS);
+    try {
+      invalid.get(10L, TimeUnit.SECONDS);
+      fail("missing expected exception");
+    } catch (ExecutionException e) {
+      assertSame(error, e.getCause());
+    }
+    assertEquals(
+        Arrays.asList(Arrays.asList("DROP TABLE FOO", "DROP TABLE WITH SYNTAX ERROR"),
+            Arrays.asList("DROP TABLE FOO"), Arrays.asList("DROP TABLE WITH SYNTAX ERROR")),
+        executed);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDisabled() throws SQLException {
+    DdlBatcher subject = new DdlBatcher(0L, TimeUnit.MILLISECONDS, scheduler);
+    assertFalse(subject.isEnabled());
+    subject.submit("db1", parse("DROP TABLE FOO"), createExecutor(null));
+  }
+
+}
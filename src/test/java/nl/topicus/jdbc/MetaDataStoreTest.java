@@ -3,13 +3,24 @@ package nl.topicus.jdbc;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import java.lang.reflect.Field;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import com.google.common.base.Ticker;
+import nl.topicus.jdbc.MetaDataStore.ColumnMetaData;
+import nl.topicus.jdbc.MetaDataStore.QueryMetaData;
 import nl.topicus.jdbc.MetaDataStore.TableKeyMetaData;
 import nl.topicus.jdbc.test.category.UnitTest;
 import nl.topicus.jdbc.test.util.CloudSpannerTestObjects;
@@ -56,4 +67,125 @@ public class MetaDataStoreTest {
     }
   }
 
+  @Test
+  public void testGetColumns() throws SQLException {
+    MetaDataStore subject = new MetaDataStore(CloudSpannerTestObjects.createConnection());
+    assertEquals(3, subject.getTableColumns(null, "FOO").size());
+    ColumnMetaData col2 = subject.getColumn("", "foo", "col2");
+    assertNotNull(col2);
+    assertEquals("COL2", col2.getName());
+    assertEquals(100, col2.getColumnSize());
+    assertEquals(ResultSetMetaData.columnNullable, col2.getNullable());
+    assertEquals(ResultSetMetaData.columnNoNulls, subject.getColumn("", "FOO", "ID").getNullable());
+    assertNull(subject.getColumn("", "FOO", "COL3"));
+  }
+
+  @Test
+  public void testClearColumnsAndQueries() throws SQLException {
+    CloudSpannerConnection connection = CloudSpannerTestObjects.createConnection();
+    MetaDataStore subject = new MetaDataStore(connection);
+    QueryMetaData query = new QueryMetaData(Collections.emptyList(), Collections.emptyList(),
+        Collections.emptyList());
+    subject.putQueryMetaData("SELECT * FROM FOO", query);
+    assertSame(query, subject.getQueryMetaData("SELECT * FROM FOO"));
+    ColumnMetaData col1 = subject.getColumn(null, "FOO", "COL1");
+    assertSame(col1, subject.getColumn(null, "FOO", "COL1"));
+    Mockito.verify(connection.getMetaData(), Mockito.times(1)).getColumns(Mockito.any(),
+        Mockito.any(), Mockito.eq("FOO"), Mockito.any());
+
+    subject.clearTable("foo");
+    assertNull(subject.getQueryMetaData("SELECT * FROM FOO"));
+    assertNotSame(col1, subject.getColumn(null, "FOO", "COL1"));
+
+    subject.putQueryMetaData("SELECT * FROM FOO", query);
+    subject.clear();
+    assertNull(subject.getQueryMetaData("SELECT * FROM FOO"));
+  }
+
+  @Test
+  public void testSharedCache() throws SQLException {
+    SchemaMetaDataCache cache = new SchemaMetaDataCache();
+    CloudSpannerConnection connection = CloudSpannerTestObjects.createConnection();
+    MetaDataStore first = new MetaDataStore(connection, cache, "db");
+    MetaDataStore second =
+        new MetaDataStore(CloudSpannerTestObjects.createConnection(), cache, "db");
+    MetaDataStore other =
+        new MetaDataStore(CloudSpannerTestObjects.createConnection(), cache, "other");
+    assertArrayEquals(new String[] {"ID"}, first.getTable("FOO").getKeyColumns().toArray());
+    assertArrayEquals(new String[] {"ID"}, second.getTable("foo").getKeyColumns().toArray());
+    ColumnMetaData col1 = first.getColumn(null, "FOO", "COL1");
+    assertSame(col1, second.getColumn(null, "FOO", "COL1"));
+    assertNotSame(col1, other.getColumn(null, "FOO", "COL1"));
+    // The key column types are derived from the cached columns
+    assertEquals(Collections.singletonList(Types.BIGINT),
+        second.getTable("FOO").getKeyColumnTypes());
+    Mockito.verify(connection.getMetaData(), Mockito.times(1)).getPrimaryKeys(Mockito.any(),
+        Mockito.any(), Mockito.eq("FOO"));
+    Mockito.verify(connection.getMetaData(), Mockito.times(1)).getColumns(Mockito.any(),
+        Mockito.any(), Mockito.eq("FOO"), Mockito.any());
+
+    // Clearing one store invalidates the meta data of all stores of the same database
+    second.clear();
+    ColumnMetaData reloaded = first.getColumn(null, "FOO", "COL1");
+    assertNotSame(col1, reloaded);
+    assertSame(reloaded, second.getColumn(null, "FOO", "COL1"));
+  }
+
+  @Test
+  public void testClearTableInvalidatesOtherStores() throws SQLException {
+    SchemaMetaDataCache cache = new SchemaMetaDataCache();
+    MetaDataStore first =
+        new MetaDataStore(CloudSpannerTestObjects.createConnection(), cache, "db");
+    MetaDataStore second =
+        new MetaDataStore(CloudSpannerTestObjects.createConnection(), cache, "db");
+    ColumnMetaData col1 = first.getColumn(null, "FOO", "COL1");
+    assertSame(col1, second.getColumn(null, "FOO", "COL1"));
+    TableKeyMetaData foo = second.getTable("FOO");
+    second.putQueryMetaData("SELECT * FROM FOO", QueryMetaData.EMPTY);
+
+    // The other store may not keep using its own copy of the meta data of the table
+    first.clearTable("foo");
+    assertNull(second.getQueryMetaData("SELECT * FROM FOO"));
+    ColumnMetaData reloaded = second.getColumn(null, "FOO", "COL1");
+    assertNotSame(col1, reloaded);
+    assertNotSame(foo, second.getTable("FOO"));
+    assertSame(reloaded, first.getColumn(null, "FOO", "COL1"));
+  }
+
+  @Test
+  public void testSharedCacheExpires() throws SQLException {
+    AtomicLong time = new AtomicLong();
+    Ticker ticker = new Ticker() {
+      @Override
+      public long read() {
+        return time.get();
+      }
+    };
+    SchemaMetaDataCache cache = new SchemaMetaDataCache(10L, TimeUnit.SECONDS, ticker);
+    MetaDataStore subject =
+        new MetaDataStore(CloudSpannerTestObjects.createConnection(), cache, "db");
+    ColumnMetaData col1 = subject.getColumn(null, "FOO", "COL1");
+    time.set(TimeUnit.SECONDS.toNanos(9L));
+    assertSame(col1, subject.getColumn(null, "FOO", "COL1"));
+    time.set(TimeUnit.SECONDS.toNanos(10L));
+    assertNotSame(col1, subject.getColumn(null, "FOO", "COL1"));
+
+    // A time-to-live of zero disables the shared cache
+    cache.setTtl(0L, TimeUnit.SECONDS);
+    assertNull(cache.getSchema("db"));
+    ColumnMetaData local = subject.getColumn(null, "FOO", "COL1");
+    time.set(TimeUnit.SECONDS.toNanos(100L));
+    assertSame(local, subject.getColumn(null, "FOO", "COL1"));
+  }
+
+  @Test
+  public void testQueryCacheIsBounded() {
+    MetaDataStore subject = new MetaDataStore(null);
+    for (int i = 0; i <= MetaDataStore.MAX_CACHED_QUERIES; i++)
+      subject.putQueryMetaData("SELECT " + i, QueryMetaData.EMPTY);
+    assertNull(subject.getQueryMetaData("SELECT 0"));
+    assertSame(QueryMetaData.EMPTY,
+        subject.getQueryMetaData("SELECT " + MetaDataStore.MAX_CACHED_QUERIES));
+  }
+
 }
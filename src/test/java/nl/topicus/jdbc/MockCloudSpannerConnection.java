@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 import java.sql.SQLException;
 import org.mockito.internal.stubbing.answers.Returns;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
 
 public class MockCloudSpannerConnection {
 
@@ -17,6 +18,7 @@ public class MockCloudSpannerConnection {
     when(connection.getUrl()).thenAnswer(new Returns(url));
     when(connection.getProductName()).thenAnswer(new Returns(properties.productName));
     when(connection.getNodeCount()).thenAnswer(new Returns(1));
+    when(connection.createStatement()).thenReturn(mock(CloudSpannerStatement.class));
     return connection;
   }
 
@@ -4,11 +4,19 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.mockito.internal.stubbing.answers.Returns;
@@ -23,7 +31,7 @@ import nl.topicus.jdbc.test.category.UnitTest;
 
 @Category(UnitTest.class)
 public class RunningOperationsStoreTest {
-  private boolean reportDone = false;
+  private volatile boolean reportDone = false;
 
   private RunningOperationsStore createSubject() {
     RunningOperationsStore res = new RunningOperationsStore();
@@ -79,10 +87,97 @@ public class RunningOperationsStoreTest {
       subject.clearFinishedOperations();
     }
     reportDone = true;
-    subject.clearFinishedOperations();
+    subject.waitForOperations();
+    assertEquals(2, subject.clearFinishedOperations());
     try (ResultSet rs = subject.getOperations(mock(CloudSpannerStatement.class))) {
       assertFalse(rs.next());
     }
   }
 
+  @Test
+  public void testCompletion() throws Exception {
+    RunningOperationsStore subject = createSubject();
+    CompletableFuture<Void> success = subject.addOperation(Arrays.asList("DROP TABLE FOO"),
+        mockOperation(false));
+    CompletableFuture<Void> failure = subject.addOperation(Arrays.asList("DROP TABLE BAR"),
+        mockOperation(true));
+    CompletableFuture<Void> all = subject.getCompletion();
+    assertFalse(all.isDone());
+    reportDone = true;
+    all.get(10L, TimeUnit.SECONDS);
+    assertTrue(success.isDone());
+    assertFalse(success.isCompletedExceptionally());
+    assertTrue(failure.isCompletedExceptionally());
+    assertEquals(2, subject.clearFinishedOperations());
+  }
+
+  @Test
+  public void testProgress() throws SQLException {
+    RunningOperationsStore subject = createSubject();
+    Operation<Void, UpdateDatabaseDdlMetadata> op = mockOperation(false);
+    UpdateDatabaseDdlMetadata metadata = UpdateDatabaseDdlMetadata.newBuilder()
+        .addCommitTimestamps(com.google.protobuf.Timestamp.newBuilder().setSeconds(1000L))
+        .build();
+    when(op.getMetadata()).then(new Returns(metadata));
+    subject.addOperation(Arrays.asList("CREATE INDEX IDX1 ON FOO (BAR)",
+        "CREATE INDEX IDX2 ON FOO (BAZ)", "CREATE INDEX IDX3 ON FOO (BAR, BAZ)"), op);
+    try (ResultSet rs = subject.getOperations(mock(CloudSpannerStatement.class))) {
+      for (int row = 0; row < 3; row++) {
+        assertTrue(rs.next());
+        assertEquals(33L, rs.getLong("PROGRESS"));
+        if (row == 0)
+          assertEquals(1000000L, rs.getTimestamp("COMMIT_TIMESTAMP").getTime());
+        else
+          assertNull(rs.getTimestamp("COMMIT_TIMESTAMP"));
+      }
+      assertFalse(rs.next());
+    }
+  }
+
+  /**
+   * Creates a scheduler that executes each poll immediately on the calling thread
+   */
+  private ScheduledExecutorService createImmediateScheduler() {
+    ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .then(invocation -> {
+          invocation.<Runnable>getArgument(0).run();
+          return null;
+        });
+    return scheduler;
+  }
+
+  @Test
+  public void testPollRetriesAreCapped() throws SQLException {
+    RunningOperationsStore subject = new RunningOperationsStore(createImmediateScheduler());
+    Operation<Void, UpdateDatabaseDdlMetadata> op = mockOperation(false);
+    when(op.reload()).thenThrow(
+        SpannerExceptionFactory.newSpannerException(ErrorCode.UNAVAILABLE, "Unavailable"));
+    CompletableFuture<Void> future = subject.addOperation(Arrays.asList("DROP TABLE FOO"), op);
+    assertTrue(future.isCompletedExceptionally());
+    verify(op, times(RunningOperationsStore.MAX_POLL_RETRIES + 1)).reload();
+    try (ResultSet rs = subject.getOperations(mock(CloudSpannerStatement.class))) {
+      assertTrue(rs.next());
+      assertTrue(rs.getBoolean("DONE"));
+      assertEquals("UNAVAILABLE: Unavailable", rs.getString("EXCEPTION"));
+    }
+  }
+
+  @Test
+  public void testNonRetryablePollError() throws SQLException {
+    RunningOperationsStore subject = new RunningOperationsStore(createImmediateScheduler());
+    Operation<Void, UpdateDatabaseDdlMetadata> op = mockOperation(false);
+    when(op.reload()).thenThrow(
+        SpannerExceptionFactory.newSpannerException(ErrorCode.PERMISSION_DENIED, "Denied"));
+    CompletableFuture<Void> future = subject.addOperation(Arrays.asList("DROP TABLE FOO"), op);
+    assertTrue(future.isCompletedExceptionally());
+    verify(op).reload();
+    try (ResultSet rs = subject.getOperations(mock(CloudSpannerStatement.class))) {
+      assertTrue(rs.next());
+      assertTrue(rs.getBoolean("DONE"));
+      assertEquals("PERMISSION_DENIED: Denied", rs.getString("EXCEPTION"));
+    }
+    assertEquals(1, subject.clearFinishedOperations());
+  }
+
 }
@@ -0,0 +1,100 @@
+package nl.topicus.jdbc;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.DatabaseId;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SessionPoolOptions;
+import com.google.cloud.spanner.Spanner;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.SpannerOptions;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.TransactionContext;
+import com.google.cloud.spanner.TransactionRunner;
+import com.google.cloud.spanner.TransactionRunner.TransactionCallable;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class SessionPoolWarmerTest {
+  private static final DatabaseId DATABASE = DatabaseId.of("test-project", "test-instance", "db");
+
+  private final ReadContext readContext = mock(ReadContext.class);
+
+  private final TransactionRunner runner = mock(TransactionRunner.class);
+
+  private final DatabaseClient client = mock(DatabaseClient.class);
+
+  private Spanner createSpanner(int maxSessions, float writeSessionsFraction) {
+    Spanner spanner = mock(Spanner.class);
+    SpannerOptions options = mock(SpannerOptions.class);
+    when(spanner.getOptions()).thenReturn(options);
+    when(options.getSessionPoolOptions()).thenReturn(SessionPoolOptions.newBuilder()
+        .setMaxSessions(maxSessions).setWriteSessionsFraction(writeSessionsFraction).build());
+    when(spanner.getDatabaseClient(DATABASE)).thenReturn(client);
+    when(client.singleUse()).thenReturn(readContext);
+    when(client.readWriteTransaction()).thenReturn(runner);
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.next()).thenReturn(true);
+    when(readContext.executeQuery(any(Statement.class))).thenReturn(rs);
+    TransactionContext transaction = mock(TransactionContext.class);
+    when(transaction.executeQuery(any(Statement.class))).thenReturn(rs);
+    when(runner.run(any())).then(invocation -> {
+      TransactionCallable<?> callable = invocation.getArgument(0);
+      return callable.run(transaction);
+    });
+    return spanner;
+  }
+
+  @Test
+  public void testWarmUp() throws Exception {
+    SessionPoolWarmer subject = new SessionPoolWarmer(30_000L);
+    Spanner spanner = createSpanner(4, 0.5f);
+    CompletableFuture<Void> future = subject.warmUp(spanner, DATABASE, 10);
+    // The tasks only finish when all of them hold a session at the same time
+    future.get(10L, TimeUnit.SECONDS);
+    verify(client, times(2)).singleUse();
+    verify(client, times(2)).readWriteTransaction();
+
+    // The database is only warmed up once for a Spanner instance
+    assertSame(future, subject.warmUp(spanner, DATABASE, 10));
+    verify(client, times(2)).singleUse();
+
+    subject.remove(spanner);
+    CompletableFuture<Void> restarted = subject.warmUp(spanner, DATABASE, 1);
+    assertNotSame(future, restarted);
+    restarted.get(10L, TimeUnit.SECONDS);
+    verify(client, times(3)).readWriteTransaction();
+  }
+
+  @Test
+  public void testFailedWarmUpIsRestarted() throws Exception {
+    SessionPoolWarmer subject = new SessionPoolWarmer(100L);
+    Spanner spanner = createSpanner(2, 0.0f);
+    when(readContext.executeQuery(any(Statement.class))).thenThrow(
+        SpannerExceptionFactory.newSpannerException(ErrorCode.NOT_FOUND, "Database not found"));
+    CompletableFuture<Void> future = subject.warmUp(spanner, DATABASE, 2);
+    try {
+      future.get(10L, TimeUnit.SECONDS);
+      fail("missing expected exception");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause().getMessage().contains("Database not found"));
+    }
+    assertNotSame(future, subject.warmUp(spanner, DATABASE, 2));
+  }
+
+}
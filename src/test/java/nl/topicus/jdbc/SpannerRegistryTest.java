@@ -0,0 +1,135 @@
+package nl.topicus.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+import com.google.cloud.spanner.Spanner;
+import nl.topicus.jdbc.CloudSpannerDriver.SpannerKey;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class SpannerRegistryTest {
+  private static final SpannerKey KEY =
+      SpannerKey.of(null, "test-project", null, SessionPoolSettings.DEFAULT);
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private final List<Spanner> created = new ArrayList<>();
+
+  private final List<Spanner> closed = new ArrayList<>();
+
+  private SpannerRegistry createRegistry(ScheduledExecutorService scheduler) {
+    return new SpannerRegistry(key -> {
+      Spanner spanner = mock(Spanner.class);
+      created.add(spanner);
+      return spanner;
+    }, closed::add, scheduler);
+  }
+
+  private CloudSpannerConnection createConnection(SpannerRegistry registry) {
+    Spanner spanner = registry.acquire(KEY);
+    CloudSpannerConnection connection = mock(CloudSpannerConnection.class);
+    when(connection.getSpanner()).thenReturn(spanner);
+    registry.registerConnection(connection);
+    return connection;
+  }
+
+  @Test
+  public void testReferenceCounting() throws Exception {
+    SpannerRegistry subject = createRegistry(mock(ScheduledExecutorService.class));
+    subject.setIdleTimeout(1L, TimeUnit.MILLISECONDS);
+    CloudSpannerConnection first = createConnection(subject);
+    CloudSpannerConnection second = createConnection(subject);
+    assertEquals(1, created.size());
+    assertSame(first.getSpanner(), second.getSpanner());
+    assertSame(subject.getLastSuccessfulCall(first.getSpanner()),
+        subject.getLastSuccessfulCall(second.getSpanner()));
+
+    subject.closeConnection(first);
+    Thread.sleep(5L);
+    subject.closeIdleSpanners();
+    verify(second.getSpanner(), never()).close();
+    assertEquals(1, subject.size());
+
+    subject.closeConnection(second);
+    Thread.sleep(5L);
+    subject.closeIdleSpanners();
+    verify(second.getSpanner()).close();
+    assertEquals(created, closed);
+    assertEquals(0, subject.size());
+
+    // A new instance is created when the key is used again
+    CloudSpannerConnection third = createConnection(subject);
+    assertEquals(2, created.size());
+    assertNotSame(first.getSpanner(), third.getSpanner());
+  }
+
+  @Test
+  public void testIdleTimeoutDisabled() throws Exception {
+    SpannerRegistry subject = createRegistry(mock(ScheduledExecutorService.class));
+    subject.setIdleTimeout(0L, TimeUnit.MILLISECONDS);
+    subject.closeConnection(createConnection(subject));
+    Thread.sleep(5L);
+    subject.closeIdleSpanners();
+    assertEquals(1, subject.size());
+    assertEquals(0, closed.size());
+  }
+
+  @Test
+  public void testReleaseWithoutConnection() throws Exception {
+    SpannerRegistry subject = createRegistry(mock(ScheduledExecutorService.class));
+    subject.setIdleTimeout(1L, TimeUnit.MILLISECONDS);
+    subject.release(subject.acquire(KEY));
+    Thread.sleep(5L);
+    subject.closeIdleSpanners();
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  public void testIdleSpannerIsClosedBySweeper() throws Exception {
+    SpannerRegistry subject = new SpannerRegistry(key -> mock(Spanner.class), closed::add);
+    subject.setIdleTimeout(10L, TimeUnit.MILLISECONDS);
+    subject.closeConnection(createConnection(subject));
+    long deadline = System.currentTimeMillis() + 5000L;
+    while (subject.size() > 0 && System.currentTimeMillis() < deadline)
+      Thread.sleep(10L);
+    assertEquals(0, subject.size());
+    assertEquals(1, closed.size());
+  }
+
+  @Test
+  public void testCloseAll() throws SQLException {
+    SpannerRegistry subject = createRegistry(mock(ScheduledExecutorService.class));
+    CloudSpannerConnection connection = createConnection(subject);
+    subject.closeAll();
+    verify(connection).rollback();
+    verify(connection).markClosed();
+    verify(connection.getSpanner()).close();
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  public void testCloseUnregisteredConnection() {
+    SpannerRegistry subject = createRegistry(mock(ScheduledExecutorService.class));
+    CloudSpannerConnection connection = createConnection(subject);
+    subject.closeConnection(connection);
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("Connection is not registered");
+    subject.closeConnection(connection);
+  }
+
+}
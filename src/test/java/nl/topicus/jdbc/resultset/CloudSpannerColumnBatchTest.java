@@ -0,0 +1,150 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class CloudSpannerColumnBatchTest {
+  private static final Type TYPE = Type.struct(StructField.of("ID", Type.int64()),
+      StructField.of("ACTIVE", Type.bool()), StructField.of("AMOUNT", Type.float64()),
+      StructField.of("NAME", Type.string()), StructField.of("DATA", Type.bytes()),
+      StructField.of("BIRTHDAY", Type.date()), StructField.of("CREATED", Type.timestamp()),
+      StructField.of("TAGS", Type.array(Type.string())));
+
+  private static Struct createRow(long id) {
+    if (id % 3 == 0) {
+      return Struct.newBuilder().set("ID").to(id).set("ACTIVE").to((Boolean) null).set("AMOUNT")
+          .to((Double) null).set("NAME").to((String) null).set("DATA").to((ByteArray) null)
+          .set("BIRTHDAY").to((Date) null).set("CREATED").to((Timestamp) null).set("TAGS")
+          .toStringArray(null).build();
+    }
+    return Struct.newBuilder().set("ID").to(id).set("ACTIVE").to(id % 2 == 0).set("AMOUNT")
+        .to(id * 1.5d).set("NAME").to("Naïve " + id).set("DATA")
+        .to(ByteArray.copyFrom(new byte[] {(byte) id, 1, 2})).set("BIRTHDAY")
+        .to(Date.fromYearMonthDay(2000, 1, (int) id)).set("CREATED")
+        .to(Timestamp.ofTimeSecondsAndNanos(id, (int) id * 1000)).set("TAGS")
+        .toStringArray(Arrays.asList("tag" + id, null)).build();
+  }
+
+  private static ResultSet createResultSet(int rows) {
+    List<Struct> list = new ArrayList<>(rows);
+    for (long id = 1L; id <= rows; id++)
+      list.add(createRow(id));
+    return ResultSets.forRows(TYPE, list);
+  }
+
+  private static CloudSpannerResultSet createJdbcResultSet(int rows) throws SQLException {
+    return new CloudSpannerResultSet(Mockito.mock(CloudSpannerStatement.class),
+        createResultSet(rows), "SELECT * FROM FOO");
+  }
+
+  private static void assertBatch(CloudSpannerColumnBatch batch, long firstId) {
+    assertEquals(8, batch.getColumnCount());
+    assertEquals("NAME", batch.getColumnName(4));
+    assertEquals(Type.string(), batch.getColumnType(4));
+    long[] ids = batch.getLongs(1);
+    boolean[] active = batch.getBooleans(2);
+    double[] amounts = batch.getDoubles(3);
+    int[] offsets = batch.getOffsets(4);
+    long[] birthdays = batch.getLongs(6);
+    long[] seconds = batch.getLongs(7);
+    int[] nanos = batch.getNanos(7);
+    Object[] tags = batch.getArrays(8);
+    for (int row = 0; row < batch.getRowCount(); row++) {
+      long id = firstId + row;
+      assertEquals(id, ids[row]);
+      assertFalse(batch.isNull(1, row));
+      boolean isNull = id % 3 == 0;
+      for (int column = 2; column <= 8; column++)
+        assertEquals(isNull, batch.isNull(column, row));
+      assertEquals(isNull, batch.getNulls(4).get(row));
+      if (isNull) {
+        assertNull(batch.getString(4, row));
+        assertNull(batch.getBytes(5, row));
+        assertEquals(offsets[row], offsets[row + 1]);
+        assertNull(tags[row]);
+      } else {
+        assertEquals(id % 2 == 0, active[row]);
+        assertEquals(id * 1.5d, amounts[row], 0d);
+        assertEquals("Naïve " + id, batch.getString(4, row));
+        assertArrayEquals(new byte[] {(byte) id, 1, 2}, batch.getBytes(5, row));
+        assertEquals(LocalDate.of(2000, 1, (int) id).toEpochDay(), birthdays[row]);
+        assertEquals(id, seconds[row]);
+        assertEquals(id * 1000, nanos[row]);
+        assertEquals(Arrays.asList("tag" + id, null), tags[row]);
+      }
+    }
+  }
+
+  @Test
+  public void testNextBatch() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(10)) {
+      ICloudSpannerResultSet columnar = rs.unwrap(ICloudSpannerResultSet.class);
+      CloudSpannerColumnBatch batch = columnar.nextBatch(4);
+      assertEquals(4, batch.getRowCount());
+      assertBatch(batch, 1L);
+      assertEquals(4, rs.getRow());
+      assertEquals(4L, rs.getLong(1));
+      batch = columnar.nextBatch(4, true);
+      assertEquals(4, batch.getRowCount());
+      assertTrue(batch.getData(4).isDirect());
+      assertBatch(batch, 5L);
+      batch = columnar.nextBatch(4);
+      assertEquals(2, batch.getRowCount());
+      assertBatch(batch, 9L);
+      assertTrue(rs.isAfterLast());
+      assertEquals(0, columnar.nextBatch(4).getRowCount());
+    }
+  }
+
+  @Test
+  public void testStringData() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(2)) {
+      CloudSpannerColumnBatch batch = rs.nextBatch(10);
+      int[] offsets = batch.getOffsets(4);
+      ByteBuffer data = batch.getData(4);
+      assertEquals(3, offsets.length);
+      assertEquals(offsets[2], data.remaining());
+      assertTrue(data.isReadOnly());
+      assertFalse(data.isDirect());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testWrongColumnType() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(2)) {
+      rs.nextBatch(10).getDoubles(1);
+    }
+  }
+
+  @Test(expected = CloudSpannerSQLException.class)
+  public void testInvalidMaxRows() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(2)) {
+      rs.nextBatch(0);
+    }
+  }
+
+}
@@ -4,11 +4,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.sql.Date;
 import java.sql.ResultSetMetaData;
@@ -34,7 +37,9 @@ import com.google.cloud.spanner.Type.StructField;
 import com.google.cloud.spanner.Value;
 import com.google.common.base.Preconditions;
 import nl.topicus.jdbc.CloudSpannerConnection;
+import nl.topicus.jdbc.CloudSpannerDataType;
 import nl.topicus.jdbc.CloudSpannerDatabaseMetaData;
+import nl.topicus.jdbc.MetaDataStore;
 import nl.topicus.jdbc.statement.CloudSpannerStatement;
 
 public class CloudSpannerResultSetMetaDataTest {
@@ -117,13 +122,16 @@ public class CloudSpannerResultSetMetaDataTest {
   private static final List<TestColumn> TEST_COLUMNS = createTestColumns();
   private CloudSpannerResultSetMetaData subject;
   private CloudSpannerConnection connection;
+  private CloudSpannerStatement statement;
+  private CloudSpannerResultSet resultSet;
+  private CloudSpannerDatabaseMetaData metadata;
 
   @Before
   public void setup() throws SQLException {
     connection = mock(CloudSpannerConnection.class);
-    CloudSpannerStatement statement = mock(CloudSpannerStatement.class);
-    CloudSpannerResultSet resultSet = getFooTestResultSet(statement);
-    CloudSpannerDatabaseMetaData metadata = mock(CloudSpannerDatabaseMetaData.class);
+    statement = mock(CloudSpannerStatement.class);
+    resultSet = getFooTestResultSet(statement);
+    metadata = mock(CloudSpannerDatabaseMetaData.class);
     when(metadata.getColumns(eq(""), eq(""), eq("FOO"), any()))
         .then(new Answer<CloudSpannerResultSet>() {
           @Override
@@ -138,6 +146,7 @@ public class CloudSpannerResultSetMetaDataTest {
       }
     });
     when(connection.getMetaData()).then(new Returns(metadata));
+    when(connection.getMetaDataStore()).thenReturn(new MetaDataStore(connection));
     when(connection.isReportDefaultSchemaAsNull()).thenCallRealMethod();
     when(connection.setReportDefaultSchemaAsNull(anyBoolean())).thenCallRealMethod();
     when(connection.getSchema()).thenCallRealMethod();
@@ -259,12 +268,16 @@ public class CloudSpannerResultSetMetaDataTest {
         colName == null ? tableColumns() : Arrays.asList(getTestColumn(colName));
     List<Struct> rows = new ArrayList<>(columns.size());
     for (TestColumn col : columns) {
-      rows.add(Struct.newBuilder().set("COLUMN_NAME").to(Value.string(col.name)).set("NULLABLE")
-          .to(Value.int64(col.nullable)).set("COLUMN_SIZE").to(Value.int64(col.size)).build());
+      int dataType = col.type.getCode() == Code.ARRAY ? Types.ARRAY
+          : CloudSpannerDataType.getType(col.type.getCode()).getSqlType();
+      rows.add(Struct.newBuilder().set("TABLE_NAME").to(Value.string("FOO")).set("COLUMN_NAME")
+          .to(Value.string(col.name)).set("NULLABLE").to(Value.int64(col.nullable))
+          .set("COLUMN_SIZE").to(Value.int64(col.size)).set("DATA_TYPE")
+          .to(Value.int64(dataType)).build());
     }
-    ResultSet rs = ResultSets.forRows(
-        Type.struct(StructField.of("COLUMN_NAME", Type.string()),
-            StructField.of("NULLABLE", Type.int64()), StructField.of("COLUMN_SIZE", Type.int64())),
+    ResultSet rs = ResultSets.forRows(Type.struct(StructField.of("TABLE_NAME", Type.string()),
+        StructField.of("COLUMN_NAME", Type.string()), StructField.of("NULLABLE", Type.int64()),
+        StructField.of("COLUMN_SIZE", Type.int64()), StructField.of("DATA_TYPE", Type.int64())),
         rows);
     return new CloudSpannerResultSet(statement, rs, null);
   }
@@ -546,4 +559,35 @@ public class CloudSpannerResultSetMetaDataTest {
     assertNotNull(subject.toString());
   }
 
+  @Test
+  public void testMetaDataIsMemoized() throws SQLException {
+    assertSame(subject, resultSet.getMetaData());
+  }
+
+  @Test
+  public void testSchemaIsCached() throws SQLException {
+    for (int i = 1; i <= TEST_COLUMNS.size(); i++) {
+      subject.getColumnName(i);
+      subject.isNullable(i);
+      subject.getPrecision(i);
+      subject.getColumnDisplaySize(i);
+    }
+    // The column list of the table is fetched once and used for both SELECT * and the column info
+    verify(metadata, times(1)).getColumns(eq(""), eq(""), eq("FOO"), any());
+  }
+
+  @Test
+  public void testQueryMetaDataIsSharedBySql() throws SQLException {
+    assertEquals(TEST_COLUMNS.get(0).name, subject.getColumnName(1));
+    MetaDataStore store = connection.getMetaDataStore();
+    assertNotNull(store.getQueryMetaData(SELECT_ALL_FROM_FOO));
+
+    CloudSpannerResultSetMetaData other = getFooTestResultSet(statement).getMetaData();
+    for (int i = 1; i <= TEST_COLUMNS.size(); i++) {
+      assertEquals(TEST_COLUMNS.get(i - 1).name, other.getColumnName(i));
+      assertEquals(TEST_COLUMNS.get(i - 1).nullable, other.isNullable(i));
+    }
+    verify(metadata, times(1)).getColumns(eq(""), eq(""), eq("FOO"), any());
+  }
+
 }
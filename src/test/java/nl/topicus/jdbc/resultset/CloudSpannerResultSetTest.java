@@ -7,6 +7,9 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.io.InputStream;
@@ -17,23 +20,34 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TimeZone;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TestName;
+import org.mockito.Mockito;
 import org.mockito.internal.stubbing.answers.Returns;
 import com.google.cloud.ByteArray;
 import com.google.cloud.Date;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.StructField;
+import io.grpc.Context;
+import io.grpc.Context.CancellableContext;
 import nl.topicus.jdbc.CloudSpannerArray;
 import nl.topicus.jdbc.CloudSpannerDataType;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
@@ -127,6 +141,11 @@ public class CloudSpannerResultSetTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
+  @Rule
+  public TestName testName = new TestName();
+
+  private ResultSet mockResultSet;
+
   private CloudSpannerResultSet subject;
 
   static ResultSet getMockResultSet() {
@@ -270,6 +289,7 @@ public class CloudSpannerResultSetTest {
     when(res.isNull(ARRAY_COLINDEX_NULL - 1)).thenAnswer(new Returns(true));
     when(res.getLongList(ARRAY_COLINDEX_NOTNULL - 1))
         .thenAnswer(new Returns(Arrays.asList(1L, 2L, 3L)));
+    when(res.getLongArray(ARRAY_COLINDEX_NOTNULL - 1)).thenReturn(new long[] {1L, 2L, 3L});
     when(res.isNull(ARRAY_COLINDEX_NOTNULL - 1)).thenAnswer(new Returns(false));
     when(res.getColumnType(ARRAY_COL_NULL)).thenAnswer(new Returns(Type.array(Type.int64())));
     when(res.getColumnType(ARRAY_COL_NOT_NULL)).thenAnswer(new Returns(Type.array(Type.int64())));
@@ -300,6 +320,8 @@ public class CloudSpannerResultSetTest {
         StructField.of(TIMESTAMP_COL_NOT_NULL, Type.timestamp()),
         StructField.of(TIME_COL_NULL, Type.timestamp()),
         StructField.of(TIME_COL_NOT_NULL, Type.timestamp()),
+        StructField.of(ARRAY_COL_NULL, Type.array(Type.int64())),
+        StructField.of(ARRAY_COL_NOT_NULL, Type.array(Type.int64())),
         StructField.of(URL_COL_NULL, Type.string()), StructField.of(URL_COL_NOT_NULL, Type.string())
 
     ));
@@ -310,12 +332,46 @@ public class CloudSpannerResultSetTest {
     return res;
   }
 
+  /**
+   * The mocked result set returns different values for the label and the index of the same column.
+   * {@link CloudSpannerResultSet} resolves a label to the index of the column and then reads the
+   * value by index, so for the tests of the label getters the index getters of the mocked result
+   * set return the values of the labels.
+   */
+  private static void useLabelValues(ResultSet res) {
+    String string = res.getString(STRING_COL_NOT_NULL);
+    when(res.getString(STRING_COLINDEX_NOTNULL - 1)).thenReturn(string);
+    String url = res.getString(URL_COL_NOT_NULL);
+    when(res.getString(URL_COLINDEX_NOTNULL - 1)).thenReturn(url);
+    boolean bool = res.getBoolean(BOOLEAN_COL_NOT_NULL);
+    when(res.getBoolean(BOOLEAN_COLINDEX_NOTNULL - 1)).thenReturn(bool);
+    double dbl = res.getDouble(DOUBLE_COL_NOT_NULL);
+    when(res.getDouble(DOUBLE_COLINDEX_NOTNULL - 1)).thenReturn(dbl);
+    ByteArray bytes = res.getBytes(BYTES_COL_NOT_NULL);
+    when(res.getBytes(BYTES_COLINDEX_NOTNULL - 1)).thenReturn(bytes);
+    long lng = res.getLong(LONG_COL_NOT_NULL);
+    when(res.getLong(LONG_COLINDEX_NOTNULL - 1)).thenReturn(lng);
+    Date date = res.getDate(DATE_COL_NOT_NULL);
+    when(res.getDate(DATE_COLINDEX_NOTNULL - 1)).thenReturn(date);
+    Timestamp timestamp = res.getTimestamp(TIMESTAMP_COL_NOT_NULL);
+    when(res.getTimestamp(TIMESTAMP_COLINDEX_NOTNULL - 1)).thenReturn(timestamp);
+    Timestamp time = res.getTimestamp(TIME_COL_NOT_NULL);
+    when(res.getTimestamp(TIME_COLINDEX_NOTNULL - 1)).thenReturn(time);
+  }
+
   public CloudSpannerResultSetTest() throws SQLException {
-    subject = new CloudSpannerResultSet(mock(CloudSpannerStatement.class), getMockResultSet(),
+    mockResultSet = getMockResultSet();
+    subject = new CloudSpannerResultSet(mock(CloudSpannerStatement.class), mockResultSet,
         "SELECT * FROM FOO");
     subject.next();
   }
 
+  @Before
+  public void setupLabelValues() {
+    if (testName.getMethodName().contains("Label"))
+      useLabelValues(mockResultSet);
+  }
+
   @Test
   public void testWasNull() throws SQLException {
     String value = subject.getString(STRING_COL_NULL);
@@ -827,6 +883,24 @@ public class CloudSpannerResultSetTest {
     assertTrue(subject.wasNull());
   }
 
+  @Test
+  public void testGetObjectJavaTime() throws SQLException {
+    assertEquals(LocalDate.of(2017, 9, 10),
+        subject.getObject(DATE_COLINDEX_NOTNULL, LocalDate.class));
+    assertEquals(LocalDate.of(2017, 9, 10), subject.getObject(DATE_COL_NOT_NULL, LocalDate.class));
+    assertNull(subject.getObject(DATE_COLINDEX_NULL, LocalDate.class));
+    assertTrue(subject.wasNull());
+
+    Instant instant = Instant.parse("2017-09-11T08:15:59Z");
+    assertEquals(instant, subject.getObject(TIMESTAMP_COLINDEX_NOTNULL, Instant.class));
+    assertEquals(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC),
+        subject.getObject(TIMESTAMP_COLINDEX_NOTNULL, OffsetDateTime.class));
+    assertEquals(new java.sql.Timestamp(instant.toEpochMilli()),
+        subject.getObject(TIMESTAMP_COLINDEX_NOTNULL, java.sql.Timestamp.class));
+    assertNull(subject.getObject(TIMESTAMP_COLINDEX_NULL, Instant.class));
+    assertTrue(subject.wasNull());
+  }
+
   @SuppressWarnings("deprecation")
   @Test
   public void testGetObjectLabelMap() throws SQLException {
@@ -1075,12 +1149,114 @@ public class CloudSpannerResultSetTest {
         assertEquals(row, rs.getRow());
         assertEquals(row == 1, rs.isFirst());
       }
+      assertEquals(0, rs.getRow());
     }
   }
 
+  @Test
+  public void testCloseOnCompletion() throws SQLException {
+    CloudSpannerStatement statement = mock(CloudSpannerStatement.class);
+    try (CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(statement, getMockResultSet(), "SELECT * FROM FOO")) {
+      rs.close();
+      verify(statement, never()).close();
+    }
+    when(statement.isCloseOnCompletion()).thenReturn(true);
+    CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(statement, getMockResultSet(), "SELECT * FROM FOO");
+    rs.close();
+    rs.close();
+    verify(statement, times(1)).close();
+  }
+
+  @Test
+  public void testMaxRows() throws SQLException {
+    CloudSpannerStatement statement = mock(CloudSpannerStatement.class);
+    when(statement.getMaxRows()).thenReturn(2);
+    ResultSet resultSet = getMockResultSet();
+    try (CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(statement, resultSet, "SELECT * FROM FOO")) {
+      assertTrue(rs.next());
+      assertTrue(rs.next());
+      Mockito.verify(resultSet, Mockito.never()).close();
+      assertFalse(rs.next());
+      assertTrue(rs.isAfterLast());
+      Mockito.verify(resultSet).close();
+      assertFalse(rs.next());
+    }
+  }
+
+  @Test
+  public void testExecutionContext() throws SQLException {
+    CloudSpannerStatement statement = mock(CloudSpannerStatement.class);
+    Context.Key<String> key = Context.key("test");
+    CancellableContext context = Context.current().withValue(key, "value").withCancellation();
+    when(statement.createExecutionContext()).thenReturn(context);
+    ResultSet resultSet = getMockResultSet();
+    when(resultSet.next()).then(invocation -> {
+      assertEquals("value", key.get());
+      return true;
+    });
+    try (CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(statement, resultSet, "SELECT * FROM FOO")) {
+      assertTrue(rs.next());
+      assertTrue(rs.next());
+      assertFalse(context.isCancelled());
+    }
+    assertTrue(context.isCancelled());
+    assertEquals(Context.ROOT, Context.current());
+  }
+
   @Test
   public void testGetHoldability() throws SQLException {
     assertEquals(java.sql.ResultSet.HOLD_CURSORS_OVER_COMMIT, subject.getHoldability());
   }
 
+  @Test
+  public void testColumnLabelsAreResolvedOnce() throws SQLException {
+    ResultSet resultSet = Mockito.spy(ResultSets.forRows(
+        Type.struct(StructField.of("ID", Type.int64()), StructField.of("NAME", Type.string())),
+        Arrays.asList(Struct.newBuilder().set("ID").to(1L).set("NAME").to("One").build(),
+            Struct.newBuilder().set("ID").to(2L).set("NAME").to((String) null).build())));
+    try (CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(mock(CloudSpannerStatement.class), resultSet, "SELECT 1")) {
+      long id = 0L;
+      while (rs.next()) {
+        id++;
+        assertEquals(id, rs.getLong("ID"));
+        assertEquals(id, rs.getObject("ID"));
+        rs.getString("NAME");
+        assertEquals(id == 2L, rs.wasNull());
+        assertEquals(2, rs.findColumn("NAME"));
+      }
+      assertEquals(2L, id);
+    }
+    Mockito.verify(resultSet, Mockito.times(1)).getType();
+    Mockito.verify(resultSet, Mockito.never()).getColumnIndex(Mockito.anyString());
+    Mockito.verify(resultSet, Mockito.never()).isNull(Mockito.anyString());
+  }
+
+  @Test
+  public void testDuplicateColumnLabel() throws SQLException {
+    ResultSet resultSet = ResultSets.forRows(
+        Type.struct(StructField.of("ID", Type.int64()), StructField.of("ID", Type.int64())),
+        Arrays.asList(Struct.newBuilder().set("ID").to(1L).set("ID").to(2L).build()));
+    try (CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(mock(CloudSpannerStatement.class), resultSet, "SELECT 1")) {
+      assertTrue(rs.next());
+      assertEquals(1L, rs.getLong(1));
+      assertEquals(2L, rs.getLong(2));
+      thrown.expect(CloudSpannerSQLException.class);
+      thrown.expectMessage("Column not found: ID");
+      rs.getLong("ID");
+    }
+  }
+
+  @Test
+  public void testInvalidColumnIndex() throws SQLException {
+    thrown.expect(CloudSpannerSQLException.class);
+    thrown.expectMessage("Invalid column index: 21");
+    subject.getObject(21);
+  }
+
 }
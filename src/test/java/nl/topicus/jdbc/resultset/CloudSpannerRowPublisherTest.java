@@ -0,0 +1,149 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import nl.topicus.jdbc.resultset.CloudSpannerRowPublisher.Subscriber;
+import nl.topicus.jdbc.resultset.CloudSpannerRowPublisher.Subscription;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class CloudSpannerRowPublisherTest {
+  private static final Type TYPE = Type.struct(StructField.of("ID", Type.int64()));
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  private static class TestSubscriber implements Subscriber<Long> {
+    private final List<Long> items = new ArrayList<>();
+
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private Subscription subscription;
+
+    private Throwable error;
+
+    private boolean completed;
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public synchronized void onNext(Long item) {
+      items.add(item);
+      notifyAll();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      finished.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+      finished.countDown();
+    }
+
+    private synchronized void awaitItems(int count) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + 5000L;
+      while (items.size() < count && System.currentTimeMillis() < deadline)
+        wait(100L);
+    }
+
+    private synchronized int getItemCount() {
+      return items.size();
+    }
+  }
+
+  private static CloudSpannerResultSet createResultSet(int rows) throws SQLException {
+    List<Struct> list = new ArrayList<>(rows);
+    for (long id = 1L; id <= rows; id++)
+      list.add(Struct.newBuilder().set("ID").to(id).build());
+    ResultSet rs = ResultSets.forRows(TYPE, list);
+    return new CloudSpannerResultSet(Mockito.mock(CloudSpannerStatement.class), rs,
+        "SELECT * FROM FOO");
+  }
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testBackpressure() throws Exception {
+    CloudSpannerResultSet rs = createResultSet(10);
+    TestSubscriber subscriber = new TestSubscriber();
+    rs.publisher(executor, row -> row.getLong(0)).subscribe(subscriber);
+    subscriber.subscription.request(3);
+    subscriber.awaitItems(3);
+    // Give the publisher the opportunity to publish more rows than requested
+    Thread.sleep(50L);
+    assertEquals(3, subscriber.getItemCount());
+    assertEquals(3, rs.getRow());
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertTrue(subscriber.finished.await(5L, TimeUnit.SECONDS));
+    assertTrue(subscriber.completed);
+    assertNull(subscriber.error);
+    assertEquals(10, subscriber.getItemCount());
+    for (int i = 0; i < 10; i++)
+      assertEquals(i + 1L, subscriber.items.get(i).longValue());
+    assertTrue(rs.isClosed());
+  }
+
+  @Test
+  public void testCancel() throws Exception {
+    CloudSpannerResultSet rs = createResultSet(10);
+    TestSubscriber subscriber = new TestSubscriber();
+    rs.publisher(executor, row -> row.getLong(0)).subscribe(subscriber);
+    subscriber.subscription.request(2);
+    subscriber.awaitItems(2);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(2);
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(5L, TimeUnit.SECONDS));
+    assertEquals(2, subscriber.getItemCount());
+    assertTrue(rs.isClosed());
+  }
+
+  @Test
+  public void testInvalidRequest() throws Exception {
+    CloudSpannerResultSet rs = createResultSet(10);
+    TestSubscriber subscriber = new TestSubscriber();
+    rs.publisher(executor, row -> row.getLong(0)).subscribe(subscriber);
+    subscriber.subscription.request(0);
+    assertTrue(subscriber.finished.await(5L, TimeUnit.SECONDS));
+    assertTrue(subscriber.error instanceof IllegalArgumentException);
+    assertTrue(rs.isClosed());
+  }
+
+  @Test
+  public void testSubscribeTwice() throws Exception {
+    CloudSpannerResultSet rs = createResultSet(10);
+    CloudSpannerRowPublisher<Long> publisher = rs.publisher(executor, row -> row.getLong(0));
+    publisher.subscribe(new TestSubscriber());
+    TestSubscriber second = new TestSubscriber();
+    publisher.subscribe(second);
+    assertTrue(second.error instanceof IllegalStateException);
+  }
+
+}
@@ -0,0 +1,175 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.ForwardingResultSet;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import io.grpc.Context;
+import nl.topicus.jdbc.statement.AsyncStatementExecutor;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class ReadAheadResultSetTest {
+  private static final Type TYPE =
+      Type.struct(StructField.of("ID", Type.int64()), StructField.of("NAME", Type.string()));
+
+  private static class CountingResultSet extends ForwardingResultSet {
+    private final AtomicInteger nextCount = new AtomicInteger();
+
+    private final int failAfter;
+
+    private CountingResultSet(ResultSet delegate, int failAfter) {
+      super(delegate);
+      this.failAfter = failAfter;
+    }
+
+    @Override
+    public boolean next() {
+      if (nextCount.incrementAndGet() > failAfter)
+        throw SpannerExceptionFactory.newSpannerException(ErrorCode.UNAVAILABLE, "test");
+      return super.next();
+    }
+  }
+
+  private static ResultSet createResultSet(int rows) {
+    List<Struct> list = new ArrayList<>(rows);
+    for (long id = 1L; id <= rows; id++)
+      list.add(Struct.newBuilder().set("ID").to(id).set("NAME").to("Row " + id).build());
+    return ResultSets.forRows(TYPE, list);
+  }
+
+  @Test
+  public void testReadAllRows() {
+    try (ReadAheadResultSet rs = new ReadAheadResultSet(createResultSet(100), 10)) {
+      long expected = 1L;
+      while (rs.next()) {
+        assertEquals(expected, rs.getLong(0));
+        assertEquals("Row " + expected, rs.getString("NAME"));
+        assertEquals(1, rs.getColumnIndex("NAME"));
+        assertEquals(TYPE, rs.getType());
+        expected++;
+      }
+      assertEquals(101L, expected);
+      assertFalse(rs.next());
+      assertEquals(TYPE, rs.getType());
+    }
+  }
+
+  @Test
+  public void testBufferIsBounded() throws InterruptedException {
+    CountingResultSet delegate = new CountingResultSet(createResultSet(100), Integer.MAX_VALUE);
+    try (ReadAheadResultSet rs = new ReadAheadResultSet(delegate, 5)) {
+      assertTrue(rs.next());
+      Thread.sleep(100L);
+      // One row has been consumed, five rows are in the buffer and the reader may have fetched one
+      // more row that it is waiting to put in the buffer
+      assertTrue(delegate.nextCount.get() <= 7);
+    }
+  }
+
+  @Test
+  public void testReadAheadDoesNotHoldExecutor() {
+    // Both result sets share one task slot, which is only possible if a task does not wait for the
+    // consumer when the buffer is full
+    ExecutorService threads = Executors.newCachedThreadPool();
+    AsyncStatementExecutor executor = new AsyncStatementExecutor(threads, 1);
+    try (ReadAheadResultSet first = new ReadAheadResultSet(createResultSet(20), 2, executor);
+        ReadAheadResultSet second = new ReadAheadResultSet(createResultSet(20), 2, executor)) {
+      for (long expected = 1L; expected <= 20L; expected++) {
+        assertTrue(first.next());
+        assertEquals(expected, first.getLong(0));
+        assertTrue(second.next());
+        assertEquals(expected, second.getLong(0));
+      }
+      assertFalse(first.next());
+      assertFalse(second.next());
+    } finally {
+      threads.shutdown();
+    }
+  }
+
+  @Test
+  public void testException() {
+    CountingResultSet delegate = new CountingResultSet(createResultSet(100), 3);
+    try (ReadAheadResultSet rs = new ReadAheadResultSet(delegate, 5)) {
+      assertTrue(rs.next());
+      assertTrue(rs.next());
+      assertTrue(rs.next());
+      rs.next();
+      fail("Missing expected exception");
+    } catch (SpannerException e) {
+      assertEquals(ErrorCode.UNAVAILABLE, e.getErrorCode());
+    }
+  }
+
+  @Test
+  public void testCloseBeforeAllRowsHaveBeenRead() {
+    ResultSet delegate = Mockito.spy(createResultSet(100));
+    ReadAheadResultSet rs = new ReadAheadResultSet(delegate, 2);
+    assertTrue(rs.next());
+    rs.close();
+    Mockito.verify(delegate).close();
+  }
+
+  @Test
+  public void testContextIsPropagated() throws Exception {
+    Context.Key<String> key = Context.key("test");
+    List<String> values = new ArrayList<>();
+    ResultSet delegate = new ForwardingResultSet(createResultSet(2)) {
+      @Override
+      public boolean next() {
+        values.add(key.get());
+        return super.next();
+      }
+    };
+    Context context = Context.current().withValue(key, "value");
+    context.call(() -> {
+      try (ReadAheadResultSet rs = new ReadAheadResultSet(delegate, 1)) {
+        while (rs.next()) {
+          // consume all rows
+        }
+      }
+      return null;
+    });
+    assertEquals(3, values.size());
+    for (String value : values)
+      assertEquals("value", value);
+  }
+
+  @Test
+  public void testJdbcResultSetWithFetchSize() throws SQLException {
+    CloudSpannerStatement statement = Mockito.mock(CloudSpannerStatement.class);
+    Mockito.when(statement.getFetchSize()).thenReturn(3);
+    try (CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(statement, createResultSet(10), "SELECT * FROM FOO")) {
+      assertEquals(3, rs.getFetchSize());
+      int count = 0;
+      while (rs.next()) {
+        count++;
+        assertEquals(count, rs.getLong("ID"));
+      }
+      assertEquals(10, count);
+      assertEquals(2, rs.getMetaData().getColumnCount());
+    }
+  }
+
+}
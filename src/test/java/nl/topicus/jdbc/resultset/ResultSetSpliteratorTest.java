@@ -0,0 +1,98 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class ResultSetSpliteratorTest {
+  private static final Type TYPE = Type.struct(StructField.of("ID", Type.int64()));
+
+  private static CloudSpannerResultSet createResultSet(long first, long last) throws SQLException {
+    List<Struct> list = new ArrayList<>();
+    for (long id = first; id <= last; id++)
+      list.add(Struct.newBuilder().set("ID").to(id).build());
+    return new CloudSpannerResultSet(Mockito.mock(CloudSpannerStatement.class),
+        ResultSets.forRows(TYPE, list), "SELECT * FROM FOO");
+  }
+
+  private static List<CloudSpannerResultSet> createPartitions(int count) throws SQLException {
+    List<CloudSpannerResultSet> res = new ArrayList<>(count);
+    for (int partition = 0; partition < count; partition++)
+      res.add(createResultSet(partition * 100L + 1L, (partition + 1) * 100L));
+    return res;
+  }
+
+  @Test
+  public void testStream() throws SQLException {
+    CloudSpannerResultSet rs = createResultSet(1L, 10L);
+    assertTrue(rs.next());
+    try (Stream<Struct> stream = rs.stream()) {
+      assertEquals(Arrays.asList(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L),
+          stream.map(row -> row.getLong(0)).collect(Collectors.toList()));
+    }
+    assertTrue(rs.isClosed());
+  }
+
+  @Test
+  public void testCloseStream() throws SQLException {
+    CloudSpannerResultSet rs = createResultSet(1L, 10L);
+    try (Stream<Struct> stream = rs.stream()) {
+      assertEquals(1L, stream.findFirst().get().getLong(0));
+    }
+    assertTrue(rs.isClosed());
+  }
+
+  @Test
+  public void testParallelStream() throws SQLException {
+    List<CloudSpannerResultSet> partitions = createPartitions(8);
+    try (Stream<Struct> stream = CloudSpannerResultSet.stream(partitions, true)) {
+      assertTrue(stream.isParallel());
+      assertEquals(800L * 801L / 2L, stream.mapToLong(row -> row.getLong(0)).sum());
+    }
+    for (CloudSpannerResultSet rs : partitions)
+      assertTrue(rs.isClosed());
+  }
+
+  @Test
+  public void testOrder() throws SQLException {
+    try (Stream<Struct> stream = CloudSpannerResultSet.stream(createPartitions(5), true)) {
+      List<Long> ids = stream.map(row -> row.getLong(0)).collect(Collectors.toList());
+      assertEquals(500, ids.size());
+      for (int i = 0; i < ids.size(); i++)
+        assertEquals(i + 1L, ids.get(i).longValue());
+    }
+  }
+
+  @Test
+  public void testSplit() throws SQLException {
+    ResultSetSpliterator spliterator = new ResultSetSpliterator(createPartitions(3));
+    assertTrue(spliterator.tryAdvance(row -> assertEquals(1L, row.getLong(0))));
+    Spliterator<Struct> prefix = spliterator.trySplit();
+    assertNotNull(prefix);
+    assertNull(prefix.trySplit());
+    List<Long> ids = new ArrayList<>();
+    prefix.forEachRemaining(row -> ids.add(row.getLong(0)));
+    assertEquals(99, ids.size());
+    assertEquals(100L, ids.get(ids.size() - 1).longValue());
+    assertTrue(spliterator.tryAdvance(row -> assertEquals(101L, row.getLong(0))));
+  }
+
+}
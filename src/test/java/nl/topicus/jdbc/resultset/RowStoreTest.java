@@ -0,0 +1,149 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.cloud.spanner.Value;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class RowStoreTest {
+  private static final Type ELEMENT_TYPE =
+      Type.struct(StructField.of("A", Type.int64()), StructField.of("B", Type.string()));
+
+  private static final Type TYPE = Type.struct(StructField.of("BOOL", Type.bool()),
+      StructField.of("INT64", Type.int64()), StructField.of("FLOAT64", Type.float64()),
+      StructField.of("STRING", Type.string()), StructField.of("BYTES", Type.bytes()),
+      StructField.of("DATE", Type.date()), StructField.of("TIMESTAMP", Type.timestamp()),
+      StructField.of("BOOL_ARRAY", Type.array(Type.bool())),
+      StructField.of("INT64_ARRAY", Type.array(Type.int64())),
+      StructField.of("FLOAT64_ARRAY", Type.array(Type.float64())),
+      StructField.of("STRING_ARRAY", Type.array(Type.string())),
+      StructField.of("BYTES_ARRAY", Type.array(Type.bytes())),
+      StructField.of("DATE_ARRAY", Type.array(Type.date())),
+      StructField.of("TIMESTAMP_ARRAY", Type.array(Type.timestamp())),
+      StructField.of("STRUCT_ARRAY", Type.array(ELEMENT_TYPE)));
+
+  private static Struct createRow(long id) {
+    return Struct.newBuilder().set("BOOL").to(id % 2 == 0).set("INT64").to(id).set("FLOAT64")
+        .to(id / 10d).set("STRING").to("Row " + id + " é中").set("BYTES")
+        .to(ByteArray.copyFrom("bytes " + id)).set("DATE").to(Date.fromYearMonthDay(2018, 1, 31))
+        .set("TIMESTAMP").to(Timestamp.ofTimeSecondsAndNanos(id * 1000L, 123456789))
+        .set("BOOL_ARRAY").toBoolArray(Arrays.asList(true, null, false)).set("INT64_ARRAY")
+        .toInt64Array(Arrays.asList(id, null)).set("FLOAT64_ARRAY")
+        .toFloat64Array(new double[] {1d, 2.5d}).set("STRING_ARRAY")
+        .toStringArray(Arrays.asList("one", null, "")).set("BYTES_ARRAY")
+        .toBytesArray(Arrays.asList(ByteArray.copyFrom("test"), null)).set("DATE_ARRAY")
+        .toDateArray(Arrays.asList(null, Date.fromYearMonthDay(2000, 12, 1)))
+        .set("TIMESTAMP_ARRAY").toTimestampArray(Arrays.asList(Timestamp.MIN_VALUE, null))
+        .set("STRUCT_ARRAY").to(Value.structArray(ELEMENT_TYPE,
+            Arrays.asList(
+                Struct.newBuilder().set("A").to(id).set("B").to((String) null).build(),
+                null)))
+        .build();
+  }
+
+  private static Struct createNullRow() {
+    return Struct.newBuilder().set("BOOL").to((Boolean) null).set("INT64").to((Long) null)
+        .set("FLOAT64").to((Double) null).set("STRING").to((String) null).set("BYTES")
+        .to((ByteArray) null).set("DATE").to((Date) null).set("TIMESTAMP").to((Timestamp) null)
+        .set("BOOL_ARRAY").toBoolArray((boolean[]) null).set("INT64_ARRAY")
+        .toInt64Array((long[]) null).set("FLOAT64_ARRAY").toFloat64Array((double[]) null)
+        .set("STRING_ARRAY").toStringArray(null).set("BYTES_ARRAY").toBytesArray(null)
+        .set("DATE_ARRAY").toDateArray(null).set("TIMESTAMP_ARRAY").toTimestampArray(null)
+        .set("STRUCT_ARRAY").to(Value.structArray(ELEMENT_TYPE, null)).build();
+  }
+
+  private static void assertRow(Struct expected, Struct actual) {
+    assertEquals(TYPE, actual.getType());
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void testStoreInMemory() throws IOException {
+    try (RowStore store = new RowStore(TYPE, 1024L * 1024L)) {
+      for (long id = 0L; id < 100L; id++)
+        store.add(createRow(id));
+      store.add(createNullRow());
+      assertEquals(101, store.size());
+      assertFalse(store.isSpilled());
+      assertRow(createNullRow(), store.get(100));
+      for (int row = 99; row >= 0; row--)
+        assertRow(createRow(row), store.get(row));
+      assertEquals(TYPE, store.get(0).getType());
+    }
+  }
+
+  @Test
+  public void testSpillToFile() throws IOException {
+    try (RowStore store = new RowStore(TYPE, 16L * 1024L)) {
+      for (long id = 0L; id < 1000L; id++)
+        store.add(createRow(id));
+      assertTrue(store.isSpilled());
+      assertEquals(1000, store.size());
+      for (int row : new int[] {999, 0, 500, 1, 998})
+        assertRow(createRow(row), store.get(row));
+      for (long id = 1000L; id < 1100L; id++)
+        store.add(createRow(id));
+      assertRow(createRow(1099L), store.get(1099));
+    }
+  }
+
+  @Test
+  public void testTemporaryFile() throws IOException {
+    File file;
+    try (RowStore store = new RowStore(TYPE, 0L)) {
+      store.add(createRow(1L));
+      file = store.getFile();
+      assertNotNull(file);
+      assertTrue(file.exists());
+      if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+        assertEquals(
+            EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+            Files.getPosixFilePermissions(file.toPath()));
+      }
+    }
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void testLargeRow() throws IOException {
+    Type type = Type.struct(StructField.of("VALUE", Type.string()));
+    char[] chars = new char[RowStore.FILE_PAGE_SIZE + 100];
+    Arrays.fill(chars, 'a');
+    String large = new String(chars);
+    try (RowStore store = new RowStore(type, 0L)) {
+      store.add(Struct.newBuilder().set("VALUE").to("small").build());
+      store.add(Struct.newBuilder().set("VALUE").to(large).build());
+      store.add(Struct.newBuilder().set("VALUE").to("small").build());
+      assertEquals("small", store.get(0).getString(0));
+      assertEquals(large, store.get(1).getString(0));
+      assertEquals("small", store.get(2).getString(0));
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testInvalidRow() throws IOException {
+    try (RowStore store = new RowStore(TYPE, 0L)) {
+      store.add(createRow(1L));
+      store.get(1);
+    }
+  }
+
+}
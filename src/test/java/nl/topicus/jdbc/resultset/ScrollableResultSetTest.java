@@ -0,0 +1,175 @@
+package nl.topicus.jdbc.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import nl.topicus.jdbc.CloudSpannerConnection;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+import nl.topicus.jdbc.statement.CloudSpannerStatement;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class ScrollableResultSetTest {
+  private static final Type TYPE =
+      Type.struct(StructField.of("ID", Type.int64()), StructField.of("NAME", Type.string()));
+
+  private static ResultSet createResultSet(int rows) {
+    List<Struct> list = new ArrayList<>(rows);
+    for (long id = 1L; id <= rows; id++)
+      list.add(Struct.newBuilder().set("ID").to(id).set("NAME").to("Row " + id).build());
+    return ResultSets.forRows(TYPE, list);
+  }
+
+  private static CloudSpannerResultSet createJdbcResultSet(ResultSet rs, long threshold,
+      int maxRows) throws SQLException {
+    CloudSpannerConnection connection = Mockito.mock(CloudSpannerConnection.class);
+    Mockito.when(connection.getScrollableResultSetMemoryThreshold()).thenReturn(threshold);
+    CloudSpannerStatement statement = Mockito.mock(CloudSpannerStatement.class);
+    Mockito.when(statement.getConnection()).thenReturn(connection);
+    Mockito.when(statement.getResultSetType())
+        .thenReturn(java.sql.ResultSet.TYPE_SCROLL_INSENSITIVE);
+    Mockito.when(statement.getMaxRows()).thenReturn(maxRows);
+    return new CloudSpannerResultSet(statement, rs, "SELECT * FROM FOO");
+  }
+
+  @Test
+  public void testScroll() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(createResultSet(10), 1024L, 0)) {
+      assertEquals(java.sql.ResultSet.TYPE_SCROLL_INSENSITIVE, rs.getType());
+      assertTrue(rs.next());
+      assertEquals(1L, rs.getLong("ID"));
+      assertTrue(rs.isFirst());
+      assertTrue(rs.absolute(5));
+      assertEquals(5, rs.getRow());
+      assertEquals("Row 5", rs.getString(2));
+      assertTrue(rs.previous());
+      assertEquals(4L, rs.getLong(1));
+      assertTrue(rs.relative(3));
+      assertEquals(7L, rs.getLong(1));
+      assertTrue(rs.next());
+      assertEquals(8L, rs.getLong(1));
+      assertTrue(rs.last());
+      assertTrue(rs.isLast());
+      assertEquals(10L, rs.getLong(1));
+      assertTrue(rs.absolute(-2));
+      assertFalse(rs.isLast());
+      assertEquals(9L, rs.getLong(1));
+      assertTrue(rs.first());
+      assertEquals(1L, rs.getLong(1));
+      assertFalse(rs.previous());
+      assertTrue(rs.isBeforeFirst());
+      assertTrue(rs.next());
+      assertEquals(1L, rs.getLong(1));
+      assertFalse(rs.absolute(11));
+      assertTrue(rs.isAfterLast());
+      assertTrue(rs.previous());
+      assertEquals(10L, rs.getLong(1));
+      rs.afterLast();
+      assertTrue(rs.isAfterLast());
+      assertFalse(rs.next());
+      rs.beforeFirst();
+      assertTrue(rs.isBeforeFirst());
+      int count = 0;
+      while (rs.next())
+        count++;
+      assertEquals(10, count);
+      assertFalse(rs.absolute(-11));
+      assertTrue(rs.isBeforeFirst());
+      assertFalse(rs.absolute(0));
+      assertTrue(rs.isBeforeFirst());
+    }
+  }
+
+  @Test
+  public void testScrollBeforeFirstNext() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(createResultSet(3), 1024L, 0)) {
+      assertTrue(rs.last());
+      assertEquals(3L, rs.getLong(1));
+      rs.beforeFirst();
+      assertTrue(rs.next());
+      assertEquals(1L, rs.getLong(1));
+    }
+    try (CloudSpannerResultSet rs = createJdbcResultSet(createResultSet(3), 1024L, 0)) {
+      assertTrue(rs.relative(2));
+      assertEquals(2L, rs.getLong(1));
+    }
+  }
+
+  @Test
+  public void testScrollSpilledRows() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(createResultSet(10000), 0L, 0)) {
+      assertTrue(rs.last());
+      assertEquals(10000, rs.getRow());
+      assertEquals("Row 10000", rs.getString("NAME"));
+      for (int row = 9999; row > 0; row -= 777) {
+        assertTrue(rs.absolute(row));
+        assertEquals(row, rs.getLong(1));
+      }
+    }
+  }
+
+  @Test
+  public void testMaxRows() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(createResultSet(10), 1024L, 4)) {
+      assertTrue(rs.last());
+      assertEquals(4L, rs.getLong(1));
+      assertFalse(rs.next());
+      assertTrue(rs.absolute(2));
+      assertEquals(2L, rs.getLong(1));
+    }
+  }
+
+  @Test
+  public void testGetRowAfterLast() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(createResultSet(3), 1024L, 0)) {
+      assertEquals(0, rs.getRow());
+      assertTrue(rs.last());
+      assertEquals(3, rs.getRow());
+      assertFalse(rs.next());
+      assertTrue(rs.isAfterLast());
+      assertEquals(0, rs.getRow());
+      assertTrue(rs.previous());
+      assertEquals(3, rs.getRow());
+      rs.afterLast();
+      assertEquals(0, rs.getRow());
+      assertFalse(rs.absolute(4));
+      assertEquals(0, rs.getRow());
+      assertTrue(rs.relative(-1));
+      assertEquals(3, rs.getRow());
+    }
+  }
+
+  @Test
+  public void testEmptyResultSet() throws SQLException {
+    try (CloudSpannerResultSet rs = createJdbcResultSet(createResultSet(0), 1024L, 0)) {
+      assertFalse(rs.first());
+      assertFalse(rs.last());
+      assertFalse(rs.next());
+      assertFalse(rs.previous());
+    }
+  }
+
+  @Test(expected = CloudSpannerSQLException.class)
+  public void testForwardOnly() throws SQLException {
+    CloudSpannerStatement statement = Mockito.mock(CloudSpannerStatement.class);
+    Mockito.when(statement.getResultSetType()).thenReturn(java.sql.ResultSet.TYPE_FORWARD_ONLY);
+    try (CloudSpannerResultSet rs =
+        new CloudSpannerResultSet(statement, createResultSet(2), "SELECT * FROM FOO")) {
+      assertEquals(java.sql.ResultSet.TYPE_FORWARD_ONLY, rs.getType());
+      assertTrue(rs.next());
+      rs.previous();
+    }
+  }
+
+}
@@ -2,17 +2,21 @@ package nl.topicus.jdbc.statement;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 import org.mockito.Mockito;
 import com.google.cloud.spanner.DatabaseClient;
+import io.grpc.Context.CancellableContext;
+import io.grpc.Deadline;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.statement.update.Update;
@@ -108,8 +112,30 @@ public class AbstractCloudSpannerStatementTest {
 
   @Test
   public void testCancel() throws SQLException {
-    thrown.expect(SQLFeatureNotSupportedException.class);
+    CancellableContext first = subject.createExecutionContext();
+    CancellableContext second = subject.createExecutionContext();
+    assertFalse(first.isCancelled());
     subject.cancel();
+    assertTrue(first.isCancelled());
+    assertTrue(second.isCancelled());
+    assertEquals(CancellationException.class, first.cancellationCause().getClass());
+    // the statement may be executed again after it has been cancelled
+    CancellableContext third = subject.createExecutionContext();
+    assertFalse(third.isCancelled());
+    subject.close();
+    assertTrue(third.isCancelled());
+  }
+
+  @Test
+  public void testQueryTimeout() throws SQLException {
+    assertNull(subject.createExecutionContext().getDeadline());
+    subject.setQueryTimeout(10);
+    Deadline deadline = subject.createExecutionContext().getDeadline();
+    assertNotNull(deadline);
+    assertTrue(deadline.timeRemaining(TimeUnit.SECONDS) <= 10L);
+    assertFalse(deadline.isExpired());
+    thrown.expect(CloudSpannerSQLException.class);
+    subject.setQueryTimeout(-1);
   }
 
   @Test
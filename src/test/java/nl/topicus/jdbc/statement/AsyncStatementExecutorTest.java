@@ -0,0 +1,163 @@
+package nl.topicus.jdbc.statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import com.google.rpc.Code;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class AsyncStatementExecutorTest {
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testMaxConcurrentRequests() throws Exception {
+    AsyncStatementExecutor async = new AsyncStatementExecutor(executor, 2);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      final int value = i;
+      futures.add(async.submit(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          release.await(5L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        return value;
+      }));
+    }
+    // Give the executor the opportunity to start more requests than allowed
+    Thread.sleep(50L);
+    assertEquals(2, async.getRunningRequests());
+    assertEquals(8, async.getQueuedRequests());
+    release.countDown();
+    for (int i = 0; i < 10; i++)
+      assertEquals(i, futures.get(i).get(5L, TimeUnit.SECONDS).intValue());
+    assertEquals(2, maxRunning.get());
+    assertEquals(0, async.getQueuedRequests());
+  }
+
+  @Test
+  public void testException() throws Exception {
+    AsyncStatementExecutor async = new AsyncStatementExecutor(executor, 1);
+    CompletableFuture<Integer> future = async.submit(() -> {
+      throw new CloudSpannerSQLException("Table not found", Code.NOT_FOUND);
+    });
+    try {
+      future.get(5L, TimeUnit.SECONDS);
+      fail("Missing expected exception");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof SQLException);
+      assertEquals(Code.NOT_FOUND, ((CloudSpannerSQLException) e.getCause()).getCode());
+    }
+    assertTrue(future.isCompletedExceptionally());
+    // The failed request must have released its slot
+    assertEquals(Integer.valueOf(1), async.submit(() -> 1).get(5L, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testRejected() throws Exception {
+    executor.shutdown();
+    AsyncStatementExecutor async = new AsyncStatementExecutor(executor, 1);
+    CompletableFuture<Integer> future = async.submit(() -> 1);
+    assertTrue(future.isCompletedExceptionally());
+    try {
+      future.get();
+      fail("Missing expected exception");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+    assertEquals(0, async.getRunningRequests());
+  }
+
+  @Test
+  public void testCancelQueuedRequest() throws Exception {
+    AsyncStatementExecutor async = new AsyncStatementExecutor(executor, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Boolean> first = async.submit(() -> {
+      try {
+        return release.await(5L, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    });
+    AtomicInteger executed = new AtomicInteger();
+    CompletableFuture<Integer> second = async.submit(executed::incrementAndGet);
+    second.cancel(false);
+    release.countDown();
+    assertTrue(first.get(5L, TimeUnit.SECONDS));
+    assertEquals(Integer.valueOf(1), async.submit(() -> 1).get(5L, TimeUnit.SECONDS));
+    assertTrue(second.isCancelled());
+    assertEquals(0, executed.get());
+  }
+
+  @Test
+  public void testSequence() throws Exception {
+    AsyncStatementExecutor async = new AsyncStatementExecutor(executor, 4);
+    Object sequence = new Object();
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Integer> order = new ArrayList<>();
+    List<CompletableFuture<Integer>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      final int value = i;
+      futures.add(async.submit(sequence, () -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          release.await(5L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        synchronized (order) {
+          order.add(value);
+        }
+        running.decrementAndGet();
+        return value;
+      }));
+    }
+    // A request that is cancelled while it waits for the sequence is never executed
+    AtomicInteger executed = new AtomicInteger();
+    CompletableFuture<Integer> cancelled = async.submit(sequence, executed::incrementAndGet);
+    cancelled.cancel(false);
+    CompletableFuture<Integer> last = async.submit(sequence, () -> 5);
+    // Requests of other sequences are not blocked
+    assertEquals(Integer.valueOf(1), async.submit(new Object(), () -> 1).get(5L, TimeUnit.SECONDS));
+    Thread.sleep(50L);
+    assertEquals(1, async.getRunningRequests());
+    release.countDown();
+    for (int i = 0; i < 5; i++)
+      assertEquals(i, futures.get(i).get(5L, TimeUnit.SECONDS).intValue());
+    assertEquals(Integer.valueOf(5), last.get(5L, TimeUnit.SECONDS));
+    assertEquals(1, maxRunning.get());
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4), order);
+    assertEquals(0, executed.get());
+  }
+
+}
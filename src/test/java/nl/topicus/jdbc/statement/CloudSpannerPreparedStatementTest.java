@@ -26,6 +26,8 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import javax.xml.bind.DatatypeConverter;
@@ -36,13 +38,16 @@ import org.junit.experimental.categories.Category;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import com.google.api.client.util.Lists;
 import com.google.cloud.ByteArray;
 import com.google.cloud.spanner.DatabaseClient;
 import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
 import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.Mutation.Op;
+import com.google.cloud.spanner.Options.ReadOption;
 import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Value;
 import com.google.rpc.Code;
@@ -55,6 +60,7 @@ import nl.topicus.jdbc.CloudSpannerConnection;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 import nl.topicus.jdbc.test.category.UnitTest;
 import nl.topicus.jdbc.test.util.CloudSpannerTestObjects;
+import nl.topicus.jdbc.transaction.CloudSpannerTransaction;
 
 @RunWith(Enclosed.class)
 @Category(UnitTest.class)
@@ -713,6 +719,25 @@ public class CloudSpannerPreparedStatementTest {
       Assert.assertEquals(0, batchMutations.size());
     }
 
+    @Test
+    public void testExecuteBatchAsync() throws Exception {
+      String sql = "INSERT INTO FOO (COL1, COL2, COL3) VALUES (?, ?, ?)";
+      CloudSpannerPreparedStatement ps = CloudSpannerTestObjects.createPreparedStatement(sql);
+      for (int i = 1; i <= 3; i++) {
+        ps.setInt(1, i);
+        ps.setString(2, String.valueOf(i));
+        ps.setBytes(3, String.valueOf(i).getBytes());
+        ps.addBatch();
+      }
+      CompletableFuture<int[]> res =
+          ps.unwrap(ICloudSpannerPreparedStatement.class).executeBatchAsync();
+      // The batch is cleared immediately and a new batch may be started
+      Assert.assertArrayEquals(new int[] {}, ps.executeBatch());
+      Assert.assertArrayEquals(new int[] {1, 1, 1}, res.get(5L, TimeUnit.SECONDS));
+      Mockito.verify(ps.getConnection().getTransaction(), Mockito.times(3))
+          .buffer(Mockito.anyListOf(Mutation.class));
+    }
+
     @Test
     public void testClearBatch() throws SQLException, NoSuchFieldException, SecurityException,
         IllegalArgumentException, IllegalAccessException {
@@ -1047,6 +1072,30 @@ public class CloudSpannerPreparedStatementTest {
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
+    @Test
+    public void testExecuteQueryAsync() throws Exception {
+      String sql = "SELECT * FROM FOO WHERE COL1<?";
+      CloudSpannerPreparedStatement ps = CloudSpannerTestObjects.createPreparedStatement(sql);
+      ps.setLong(1, 1L);
+      CompletableFuture<ResultSet> res = ps.executeQueryAsync();
+      // Changing the parameter must not affect the query that has already been submitted
+      ps.setLong(1, 2L);
+      try (ResultSet rs = res.get(5L, TimeUnit.SECONDS)) {
+        Assert.assertNotNull(rs);
+      }
+      ArgumentCaptor<com.google.cloud.spanner.Statement> captor =
+          ArgumentCaptor.forClass(com.google.cloud.spanner.Statement.class);
+      Mockito.verify(ps.getConnection().getTransaction()).executeQuery(captor.capture());
+      Assert.assertEquals(1L, captor.getValue().getParameters().get("p1").getInt64());
+    }
+
+    @Test
+    public void testExecuteQueryAsyncWithSql() throws SQLException {
+      thrown.expect(CloudSpannerSQLException.class);
+      CloudSpannerTestObjects.createPreparedStatement("SELECT * FROM FOO")
+          .executeQueryAsync("SELECT * FROM FOO");
+    }
+
     @Test
     public void testSelect1() throws SQLException {
       String sql = "SELECT 1";
@@ -1296,6 +1345,154 @@ public class CloudSpannerPreparedStatementTest {
     }
   }
 
+  public static class KeyReadTests {
+
+    @Test
+    public void testSelectSingleKey() throws SQLException {
+      CloudSpannerPreparedStatement ps =
+          CloudSpannerTestObjects.createPreparedStatement("SELECT ID, COL1 FROM FOO WHERE ID=?");
+      ps.setLong(1, 1000L);
+      try (ResultSet rs = ps.executeQuery()) {
+      }
+      assertRead(ps, "FOO", KeySet.singleKey(Key.of(1000L)), "ID", "COL1");
+    }
+
+    @Test
+    public void testSelectSingleKeyWithLiteral() throws SQLException {
+      CloudSpannerPreparedStatement ps = CloudSpannerTestObjects
+          .createPreparedStatement("SELECT FOO.ID, F.COL1 FROM FOO F WHERE (1=F.ID)");
+      try (ResultSet rs = ps.executeQuery()) {
+      }
+      assertRead(ps, "FOO", KeySet.singleKey(Key.of(1L)), "ID", "COL1");
+    }
+
+    @Test
+    public void testSelectMultipleKeys() throws SQLException {
+      CloudSpannerPreparedStatement ps = CloudSpannerTestObjects.createPreparedStatement(
+          "SELECT ID1, ID2, COL1 FROM BAR WHERE ID1 IN (?, ?) AND ID2=?");
+      ps.setInt(1, 1);
+      ps.setLong(2, 2L);
+      ps.setString(3, "test");
+      Assert.assertTrue(ps.execute());
+      assertRead(ps, "BAR", KeySet.newBuilder().addKey(Key.of(1L, "test"))
+          .addKey(Key.of(2L, "test")).build(), "ID1", "ID2", "COL1");
+    }
+
+    @Test
+    public void testSelectNotOnKey() throws SQLException {
+      assertQuery("SELECT ID FROM FOO WHERE COL1=?", 1L);
+      assertQuery("SELECT ID FROM FOO WHERE ID=? AND COL1=?", 1L, 2L);
+      assertQuery("SELECT ID1 FROM BAR WHERE ID1=?", 1L);
+      assertQuery("SELECT ID FROM FOO WHERE ID=? OR ID=?", 1L, 2L);
+      assertQuery("SELECT ID FROM FOO WHERE ID>?", 1L);
+      assertQuery("SELECT ID FROM FOO WHERE NOT ID=?", 1L);
+      assertQuery("SELECT ID FROM FOO WHERE ID=? AND ID=?", 1L, 2L);
+      assertQuery("SELECT ID FROM FOO WHERE ID IN (SELECT ID FROM BAR)");
+    }
+
+    @Test
+    public void testSelectNotSuitableForRead() throws SQLException {
+      assertQuery("SELECT * FROM FOO WHERE ID=?", 1L);
+      assertQuery("SELECT ID AS X FROM FOO WHERE ID=?", 1L);
+      assertQuery("SELECT ID + 1 FROM FOO WHERE ID=?", 1L);
+      assertQuery("SELECT DISTINCT ID FROM FOO WHERE ID=?", 1L);
+      assertQuery("SELECT ID FROM FOO WHERE ID=? ORDER BY ID", 1L);
+      assertQuery("SELECT ID FROM FOO WHERE ID=? LIMIT 1", 1L);
+      assertQuery("SELECT FOO.ID FROM FOO INNER JOIN BAR ON FOO.ID=BAR.ID1 WHERE FOO.ID=?", 1L);
+      assertQuery("SELECT BAR.ID FROM FOO WHERE ID=?", 1L);
+    }
+
+    @Test
+    public void testSelectWithInvalidKeyValue() throws SQLException {
+      assertQuery("SELECT ID FROM FOO WHERE ID=?", "1");
+      assertQuery("SELECT ID FROM FOO WHERE ID=?", (Object) null);
+      assertQuery("SELECT ID FROM FOO WHERE ID=GET_ID()");
+      assertQuery("SELECT ID1 FROM BAR WHERE ID1=1 AND ID2='it''s'");
+    }
+
+    private static void assertRead(CloudSpannerPreparedStatement ps, String table, KeySet keys,
+        String... columns) throws SQLException {
+      CloudSpannerTransaction transaction = ps.getConnection().getTransaction();
+      Mockito.verify(transaction).read(table, keys, Arrays.asList(columns));
+      Mockito.verify(transaction, Mockito.never()).executeQuery(Mockito.any());
+    }
+
+    private static void assertQuery(String sql, Object... parameters) throws SQLException {
+      CloudSpannerPreparedStatement ps = CloudSpannerTestObjects.createPreparedStatement(sql);
+      for (int index = 0; index < parameters.length; index++)
+        ps.setObject(index + 1, parameters[index]);
+      try (ResultSet rs = ps.executeQuery()) {
+      }
+      CloudSpannerTransaction transaction = ps.getConnection().getTransaction();
+      Mockito.verify(transaction).executeQuery(Mockito.any());
+      Mockito.verify(transaction, Mockito.never()).read(Mockito.any(), Mockito.any(),
+          Mockito.any());
+    }
+  }
+
+  public static class MaxRowsTests {
+
+    @Test
+    public void testLimitIsAdded() throws SQLException {
+      assertQueryWithMaxRows("SELECT * FROM FOO WHERE COL1=@p1\nLIMIT 10",
+          "SELECT * FROM FOO WHERE COL1=?", 10);
+      assertQueryWithMaxRows("SELECT * FROM FOO ORDER BY COL1 -- comment\nLIMIT 5",
+          "SELECT * FROM FOO ORDER BY COL1 -- comment", 5);
+    }
+
+    @Test
+    public void testLimitIsNotAdded() throws SQLException {
+      assertQueryWithMaxRows("SELECT * FROM FOO", "SELECT * FROM FOO", 0);
+      assertQueryWithMaxRows("SELECT * FROM FOO LIMIT 100", "SELECT * FROM FOO LIMIT 100", 10);
+      assertQueryWithMaxRows("SELECT * FROM FOO UNION ALL SELECT * FROM BAR",
+          "SELECT * FROM FOO UNION ALL SELECT * FROM BAR", 10);
+      assertQueryWithMaxRows("SELECT * FROM FOO;", "SELECT * FROM FOO;", 10);
+    }
+
+    @Test
+    public void testKeyReadWithMaxRows() throws SQLException {
+      CloudSpannerPreparedStatement ps =
+          CloudSpannerTestObjects.createPreparedStatement("SELECT ID, COL1 FROM FOO WHERE ID=?");
+      ps.setLong(1, 1L);
+      ps.setMaxRows(1);
+      CloudSpannerTransaction transaction = ps.getConnection().getTransaction();
+      Mockito.when(transaction.read(Mockito.any(), Mockito.any(), Mockito.any(),
+          Mockito.any(ReadOption.class)))
+          .thenReturn(Mockito.mock(com.google.cloud.spanner.ResultSet.class));
+      try (ResultSet rs = ps.executeQuery()) {
+      }
+      Mockito.verify(transaction).read(Mockito.eq("FOO"),
+          Mockito.eq(KeySet.singleKey(Key.of(1L))), Mockito.eq(Arrays.asList("ID", "COL1")),
+          Mockito.any(ReadOption.class));
+    }
+
+    @Test
+    public void testInvalidMaxRows() throws SQLException {
+      CloudSpannerPreparedStatement ps =
+          CloudSpannerTestObjects.createPreparedStatement("SELECT * FROM FOO");
+      try {
+        ps.setMaxRows(-1);
+        Assert.fail("Missing expected exception");
+      } catch (CloudSpannerSQLException e) {
+        Assert.assertEquals(Code.INVALID_ARGUMENT, e.getCode());
+      }
+    }
+
+    private static void assertQueryWithMaxRows(String expected, String sql, int maxRows)
+        throws SQLException {
+      CloudSpannerPreparedStatement ps = CloudSpannerTestObjects.createPreparedStatement(sql);
+      ps.setMaxRows(maxRows);
+      if (sql.contains("?"))
+        ps.setLong(1, 1L);
+      try (ResultSet rs = ps.executeQuery()) {
+      }
+      ArgumentCaptor<com.google.cloud.spanner.Statement> captor =
+          ArgumentCaptor.forClass(com.google.cloud.spanner.Statement.class);
+      Mockito.verify(ps.getConnection().getTransaction()).executeQuery(captor.capture());
+      Assert.assertEquals(expected, captor.getValue().getSql());
+    }
+  }
+
   private static void testCreateTableStatement(String sql) throws SQLException {
     boolean isDDL = isDDLStatement(sql);
     Assert.assertTrue(isDDL);
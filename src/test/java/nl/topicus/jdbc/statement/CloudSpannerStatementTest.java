@@ -11,13 +11,23 @@ import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.internal.stubbing.answers.Returns;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeyRange;
+import com.google.cloud.spanner.KeySet;
+import com.google.rpc.Code;
 import nl.topicus.jdbc.CloudSpannerConnection;
 import nl.topicus.jdbc.exception.CloudSpannerSQLException;
 import nl.topicus.jdbc.statement.CloudSpannerStatement.BatchMode;
@@ -29,6 +39,9 @@ public class CloudSpannerStatementTest {
   private static final String INSERT_SQL =
       "INSERT INTO FOO (COL1, COL2, COL3) VALUES (1, 'two', 0xaa)";
 
+  private static final String UNPARSEABLE_SQL =
+      "SELECT * FROM FOO TABLESAMPLE BERNOULLI (10 PERCENT)";
+
   private static final String[] COLUMN_NAMES = new String[] {"COL1", "COL2", "COL3"};
 
   private static final int[] COLUMN_INDICES = new int[] {1, 2, 3};
@@ -68,6 +81,31 @@ public class CloudSpannerStatementTest {
     }
   }
 
+  @Test
+  public void testSelectWithMaxRows() throws SQLException {
+    CloudSpannerConnection connection = createConnection();
+    CloudSpannerStatement statement = connection.createStatement();
+    statement.setMaxRows(10);
+    try (ResultSet rs = statement.executeQuery("SELECT * FROM FOO")) {
+    }
+    try (ResultSet rs = statement.executeQuery("SELECT * FROM FOO LIMIT 100")) {
+    }
+    // Queries that cannot be parsed are sent without a LIMIT clause
+    try (ResultSet rs = statement.executeQuery(UNPARSEABLE_SQL)) {
+    }
+    statement.setMaxRows(0);
+    try (ResultSet rs = statement.executeQuery(UNPARSEABLE_SQL)) {
+    }
+    ArgumentCaptor<com.google.cloud.spanner.Statement> captor =
+        ArgumentCaptor.forClass(com.google.cloud.spanner.Statement.class);
+    Mockito.verify(connection.getTransaction(), Mockito.times(4)).executeQuery(captor.capture());
+    Assert.assertEquals("SELECT * FROM FOO\nLIMIT 10", captor.getAllValues().get(0).getSql());
+    Assert.assertEquals("SELECT * FROM FOO LIMIT 100", captor.getAllValues().get(1).getSql());
+    Assert.assertEquals(UNPARSEABLE_SQL, captor.getAllValues().get(2).getSql());
+    Assert.assertEquals(UNPARSEABLE_SQL, captor.getAllValues().get(3).getSql());
+    Mockito.verify(connection, Mockito.times(4)).recordSuccessfulCall();
+  }
+
   @Test
   public void testInsert() throws SQLException {
     CloudSpannerConnection connection = createConnection();
@@ -84,6 +122,30 @@ public class CloudSpannerStatementTest {
     Assert.assertEquals(1, count2);
   }
 
+  @Test
+  public void testAsync() throws Exception {
+    CloudSpannerConnection connection = createConnection();
+    ICloudSpannerStatement statement =
+        connection.createStatement().unwrap(ICloudSpannerStatement.class);
+    CompletableFuture<ResultSet> query = statement.executeQueryAsync("SELECT * FROM FOO");
+    CompletableFuture<Integer> update = statement.executeUpdateAsync(INSERT_SQL);
+    try (ResultSet rs = query.get(5L, TimeUnit.SECONDS)) {
+      assertNotNull(rs);
+    }
+    assertEquals(1, update.get(5L, TimeUnit.SECONDS).intValue());
+
+    statement.addBatch(INSERT_SQL);
+    statement.addBatch(INSERT_SQL);
+    CompletableFuture<int[]> batch = statement.executeBatchAsync();
+    assertTrue(((CloudSpannerStatement) statement).getBatch().isEmpty());
+    Assert.assertArrayEquals(new int[] {1, 1}, batch.get(5L, TimeUnit.SECONDS));
+
+    statement.close();
+    thrown.expect(CloudSpannerSQLException.class);
+    thrown.expectMessage("Statement is closed");
+    statement.executeUpdateAsync(INSERT_SQL);
+  }
+
   @Test
   public void testExecuteNormalMode() throws SQLException {
     CloudSpannerConnection connection = createConnection();
@@ -302,6 +364,62 @@ public class CloudSpannerStatementTest {
     assertEquals(0, connection.getAutoBatchedDdlOperations().size());
   }
 
+  @Test
+  public void testRead() throws SQLException {
+    CloudSpannerConnection connection = createConnection();
+    CloudSpannerStatement statement = connection.createStatement();
+    try (ResultSet rs = statement.executeQuery("READ FOO KEYS 1, (2), -3 COLUMNS ID, COL1")) {
+      assertNotNull(rs);
+    }
+    Mockito.verify(connection.getTransaction()).read("FOO",
+        KeySet.newBuilder().addKey(Key.of(1L)).addKey(Key.of(2L)).addKey(Key.of(-3L)).build(),
+        Arrays.asList("ID", "COL1"));
+
+    assertTrue(statement.execute("read `BAR` keys ALL columns ID1,`ID2`"));
+    assertNotNull(statement.getResultSet());
+    Mockito.verify(connection.getTransaction()).read("BAR", KeySet.all(),
+        Arrays.asList("ID1", "ID2"));
+  }
+
+  @Test
+  public void testReadRanges() throws SQLException {
+    CloudSpannerConnection connection = createConnection();
+    CloudSpannerStatement statement = connection.createStatement();
+    try (ResultSet rs = statement.executeQuery(
+        "READ BAR USING INDEX IDX_BAR KEYS PREFIX (1), RANGE [(1, 'a'), (1, 'it''s')), "
+            + "RANGE (2.5, 1e3], (TRUE, NULL, DATE '2018-01-01', TIMESTAMP '2018-01-01T10:00:00Z') "
+            + "COLUMNS COL1")) {
+      assertNotNull(rs);
+    }
+    KeySet keys = KeySet.newBuilder().addRange(KeyRange.prefix(Key.of(1L)))
+        .addRange(KeyRange.closedOpen(Key.of(1L, "a"), Key.of(1L, "it's")))
+        .addRange(KeyRange.openClosed(Key.of(2.5D), Key.of(1000D)))
+        .addKey(Key.of(Boolean.TRUE, null, Date.fromYearMonthDay(2018, 1, 1),
+            Timestamp.parseTimestamp("2018-01-01T10:00:00Z")))
+        .build();
+    Mockito.verify(connection.getTransaction()).readUsingIndex("BAR", "IDX_BAR", keys,
+        Arrays.asList("COL1"));
+  }
+
+  @Test
+  public void testReadInvalidSyntax() throws SQLException {
+    String[] statements = new String[] {"READ", "READ FOO", "READ FOO KEYS 1",
+        "READ FOO KEYS COLUMNS ID", "READ FOO KEYS 1 COLUMNS", "READ FOO KEYS (1 COLUMNS ID",
+        "READ FOO KEYS RANGE {1, 2) COLUMNS ID", "READ FOO KEYS 'foo COLUMNS ID",
+        "READ FOO KEYS DATE 'foo' COLUMNS ID", "READ FOO KEYS 1 COLUMNS ID WHERE ID=1",
+        "READ FOO USING IDX KEYS 1 COLUMNS ID"};
+    CloudSpannerConnection connection = createConnection();
+    CloudSpannerStatement statement = connection.createStatement();
+    for (String sql : statements) {
+      try {
+        statement.executeQuery(sql);
+        Assert.fail("Missing expected exception for " + sql);
+      } catch (CloudSpannerSQLException e) {
+        assertEquals(Code.INVALID_ARGUMENT, e.getCode());
+      }
+    }
+  }
+
   @Test
   public void testGetGeneratedKeys() throws SQLException {
     CloudSpannerConnection connection = createConnection();
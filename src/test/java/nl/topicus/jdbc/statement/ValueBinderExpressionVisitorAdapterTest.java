@@ -1,12 +1,17 @@
 package nl.topicus.jdbc.statement;
 
+import static org.junit.Assert.assertEquals;
 import java.math.BigDecimal;
 import java.sql.Types;
+import java.util.Arrays;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import com.google.cloud.spanner.Mutation;
 import com.google.cloud.spanner.Mutation.WriteBuilder;
+import com.google.cloud.spanner.Value;
 import com.google.cloud.spanner.ValueBinder;
+import nl.topicus.jdbc.CloudSpannerArray;
+import nl.topicus.jdbc.CloudSpannerDataType;
 import nl.topicus.jdbc.test.category.UnitTest;
 
 @Category(UnitTest.class)
@@ -57,4 +62,31 @@ public class ValueBinderExpressionVisitorAdapterTest {
 
   }
 
+  private static Value bind(Object value) {
+    WriteBuilder builder = Mutation.newInsertBuilder("FOO");
+    new ValueBinderExpressionVisitorAdapter<>(new ParameterStore(), builder.set("COL1"), "COL1")
+        .setValue(value, Types.ARRAY);
+    return builder.build().asMap().get("COL1");
+  }
+
+  @Test
+  public void testSetPrimitiveArrays() {
+    double[] doubles = new double[] {1d, 2.5d, -3d};
+    assertEquals(Arrays.asList(1d, 2.5d, -3d), bind(doubles).getFloat64Array());
+    assertEquals(Arrays.asList(1L, 2L), bind(new long[] {1L, 2L}).getInt64Array());
+    assertEquals(Arrays.asList(1L, 2L), bind(new int[] {1, 2}).getInt64Array());
+    assertEquals(Arrays.asList(1.5d), bind(new float[] {1.5f}).getFloat64Array());
+    assertEquals(Arrays.asList(true, false), bind(new boolean[] {true, false}).getBoolArray());
+    assertEquals(Arrays.asList(1d, 2.5d, -3d),
+        bind(CloudSpannerArray.createArray(CloudSpannerDataType.FLOAT64, doubles))
+            .getFloat64Array());
+  }
+
+  @Test
+  public void testSetBoxedArraysWithNulls() {
+    assertEquals(Arrays.asList(1L, null), bind(new Long[] {1L, null}).getInt64Array());
+    assertEquals(Arrays.asList(1d, null), bind(new Double[] {1d, null}).getFloat64Array());
+    assertEquals(Arrays.asList(null, true), bind(new Boolean[] {null, true}).getBoolArray());
+  }
+
 }
@@ -0,0 +1,99 @@
+package nl.topicus.jdbc.test.integration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import com.mchange.v2.c3p0.PoolBackedDataSource;
+import nl.topicus.jdbc.CloudSpannerConnectionPool;
+import nl.topicus.jdbc.CloudSpannerConnectionPoolDataSource;
+import nl.topicus.jdbc.CloudSpannerDriver;
+
+/**
+ * Compares the borrow/return throughput of the built-in connection pool of
+ * {@link CloudSpannerConnectionPoolDataSource} with c3p0 backed by the same
+ * {@link javax.sql.ConnectionPoolDataSource}. The benchmark only borrows and returns connections
+ * and does not execute any statements, so it does not need a Cloud Spanner database. Run the main
+ * method with the number of threads and the number of borrows per thread as optional arguments.
+ *
+ * @author loite
+ *
+ */
+public class ConnectionPoolBenchmark {
+  private static final int POOL_SIZE = 10;
+
+  private static final int WARMUP_ITERATIONS = 10_000;
+
+  private ConnectionPoolBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+    CloudSpannerConnectionPoolDataSource dataSource = createDataSource();
+    CloudSpannerConnectionPool builtIn = dataSource.getConnectionPool();
+    PoolBackedDataSource c3p0 = new PoolBackedDataSource();
+    c3p0.setConnectionPoolDataSource(dataSource);
+    try {
+      run(builtIn, threads, WARMUP_ITERATIONS);
+      run(c3p0, threads, WARMUP_ITERATIONS);
+      report("built-in", run(builtIn, threads, iterations), threads, iterations);
+      report("c3p0", run(c3p0, threads, iterations), threads, iterations);
+    } finally {
+      dataSource.closeConnectionPool();
+      c3p0.close();
+      CloudSpannerDriver.getDriver().closeSpanner();
+    }
+  }
+
+  private static CloudSpannerConnectionPoolDataSource createDataSource() {
+    CloudSpannerConnectionPoolDataSource res = new CloudSpannerConnectionPoolDataSource();
+    res.setProjectId("benchmark-project");
+    res.setInstanceId("benchmark-instance");
+    res.setDatabase("benchmark");
+    res.setOauthAccessToken("BENCHMARK");
+    res.setMinPoolSize(POOL_SIZE);
+    res.setMaxPoolSize(POOL_SIZE);
+    return res;
+  }
+
+  private static long run(DataSource pool, int threads, int iterations) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Callable<Void>> tasks = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        tasks.add(() -> {
+          for (int n = 0; n < iterations; n++)
+            borrowAndReturn(pool);
+          return null;
+        });
+      }
+      long start = System.nanoTime();
+      for (Future<Void> future : executor.invokeAll(tasks))
+        future.get();
+      return System.nanoTime() - start;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void borrowAndReturn(DataSource pool) throws SQLException {
+    try (Connection connection = pool.getConnection()) {
+      connection.getAutoCommit();
+    }
+  }
+
+  private static void report(String name, long nanos, int threads, int iterations) {
+    long operations = (long) threads * iterations;
+    double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1L);
+    System.out.println(String.format("%-10s %,d borrows in %.2fs: %,.0f borrows/s, %.2f us/borrow",
+        name, operations, seconds, operations / seconds, nanos / 1000d / operations));
+  }
+
+}
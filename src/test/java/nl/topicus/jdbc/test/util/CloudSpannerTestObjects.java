@@ -41,12 +41,18 @@ public class CloudSpannerTestObjects {
     CloudSpannerTransaction transaction = Mockito.mock(CloudSpannerTransaction.class);
     Mockito.when(transaction.executeQuery(Mockito.any()))
         .thenReturn(Mockito.mock(com.google.cloud.spanner.ResultSet.class));
+    Mockito.when(transaction.read(Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(Mockito.mock(com.google.cloud.spanner.ResultSet.class));
+    Mockito.when(
+        transaction.readUsingIndex(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+        .thenReturn(Mockito.mock(com.google.cloud.spanner.ResultSet.class));
     Mockito.when(transaction.partitionQuery(Mockito.any(), Mockito.any())).thenReturn(
         Arrays.asList(mock(Partition.class), mock(Partition.class), mock(Partition.class)));
     Mockito.when(connection.getTransaction()).thenReturn(transaction);
 
     TableKeyMetaData tableFoo = Mockito.mock(TableKeyMetaData.class);
     Mockito.when(tableFoo.getKeyColumns()).thenAnswer(new Returns(Arrays.asList("ID")));
+    Mockito.when(tableFoo.getKeyColumnTypes()).thenAnswer(new Returns(Arrays.asList(Types.BIGINT)));
     Mockito
         .when(connection.getTable(Mockito
             .matches(Pattern.compile("FOO", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE))))
@@ -54,6 +60,8 @@ public class CloudSpannerTestObjects {
 
     TableKeyMetaData tableBar = Mockito.mock(TableKeyMetaData.class);
     Mockito.when(tableBar.getKeyColumns()).thenAnswer(new Returns(Arrays.asList("ID1", "ID2")));
+    Mockito.when(tableBar.getKeyColumnTypes())
+        .thenAnswer(new Returns(Arrays.asList(Types.BIGINT, Types.NVARCHAR)));
     Mockito
         .when(connection.getTable(Mockito
             .matches(Pattern.compile("BAR", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE))))
@@ -121,6 +129,7 @@ public class CloudSpannerTestObjects {
           public ResultSet answer(InvocationOnMock invocation) throws Throwable {
             CloudSpannerResultSet fooColumns = Mockito.mock(CloudSpannerResultSet.class);
             Mockito.when(fooColumns.next()).thenReturn(true, true, true, false);
+            Mockito.when(fooColumns.getString("TABLE_NAME")).thenReturn("FOO");
             Mockito.when(fooColumns.getString("COLUMN_NAME")).thenReturn("ID", "COL1", "COL2");
             Mockito.when(fooColumns.getInt("COLUMN_SIZE")).thenReturn(8, 50, 100);
             Mockito.when(fooColumns.getInt("DATA_TYPE")).thenReturn(Types.BIGINT, Types.NVARCHAR,
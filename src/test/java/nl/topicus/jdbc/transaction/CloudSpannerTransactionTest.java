@@ -1,9 +1,25 @@
 package nl.topicus.jdbc.transaction;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.PartitionOptions;
+import com.google.cloud.spanner.ReadOnlyTransaction;
+import com.google.cloud.spanner.ResultSets;
 import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
 import nl.topicus.jdbc.CloudSpannerConnection;
 import nl.topicus.jdbc.test.category.UnitTest;
 import nl.topicus.jdbc.test.util.CloudSpannerTestObjects;
@@ -43,6 +59,53 @@ public class CloudSpannerTransactionTest {
     }
   }
 
+  @Test
+  public void testReadRowInReadOnlyTransaction() throws SQLException {
+    CloudSpannerConnection connection = CloudSpannerTestObjects.createConnection();
+    connection.setReadOnly(true);
+    DatabaseClient dbClient = Mockito.mock(DatabaseClient.class);
+    ReadOnlyTransaction readOnlyTransaction = Mockito.mock(ReadOnlyTransaction.class);
+    Mockito.when(dbClient.readOnlyTransaction()).thenReturn(readOnlyTransaction);
+    Struct row = Struct.newBuilder().set("ID").to(1L).build();
+    Type type = Type.struct(StructField.of("ID", Type.int64()));
+    Mockito.when(readOnlyTransaction.read("FOO", KeySet.singleKey(Key.of(1L)), Arrays.asList("ID")))
+        .thenReturn(ResultSets.forRows(type, Arrays.asList(row)));
+    Mockito
+        .when(readOnlyTransaction.readUsingIndex("FOO", "IDX", KeySet.singleKey(Key.of(2L)),
+            Arrays.asList("ID")))
+        .thenReturn(ResultSets.forRows(type, Collections.emptyList()));
+    Mockito
+        .when(readOnlyTransaction.readUsingIndex("FOO", "IDX", KeySet.singleKey(Key.of(3L)),
+            Arrays.asList("ID")))
+        .thenReturn(ResultSets.forRows(type, Arrays.asList(row, row)));
+    try (CloudSpannerTransaction tx = new CloudSpannerTransaction(dbClient, null, connection)) {
+      assertEquals(row, tx.readRow("FOO", Key.of(1L), Arrays.asList("ID")));
+      assertNull(tx.readRowUsingIndex("FOO", "IDX", Key.of(2L), Arrays.asList("ID")));
+      try {
+        tx.readRowUsingIndex("FOO", "IDX", Key.of(3L), Arrays.asList("ID"));
+        fail("Missing expected exception");
+      } catch (SpannerException e) {
+        assertEquals(ErrorCode.INTERNAL, e.getErrorCode());
+      }
+    }
+  }
+
+  @Test
+  public void testPartitionReadNotInBatchReadOnly() throws SQLException {
+    CloudSpannerConnection connection = CloudSpannerTestObjects.createConnection();
+    connection.setReadOnly(true);
+    DatabaseClient dbClient = Mockito.mock(DatabaseClient.class);
+    Mockito.when(dbClient.readOnlyTransaction())
+        .thenReturn(Mockito.mock(ReadOnlyTransaction.class));
+    try (CloudSpannerTransaction tx = new CloudSpannerTransaction(dbClient, null, connection)) {
+      tx.partitionRead(PartitionOptions.getDefaultInstance(), "FOO", KeySet.all(),
+          Arrays.asList("ID"));
+      fail("Missing expected exception");
+    } catch (SpannerException e) {
+      assertEquals(ErrorCode.FAILED_PRECONDITION, e.getErrorCode());
+    }
+  }
+
   @Test(expected = SpannerException.class)
   public void testAnalyzeQuery() throws SQLException {
     CloudSpannerConnection connection = CloudSpannerTestObjects.createConnection();
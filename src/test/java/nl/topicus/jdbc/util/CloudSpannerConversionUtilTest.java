@@ -8,6 +8,10 @@ import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
@@ -52,6 +56,94 @@ public class CloudSpannerConversionUtilTest {
         .toSqlDate(com.google.cloud.Date.fromYearMonthDay(1970, 1, 1), cal1));
   }
 
+  @Test
+  public void testToEpochDay() {
+    for (LocalDate date = LocalDate.of(-1000, 1, 1); date.getYear() < 3000; date =
+        date.plusDays(17)) {
+      assertEquals(date.toString(), date.toEpochDay(), CloudSpannerConversionUtil
+          .toEpochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+    }
+  }
+
+  /**
+   * The dates that are calculated with epoch day arithmetic must be equal to the dates that are
+   * calculated by {@link Calendar}, also around daylight saving time transitions. Sao Paulo used
+   * to switch to daylight saving time at midnight, which means that some dates started at 01:00.
+   */
+  @Test
+  public void testToSqlDateTimeZones() {
+    for (String id : new String[] {"GMT", "Europe/Amsterdam", "America/Sao_Paulo",
+        "America/Los_Angeles", "Asia/Kolkata", "Pacific/Apia"}) {
+      TimeZone zone = TimeZone.getTimeZone(id);
+      Calendar cal = Calendar.getInstance(zone);
+      for (LocalDate date = LocalDate.of(1900, 1, 1); date.getYear() < 2040; date =
+          date.plusDays(1)) {
+        cal.clear();
+        cal.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth(), 0, 0, 0);
+        com.google.cloud.Date cloudDate = CloudSpannerConversionUtil.toCloudSpannerDate(date);
+        Date sqlDate = CloudSpannerConversionUtil.toSqlDate(cloudDate, zone);
+        assertEquals(id + " " + date, cal.getTimeInMillis(), sqlDate.getTime());
+        // Apia skipped 2011-12-30, which means that not all dates can be converted back
+        cal.setTimeInMillis(sqlDate.getTime());
+        assertEquals(
+            com.google.cloud.Date.fromYearMonthDay(cal.get(Calendar.YEAR),
+                cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH)),
+            CloudSpannerConversionUtil.toCloudSpannerDate(sqlDate, zone));
+      }
+    }
+  }
+
+  @Test
+  public void testToSqlDateBeforeGregorianCalendar() {
+    TimeZone zone = TimeZone.getTimeZone("Europe/Amsterdam");
+    for (com.google.cloud.Date date : new com.google.cloud.Date[] {
+        com.google.cloud.Date.fromYearMonthDay(1, 1, 1),
+        com.google.cloud.Date.fromYearMonthDay(1000, 2, 28),
+        com.google.cloud.Date.fromYearMonthDay(1582, 10, 15),
+        com.google.cloud.Date.fromYearMonthDay(1582, 12, 31),
+        com.google.cloud.Date.fromYearMonthDay(1583, 1, 1)}) {
+      Calendar cal = Calendar.getInstance(zone);
+      cal.clear();
+      cal.set(date.getYear(), date.getMonth() - 1, date.getDayOfMonth(), 0, 0, 0);
+      Date sqlDate = CloudSpannerConversionUtil.toSqlDate(date, zone);
+      assertEquals(date.toString(), cal.getTimeInMillis(), sqlDate.getTime());
+      assertEquals(date, CloudSpannerConversionUtil.toCloudSpannerDate(sqlDate, zone));
+    }
+  }
+
+  @Test
+  public void testToSqlDateDoesNotModifyCalendar() {
+    Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+    cal.setTimeInMillis(123456789L);
+    CloudSpannerConversionUtil.toSqlDate(com.google.cloud.Date.fromYearMonthDay(2000, 1, 1), cal);
+    assertEquals(123456789L, cal.getTimeInMillis());
+  }
+
+  @Test
+  public void testJavaTime() throws SQLException {
+    com.google.cloud.Timestamp ts =
+        com.google.cloud.Timestamp.parseTimestamp("2000-01-01T13:15:10.123456789Z");
+    Instant instant = Instant.parse("2000-01-01T13:15:10.123456789Z");
+    assertEquals(instant, CloudSpannerConversionUtil.toInstant(ts));
+    assertEquals(ts, CloudSpannerConversionUtil.toCloudSpannerTimestamp(instant));
+    assertEquals(LocalDate.of(2000, 2, 29), CloudSpannerConversionUtil
+        .toLocalDate(com.google.cloud.Date.fromYearMonthDay(2000, 2, 29)));
+
+    assertEquals(instant,
+        CloudSpannerConversionUtil.convert(ts.toSqlTimestamp(), Type.timestamp(), Instant.class));
+    assertEquals(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC), CloudSpannerConversionUtil
+        .convert(ts.toSqlTimestamp(), Type.timestamp(), OffsetDateTime.class));
+    assertEquals(instant, CloudSpannerConversionUtil.convert("2000-01-01T13:15:10.123456789Z",
+        Type.string(), Instant.class));
+    assertEquals(LocalDate.of(2000, 2, 29),
+        CloudSpannerConversionUtil.convert(
+            CloudSpannerConversionUtil
+                .toSqlDate(com.google.cloud.Date.fromYearMonthDay(2000, 2, 29)),
+            Type.date(), LocalDate.class));
+    assertEquals(LocalDate.of(2000, 2, 29),
+        CloudSpannerConversionUtil.convert("2000-02-29", Type.string(), LocalDate.class));
+  }
+
   @SuppressWarnings("deprecation")
   @Test
   public void testToCloudSpannerDate() {
@@ -0,0 +1,132 @@
+package nl.topicus.jdbc.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.BatchTransactionId;
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Partition;
+import com.google.cloud.spanner.PartitionOptions;
+import com.google.cloud.spanner.Statement;
+import com.google.protobuf.ByteString;
+import nl.topicus.jdbc.exception.CloudSpannerSQLException;
+import nl.topicus.jdbc.test.category.UnitTest;
+
+@Category(UnitTest.class)
+public class CloudSpannerSerializationUtilTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  public static BatchTransactionId createBatchTransactionId(String sessionId)
+      throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+      InvocationTargetException {
+    Constructor<BatchTransactionId> constructor = BatchTransactionId.class
+        .getDeclaredConstructor(String.class, ByteString.class, Timestamp.class);
+    constructor.setAccessible(true);
+    return constructor.newInstance(sessionId, ByteString.copyFromUtf8("tx-" + sessionId),
+        Timestamp.ofTimeSecondsAndNanos(1000L, 0));
+  }
+
+  public static Partition createQueryPartition(String token, String sql)
+      throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+    Method method = Partition.class.getDeclaredMethod("createQueryPartition", ByteString.class,
+        PartitionOptions.class, Statement.class, Options.class);
+    method.setAccessible(true);
+    return (Partition) method.invoke(null, ByteString.copyFromUtf8(token),
+        PartitionOptions.getDefaultInstance(), Statement.of(sql), null);
+  }
+
+  @Test
+  public void testSerializeBatchTransactionId() throws Exception {
+    BatchTransactionId id = createBatchTransactionId("session1");
+    String serialized = CloudSpannerSerializationUtil.serializeBatchTransactionId(id);
+    assertFalse(serialized.contains("="));
+    assertEquals(id, CloudSpannerSerializationUtil.deserializeBatchTransactionId(serialized));
+  }
+
+  @Test
+  public void testSerializePartition() throws Exception {
+    Partition partition = createQueryPartition("token1", "SELECT * FROM FOO WHERE ID=1");
+    String serialized = CloudSpannerSerializationUtil.serializePartition(partition);
+    assertFalse(serialized.contains("="));
+    assertEquals(partition, CloudSpannerSerializationUtil.deserializePartition(serialized));
+  }
+
+  @Test
+  public void testSerializePartitionWithParameters() throws Exception {
+    Method method = Partition.class.getDeclaredMethod("createQueryPartition", ByteString.class,
+        PartitionOptions.class, Statement.class, Options.class);
+    method.setAccessible(true);
+    Statement statement = Statement.newBuilder("SELECT * FROM FOO WHERE ID=@p1").bind("p1")
+        .to(1L).bind("p2").to("test").bind("p3").to(ByteArray.copyFrom("test")).bind("p4")
+        .to(Timestamp.ofTimeSecondsAndNanos(1000L, 0)).bind("p5")
+        .to(Date.fromYearMonthDay(2018, 1, 1)).bind("p6").toInt64Array(new long[] {1L, 2L})
+        .bind("p7").toStringArray(Arrays.asList("test", null)).bind("p8").to((String) null)
+        .build();
+    Partition partition = (Partition) method.invoke(null, ByteString.copyFromUtf8("token1"),
+        PartitionOptions.getDefaultInstance(), statement, null);
+    String serialized = CloudSpannerSerializationUtil.serializePartition(partition);
+    assertEquals(partition, CloudSpannerSerializationUtil.deserializePartition(serialized));
+  }
+
+  @Test
+  public void testDeserializeNotAllowedClass() throws Exception {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream stream = new ObjectOutputStream(bos)) {
+      stream.writeObject(new HashMap<String, String>());
+    }
+    String serialized = Base64.getUrlEncoder().encodeToString(bos.toByteArray());
+    try {
+      CloudSpannerSerializationUtil.deserializePartition(serialized);
+      fail("Missing expected exception");
+    } catch (CloudSpannerSQLException e) {
+      assertEquals("Could not deserialize partition", e.getMessage());
+      assertTrue(e.getCause() instanceof InvalidClassException);
+    }
+  }
+
+  @Test
+  public void testIsAllowed() {
+    assertTrue(CloudSpannerSerializationUtil.isAllowed("com.google.cloud.spanner.Partition"));
+    assertTrue(
+        CloudSpannerSerializationUtil.isAllowed("com.google.cloud.spanner.Value$Int64Impl"));
+    assertFalse(CloudSpannerSerializationUtil.isAllowed("java.util.HashMap"));
+    assertFalse(CloudSpannerSerializationUtil.isAllowed("com.google.cloud.spanner.SpannerImpl"));
+    assertFalse(CloudSpannerSerializationUtil.isAllowed("$Value"));
+  }
+
+  @Test
+  public void testDeserializeInvalidValue() throws SQLException {
+    thrown.expect(CloudSpannerSQLException.class);
+    thrown.expectMessage("Could not deserialize partition");
+    CloudSpannerSerializationUtil.deserializePartition("not a partition");
+  }
+
+  @Test
+  public void testDeserializeWrongType() throws Exception {
+    String serialized = CloudSpannerSerializationUtil
+        .serializePartition(createQueryPartition("token1", "SELECT * FROM FOO"));
+    thrown.expect(CloudSpannerSQLException.class);
+    thrown.expectMessage("Value is not a valid batch transaction id");
+    CloudSpannerSerializationUtil.deserializeBatchTransactionId(serialized);
+  }
+
+}